@@ -2,8 +2,9 @@
 
 precision mediump float;
 
-in vec3 vertex; //attribute
+in vec2 vertex; //attribute
 in vec2 texcoord; //attribute
+in float vertexHeight; //attribute
 in float color; //attribute
 
 uniform mat4 globalTransform;
@@ -14,10 +15,11 @@ out float frag_color;
 out vec2 frag_texcoord;
 
 void main() {
-	vec4 transformed = height * vec4(vertex, 1);
+	vec4 transformed = height * vec4(vertex, vertexHeight, 1);
 	transformed.z = -.1;
 	gl_Position = projection * globalTransform * transformed;
 
-	frag_color = color;
+	// the shade is stored as 0..1 for 0..2
+	frag_color = color * 2.0;
 	frag_texcoord = texcoord;
 }
@@ -253,7 +253,7 @@ public class GLESDrawContext extends GLDrawContext {
 		BufferHandle vertexBuffer = new BufferHandle(this, genBuffer());
 
 		bindGeometry(vertexBuffer);
-		glBufferData(GL_ARRAY_BUFFER, (vertices*6*4), null, GL_DYNAMIC_DRAW);
+		glBufferData(GL_ARRAY_BUFFER, vertices*BackgroundDrawHandle.BYTES_PER_VERTEX, null, GL_DYNAMIC_DRAW);
 
 		BackgroundDrawHandle handle = new BackgroundDrawHandle(this, vao, texture, vertexBuffer);
 
@@ -312,11 +312,13 @@ public class GLESDrawContext extends GLDrawContext {
 		glEnableVertexAttribArray(0);
 		glEnableVertexAttribArray(1);
 		glEnableVertexAttribArray(2);
+		glEnableVertexAttribArray(3);
 
 		bindGeometry(dh.vertices);
-		glVertexAttribPointer(0, 3, GL_FLOAT, false, 6 * 4, 0);
-		glVertexAttribPointer(1, 2, GL_FLOAT, false, 6 * 4, 3 * 4);
-		glVertexAttribPointer(2, 1, GL_FLOAT, false, 6 * 4, 5 * 4);
+		glVertexAttribPointer(0, 2, GL_SHORT, false, BackgroundDrawHandle.BYTES_PER_VERTEX, 0);
+		glVertexAttribPointer(1, 2, GL_UNSIGNED_SHORT, true, BackgroundDrawHandle.BYTES_PER_VERTEX, 2 * 2);
+		glVertexAttribPointer(2, 1, GL_BYTE, false, BackgroundDrawHandle.BYTES_PER_VERTEX, 4 * 2);
+		glVertexAttribPointer(3, 1, GL_UNSIGNED_BYTE, true, BackgroundDrawHandle.BYTES_PER_VERTEX, 4 * 2 + 1);
 	}
 
 	private void fillUnifiedFormat(UnifiedDrawHandle uh) {
@@ -351,7 +353,7 @@ public class GLESDrawContext extends GLDrawContext {
 		glVertexAttribPointer(3, 3, GL_FLOAT, false, 12*4, 9*4);
 	}
 
-	private boolean[] vertArrays = new boolean[3];
+	private boolean[] vertArrays = new boolean[4];
 
 	private void enableVertArrays(boolean... vertArrays) {
 		for(int i = 0;i != vertArrays.length; i++) {
@@ -383,7 +385,7 @@ public class GLESDrawContext extends GLDrawContext {
 		if(call.getVertexArrayId() != -1) {
 			bindFormat(call.getVertexArrayId());
 		} else {
-			enableVertArrays(true, call.texture!=null, false);
+			enableVertArrays(true, call.texture!=null, false, false);
 			fillUnifiedFormat(call);
 		}
 
@@ -423,7 +425,7 @@ public class GLESDrawContext extends GLDrawContext {
 		if(call.getVertexArrayId() != -1) {
 			bindFormat(call.getVertexArrayId());
 		} else {
-			enableVertArrays(true, call.texture!=null, false);
+			enableVertArrays(true, call.texture!=null, false, false);
 			fillUnifiedFormat(call);
 		}
 
@@ -462,7 +464,7 @@ public class GLESDrawContext extends GLDrawContext {
 		if(handle.getVertexArrayId() != -1) {
 			bindFormat(handle.getVertexArrayId());
 		} else {
-			enableVertArrays(true, true, true);
+			enableVertArrays(true, true, true, true);
 			fillBackgroundFormat(handle);
 		}
 
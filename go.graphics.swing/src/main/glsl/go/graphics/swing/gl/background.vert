@@ -2,8 +2,9 @@
 
 precision mediump float;
 
-attribute vec3 vertex;
+attribute vec2 vertex;
 attribute vec2 texcoord;
+attribute float vertexHeight;
 attribute float color;
 
 uniform mat4 globalTransform;
@@ -14,10 +15,11 @@ varying float frag_color;
 varying vec2 frag_texcoord;
 
 void main() {
-	vec4 transformed = height * vec4(vertex, 1);
+	vec4 transformed = height * vec4(vertex, vertexHeight, 1);
 	transformed.z = -.1;
 	gl_Position = projection * globalTransform * transformed;
 
-	frag_color = color;
+	// the shade is stored as 0..1 for 0..2
+	frag_color = color * 2.0;
 	frag_texcoord = texcoord;
 }
@@ -1,9 +1,10 @@
 #version 450
 #extension GL_ARB_separate_shader_objects : enable
 
-layout(location=0) in vec3 vertex;
+layout(location=0) in ivec2 vertex;
 layout(location=1) in vec2 texcoord;
-layout(location=2) in float color;
+layout(location=2) in int vertexHeight;
+layout(location=3) in float color;
 
 
 layout(constant_id=0) const int MAX_GLOBALTRANS_COUNT = 4;
@@ -25,11 +26,12 @@ layout (location=0) out float frag_color;
 layout (location=1) out vec2 frag_texcoord;
 
 void main() {
-	vec4 transformed = background.height * vec4(vertex, 1);
+	vec4 transformed = background.height * vec4(vec2(vertex), float(vertexHeight), 1);
 	transformed.z = -.1;
 
 	gl_Position = global.projection * global.globalTrans[local.globalTransIndex] * transformed;
 
-	frag_color = color;
+	// the shade is stored as 0..1 for 0..2
+	frag_color = color * 2.0;
 	frag_texcoord = texcoord;
 }
\ No newline at end of file
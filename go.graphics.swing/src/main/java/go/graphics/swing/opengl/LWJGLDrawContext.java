@@ -221,7 +221,7 @@ public class LWJGLDrawContext extends GLDrawContext {
 
 		bindGeometry(vertexBuffer);
 		setObjectLabel(KHRDebug.GL_BUFFER, vertexBuffer.getBufferId(), "background");
-		glBufferData(GL_ARRAY_BUFFER, vertices*6*4, GL_DYNAMIC_DRAW);
+		glBufferData(GL_ARRAY_BUFFER, vertices*BackgroundDrawHandle.BYTES_PER_VERTEX, GL_DYNAMIC_DRAW);
 
 
 		BackgroundDrawHandle handle = new BackgroundDrawHandle(this, vao, texture, vertexBuffer);
@@ -291,11 +291,13 @@ public class LWJGLDrawContext extends GLDrawContext {
 		glEnableVertexAttribArray(0);
 		glEnableVertexAttribArray(1);
 		glEnableVertexAttribArray(2);
+		glEnableVertexAttribArray(3);
 
 		bindGeometry(dh.vertices);
-		glVertexAttribPointer(0, 3, GL_FLOAT, false, 6 * 4, 0);
-		glVertexAttribPointer(1, 2, GL_FLOAT, false, 6 * 4, 3 * 4);
-		glVertexAttribPointer(2, 1, GL_FLOAT, false, 6 * 4, 5 * 4);
+		glVertexAttribPointer(0, 2, GL_SHORT, false, BackgroundDrawHandle.BYTES_PER_VERTEX, 0);
+		glVertexAttribPointer(1, 2, GL_UNSIGNED_SHORT, true, BackgroundDrawHandle.BYTES_PER_VERTEX, 2 * 2);
+		glVertexAttribPointer(2, 1, GL_BYTE, false, BackgroundDrawHandle.BYTES_PER_VERTEX, 4 * 2);
+		glVertexAttribPointer(3, 1, GL_UNSIGNED_BYTE, true, BackgroundDrawHandle.BYTES_PER_VERTEX, 4 * 2 + 1);
 	}
 
 	private void fillUnifiedFormat(UnifiedDrawHandle uh) {
@@ -449,7 +451,7 @@ public class LWJGLDrawContext extends GLDrawContext {
 		if(handle.getVertexArrayId() != -1) {
 			bindFormat(handle.getVertexArrayId());
 		} else {
-			enableVertArrays(true, true, true, false);
+			enableVertArrays(true, true, true, true);
 			fillBackgroundFormat(handle);
 		}
 
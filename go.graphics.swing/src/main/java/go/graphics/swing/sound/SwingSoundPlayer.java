@@ -122,6 +122,12 @@ public class SwingSoundPlayer implements SoundPlayer {
 		this.soundDataRetriever = soundDataRetriever;
 	}
 
+	@Override
+	public boolean keepsSoundData() {
+		// every sound keeps its OpenAL buffer until the player is closed
+		return true;
+	}
+
 	@Override
 	public SoundHandle openSound(File musicFile) {
 		try {
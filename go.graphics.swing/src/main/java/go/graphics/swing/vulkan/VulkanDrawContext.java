@@ -699,7 +699,7 @@ public class VulkanDrawContext extends GLDrawContext implements VkDrawContext {
 
 	@Override
 	public BackgroundDrawHandle createBackgroundDrawCall(int vertices, TextureHandle texture) {
-		AbstractVulkanBuffer vertexBfr = memoryManager.createBuffer(vertices*6*4, EVulkanMemoryType.STATIC, EVulkanBufferUsage.VERTEX_BUFFER);
+		AbstractVulkanBuffer vertexBfr = memoryManager.createBuffer(vertices*BackgroundDrawHandle.BYTES_PER_VERTEX, EVulkanMemoryType.STATIC, EVulkanBufferUsage.VERTEX_BUFFER);
 		return new BackgroundDrawHandle(this, -1, texture, vertexBfr);
 	}
 
@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 import java.nio.LongBuffer;
 import java.util.Arrays;
 
+import go.graphics.BackgroundDrawHandle;
 import go.graphics.EPrimitiveType;
 
 import static org.lwjgl.vulkan.VK10.*;
@@ -205,12 +206,13 @@ public abstract class VulkanPipeline {
 		@Override
 		protected VkPipelineVertexInputStateCreateInfo getVertexInputState(MemoryStack stack) {
 			VkVertexInputBindingDescription.Buffer bindings = VkVertexInputBindingDescription.calloc(1, stack);
-			bindings.get(0).set(0, 6*4, VK_VERTEX_INPUT_RATE_VERTEX);
+			bindings.get(0).set(0, BackgroundDrawHandle.BYTES_PER_VERTEX, VK_VERTEX_INPUT_RATE_VERTEX);
 
-			VkVertexInputAttributeDescription.Buffer attributes = VkVertexInputAttributeDescription.calloc(3, stack);
-			attributes.get(0).set(0, 0, VK_FORMAT_R32G32B32_SFLOAT, 0);
-			attributes.get(1).set(1, 0, VK_FORMAT_R32G32_SFLOAT, 3*4);
-			attributes.get(2).set(2, 0, VK_FORMAT_R32_SFLOAT, 5*4);
+			VkVertexInputAttributeDescription.Buffer attributes = VkVertexInputAttributeDescription.calloc(4, stack);
+			attributes.get(0).set(0, 0, VK_FORMAT_R16G16_SINT, 0);
+			attributes.get(1).set(1, 0, VK_FORMAT_R16G16_UNORM, 2*2);
+			attributes.get(2).set(2, 0, VK_FORMAT_R8_SINT, 4*2);
+			attributes.get(3).set(3, 0, VK_FORMAT_R8_UNORM, 4*2+1);
 
 			return VkPipelineVertexInputStateCreateInfo.calloc(stack)
 					.sType(VK_STRUCTURE_TYPE_PIPELINE_VERTEX_INPUT_STATE_CREATE_INFO)
@@ -15,6 +15,13 @@ public class AdvancedUpdateBufferCache {
 	private final BitSet[] updated;
 	private final int line_width;
 
+	/**
+	 * Dirty regions closer than this number of steps are uploaded together. Uploading a few unchanged steps is cheaper than an additional upload call.
+	 */
+	private static final int MERGE_GAP = 16;
+	private int pendingStart = -1;
+	private int pendingEnd;
+
 	public AdvancedUpdateBufferCache(Supplier<ByteBuffer> buffer, int bfr_data_steps, Supplier<GLDrawContext> ctx_supp, Supplier<BufferHandle> bfr_supp, int line_width) {
 		this.bfr_data_steps = bfr_data_steps;
 		this.line_width = line_width;
@@ -78,13 +85,28 @@ public class AdvancedUpdateBufferCache {
 			realBuffer.position(0);
 			realBuffer.limit(realBuffer.capacity());
 			if(start.size() > 0) {
+				EFramePhase previousPhase = dc.getProfiler().enter(EFramePhase.UPLOADS);
 				((VkDrawContext) dc).updateBufferAt(bfr_supp.get(), start, size, realBuffer);
+				dc.getProfiler().enter(previousPhase);
 			}
 		} else {
 			for(int i = 0; i != updated.length; i++) clearCacheRegion(i, 0, line_width);
+			flush();
 		}
 	}
 
+	/**
+	 * Uploads the region collected by {@link #clearCacheRegion(int, int, int)} calls. Regions of consecutive calls are merged into one upload
+	 * if they are (almost) adjacent in the buffer, so this has to be called after the last call of a frame.
+	 */
+	public void flush() throws IllegalBufferException {
+		if(pendingStart == -1) return;
+
+		int start = pendingStart;
+		pendingStart = -1;
+		updateRegion(start, pendingEnd);
+	}
+
 	public void clearCacheRegion(int line, int start, int end) throws IllegalBufferException {
 		synchronized (updated[line]) {
 			int urEnd = start;
@@ -93,20 +115,31 @@ public class AdvancedUpdateBufferCache {
 				if (urStart > end || urStart == -1) return;
 				urEnd = updated[line].nextClearBit(urStart);
 				if (urEnd > end || urEnd == -1) urEnd = end;
-				updateRegion(line, urStart, urEnd);
+				queueRegion(line*line_width + urStart, line*line_width + urEnd);
 				updated[line].clear(urStart, urEnd);
 			}
 		}
 	}
 
-	private void updateRegion(int line, int start, int end) throws IllegalBufferException {
-		start += line*line_width;
-		end += line*line_width;
+	private void queueRegion(int start, int end) throws IllegalBufferException {
+		if(pendingStart != -1 && start >= pendingStart && start - pendingEnd <= MERGE_GAP) {
+			pendingEnd = Math.max(pendingEnd, end);
+			return;
+		}
+
+		flush();
+		pendingStart = start;
+		pendingEnd = end;
+	}
 
+	private void updateRegion(int start, int end) throws IllegalBufferException {
 		ByteBuffer realBuffer = readBuffer.get();
 		realBuffer.limit(end * bfr_data_steps);
 		realBuffer.position(start * bfr_data_steps);
-		ctx_supp.get().updateBufferAt(bfr_supp.get(), start * bfr_data_steps, realBuffer);
+		GLDrawContext dc = ctx_supp.get();
+		EFramePhase previousPhase = dc.getProfiler().enter(EFramePhase.UPLOADS);
+		dc.updateBufferAt(bfr_supp.get(), start * bfr_data_steps, realBuffer);
+		dc.getProfiler().enter(previousPhase);
 		realBuffer.limit(realBuffer.capacity());
 	}
 }
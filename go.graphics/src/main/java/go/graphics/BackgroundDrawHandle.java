@@ -1,7 +1,26 @@
 package go.graphics;
 
+import java.nio.ByteBuffer;
+
 public class BackgroundDrawHandle extends GLResourceIndex {
 
+	/**
+	 * The size of one background vertex. All values are stored in the byte order of the buffer (native order for buffers given to the draw
+	 * context):
+	 * <ul>
+	 * <li>bytes 0..3: x and y as signed 16 bit integers.</li>
+	 * <li>bytes 4..7: u and v as unsigned 16 bit integers, 0xffff is the texture size.</li>
+	 * <li>byte 8: the height as signed byte.</li>
+	 * <li>byte 9: the shade as unsigned byte, 0xff is {@link #MAX_SHADE}.</li>
+	 * <li>bytes 10..11: padding.</li>
+	 * </ul>
+	 */
+	public static final int BYTES_PER_VERTEX = 12;
+	/**
+	 * The highest shade (color factor) that can be stored in a vertex.
+	 */
+	public static final float MAX_SHADE = 2;
+
 	public final BufferHandle vertices;
 	public TextureHandle texture;
 
@@ -17,4 +36,32 @@ public class BackgroundDrawHandle extends GLResourceIndex {
 	public int getVertexArrayId() {
 		return id;
 	}
+
+	/**
+	 * Writes one vertex in the format described at {@link #BYTES_PER_VERTEX} at the current position of the buffer.
+	 *
+	 * @param buffer
+	 *            The buffer to write to.
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @param height
+	 *            The height, it has to fit into a signed byte.
+	 * @param u
+	 *            The texture coordinate from 0 to 1.
+	 * @param v
+	 *            The texture coordinate from 0 to 1.
+	 * @param shade
+	 *            The factor the texture color is multiplied with. It is clamped to 0..{@link #MAX_SHADE}.
+	 */
+	public static void putVertex(ByteBuffer buffer, int x, int y, int height, float u, float v, float shade) {
+		buffer.putShort((short) x);
+		buffer.putShort((short) y);
+		buffer.putShort((short) Math.round(u * 0xffff));
+		buffer.putShort((short) Math.round(v * 0xffff));
+		buffer.put((byte) height);
+		buffer.put((byte) Math.round(Math.max(0, Math.min(shade, MAX_SHADE)) * 0xff / MAX_SHADE));
+		buffer.putShort((short) 0);
+	}
 }
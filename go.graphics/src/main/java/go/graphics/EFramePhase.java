@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+/**
+ * The phases a frame is split into by the {@link FrameProfiler}.
+ */
+public enum EFramePhase {
+	/**
+	 * Everything that is not part of one of the other phases.
+	 */
+	OTHER,
+	BACKGROUND,
+	OBJECTS,
+	MOVABLES,
+	BORDERS,
+	/**
+	 * The selection, the markers of move orders and the construction marks.
+	 */
+	MARKERS,
+	CONTROLS,
+	MINIMAP,
+	/**
+	 * Messages, tooltips and other text on top of the map.
+	 */
+	MESSAGES,
+	/**
+	 * Uploads of vertex data and textures to the graphics card.
+	 */
+	UPLOADS;
+
+	public static final EFramePhase[] VALUES = values();
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Measures how much time of each frame is spent in the different {@link EFramePhase}s. The last {@link #HISTORY_FRAMES} frames are kept.
+ * <p>
+ * Code that belongs to a phase is wrapped like this:
+ *
+ * <pre>
+ * EFramePhase previous = profiler.enter(EFramePhase.OBJECTS);
+ * ...
+ * profiler.enter(previous);
+ * </pre>
+ *
+ * If the profiler is disabled, {@link #enter(EFramePhase)} only checks a flag. All methods have to be called from the thread drawing the frames.
+ */
+public class FrameProfiler {
+	public static final int HISTORY_FRAMES = 300;
+
+	private static final int PHASE_COUNT = EFramePhase.VALUES.length;
+
+	private final long[][] phaseNanos = new long[HISTORY_FRAMES][PHASE_COUNT];
+	private final long[] frameStart = new long[HISTORY_FRAMES];
+	private final long[] frameEnd = new long[HISTORY_FRAMES];
+
+	private boolean enabled = false;
+	private boolean inFrame = false;
+	private EFramePhase currentPhase = EFramePhase.OTHER;
+	private long phaseStart;
+	private int currentSlot;
+	private long framesRecorded = 0;
+
+	/**
+	 * Enables or disables the recording. Frames that are already started are still recorded until they end.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts recording a new frame if the profiler is enabled. The frame starts in {@link EFramePhase#OTHER}.
+	 */
+	public void startFrame() {
+		if (!enabled) {
+			return;
+		}
+		if (inFrame) {
+			endFrame();
+		}
+
+		long now = System.nanoTime();
+		currentSlot = (int) (framesRecorded % HISTORY_FRAMES);
+		Arrays.fill(phaseNanos[currentSlot], 0);
+		frameStart[currentSlot] = now;
+		currentPhase = EFramePhase.OTHER;
+		phaseStart = now;
+		inFrame = true;
+	}
+
+	/**
+	 * Switches to an other phase.
+	 *
+	 * @param phase
+	 *            The phase the following code belongs to.
+	 * @return The phase that was active before. Pass it to this method again to leave the phase.
+	 */
+	public EFramePhase enter(EFramePhase phase) {
+		if (!inFrame) {
+			return EFramePhase.OTHER;
+		}
+
+		EFramePhase previous = currentPhase;
+		if (previous != phase) {
+			long now = System.nanoTime();
+			phaseNanos[currentSlot][previous.ordinal()] += now - phaseStart;
+			phaseStart = now;
+			currentPhase = phase;
+		}
+		return previous;
+	}
+
+	/**
+	 * Ends the frame started by {@link #startFrame()}.
+	 */
+	public void endFrame() {
+		if (!inFrame) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		phaseNanos[currentSlot][currentPhase.ordinal()] += now - phaseStart;
+		frameEnd[currentSlot] = now;
+		framesRecorded++;
+		inFrame = false;
+	}
+
+	/**
+	 * @return The number of frames that can be read, at most {@link #HISTORY_FRAMES}.
+	 */
+	public int getRecordedFrames() {
+		return (int) Math.min(framesRecorded, HISTORY_FRAMES);
+	}
+
+	private int getSlot(int frame) {
+		if (frame < 0 || frame >= getRecordedFrames()) {
+			throw new IndexOutOfBoundsException("frame " + frame);
+		}
+		return (int) ((framesRecorded - getRecordedFrames() + frame) % HISTORY_FRAMES);
+	}
+
+	/**
+	 * @param frame
+	 *            The index of the frame, 0 is the oldest recorded frame.
+	 * @return The time spent in the given phase.
+	 */
+	public long getPhaseNanos(int frame, EFramePhase phase) {
+		return phaseNanos[getSlot(frame)][phase.ordinal()];
+	}
+
+	/**
+	 * @param frame
+	 *            The index of the frame, 0 is the oldest recorded frame.
+	 * @return The time between the start and the end of the frame.
+	 */
+	public long getFrameNanos(int frame) {
+		int slot = getSlot(frame);
+		return frameEnd[slot] - frameStart[slot];
+	}
+
+	/**
+	 * Writes the recorded frames in the Chrome trace event format, which can be opened in chrome://tracing or Perfetto. Each frame is a complete
+	 * event and the time of the phases is a counter at the start of the frame.
+	 */
+	public void writeChromeTrace(Writer out) throws IOException {
+		int frames = getRecordedFrames();
+		long origin = frames > 0 ? frameStart[getSlot(0)] : 0;
+
+		out.write("{\"traceEvents\":[");
+		for (int frame = 0; frame < frames; frame++) {
+			int slot = getSlot(frame);
+			String ts = micros(frameStart[slot] - origin);
+			if (frame > 0) {
+				out.write(',');
+			}
+			out.write("\n{\"name\":\"frame\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":" + ts + ",\"dur\":" + micros(frameEnd[slot] - frameStart[slot]) + "}");
+			out.write(",\n{\"name\":\"phases (ms)\",\"ph\":\"C\",\"pid\":1,\"tid\":1,\"ts\":" + ts + ",\"args\":{");
+			for (EFramePhase phase : EFramePhase.VALUES) {
+				if (phase.ordinal() > 0) {
+					out.write(',');
+				}
+				out.write("\"" + phase + "\":" + String.format(Locale.ENGLISH, "%.3f", phaseNanos[slot][phase.ordinal()] / 1e6));
+			}
+			out.write("}}");
+		}
+		out.write("\n],\"displayTimeUnit\":\"ms\"}\n");
+	}
+
+	private static String micros(long nanos) {
+		return String.format(Locale.ENGLISH, "%.3f", nanos / 1e3);
+	}
+}
@@ -99,14 +99,18 @@ public abstract class GLDrawContext {
 		};
 	}
 
-	private void addNewHandle() {
+	private boolean keepManagedPages = false;
+
+	private ManagedHandle addNewHandle(ImageData page) {
 		int quad_count = getMaxManagedQuads();
 		int texture_size = getMaxManagedTextureSize();
 
 		TextureHandle tex = generateTexture(new ImageData(texture_size, texture_size), "managed" + ManagedHandle.instance_count);
 		TextureHandle tex2 = generateTexture(new ImageData(texture_size, texture_size), "managed" + ManagedHandle.instance_count + "-2");
 		UnifiedDrawHandle parent = createUnifiedDrawCall(quad_count*4, "managed" + ManagedHandle.instance_count, tex, tex2, null);
-		managedHandles.add(new ManagedHandle(parent, quad_count, texture_size));
+		ManagedHandle handle = new ManagedHandle(parent, quad_count, texture_size, page);
+		managedHandles.add(handle);
+		return handle;
 	}
 
 	public ManagedUnifiedDrawHandle createManagedUnifiedDrawCall(ImageData texture, float offsetX, float offsetY, int width, int height) {
@@ -114,10 +118,9 @@ public abstract class GLDrawContext {
 		int texHeight = texture.getHeight();
 
 		for(ManagedHandle handle : managedHandles) {
-			int position;
-			if(handle.quad_index != handle.quad_count && (position = handle.findTextureHole(texWidth, texHeight)) != -1) {
+			if(handle.hasFreeQuad()) {
 				UIPoint corner;
-				if((corner = handle.addTexture(texture, position)) == null) continue;
+				if((corner = handle.addTexture(texture)) == null) continue;
 
 
 				float lu = (float) corner.getX();
@@ -125,18 +128,114 @@ public abstract class GLDrawContext {
 				float hu = lu + texWidth/(float) handle.texture_size;
 				float hv = lv + texHeight/(float) handle.texture_size;
 
-				float[] data = createQuadGeometry(offsetX, -offsetY, offsetX+width, -offsetY-height, lu, lv, hu, hv);
-
-				handle.addQuad(data);
-
-				return new ManagedUnifiedDrawHandle(handle, lu, lv, hu, hv);
+				return createManagedUnifiedDrawCall(handle, lu, lv, hu, hv, offsetX, offsetY, width, height);
 			}
 		}
 
-		addNewHandle();
+		int texture_size = getMaxManagedTextureSize();
+		addNewHandle(keepManagedPages ? new ImageData(texture_size, texture_size) : null);
 		return createManagedUnifiedDrawCall(texture, offsetX, offsetY, width, height);
 	}
 
+	/**
+	 * Creates a draw call for a texture that already is on a managed page, e.g. one restored by {@link #restoreManagedPages(List, List, int[])}.
+	 *
+	 * @param page
+	 *            The index of the page as returned by {@link #getManagedPage(ManagedUnifiedDrawHandle)}.
+	 */
+	public ManagedUnifiedDrawHandle createManagedUnifiedDrawCall(int page, float lu, float lv, float hu, float hv, float offsetX, float offsetY, int width, int height) {
+		ManagedHandle handle = managedHandles.get(page);
+		handle.useReservedQuad();
+		return createManagedUnifiedDrawCall(handle, lu, lv, hu, hv, offsetX, offsetY, width, height);
+	}
+
+	private ManagedUnifiedDrawHandle createManagedUnifiedDrawCall(ManagedHandle handle, float lu, float lv, float hu, float hv, float offsetX, float offsetY, int width, int height) {
+		float[] data = createQuadGeometry(offsetX, -offsetY, offsetX+width, -offsetY-height, lu, lv, hu, hv);
+
+		handle.addQuad(data);
+
+		return new ManagedUnifiedDrawHandle(handle, lu, lv, hu, hv);
+	}
+
+	/**
+	 * Keeps a copy of every managed page in memory, so that they can be read with {@link #getManagedPages()}. This has to be enabled before the
+	 * first managed draw call is created.
+	 */
+	public void setKeepManagedPages(boolean keepManagedPages) {
+		this.keepManagedPages = keepManagedPages;
+	}
+
+	/**
+	 * Frees the copies of the managed pages. {@link #getManagedPages()} returns null afterwards.
+	 */
+	public void releaseManagedPages() {
+		keepManagedPages = false;
+		for(ManagedHandle handle : managedHandles) {
+			handle.page = null;
+		}
+	}
+
+	/**
+	 * @return The content of all managed pages if {@link #setKeepManagedPages(boolean)} was enabled. Only the lowest
+	 *         {@link #getManagedPageHeight(int)} rows are used. Synchronize on a page while reading it.
+	 */
+	public List<ImageData> getManagedPages() {
+		List<ImageData> pages = new ArrayList<>();
+		for(ManagedHandle handle : managedHandles) {
+			ImageData page = handle.page;
+			if(page == null) return null;
+			pages.add(page);
+		}
+		return pages;
+	}
+
+	/**
+	 * @return The number of rows of a managed page that contain textures.
+	 */
+	public int getManagedPageHeight(int page) {
+		return managedHandles.get(page).getUsedHeight();
+	}
+
+	/**
+	 * @return The used area of a managed page as pairs of the start x and the height of each segment of its skyline.
+	 */
+	public int[] getManagedPageSkyline(int page) {
+		return managedHandles.get(page).getSkyline();
+	}
+
+	/**
+	 * Uploads previously packed pages. The pages get the indices 0 to pages.size()-1. New textures are added to the free area of the pages.
+	 *
+	 * @param pages
+	 *            The lowest rows of each page. They need to have the width {@link #getMaxManagedTextureSize()}.
+	 * @param skylines
+	 *            The used area of each page as returned by {@link #getManagedPageSkyline(int)}.
+	 * @param quads
+	 *            The number of draw calls that will be created for the textures of each page with
+	 *            {@link #createManagedUnifiedDrawCall(int, float, float, float, float, float, float, int, int)}. New textures do not use these quads.
+	 * @return false if there already are managed pages or a page does not fit.
+	 */
+	public boolean restoreManagedPages(List<ImageData> pages, List<int[]> skylines, int[] quads) {
+		int texture_size = getMaxManagedTextureSize();
+		if(!managedHandles.isEmpty() || pages.size() != skylines.size() || pages.size() != quads.length) return false;
+		for(int i = 0; i < pages.size(); i++) {
+			ImageData page = pages.get(i);
+			if(page.getWidth() != texture_size || page.getHeight() > texture_size || quads[i] > getMaxManagedQuads()) return false;
+		}
+
+		for(int i = 0; i < pages.size(); i++) {
+			addNewHandle(keepManagedPages ? new ImageData(texture_size, texture_size) : null).restorePage(pages.get(i), skylines.get(i), quads[i]);
+		}
+		return true;
+	}
+
+	/**
+	 * @return The index of the managed page the draw call uses.
+	 */
+	public int getManagedPage(ManagedUnifiedDrawHandle handle) {
+		return managedHandles.indexOf(handle.parent);
+	}
+
 	private boolean valid = true;
 
 	public void invalidate() {
@@ -169,6 +268,15 @@ public abstract class GLDrawContext {
 		}
 	}
 
+	private final FrameProfiler profiler = new FrameProfiler();
+
+	/**
+	 * @return The profiler that measures the phases of the frames drawn with this context.
+	 */
+	public FrameProfiler getProfiler() {
+		return profiler;
+	}
+
 	protected long frameIndex = 0;
 
 	public long getFrameIndex() {
@@ -181,7 +289,7 @@ public abstract class GLDrawContext {
 
     public abstract void resize(int width, int height);
 
-	protected int getMaxManagedQuads() {
+	public int getMaxManagedQuads() {
 		int maxManagedHandleQuads = maxUniformBlockSize / (4*4*4) /*size of one quad*/;
 
 		if (maxManagedHandleQuads >= ManagedHandle.MAX_QUADS) {
@@ -191,7 +299,7 @@ public abstract class GLDrawContext {
 		return maxManagedHandleQuads;
 	}
 
-	protected int getMaxManagedTextureSize() {
+	public int getMaxManagedTextureSize() {
 		int maxManagedHandleTextureSize = maxTextureSize;
 
 		if (maxManagedHandleTextureSize >= ManagedHandle.MAX_TEXTURE_SIZE) {
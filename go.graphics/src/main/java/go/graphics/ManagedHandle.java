@@ -2,7 +2,7 @@ package go.graphics;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.Arrays;
+import java.nio.IntBuffer;
 
 public class ManagedHandle {
 
@@ -14,86 +14,136 @@ public class ManagedHandle {
 	protected int quad_count;
 	protected int quad_index = 0;
 	protected int texture_size;
-	private final int[] remaining_pixels;
+	private final SkylinePacker packer;
+	/**
+	 * A copy of the texture content, only kept if the draw context keeps its managed pages.
+	 */
+	volatile ImageData page;
+	/**
+	 * The number of quads that are kept free for the textures restored with the page.
+	 */
+	private int reservedQuads;
 
 	public final UnifiedDrawHandle bufferHolder;
 	protected final MultiDrawHandle multiCache;
 
-	protected ManagedHandle(UnifiedDrawHandle bufferHolder, int quad_count, int texture_size) {
+	protected ManagedHandle(UnifiedDrawHandle bufferHolder, int quad_count, int texture_size, ImageData page) {
 		this.bufferHolder = bufferHolder;
 		this.quad_count = quad_count;
 		this.texture_size = texture_size;
-		remaining_pixels = new int[texture_size];
+		this.page = page;
+		packer = new SkylinePacker(texture_size);
 		multiCache = bufferHolder.dc.createMultiDrawCall("managed" + instance_count, this);
 
-		Arrays.fill(remaining_pixels, texture_size);
 		ManagedHandle.instance_count++;
 	}
 
-	protected int findTextureHole(int width, int height) {
-		int placement_count = texture_size - width;
+	/**
+	 * Uploads the content of a page, e.g. from an atlas cache. New textures are packed into the free area described by the skyline.
+	 *
+	 * @param content
+	 *            The lowest rows of the page.
+	 * @param skyline
+	 *            The used area of the page as returned by {@link #getSkyline()}.
+	 * @param reservedQuads
+	 *            The number of draw calls that will be created for the restored textures.
+	 */
+	protected void restorePage(ImageData content, int[] skyline, int reservedQuads) {
+		this.reservedQuads = reservedQuads;
+		synchronized (packer) {
+			packer.setSkyline(skyline);
+		}
+		upload(0, 0, content);
 
-		int[] placements = new int[placement_count];
+		ImageData page = this.page;
+		if(page != null) {
+			copyToPage(page, 0, 0, content);
+		}
+	}
 
-		for(int i = 0; i != placement_count; i++) {
-			int sum_of_remaining = 0;
-			int lowest_remaining = remaining_pixels[i];
-			for(int j = 0; j != width; j++) {
-				sum_of_remaining += remaining_pixels[i+j];
-				if(lowest_remaining > remaining_pixels[i+j]) lowest_remaining = remaining_pixels[i+j];
-			}
+	/**
+	 * @return true if a quad for a new texture is left.
+	 */
+	protected boolean hasFreeQuad() {
+		return quad_index + reservedQuads < quad_count;
+	}
 
-			if(lowest_remaining < height) {
-				placements[i] = -1;
-			} else {
-				placements[i] = sum_of_remaining - (width * lowest_remaining);
-			}
+	/**
+	 * Uses one of the quads that were kept free for the restored textures.
+	 */
+	protected void useReservedQuad() {
+		if(reservedQuads > 0) {
+			reservedQuads--;
 		}
+	}
 
-		int lowest_damage_placement = -1;
-		for(int i = 0;i != placement_count; i++) {
-			if(placements[i] != -1) {
-				if(lowest_damage_placement == -1) {
-					lowest_damage_placement = i;
-				} else if(placements[lowest_damage_placement] > placements[i]) {
-					lowest_damage_placement = i;
-				}
-			}
+	/**
+	 * @return The number of rows of the page that contain textures.
+	 */
+	protected int getUsedHeight() {
+		synchronized (packer) {
+			return packer.getUsedHeight();
 		}
-
-		return lowest_damage_placement;
 	}
 
-	protected UIPoint addTexture(ImageData texture, int start) {
-		int width = texture.getWidth();
-		int height = texture.getHeight();
+	/**
+	 * @return The used area of the page, see {@link SkylinePacker#getSkyline()}.
+	 */
+	protected int[] getSkyline() {
+		synchronized (packer) {
+			return packer.getSkyline();
+		}
+	}
 
-		int leastRemaining = remaining_pixels[start];
-		for(int i = 0; i != width; i++) {
-			if(leastRemaining > remaining_pixels[i+start]) {
-				leastRemaining = remaining_pixels[i+start];
-			}
+	protected UIPoint addTexture(ImageData texture) {
+		int position;
+		synchronized (packer) {
+			position = packer.insert(texture.getWidth(), texture.getHeight());
 		}
+		if(position == -1) return null;
 
-		if(leastRemaining < height) return null;
+		int x = position & 0xffff;
+		int y = position >>> 16;
+		upload(x, y, texture);
 
-		// claim texture space
-		Arrays.fill(remaining_pixels, start, start+width, leastRemaining-height);
+		ImageData page = this.page;
+		if(page != null) {
+			copyToPage(page, x, y, texture);
+		}
+		return new UIPoint(x/(float)texture_size, y/(float)texture_size);
+	}
 
-		// ...and populate it
+	private void upload(int x, int y, ImageData texture) {
+		EFramePhase previousPhase = bufferHolder.dc.getProfiler().enter(EFramePhase.UPLOADS);
 		try {
-			bufferHolder.dc.updateTexture(bufferHolder.texture, start, texture_size-leastRemaining, texture);
+			bufferHolder.dc.updateTexture(bufferHolder.texture, x, y, texture);
 			// TODO properly fill tex2
-			bufferHolder.dc.updateTexture(bufferHolder.texture2, start, texture_size-leastRemaining, texture);
+			bufferHolder.dc.updateTexture(bufferHolder.texture2, x, y, texture);
 		} catch(IllegalBufferException e) {}
-		return new UIPoint(start/(float)texture_size, (texture_size-leastRemaining)/(float)texture_size);
+		bufferHolder.dc.getProfiler().enter(previousPhase);
+	}
+
+	private void copyToPage(ImageData page, int x, int y, ImageData texture) {
+		int width = texture.getWidth();
+		IntBuffer source = texture.getReadData32().duplicate();
+		synchronized (page) {
+			IntBuffer target = page.getWriteData32().duplicate();
+			for(int line = 0; line != texture.getHeight(); line++) {
+				source.limit((line+1)*width);
+				source.position(line*width);
+				target.position((y+line)*texture_size+x);
+				target.put(source);
+			}
+		}
 	}
 
 	private static final ByteBuffer dataBuffer = ByteBuffer.allocateDirect(4*4*4).order(ByteOrder.nativeOrder());
 	protected void addQuad(float[] data) {
 		dataBuffer.asFloatBuffer().put(data);
+		EFramePhase previousPhase = bufferHolder.dc.getProfiler().enter(EFramePhase.UPLOADS);
 		try {
 			bufferHolder.dc.updateBufferAt(bufferHolder.vertices, quad_index*4*4*4, dataBuffer);
 		} catch (IllegalBufferException e) {}
+		bufferHolder.dc.getProfiler().enter(previousPhase);
 	}
 }
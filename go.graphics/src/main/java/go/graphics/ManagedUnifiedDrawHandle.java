@@ -3,7 +3,7 @@ package go.graphics;
 public class ManagedUnifiedDrawHandle extends UnifiedDrawHandle {
 
 	public final float texX, texY, texWidth, texHeight;
-	private final ManagedHandle parent;
+	final ManagedHandle parent;
 
 	protected ManagedUnifiedDrawHandle(ManagedHandle parent, float texX, float texY, float texWidth, float texHeight) {
 		super(parent.bufferHolder.dc, parent.bufferHolder.id, 4*parent.quad_index++, 4, parent.bufferHolder.texture, parent.bufferHolder.texture2, parent.bufferHolder.vertices);
@@ -51,9 +51,11 @@ public class MultiDrawHandle extends GLResourceIndex {
 		drawCallBuffer.limit(used*12*4);
 
 
+		EFramePhase previousPhase = dc.getProfiler().enter(EFramePhase.UPLOADS);
 		try {
 			dc.updateBufferAt(drawCalls, 0, drawCallBuffer);
 		} catch (IllegalBufferException e) {}
+		dc.getProfiler().enter(previousPhase);
 		dc.drawMulti(this);
 
 		drawCallBuffer.limit(MAX_CACHE_ENTRIES*12*4);
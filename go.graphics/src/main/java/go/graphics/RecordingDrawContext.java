@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import go.graphics.text.AbstractTextDrawer;
+import go.graphics.text.EFontSize;
+import go.graphics.text.TextDrawer;
+
+/**
+ * A {@link GLDrawContext} without a GPU. It keeps the content of all buffers in memory and counts the draw calls, the drawn vertices and the
+ * bytes and texels that are allocated and uploaded. This allows to measure the CPU side of drawing without a GL or Vulkan context.
+ */
+public class RecordingDrawContext extends GLDrawContext {
+	private final List<ByteBuffer> buffers = new ArrayList<>();
+	private final boolean multiDraw;
+	private int textures;
+
+	public long allocatedBytes;
+	public long uploadedBytes;
+	public int uploads;
+	public long uploadedTexels;
+	public int textureUploads;
+	public int drawCalls;
+	public long drawnVertices;
+	public int backgroundDraws;
+	public BackgroundDrawHandle lastBackground;
+
+	public RecordingDrawContext() {
+		this(false);
+	}
+
+	/**
+	 * @param multiDraw
+	 *            If true, managed images are drawn in batches like the desktop and Vulkan contexts do. Otherwise each of them is drawn on its own.
+	 */
+	public RecordingDrawContext(boolean multiDraw) {
+		this.multiDraw = multiDraw;
+		maxTextureSize = 2048;
+		maxUniformBlockSize = 16 * 1024;
+	}
+
+	/**
+	 * Gets the content of a buffer.
+	 */
+	public ByteBuffer getContent(BufferHandle handle) {
+		return buffers.get(handle.getBufferId());
+	}
+
+	/**
+	 * Gets the vertex buffer of a managed page.
+	 */
+	public BufferHandle getManagedVertices(int page) {
+		return managedHandles.get(page).bufferHolder.vertices;
+	}
+
+	public void resetCounters() {
+		uploadedBytes = 0;
+		uploads = 0;
+		uploadedTexels = 0;
+		textureUploads = 0;
+		drawCalls = 0;
+		drawnVertices = 0;
+		backgroundDraws = 0;
+	}
+
+	private BufferHandle createBuffer(int bytes) {
+		buffers.add(ByteBuffer.allocate(bytes).order(ByteOrder.nativeOrder()));
+		allocatedBytes += bytes;
+		return new BufferHandle(this, buffers.size() - 1);
+	}
+
+	@Override
+	public void updateBufferAt(BufferHandle handle, int pos, ByteBuffer data) {
+		ByteBuffer source = data.duplicate();
+		ByteBuffer target = getContent(handle).duplicate();
+		target.position(pos);
+		uploadedBytes += source.remaining();
+		uploads++;
+		target.put(source);
+	}
+
+	@Override
+	public BackgroundDrawHandle createBackgroundDrawCall(int vertices, TextureHandle texture) {
+		return new BackgroundDrawHandle(this, -1, texture, createBuffer(vertices * BackgroundDrawHandle.BYTES_PER_VERTEX));
+	}
+
+	@Override
+	public UnifiedDrawHandle createUnifiedDrawCall(int vertices, String name, TextureHandle texture, TextureHandle texture2, float[] data) {
+		return new UnifiedDrawHandle(this, -1, 0, vertices, texture, texture2, createBuffer(vertices * (texture != null ? 4 : 2) * 4));
+	}
+
+	@Override
+	protected MultiDrawHandle createMultiDrawCall(String name, ManagedHandle source) {
+		if (!multiDraw) {
+			return null;
+		}
+		return new MultiDrawHandle(this, -1, MultiDrawHandle.MAX_CACHE_ENTRIES, source, createBuffer(MultiDrawHandle.MAX_CACHE_ENTRIES * 12 * 4));
+	}
+
+	@Override
+	public TextureHandle generateTexture(ImageData image, String name) {
+		return new TextureHandle(this, textures++);
+	}
+
+	@Override
+	public TextureHandle resizeTexture(TextureHandle textureIndex, ImageData image) {
+		return textureIndex;
+	}
+
+	@Override
+	public void updateTexture(TextureHandle textureIndex, int left, int bottom, ImageData image) {
+		uploadedTexels += image.getWidth() * (long) image.getHeight();
+		textureUploads++;
+	}
+
+	@Override
+	public void drawBackground(BackgroundDrawHandle call) {
+		backgroundDraws++;
+		lastBackground = call;
+		drawCalls++;
+		for (int i = 0; i < call.regionCount; i++) {
+			drawnVertices += call.regions[i * 2 + 1];
+		}
+	}
+
+	@Override
+	protected void drawMulti(MultiDrawHandle call) {
+		drawCalls++;
+		drawnVertices += call.used * 4L;
+	}
+
+	@Override
+	protected void drawUnifiedArray(UnifiedDrawHandle call, int primitive, int vertexCount, float[] trans, float[] colors, int array_len) {
+		drawCalls++;
+		drawnVertices += vertexCount * (long) array_len;
+	}
+
+	@Override
+	protected void drawUnified(UnifiedDrawHandle call, int primitive, int vertices, int mode, float x, float y, float z, float sx, float sy, AbstractColor color,
+			float intensity) {
+		drawCalls++;
+		drawnVertices += vertices;
+	}
+
+	@Override
+	public TextDrawer getTextDrawer(EFontSize size) {
+		if (textDrawer == null) {
+			textDrawer = new RecordingTextDrawer(this);
+		}
+		return super.getTextDrawer(size);
+	}
+
+	@Override
+	public void setShadowDepthOffset(float depth) {
+	}
+
+	@Override
+	public void setHeightMatrix(float[] matrix) {
+	}
+
+	@Override
+	public void setGlobalAttributes(float x, float y, float z, float sx, float sy, float sz) {
+	}
+
+	@Override
+	public void clearDepthBuffer() {
+	}
+
+	@Override
+	public void resize(int width, int height) {
+	}
+
+	/**
+	 * A text drawer with fixed size characters that does not need any font rendering.
+	 */
+	private static class RecordingTextDrawer extends AbstractTextDrawer<RecordingDrawContext> {
+		private RecordingTextDrawer(RecordingDrawContext drawContext) {
+			super(drawContext, 1);
+		}
+
+		@Override
+		protected float calculateScalingFactor() {
+			return 1;
+		}
+
+		@Override
+		protected int init() {
+			for (int i = 0; i < CHARACTER_COUNT; i++) {
+				char_widths[i] = TEXTURE_GENERATION_SIZE / 2;
+			}
+			gentex_line_height = TEXTURE_GENERATION_SIZE;
+
+			EFontSize[] sizes = EFontSize.values();
+			for (int i = 0; i < sizes.length; i++) {
+				heightPerSize[i] = Math.round(sizes[i].getSize());
+			}
+			return 0;
+		}
+
+		@Override
+		protected int[] getRGB() {
+			return new int[tex_width * tex_height];
+		}
+
+		@Override
+		protected void setupBitmapDraw() {
+		}
+
+		@Override
+		protected void drawChar(char[] character, int x, int y) {
+		}
+
+		@Override
+		protected void endDraw() {
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+/**
+ * Packs rectangles into a square texture. The used area is described by its skyline: a list of segments, each with a start x and the height
+ * that is used above it. A rectangle is put onto the position where its top is the lowest. Ties are broken by the area that is wasted below it.
+ */
+public class SkylinePacker {
+	private final int size;
+
+	private int[] segmentX = new int[16];
+	private int[] segmentY = new int[16];
+	private int segments = 1;
+
+	public SkylinePacker(int size) {
+		this.size = size;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Reserves space for a rectangle.
+	 *
+	 * @param width
+	 *            The width of the rectangle.
+	 * @param height
+	 *            The height of the rectangle.
+	 * @return The lower left corner as <code>x | y &lt;&lt; 16</code> or -1 if the rectangle does not fit.
+	 */
+	public int insert(int width, int height) {
+		int bestSegment = -1;
+		int bestTop = Integer.MAX_VALUE;
+		int bestWaste = Integer.MAX_VALUE;
+
+		for (int i = 0; i < segments && segmentX[i] + width <= size; i++) {
+			int x = segmentX[i];
+			int end = x + width;
+
+			int y = 0;
+			for (int j = i; j < segments && segmentX[j] < end; j++) {
+				y = Math.max(y, segmentY[j]);
+			}
+			int top = y + height;
+			if (top > size || top > bestTop) {
+				continue;
+			}
+
+			int waste = 0;
+			for (int j = i; j < segments && segmentX[j] < end; j++) {
+				waste += (y - segmentY[j]) * (Math.min(end, segmentEnd(j)) - segmentX[j]);
+			}
+			if (top < bestTop || waste < bestWaste) {
+				bestSegment = i;
+				bestTop = top;
+				bestWaste = waste;
+			}
+		}
+
+		if (bestSegment == -1) {
+			return -1;
+		}
+
+		int x = segmentX[bestSegment];
+		place(bestSegment, x + width, bestTop);
+		return x | (bestTop - height) << 16;
+	}
+
+	/**
+	 * @return The height of the highest rectangle.
+	 */
+	public int getUsedHeight() {
+		int height = 0;
+		for (int i = 0; i < segments; i++) {
+			height = Math.max(height, segmentY[i]);
+		}
+		return height;
+	}
+
+	/**
+	 * @return The skyline as pairs of the start x and the height of each segment.
+	 */
+	public int[] getSkyline() {
+		int[] skyline = new int[segments * 2];
+		for (int i = 0; i < segments; i++) {
+			skyline[2 * i] = segmentX[i];
+			skyline[2 * i + 1] = segmentY[i];
+		}
+		return skyline;
+	}
+
+	/**
+	 * Replaces the used area, e.g. to continue packing a page that was packed before.
+	 *
+	 * @param skyline
+	 *            A skyline as returned by {@link #getSkyline()}.
+	 */
+	public void setSkyline(int[] skyline) {
+		if (skyline.length < 2 || skyline.length % 2 != 0 || skyline[0] != 0) {
+			throw new IllegalArgumentException("Invalid skyline.");
+		}
+
+		segments = 0;
+		ensureCapacity(skyline.length / 2);
+		for (int i = 0; i < skyline.length; i += 2) {
+			if (i > 0 && skyline[i] <= segmentX[segments - 1] || skyline[i] >= size || skyline[i + 1] < 0 || skyline[i + 1] > size) {
+				throw new IllegalArgumentException("Invalid skyline.");
+			}
+			segmentX[segments] = skyline[i];
+			segmentY[segments] = skyline[i + 1];
+			segments++;
+		}
+	}
+
+	/**
+	 * Marks the whole area as used.
+	 */
+	public void close() {
+		segments = 1;
+		segmentX[0] = 0;
+		segmentY[0] = size;
+	}
+
+	private int segmentEnd(int segment) {
+		return segment + 1 < segments ? segmentX[segment + 1] : size;
+	}
+
+	/**
+	 * Replaces the skyline from the start of the given segment to end by one segment with the height top.
+	 */
+	private void place(int segment, int end, int top) {
+		int last = segment;
+		while (last + 1 < segments && segmentX[last + 1] < end) {
+			last++;
+		}
+		int lastY = segmentY[last];
+		boolean split = segmentEnd(last) > end;
+
+		// segment is replaced, segment+1..last are removed and the rest of the last one is kept as new segment
+		int removed = last - segment - (split ? 1 : 0);
+		if (removed < 0) {
+			ensureCapacity(segments + 1);
+		}
+		System.arraycopy(segmentX, last + 1, segmentX, last + 1 - removed, segments - last - 1);
+		System.arraycopy(segmentY, last + 1, segmentY, last + 1 - removed, segments - last - 1);
+		segments -= removed;
+
+		segmentY[segment] = top;
+		if (split) {
+			segmentX[segment + 1] = end;
+			segmentY[segment + 1] = lastY;
+		}
+
+		// merge with the neighbours of the same height
+		if (segment + 1 < segments && segmentY[segment + 1] == top) {
+			remove(segment + 1);
+		}
+		if (segment > 0 && segmentY[segment - 1] == top) {
+			remove(segment);
+		}
+	}
+
+	private void remove(int segment) {
+		System.arraycopy(segmentX, segment + 1, segmentX, segment, segments - segment - 1);
+		System.arraycopy(segmentY, segment + 1, segmentY, segment, segments - segment - 1);
+		segments--;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > segmentX.length) {
+			int newLength = Math.max(capacity, segmentX.length * 2);
+			int[] newX = new int[newLength];
+			int[] newY = new int[newLength];
+			System.arraycopy(segmentX, 0, newX, 0, segments);
+			System.arraycopy(segmentY, 0, newY, 0, segments);
+			segmentX = newX;
+			segmentY = newY;
+		}
+	}
+}
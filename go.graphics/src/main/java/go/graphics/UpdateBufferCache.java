@@ -37,7 +37,10 @@ public class UpdateBufferCache {
 
 		buffer.limit(cache_size);
 		buffer.rewind();
-		ctx_supp.get().updateBufferAt(bfr_supp.get(), cache_start*bfr_data_steps, buffer);
+		GLDrawContext dc = ctx_supp.get();
+		EFramePhase previousPhase = dc.getProfiler().enter(EFramePhase.UPLOADS);
+		dc.updateBufferAt(bfr_supp.get(), cache_start*bfr_data_steps, buffer);
+		dc.getProfiler().enter(previousPhase);
 		buffer.limit(buffer.capacity());
 		position = 0;
 		cache_size = 0;
@@ -29,4 +29,11 @@ public interface SoundPlayer {
 	void setSoundDataRetriever(ISoundDataRetriever soundDataRetriever);
 
 	SoundHandle openSound(File musicFile);
+
+	/**
+	 * @return true if the player keeps the samples of every sound it played, so that it asks the {@link ISoundDataRetriever} only once per sound.
+	 */
+	default boolean keepsSoundData() {
+		return false;
+	}
 }
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrameProfilerTest {
+
+	@Test
+	public void testNothingIsRecordedWhenDisabled() {
+		FrameProfiler profiler = new FrameProfiler();
+		profiler.startFrame();
+		assertEquals(EFramePhase.OTHER, profiler.enter(EFramePhase.OBJECTS));
+		profiler.endFrame();
+
+		assertEquals(0, profiler.getRecordedFrames());
+	}
+
+	@Test
+	public void testPhasesAddUpToFrameTime() throws InterruptedException {
+		FrameProfiler profiler = new FrameProfiler();
+		profiler.setEnabled(true);
+
+		profiler.startFrame();
+		EFramePhase previous = profiler.enter(EFramePhase.OBJECTS);
+		Thread.sleep(5);
+		assertEquals(EFramePhase.MOVABLES, profiler.enter(profiler.enter(EFramePhase.MOVABLES)));
+		profiler.enter(previous);
+		profiler.endFrame();
+
+		assertEquals(1, profiler.getRecordedFrames());
+		assertTrue(profiler.getPhaseNanos(0, EFramePhase.OBJECTS) >= 5_000_000);
+		assertEquals(0, profiler.getPhaseNanos(0, EFramePhase.BACKGROUND));
+
+		long sum = 0;
+		for (EFramePhase phase : EFramePhase.VALUES) {
+			sum += profiler.getPhaseNanos(0, phase);
+		}
+		assertEquals(profiler.getFrameNanos(0), sum);
+	}
+
+	@Test
+	public void testOnlyTheLastFramesAreKept() {
+		FrameProfiler profiler = new FrameProfiler();
+		profiler.setEnabled(true);
+		for (int i = 0; i < FrameProfiler.HISTORY_FRAMES + 10; i++) {
+			profiler.startFrame();
+			profiler.endFrame();
+		}
+
+		assertEquals(FrameProfiler.HISTORY_FRAMES, profiler.getRecordedFrames());
+	}
+
+	@Test
+	public void testChromeTrace() throws IOException {
+		FrameProfiler profiler = new FrameProfiler();
+		profiler.setEnabled(true);
+		for (int i = 0; i < 3; i++) {
+			profiler.startFrame();
+			profiler.enter(EFramePhase.BACKGROUND);
+			profiler.endFrame();
+		}
+
+		StringWriter out = new StringWriter();
+		profiler.writeChromeTrace(out);
+		String trace = out.toString();
+
+		assertTrue(trace.startsWith("{\"traceEvents\":["));
+		assertTrue(trace.trim().endsWith("],\"displayTimeUnit\":\"ms\"}"));
+		assertEquals(3, trace.split("\"ph\":\"X\"", -1).length - 1);
+		assertEquals(3, trace.split("\"BACKGROUND\":", -1).length - 1);
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+import org.junit.Test;
+
+import go.graphics.text.EFontSize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RecordingDrawContextTest {
+	private static final int IMAGES = 10;
+
+	@Test
+	public void testManagedImagesAreCountedOneByOne() {
+		RecordingDrawContext gl = new RecordingDrawContext(false);
+		drawImages(gl);
+
+		assertEquals(IMAGES, gl.drawCalls);
+		assertEquals(IMAGES * 4, gl.drawnVertices);
+	}
+
+	@Test
+	public void testManagedImagesAreCountedInBatches() {
+		RecordingDrawContext gl = new RecordingDrawContext(true);
+		drawImages(gl);
+
+		assertEquals(1, gl.drawCalls);
+		assertEquals(IMAGES * 4, gl.drawnVertices);
+	}
+
+	@Test
+	public void testTextCanBeDrawn() {
+		RecordingDrawContext gl = new RecordingDrawContext();
+		assertTrue(gl.getTextDrawer(EFontSize.NORMAL).getWidth("text") > 0);
+
+		gl.resetCounters();
+		gl.getTextDrawer(EFontSize.NORMAL).drawString(0, 0, "text");
+		assertEquals(4, gl.drawCalls);
+	}
+
+	private static void drawImages(RecordingDrawContext gl) {
+		ManagedUnifiedDrawHandle[] handles = new ManagedUnifiedDrawHandle[IMAGES];
+		for (int i = 0; i < IMAGES; i++) {
+			handles[i] = gl.createManagedUnifiedDrawCall(new ImageData(8, 8), 0, 0, 8, 8);
+		}
+
+		gl.resetCounters();
+		gl.startFrame();
+		for (ManagedUnifiedDrawHandle handle : handles) {
+			handle.drawComplexQuad(EUnifiedMode.TEXTURE, 0, 0, 0, 1, 1, null, 1);
+		}
+		gl.finishFrame();
+	}
+}
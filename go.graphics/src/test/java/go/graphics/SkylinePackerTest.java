@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SkylinePackerTest {
+	private static final int SIZE = 1024;
+
+	@Test
+	public void testRectanglesDoNotOverlap() {
+		SkylinePacker packer = new SkylinePacker(SIZE);
+		Random random = new Random(7);
+		List<int[]> placed = new ArrayList<>();
+		long usedArea = 0;
+
+		while (true) {
+			int width = 4 + random.nextInt(60);
+			int height = 4 + random.nextInt(60);
+			int position = packer.insert(width, height);
+			if (position == -1) {
+				break;
+			}
+
+			int[] rectangle = { position & 0xffff, position >>> 16, width, height };
+			assertTrue(rectangle[0] + width <= SIZE && rectangle[1] + height <= SIZE);
+			for (int[] other : placed) {
+				assertFalse(overlaps(rectangle, other));
+			}
+			placed.add(rectangle);
+			usedArea += width * height;
+		}
+
+		System.out.println("Packed " + placed.size() + " rectangles, " + (usedArea * 100 / (SIZE * SIZE)) + "% of the texture is used");
+		assertTrue(usedArea > SIZE * SIZE * 3L / 4);
+	}
+
+	@Test
+	public void testPlacesNextToEachOther() {
+		SkylinePacker packer = new SkylinePacker(SIZE);
+
+		assertEquals(0, packer.insert(100, 50));
+		assertEquals(100, packer.insert(100, 50));
+		assertEquals(200, packer.insert(100, 20));
+		assertEquals(300, packer.insert(SIZE - 300, 50));
+		// the lowest position is on top of the last rectangle
+		assertEquals(200 | 20 << 16, packer.insert(100, 30));
+		assertEquals(-1, packer.insert(SIZE + 1, 1));
+	}
+
+	@Test
+	public void testClose() {
+		SkylinePacker packer = new SkylinePacker(SIZE);
+		packer.close();
+
+		assertEquals(-1, packer.insert(1, 1));
+	}
+
+	@Test
+	public void testContinueWithSkyline() {
+		Random random = new Random(2);
+		SkylinePacker packer = new SkylinePacker(SIZE);
+		for (int i = 0; i < 50; i++) {
+			packer.insert(1 + random.nextInt(100), 1 + random.nextInt(100));
+		}
+
+		SkylinePacker restored = new SkylinePacker(SIZE);
+		restored.setSkyline(packer.getSkyline());
+		assertEquals(packer.getUsedHeight(), restored.getUsedHeight());
+		// both packers place new rectangles at the same positions
+		for (int i = 0; i < 50; i++) {
+			int width = 1 + random.nextInt(100);
+			int height = 1 + random.nextInt(100);
+			assertEquals(packer.insert(width, height), restored.insert(width, height));
+		}
+	}
+
+	private static boolean overlaps(int[] a, int[] b) {
+		return a[0] < b[0] + b[2] && b[0] < a[0] + a[2] && a[1] < b[1] + b[3] && b[1] < a[1] + a[3];
+	}
+}
@@ -59,6 +59,11 @@ public abstract class CommonConstants {
 	 */
 	public static final boolean DEBUG_BEHAVIOR_TREES = false;
 
+	/**
+	 * Periodically compares the maintained profession counters of the partitions with a full count over all movables and prints differences.
+	 */
+	public static final boolean DEBUG_PROFESSION_COUNTS = false;
+
 	/**
 	 * Only enable this to allow reloading the movables.txt files.
 	 */
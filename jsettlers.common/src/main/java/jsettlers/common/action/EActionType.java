@@ -380,5 +380,14 @@ public enum EActionType {
 
 	TOGGLE_MUSIC,
 	MUSIC_VOLUME_UP,
-	MUSIC_VOLUME_DOWN;
+	MUSIC_VOLUME_DOWN,
+
+	/**
+	 * Shows or hides the graph of the time spent in the phases of the last frames.
+	 */
+	TOGGLE_FRAME_PROFILER,
+	/**
+	 * Saves the frames recorded by the frame profiler as Chrome trace file.
+	 */
+	SAVE_FRAME_TRACE;
 }
@@ -9,7 +9,30 @@ public interface IDirectGridProvider {
 	IMapObject[] getObjectArray();
 	IGraphicsMovable[] getMovableArray();
 	BitSet getBorderArray();
-	byte[][] getVisibleStatusArray();
-	byte[][] getHeightArray();
+	/**
+	 * @return the visible status of all positions stored row by row. The status of position (x, y) is at index {@code x + y * width}.
+	 */
+	byte[] getVisibleStatusArray();
+
+	/**
+	 * @return the heights of all positions stored row by row. The height of position (x, y) is at index {@code x + y * width}.
+	 */
+	byte[] getHeightArray();
 	boolean isFoWEnabled();
+
+	/**
+	 * Sets the listener informed about changes of the objects, the borders and the fog of war state of positions.
+	 *
+	 * @param listener
+	 *            The listener or {@code null} to remove the current one.
+	 */
+	void setMapObjectsListener(IGraphicsMapObjectsListener listener);
+
+	/**
+	 * Sets the listener informed when movables enter or leave positions.
+	 *
+	 * @param listener
+	 *            The listener or {@code null} to remove the current one.
+	 */
+	void setMovablesListener(IGraphicsMovablesListener listener);
 }
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.map;
+
+/**
+ * An implementor of this interface is informed by the grids whenever something changes that is drawn on top of the background at a position.
+ * These are the map objects, the player borders and the objects remembered for positions hidden by the fog of war. It is informed about changes of
+ * the player owning a position, too, as the minimap shows them.
+ */
+public interface IGraphicsMapObjectsListener {
+	/**
+	 * This is a default implementation doing nothing on calls to the methods of {@link IGraphicsMapObjectsListener}.
+	 */
+	IGraphicsMapObjectsListener DEFAULT_IMPLEMENTATION = (x, y) -> { };
+
+	/**
+	 * This method is called after the objects, the border, the owner or the fog of war state changed at the given position.
+	 *
+	 * @param x
+	 *            x coordinate of the position.
+	 * @param y
+	 *            y coordinate of the position.
+	 */
+	void mapObjectsChangedAt(int x, int y);
+}
@@ -42,5 +42,11 @@ public interface IStartingGameListener {
 
 	void startingLoadingGame();
 
-	void waitForPreloading();
+	/**
+	 * Blocks until the images needed to show the game are loaded.
+	 *
+	 * @param progressListener
+	 * 		Receives the progress of the loading.
+	 */
+	void waitForPreloading(IPreloadProgressListener progressListener);
 }
@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import go.graphics.GLDrawContext;
+import go.graphics.ImageData;
+import go.graphics.ManagedUnifiedDrawHandle;
+import go.graphics.SkylinePacker;
+
+/**
+ * Stores the packed managed texture pages and the position of every image on them, so that later starts can upload the pages directly instead of
+ * decoding and packing every image again.
+ * <p>
+ * The cache file depends on the DAT files (the settlers version id is a hash of their content), the texture map of this build and the page size
+ * and quad count of the GPU. Images are identified by their name. The file also stores the skyline of every page, so that new images fill the
+ * free area of the restored pages.
+ * <p>
+ * The context keeps a copy of its pages until the cache is saved. Images that are added afterwards are not stored.
+ * <p>
+ * Reading the file inflates all pages. {@link #preload()} does this on a loader thread, so that attaching the first context only uploads the pages.
+ */
+public class AtlasCache {
+	private static final byte[] HEADER = { 'A', 'T', 'L', '2' };
+	private static final String FILE_PREFIX = "atlas-";
+	private static final String FILE_SUFFIX = ".cache";
+
+	private static volatile AtlasCache instance;
+
+	private final File directory;
+	private final String versionId;
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private GLDrawContext context;
+	private File file;
+	private Contents preloaded;
+	private boolean changed;
+	private boolean saved;
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param directory
+	 *            The directory the cache file is stored in. It is created if needed.
+	 * @param versionId
+	 *            The id of the DAT files.
+	 */
+	public AtlasCache(File directory, String versionId) {
+		this.directory = directory;
+		this.versionId = versionId;
+	}
+
+	/**
+	 * @return The cache that is used by all images or null if there is none.
+	 */
+	public static AtlasCache getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(AtlasCache cache) {
+		instance = cache;
+	}
+
+	/**
+	 * Gets the draw call for an image. The image is restored from the cache if possible, otherwise its texture is generated and added to the
+	 * cache.
+	 */
+	synchronized ManagedUnifiedDrawHandle createHandle(GLDrawContext gl, SingleImage image) {
+		attach(gl);
+
+		Entry entry = getEntry(image);
+		if (entry != null) {
+			image.toffsetX = entry.offsetX;
+			image.toffsetY = entry.offsetY;
+			image.twidth = entry.width;
+			image.theight = entry.height;
+			return gl.createManagedUnifiedDrawCall(entry.page, entry.lu, entry.lv, entry.hu, entry.hv, entry.offsetX, entry.offsetY, entry.width, entry.height);
+		}
+
+		ManagedUnifiedDrawHandle handle = image.createHandle(gl);
+		if (image.name != null) {
+			entries.put(image.name, new Entry(gl.getManagedPage(handle), handle, image));
+			changed = true;
+		}
+		return handle;
+	}
+
+	/**
+	 * Tests whether an image can be restored from the cache. This only knows the images of the cache file after the cache was attached to a
+	 * context.
+	 *
+	 * @param image
+	 *            The image.
+	 * @return true if drawing the image does not need to generate its texture.
+	 */
+	synchronized boolean contains(SingleImage image) {
+		return getEntry(image) != null;
+	}
+
+	private Entry getEntry(SingleImage image) {
+		Entry entry = image.name != null ? entries.get(image.name) : null;
+		return entry != null && entry.imageWidth == image.width && entry.imageHeight == image.height ? entry : null;
+	}
+
+	/**
+	 * Reads the cache file of this version into memory, so that {@link #attach(GLDrawContext)} does not need to inflate it on the draw thread. This
+	 * does nothing if a context was already attached.
+	 */
+	public void preload() {
+		String prefix = FILE_PREFIX + versionId + "-";
+		String suffix = "-" + getTextureMapHash() + FILE_SUFFIX;
+		// the page size and quad count of the context are not known yet, but old cache files are deleted when a new one is written
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(suffix));
+		if (files == null || files.length != 1) {
+			return;
+		}
+
+		Contents contents = read(files[0]);
+		synchronized (this) {
+			if (context == null) {
+				preloaded = contents;
+			}
+		}
+	}
+
+	/**
+	 * Makes the cache use the given context. The first context restores the pages of the cache file. The file is read now unless it was preloaded.
+	 *
+	 * @param gl
+	 *            The context the images are drawn with.
+	 */
+	public synchronized void attach(GLDrawContext gl) {
+		if (gl == context) {
+			return;
+		}
+
+		// a new context (e.g. after the old one was lost) gets the pages of the old one
+		List<ImageData> pages = context != null ? context.getManagedPages() : null;
+		List<int[]> skylines = new ArrayList<>();
+		if (pages != null) {
+			for (int i = 0; i < pages.size(); i++) {
+				skylines.add(context.getManagedPageSkyline(i));
+			}
+		}
+		file = new File(directory, FILE_PREFIX + versionId + "-" + gl.getMaxManagedTextureSize() + "-" + gl.getMaxManagedQuads() + "-"
+				+ getTextureMapHash() + FILE_SUFFIX);
+		if (context == null) {
+			Contents contents = preloaded != null && preloaded.file.equals(file) ? preloaded : read(file);
+			preloaded = null;
+			if (contents != null) {
+				pages = contents.pages;
+				skylines = contents.skylines;
+				entries.putAll(contents.entries);
+			}
+		}
+		context = gl;
+
+		gl.setKeepManagedPages(!saved);
+		if (pages == null || !gl.restoreManagedPages(pages, skylines, countQuads(pages.size()))) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return The number of images on each page.
+	 */
+	private int[] countQuads(int pages) {
+		int[] quads = new int[pages];
+		for (Entry entry : entries.values()) {
+			if (entry.page < 0 || entry.page >= pages) {
+				return new int[0];
+			}
+			quads[entry.page]++;
+		}
+		return quads;
+	}
+
+	private static Contents read(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file)), 1 << 16))) {
+			byte[] header = new byte[HEADER.length];
+			in.readFully(header);
+			if (!Arrays.equals(header, HEADER)) {
+				throw new IOException("Atlas cache has wrong version.");
+			}
+
+			Contents contents = new Contents(file);
+			int size = in.readInt();
+			int pageCount = in.readInt();
+			byte[] line = new byte[size * 4];
+			SkylinePacker packer = new SkylinePacker(size);
+			for (int i = 0; i < pageCount; i++) {
+				int[] skyline = new int[in.readInt()];
+				for (int j = 0; j < skyline.length; j++) {
+					skyline[j] = in.readInt();
+				}
+				packer.setSkyline(skyline);
+				contents.skylines.add(skyline);
+
+				int height = in.readInt();
+				ImageData page = new ImageData(size, height);
+				IntBuffer data = page.getWriteData32();
+				for (int y = 0; y < height; y++) {
+					in.readFully(line);
+					data.put(ByteBuffer.wrap(line).asIntBuffer());
+				}
+				data.rewind();
+				contents.pages.add(page);
+			}
+
+			int entryCount = in.readInt();
+			for (int i = 0; i < entryCount; i++) {
+				contents.entries.put(in.readUTF(), new Entry(in));
+			}
+
+			return contents;
+		} catch (IOException | IllegalArgumentException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the cache file if images were added since it was loaded. Old cache files are deleted. The context does not keep the copies of its
+	 * pages afterwards.
+	 */
+	public synchronized void save() throws IOException {
+		List<ImageData> pages = context != null ? context.getManagedPages() : null;
+		if (pages == null) {
+			return;
+		}
+		try {
+			if (changed) {
+				write(pages);
+				changed = false;
+			}
+		} finally {
+			saved = true;
+			context.releaseManagedPages();
+		}
+	}
+
+	private void write(List<ImageData> pages) throws IOException {
+		directory.mkdirs();
+		File tempFile = new File(directory, file.getName() + ".tmp");
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)), deflater, 1 << 16))) {
+			int size = context.getMaxManagedTextureSize();
+			out.write(HEADER);
+			out.writeInt(size);
+			out.writeInt(pages.size());
+
+			ByteBuffer line = ByteBuffer.allocate(size * 4);
+			for (int i = 0; i < pages.size(); i++) {
+				ImageData page = pages.get(i);
+				int[] skyline = context.getManagedPageSkyline(i);
+				out.writeInt(skyline.length);
+				for (int value : skyline) {
+					out.writeInt(value);
+				}
+
+				// only the used rows are stored
+				int height = context.getManagedPageHeight(i);
+				out.writeInt(height);
+				synchronized (page) {
+					IntBuffer data = page.getReadData32().duplicate();
+					data.rewind();
+					for (int y = 0; y < height; y++) {
+						line.clear();
+						data.limit((y + 1) * size);
+						line.asIntBuffer().put(data);
+						out.write(line.array());
+					}
+				}
+			}
+
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				entry.getValue().writeTo(out);
+			}
+		} finally {
+			deflater.end();
+		}
+
+		for (File oldFile : directory.listFiles()) {
+			if (oldFile.getName().startsWith(FILE_PREFIX) && !oldFile.equals(tempFile)) {
+				oldFile.delete();
+			}
+		}
+		if (!tempFile.renameTo(file)) {
+			throw new IOException("Could not write " + file);
+		}
+	}
+
+	/**
+	 * Saves the cache on a new thread.
+	 */
+	public void saveInBackground() {
+		new Thread(() -> {
+			try {
+				save();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}, "atlas cache writer").start();
+	}
+
+	private static long getTextureMapHash() {
+		CRC32 crc = new CRC32();
+		try (InputStream in = ImageIndexFile.getResource("texturemap")) {
+			if (in != null) {
+				byte[] buffer = new byte[4096];
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					crc.update(buffer, 0, read);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * The content of a cache file.
+	 */
+	private static class Contents {
+		final File file;
+		final List<ImageData> pages = new ArrayList<>();
+		final List<int[]> skylines = new ArrayList<>();
+		final Map<String, Entry> entries = new HashMap<>();
+
+		Contents(File file) {
+			this.file = file;
+		}
+	}
+
+	private static class Entry {
+		final int page;
+		final float lu, lv, hu, hv;
+		final int offsetX, offsetY, width, height;
+		final int imageWidth, imageHeight;
+
+		Entry(int page, ManagedUnifiedDrawHandle handle, SingleImage image) {
+			this.page = page;
+			this.lu = handle.texX;
+			this.lv = handle.texY;
+			this.hu = handle.texWidth;
+			this.hv = handle.texHeight;
+			this.offsetX = image.toffsetX;
+			this.offsetY = image.toffsetY;
+			this.width = image.twidth;
+			this.height = image.theight;
+			this.imageWidth = image.width;
+			this.imageHeight = image.height;
+		}
+
+		Entry(DataInputStream in) throws IOException {
+			page = in.readInt();
+			lu = in.readFloat();
+			lv = in.readFloat();
+			hu = in.readFloat();
+			hv = in.readFloat();
+			offsetX = in.readInt();
+			offsetY = in.readInt();
+			width = in.readInt();
+			height = in.readInt();
+			imageWidth = in.readInt();
+			imageHeight = in.readInt();
+		}
+
+		void writeTo(DataOutputStream out) throws IOException {
+			out.writeInt(page);
+			out.writeFloat(lu);
+			out.writeFloat(lv);
+			out.writeFloat(hu);
+			out.writeFloat(hv);
+			out.writeInt(offsetX);
+			out.writeInt(offsetY);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeInt(imageWidth);
+			out.writeInt(imageHeight);
+		}
+	}
+}
@@ -48,6 +48,10 @@ public class SingleImage extends Image implements ImageDataPrivider {
 	protected String name;
 
 	protected ManagedUnifiedDrawHandle geometryIndex = null;
+	/**
+	 * The texture generated by {@link #prepareTexture()} that was not uploaded yet.
+	 */
+	private volatile ImageData preparedTexture = null;
 
 	/**
 	 * Creates a new image by the given buffer.
@@ -155,9 +159,46 @@ public class SingleImage extends Image implements ImageDataPrivider {
 
 	protected void checkHandles(GLDrawContext gl) {
 		if(geometryIndex == null || !geometryIndex.isValid()) {
-			ImageData texture = generateTextureData();
-			geometryIndex = gl.createManagedUnifiedDrawCall(texture, toffsetX, toffsetY, twidth, theight);
+			AtlasCache cache = AtlasCache.getInstance();
+			geometryIndex = cache != null ? cache.createHandle(gl, this) : createHandle(gl);
+		}
+	}
+
+	/**
+	 * Uploads the texture of this image if this was not done yet. This has to be called on the thread of the context.
+	 *
+	 * @param gl
+	 * 		The context to upload to.
+	 */
+	public void upload(GLDrawContext gl) {
+		checkHandles(gl);
+		preparedTexture = null;
+	}
+
+	/**
+	 * Generates the texture of this image ahead of its upload, so that {@link #upload(GLDrawContext)} or the first draw call only needs to copy it
+	 * to the texture. This may be called on any thread.
+	 *
+	 * @return true if the texture was generated. false if it is not needed, because the image was already uploaded or the atlas cache contains it.
+	 */
+	public boolean prepareTexture() {
+		ManagedUnifiedDrawHandle handle = geometryIndex;
+		AtlasCache cache = AtlasCache.getInstance();
+		if ((handle != null && handle.isValid()) || (cache != null && cache.contains(this))) {
+			return false;
+		}
+		preparedTexture = generateTextureData();
+		return true;
+	}
+
+	ManagedUnifiedDrawHandle createHandle(GLDrawContext gl) {
+		ImageData texture = preparedTexture;
+		if (texture != null) {
+			preparedTexture = null;
+		} else {
+			texture = generateTextureData();
 		}
+		return gl.createManagedUnifiedDrawCall(texture, toffsetX, toffsetY, twidth, theight);
 	}
 
 	protected ImageData generateTextureData() {
@@ -16,7 +16,7 @@ package jsettlers.graphics.image.reader;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -26,7 +26,8 @@ import jsettlers.graphics.image.SingleImage;
 import jsettlers.graphics.image.Image;
 import jsettlers.graphics.image.NullImage;
 import jsettlers.graphics.image.SettlerImage;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
+import jsettlers.graphics.image.reader.bytereader.MappedByteReader;
 import jsettlers.graphics.image.reader.shadowmap.IdentityShadowMapping;
 import jsettlers.graphics.image.reader.shadowmap.ShadowMapping;
 import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
@@ -108,6 +109,9 @@ import static jsettlers.graphics.image.reader.versions.GfxFolderMapping.DatFileM
  * <td>Start position of fist image sequence list.</td>
  * </tr>
  * </table>
+ * <p>
+ * The file is memory mapped. The sequence index is read when the reader is initialized, the bitmaps are decoded on demand. Reading and decoding
+ * does not lock the reader, so images can be decoded by several threads at the same time.
  *
  * @author michael
  */
@@ -195,7 +199,10 @@ public class AdvancedDatFileReader implements DatFileReader {
 	private final DatFileMapping mapping;
 	private final ShadowMapping shadowMapping;
 
-	private       ByteReader reader = null;
+	/**
+	 * The content of the file or <code>null</code> if it could not be read.
+	 */
+	private       ByteBuffer data = null;
 	private final File       file;
 
 	/**
@@ -204,9 +211,9 @@ public class AdvancedDatFileReader implements DatFileReader {
 	private int[] settlerStarts;
 
 	/**
-	 * A list of loaded settler sequences.
+	 * A list of loaded settler sequences. It is set at the end of {@link #initialize()}.
 	 */
-	private Sequence<Image>[] settlerSequences = null;
+	private volatile Sequence<Image>[] settlerSequences = null;
 	/**
 	 * An array with the same length as settlers.
 	 */
@@ -286,18 +293,13 @@ public class AdvancedDatFileReader implements DatFileReader {
 	 * Initializes the reader, reads the index.
 	 */
 	@SuppressWarnings("unchecked")
-	public void initialize() {
+	public synchronized void initialize() {
 		try {
-			reader = new ByteReader(new RandomAccessFile(file, "r"));
-			initFromReader(file, reader);
+			data = MappedByteReader.map(file);
+			initFromReader(file, new MappedByteReader(data, 0));
 
 		} catch (IOException e) {
-			if (reader != null) {
-				try {
-					reader.close();
-				} catch (IOException ex) { /* nothing to do */ }
-				reader = null;
-			}
+			data = null;
 			System.out.println("Could not read dat file " + file + " due to: " + e.getMessage());
 		}
 		initializeNullFile();
@@ -305,7 +307,6 @@ public class AdvancedDatFileReader implements DatFileReader {
 		landscapeImages = new SingleImage[landscapeStarts.length];
 
 		guiImages = new SingleImage[guiStarts.length];
-		settlerSequences = new Sequence[settlerStarts.length];
 
 		int torsoDifference = settlerStarts.length - torsoStarts.length;
 		if (torsoDifference > 0) {
@@ -367,9 +368,12 @@ public class AdvancedDatFileReader implements DatFileReader {
 				}
 			}
 		}
+
+		// publishes the initialized index to readers that don't lock
+		settlerSequences = new Sequence[settlerStarts.length];
 	}
 
-	private void initFromReader(File file, ByteReader reader) throws IOException {
+	private void initFromReader(File file, IByteReader reader) throws IOException {
 		int[] sequenceIndexStarts = readSequenceIndexStarts(file.length(), reader);
 
 		for (int i = 0; i < SEQUENCE_TYPE_COUNT; i++) {
@@ -382,7 +386,7 @@ public class AdvancedDatFileReader implements DatFileReader {
 		}
 	}
 
-	private int[] readSequenceIndexStarts(long fileLength, ByteReader reader) throws IOException {
+	private int[] readSequenceIndexStarts(long fileLength, IByteReader reader) throws IOException {
 		reader.assumeToRead(FILE_START1);
 		reader.assumeToRead(type.getFileStartMagic());
 		reader.assumeToRead(FILE_START2);
@@ -420,7 +424,7 @@ public class AdvancedDatFileReader implements DatFileReader {
 	 * @throws IOException
 	 * 		if an read error occurred.
 	 */
-	private void readSequencesAt(ByteReader reader, int sequenceIndexStart) throws IOException {
+	private void readSequencesAt(IByteReader reader, int sequenceIndexStart) throws IOException {
 		// read data index 0
 		reader.skipTo(sequenceIndexStart);
 
@@ -474,7 +478,11 @@ public class AdvancedDatFileReader implements DatFileReader {
 
 	private void initializeIfNeeded() {
 		if (settlerSequences == null) {
-			initialize();
+			synchronized (this) {
+				if (settlerSequences == null) {
+					initialize();
+				}
+			}
 		}
 	}
 
@@ -489,15 +497,11 @@ public class AdvancedDatFileReader implements DatFileReader {
 		@Override
 		public Sequence<Image> get(int index) {
 			initializeIfNeeded();
-			if (settlerSequences[index] == null) {
-				settlerSequences[index] = NULL_SETTLER_SEQUENCE;
-				try {
-					loadSettlers(index, file_name);
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
+			Sequence<Image> sequence = settlerSequences[index];
+			if (sequence == null) {
+				sequence = loadSettlerSequence(index);
 			}
-			return settlerSequences[index];
+			return sequence;
 		}
 
 		@Override
@@ -508,27 +512,51 @@ public class AdvancedDatFileReader implements DatFileReader {
 	}
 
 	@Override
-	public synchronized <T extends Image> long readImageHeader(DatBitmapTranslator<T> translator,
-															   ImageMetadata metadata,
-															   long offset) throws IOException {
-		initializeIfNeeded();
-		reader.skipTo(offset);
+	public <T extends Image> long readImageHeader(DatBitmapTranslator<T> translator,
+												  ImageMetadata metadata,
+												  long offset) throws IOException {
+		IByteReader reader = readerAt(offset);
 		DatBitmapReader.readImageHeader(reader, translator, metadata);
 		return reader.getReadBytes();
 	}
 
 	@Override
-	public synchronized <T extends Image> void readCompressedData(DatBitmapTranslator<T> translator,
-																  ImageMetadata metadata,
-																  ImageArrayProvider array,
-																  long offset) throws IOException {
-		initializeIfNeeded();
-		reader.skipTo(offset);
+	public <T extends Image> void readCompressedData(DatBitmapTranslator<T> translator,
+													 ImageMetadata metadata,
+													 ImageArrayProvider array,
+													 long offset) throws IOException {
+		IByteReader reader = readerAt(offset);
 		DatBitmapReader.readCompressedData(reader, translator, metadata.width, metadata.height, array);
 	}
 
-	private synchronized void loadSettlers(int goldIndex, String name) throws IOException {
+	/**
+	 * Creates a reader for the given position. Every call gets its own reader, so this does not need to be synchronized.
+	 */
+	private IByteReader readerAt(long offset) throws IOException {
 		initializeIfNeeded();
+		ByteBuffer data = this.data;
+		if (data == null) {
+			throw new IOException("Dat file " + file + " could not be read.");
+		}
+		return new MappedByteReader(data, offset);
+	}
+
+	/**
+	 * Loads a settler sequence if no other thread did so yet. Only the headers are read here, the bitmaps are decoded when they are needed.
+	 */
+	private synchronized Sequence<Image> loadSettlerSequence(int index) {
+		if (settlerSequences[index] == null) {
+			settlerSequences[index] = NULL_SETTLER_SEQUENCE;
+			try {
+				loadSettlers(index, file_name);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		return settlerSequences[index];
+	}
+
+	private void loadSettlers(int goldIndex, String name) throws IOException {
 
 		int realSettlerIndex = mapping.mapSettlersSequence(goldIndex);
 		int realShadowIndex = mapping.mapSettlersSequence(shadowMapping.getShadowIndex(goldIndex));
@@ -564,7 +592,7 @@ public class AdvancedDatFileReader implements DatFileReader {
 	}
 
 	private long[] readSequenceHeader(int position) throws IOException {
-		reader.skipTo(position);
+		IByteReader reader = readerAt(position);
 
 		reader.assumeToRead(START);
 		int frameCount = reader.read8();
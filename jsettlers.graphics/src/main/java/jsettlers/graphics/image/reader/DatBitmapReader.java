@@ -17,7 +17,7 @@ package jsettlers.graphics.image.reader;
 import java.io.IOException;
 
 import jsettlers.graphics.image.Image;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
 import jsettlers.graphics.image.reader.translator.HeaderType;
 import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
 import go.graphics.ImageData;
@@ -82,7 +82,7 @@ public final class DatBitmapReader<T extends Image> {
 	 * @return The short array given, or null if the short array was not big enough.
 	 * @throws IOException
 	 */
-	public static <T extends Image> void readImageHeader(ByteReader reader,
+	public static <T extends Image> void readImageHeader(IByteReader reader,
 														 DatBitmapTranslator<T> translator,
 														 ImageMetadata metadata) throws IOException {
 		HeaderType headerType = translator.getHeaderType();
@@ -121,7 +121,7 @@ public final class DatBitmapReader<T extends Image> {
 	 * @throws IOException
 	 */
 	public static <T extends Image> void readCompressedData(
-			ByteReader reader, DatBitmapTranslator<T> translator, int width,
+			IByteReader reader, DatBitmapTranslator<T> translator, int width,
 			int height, ImageArrayProvider array) throws IOException {
 		int transparent = translator.getTransparentColor();
 		// TODO: buffer the buffer but be thread safe!
@@ -22,7 +22,7 @@ import java.io.RandomAccessFile;
  *
  * @author michael
  */
-public class ByteReader {
+public class ByteReader implements IByteReader {
 
 	private static final int CACHE_SIZE = 10000;
 
@@ -72,6 +72,7 @@ public class ByteReader {
 	 * @throws IOException
 	 *             If an io error occured.
 	 */
+	@Override
 	public int read16() throws IOException {
 		assertCacheHolds(2);
 
@@ -143,6 +144,7 @@ public class ByteReader {
 	 * @throws IOException
 	 *             If an IO error occured.
 	 */
+	@Override
 	public int read32() throws IOException {
 		assertCacheHolds(4);
 
@@ -166,6 +168,7 @@ public class ByteReader {
 	 * @throws IOException
 	 *             If the read data does not match the given data.
 	 */
+	@Override
 	public void assumeToRead(byte[] toRead) throws IOException {
 		assertCacheHolds(toRead.length);
 
@@ -185,6 +188,7 @@ public class ByteReader {
 	 * @throws IOException
 	 *             If an IO error occured.
 	 */
+	@Override
 	public int read16signed() throws IOException {
 		int read = read16();
 		if (read < 0x8000) {
@@ -201,6 +205,7 @@ public class ByteReader {
 	 * @throws IOException
 	 *             If an io error occured.
 	 */
+	@Override
 	public int read8() throws IOException {
 		assertCacheHolds(1);
 		return 0xff & this.cache[this.cachePosition++];
@@ -239,6 +244,7 @@ public class ByteReader {
 	 * @throws IOException
 	 *             If an IO error occured.
 	 */
+	@Override
 	public long skipTo(long pos) throws IOException {
 		jumpCachePosition(pos);
 		return this.cacheStart + this.cachePosition;
@@ -250,6 +256,7 @@ public class ByteReader {
 	 *
 	 * @return The number.
 	 */
+	@Override
 	public long getReadBytes() {
 		return this.cacheStart + this.cachePosition;
 	}
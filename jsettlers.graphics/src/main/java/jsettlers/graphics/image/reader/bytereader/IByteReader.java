@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.reader.bytereader;
+
+import java.io.IOException;
+
+/**
+ * A little endian reader that reads from a position in a file and advances that position.
+ */
+public interface IByteReader {
+
+	/**
+	 * Reads an unsigned 8 bit value.
+	 *
+	 * @return The byte's value.
+	 * @throws IOException
+	 *             If an io error occured.
+	 */
+	int read8() throws IOException;
+
+	/**
+	 * Reads an unsigned 16 bit value.
+	 *
+	 * @return The value.
+	 * @throws IOException
+	 *             If an io error occured.
+	 */
+	int read16() throws IOException;
+
+	/**
+	 * Reads a signed 16 bit value.
+	 *
+	 * @return The signed value.
+	 * @throws IOException
+	 *             If an io error occured.
+	 */
+	int read16signed() throws IOException;
+
+	/**
+	 * Reads a 32 bit value.
+	 *
+	 * @return The value.
+	 * @throws IOException
+	 *             If an io error occured.
+	 */
+	int read32() throws IOException;
+
+	/**
+	 * Assumes to read the given data.
+	 *
+	 * @param toRead
+	 *            The array that the read bytes should be like.
+	 * @throws IOException
+	 *             If the read data does not match the given data.
+	 */
+	void assumeToRead(byte[] toRead) throws IOException;
+
+	/**
+	 * Skips to a given position.
+	 *
+	 * @param pos
+	 *            The position to go to.
+	 * @return The actual position we went to.
+	 * @throws IOException
+	 *             If an IO error occured.
+	 */
+	long skipTo(long pos) throws IOException;
+
+	/**
+	 * Gets the position in the file the next value is read from.
+	 *
+	 * @return The position.
+	 */
+	long getReadBytes();
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.reader.bytereader;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link IByteReader} that reads from a memory mapped file.
+ * <p>
+ * All reads are absolute reads on the shared buffer, so every thread can use its own reader on the same buffer without any locking. Creating a
+ * reader is cheap, it only holds the buffer and the current position.
+ */
+public class MappedByteReader implements IByteReader {
+
+	private final ByteBuffer buffer;
+	private int position;
+
+	/**
+	 * Creates a new reader.
+	 *
+	 * @param buffer
+	 *            The buffer to read from, e.g. one created by {@link #map(File)}. The position and limit of the buffer are not used or changed.
+	 * @param position
+	 *            The position to start reading at.
+	 * @throws IOException
+	 *             If the position is outside of the buffer.
+	 */
+	public MappedByteReader(ByteBuffer buffer, long position) throws IOException {
+		this.buffer = buffer;
+		skipTo(position);
+	}
+
+	/**
+	 * Maps the whole file to memory.
+	 *
+	 * @param file
+	 *            The file to map.
+	 * @return A read only buffer with the content of the file.
+	 * @throws IOException
+	 *             If the file could not be mapped.
+	 */
+	public static ByteBuffer map(File file) throws IOException {
+		try (RandomAccessFile in = new RandomAccessFile(file, "r"); FileChannel channel = in.getChannel()) {
+			// the mapping stays valid after the channel is closed.
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	@Override
+	public int read8() throws IOException {
+		int p = advance(1);
+		return 0xff & buffer.get(p);
+	}
+
+	@Override
+	public int read16() throws IOException {
+		int p = advance(2);
+		return (0xff & buffer.get(p)) | ((0xff & buffer.get(p + 1)) << 8);
+	}
+
+	@Override
+	public int read16signed() throws IOException {
+		return (short) read16();
+	}
+
+	@Override
+	public int read32() throws IOException {
+		int p = advance(4);
+		return (0xff & buffer.get(p)) | ((0xff & buffer.get(p + 1)) << 8) | ((0xff & buffer.get(p + 2)) << 16) | ((0xff & buffer.get(p + 3)) << 24);
+	}
+
+	@Override
+	public void assumeToRead(byte[] toRead) throws IOException {
+		int p = advance(toRead.length);
+		for (int i = 0; i < toRead.length; i++) {
+			byte read = buffer.get(p + i);
+			if (read != toRead[i]) {
+				throw new IOException("IO error: expected to read " + toRead[i] + " but got " + read + " (i=" + i + ")");
+			}
+		}
+	}
+
+	@Override
+	public long skipTo(long pos) throws IOException {
+		if (pos < 0 || pos > buffer.capacity()) {
+			throw new EOFException("Position " + pos + " is outside of the file.");
+		}
+		this.position = (int) pos;
+		return pos;
+	}
+
+	@Override
+	public long getReadBytes() {
+		return position;
+	}
+
+	private int advance(int bytes) throws EOFException {
+		int p = position;
+		if (p + bytes > buffer.capacity()) {
+			throw new EOFException("Tried to read " + bytes + " bytes at " + p + " but the file ends at " + buffer.capacity());
+		}
+		position = p + bytes;
+		return p;
+	}
+}
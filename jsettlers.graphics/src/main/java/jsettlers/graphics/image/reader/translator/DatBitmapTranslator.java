@@ -17,7 +17,7 @@ package jsettlers.graphics.image.reader.translator;
 import java.io.IOException;
 
 import jsettlers.graphics.image.Image;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
 /**
@@ -43,7 +43,7 @@ public interface DatBitmapTranslator<T extends Image> {
 	 * @return An int indicating the color, e.g. in RGBA8 format.
 	 * @throws IOException If an error occurred.
 	 */
-	int readUntransparentColor(ByteReader reader) throws IOException;
+	int readUntransparentColor(IByteReader reader) throws IOException;
 
 	/**
 	 * gets the color that is used as transparent.
@@ -17,7 +17,7 @@ package jsettlers.graphics.image.reader.translator;
 import java.io.IOException;
 
 import jsettlers.graphics.image.SingleImage;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
 import jsettlers.graphics.image.reader.DatFileType;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
@@ -46,7 +46,7 @@ public class GuiTranslator implements DatBitmapTranslator<SingleImage> {
 	}
 
 	@Override
-	public int readUntransparentColor(ByteReader reader) throws IOException {
+	public int readUntransparentColor(IByteReader reader) throws IOException {
 		return type.convertTo8888(reader.read16());
 	}
 
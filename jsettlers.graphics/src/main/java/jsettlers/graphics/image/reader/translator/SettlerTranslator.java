@@ -17,7 +17,7 @@ package jsettlers.graphics.image.reader.translator;
 import java.io.IOException;
 
 import jsettlers.graphics.image.SettlerImage;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
 import jsettlers.graphics.image.reader.DatFileType;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
@@ -57,7 +57,7 @@ public class SettlerTranslator implements DatBitmapTranslator<SettlerImage> {
 	}
 
 	@Override
-	public int readUntransparentColor(ByteReader reader) throws IOException {
+	public int readUntransparentColor(IByteReader reader) throws IOException {
 		return type.convertTo8888(reader.read16());
 	}
 
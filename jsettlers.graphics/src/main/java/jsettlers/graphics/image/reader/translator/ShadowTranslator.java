@@ -17,7 +17,7 @@ package jsettlers.graphics.image.reader.translator;
 import java.io.IOException;
 
 import jsettlers.graphics.image.SingleImage;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
 /**
@@ -28,7 +28,7 @@ import jsettlers.graphics.image.reader.ImageMetadata;
  */
 public class ShadowTranslator implements DatBitmapTranslator<SingleImage> {
 	@Override
-	public int readUntransparentColor(ByteReader reader) throws IOException {
+	public int readUntransparentColor(IByteReader reader) throws IOException {
 		return 136; // shadow: A = 0.5 in 8888 coding
 	}
 
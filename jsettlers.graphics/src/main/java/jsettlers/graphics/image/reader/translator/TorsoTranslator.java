@@ -17,7 +17,7 @@ package jsettlers.graphics.image.reader.translator;
 import java.io.IOException;
 
 import jsettlers.graphics.image.SingleImage;
-import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
 /**
@@ -35,7 +35,7 @@ public class TorsoTranslator implements DatBitmapTranslator<SingleImage> {
 	}
 
 	@Override
-	public int readUntransparentColor(ByteReader reader) throws IOException {
+	public int readUntransparentColor(IByteReader reader) throws IOException {
 		int read = (int) ((reader.read8() & TORSO_BITS) * 255f/31f); // convert 5->8 bits
 		return (short) (read << 24 | read << 16 | read << 8 | 0xff); // convert to 8888
 	}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map;
+
+import java.util.Locale;
+
+import go.graphics.EFramePhase;
+import go.graphics.EPrimitiveType;
+import go.graphics.FrameProfiler;
+import go.graphics.GLDrawContext;
+import go.graphics.UnifiedDrawHandle;
+import go.graphics.text.TextDrawer;
+
+import jsettlers.common.Color;
+
+/**
+ * Draws the frames recorded by a {@link FrameProfiler} as a graph: Each frame is a bar that is split into the time of its phases.
+ */
+final class FrameProfilerOverlay {
+	private static final float LEFT = 10;
+	private static final float BOTTOM = 10;
+	private static final float BAR_WIDTH = 2;
+	private static final float PIXELS_PER_MS = 4;
+	private static final float TARGET_FRAME_MS = 1000 / 60f;
+
+	private static final Color[] PHASE_COLORS = {
+			new Color(0.5f, 0.5f, 0.5f, 1), // OTHER
+			new Color(0.2f, 0.6f, 0.2f, 1), // BACKGROUND
+			new Color(0.9f, 0.6f, 0.1f, 1), // OBJECTS
+			new Color(0.2f, 0.5f, 1, 1), // MOVABLES
+			new Color(0.8f, 0.2f, 0.8f, 1), // BORDERS
+			new Color(1, 1, 0.2f, 1), // MARKERS
+			new Color(0.3f, 0.9f, 0.9f, 1), // CONTROLS
+			new Color(0.6f, 0.4f, 0.2f, 1), // MINIMAP
+			new Color(1, 1, 1, 1), // MESSAGES
+			new Color(1, 0.2f, 0.2f, 1), // UPLOADS
+	};
+
+	private UnifiedDrawHandle quad = null;
+
+	void draw(GLDrawContext gl, FrameProfiler profiler, TextDrawer drawer) {
+		if (quad == null || !quad.isValid()) {
+			quad = gl.createUnifiedDrawCall(4, "frame-profiler", null, null, new float[] { 0, 0, 1, 0, 1, 1, 0, 1 });
+		}
+
+		int frames = profiler.getRecordedFrames();
+		long[] phaseSums = new long[EFramePhase.VALUES.length];
+		for (int frame = 0; frame < frames; frame++) {
+			float x = LEFT + frame * BAR_WIDTH;
+			float y = BOTTOM;
+			for (EFramePhase phase : EFramePhase.VALUES) {
+				long nanos = profiler.getPhaseNanos(frame, phase);
+				phaseSums[phase.ordinal()] += nanos;
+
+				float barHeight = nanos / 1e6f * PIXELS_PER_MS;
+				if (barHeight >= .5f) {
+					quad.drawSimple(EPrimitiveType.Quad, x, y, 0, BAR_WIDTH, barHeight, PHASE_COLORS[phase.ordinal()], 1);
+					y += barHeight;
+				}
+			}
+		}
+
+		float graphWidth = FrameProfiler.HISTORY_FRAMES * BAR_WIDTH;
+		quad.drawSimple(EPrimitiveType.Quad, LEFT, BOTTOM + TARGET_FRAME_MS * PIXELS_PER_MS, 0, graphWidth, 1, Color.WHITE, 1);
+
+		float lineHeight = drawer.getHeight("X") * 1.2f;
+		float textX = LEFT + graphWidth + 10;
+		float textY = BOTTOM;
+		for (int phase = EFramePhase.VALUES.length - 1; phase >= 0; phase--) {
+			double averageMs = frames > 0 ? phaseSums[phase] / 1e6 / frames : 0;
+			drawer.drawString(textX, textY, PHASE_COLORS[phase], String.format(Locale.ENGLISH, "%s: %.2f ms", EFramePhase.VALUES[phase], averageMs));
+			textY += lineHeight;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jsettlers.common.map.IDirectGridProvider;
+import jsettlers.common.map.IGraphicsBackgroundListener;
+import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsMapObjectsListener;
+import jsettlers.common.map.IGraphicsMovablesListener;
+
+/**
+ * The grids only accept one listener for each kind of change. This class is registered as that listener and passes the changes on to every part
+ * of the graphics that needs them, e.g. the background, the map objects and the minimap.
+ */
+public final class MapChangeDispatcher implements IGraphicsBackgroundListener, IGraphicsMapObjectsListener, IGraphicsMovablesListener {
+	private final CopyOnWriteArrayList<IGraphicsBackgroundListener> backgroundListeners = new CopyOnWriteArrayList<>();
+	private final CopyOnWriteArrayList<IGraphicsMapObjectsListener> mapObjectsListeners = new CopyOnWriteArrayList<>();
+	private final CopyOnWriteArrayList<IGraphicsMovablesListener> movablesListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Registers a new dispatcher at the map.
+	 *
+	 * @param map
+	 *            The map. The map objects and the movables can only be listened to if it is an {@link IDirectGridProvider}.
+	 */
+	MapChangeDispatcher(IGraphicsGrid map) {
+		map.setBackgroundListener(this);
+		if (map instanceof IDirectGridProvider) {
+			((IDirectGridProvider) map).setMapObjectsListener(this);
+			((IDirectGridProvider) map).setMovablesListener(this);
+		}
+	}
+
+	/**
+	 * Adds a listener for background changes. Adding a listener that is already registered does nothing.
+	 */
+	public void addBackgroundListener(IGraphicsBackgroundListener listener) {
+		backgroundListeners.addIfAbsent(listener);
+	}
+
+	public void removeBackgroundListener(IGraphicsBackgroundListener listener) {
+		backgroundListeners.remove(listener);
+	}
+
+	/**
+	 * Adds a listener for changes of the map objects, borders, owners and the fog of war. Adding a listener that is already registered does
+	 * nothing.
+	 */
+	public void addMapObjectsListener(IGraphicsMapObjectsListener listener) {
+		mapObjectsListeners.addIfAbsent(listener);
+	}
+
+	public void removeMapObjectsListener(IGraphicsMapObjectsListener listener) {
+		mapObjectsListeners.remove(listener);
+	}
+
+	/**
+	 * Adds a listener for movables entering or leaving positions. Adding a listener that is already registered does nothing.
+	 */
+	public void addMovablesListener(IGraphicsMovablesListener listener) {
+		movablesListeners.addIfAbsent(listener);
+	}
+
+	public void removeMovablesListener(IGraphicsMovablesListener listener) {
+		movablesListeners.remove(listener);
+	}
+
+	@Override
+	public void backgroundLineChangedAt(int x, int y, int length) {
+		for (IGraphicsBackgroundListener listener : backgroundListeners) {
+			listener.backgroundLineChangedAt(x, y, length);
+		}
+	}
+
+	@Override
+	public void fogOfWarEnabledStatusChanged(boolean enabled) {
+		for (IGraphicsBackgroundListener listener : backgroundListeners) {
+			listener.fogOfWarEnabledStatusChanged(enabled);
+		}
+	}
+
+	@Override
+	public void mapObjectsChangedAt(int x, int y) {
+		for (IGraphicsMapObjectsListener listener : mapObjectsListeners) {
+			listener.mapObjectsChangedAt(x, y);
+		}
+	}
+
+	@Override
+	public void movablesChangedAt(int x, int y) {
+		for (IGraphicsMovablesListener listener : movablesListeners) {
+			listener.movablesChangedAt(x, y);
+		}
+	}
+}
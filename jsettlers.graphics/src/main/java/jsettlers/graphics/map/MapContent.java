@@ -14,11 +14,18 @@
  *******************************************************************************/
 package jsettlers.graphics.map;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.BitSet;
+import java.util.EnumSet;
 
+import go.graphics.EFramePhase;
 import go.graphics.EPrimitiveType;
+import go.graphics.FrameProfiler;
 import java.util.Optional;
 
 import java.util.Set;
@@ -70,9 +77,11 @@ import jsettlers.common.action.EMoveToType;
 import jsettlers.common.action.MoveToAction;
 import jsettlers.common.menu.messages.IMessage;
 import jsettlers.common.movable.IGraphicsMovable;
+import jsettlers.common.player.ECivilisation;
 import jsettlers.common.player.IPlayer;
 import jsettlers.common.position.FloatRectangle;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.resources.ResourceManager;
 import jsettlers.common.selectable.ISelectionSet;
 import go.graphics.FramerateComputer;
 import jsettlers.common.statistics.IGameTimeProvider;
@@ -83,6 +92,7 @@ import jsettlers.graphics.action.ActionFireable;
 import jsettlers.graphics.action.ActionHandler;
 import jsettlers.graphics.action.ActionThreadBlockingListener;
 import jsettlers.graphics.font.FontDrawerFactory;
+import jsettlers.graphics.image.AtlasCache;
 import jsettlers.graphics.localization.Labels;
 import jsettlers.graphics.map.controls.IControls;
 import jsettlers.graphics.map.controls.original.OriginalControls;
@@ -90,6 +100,7 @@ import jsettlers.graphics.map.draw.Background;
 import jsettlers.graphics.map.draw.DrawConstants;
 import jsettlers.graphics.map.draw.ImageProvider;
 import jsettlers.graphics.map.draw.MapObjectDrawer;
+import jsettlers.graphics.map.draw.StaticDrawList;
 import jsettlers.graphics.messages.Messenger;
 import jsettlers.graphics.sound.BackgroundSound;
 import jsettlers.graphics.sound.MusicManager;
@@ -160,19 +171,29 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	private static final int MESSAGE_OFFSET_Y = 30;
 	private static final long GOTO_MARK_TIME = 1500;
 	private static final long DOUBLE_CLICK_TIME = 500;
+	private static final long FRAME_TRACE_STATUS_TIME = 5000;
 	/**
 	 * Sound ID when we are attacked.
 	 */
 	private static final int NOTIFY_ATTACKED_SOUND_ID = 80;
+	/**
+	 * The time each frame may spend on uploading preloaded images.
+	 */
+	private static final long PRELOAD_UPLOAD_NANOS_PER_FRAME = 3 * 1000 * 1000;
 
 	private final IGraphicsGrid map;
 	private final IMapObject[] objectsGrid;
 	private final IGraphicsMovable[] movableGrid;
 	private final BitSet borderGrid;
-	private final byte[][] heightGrid;
-	private final byte[][] visibleGrid;
+	private final byte[] heightGrid;
+	private final byte[] visibleGrid;
 	private final short width, height;
 	private final boolean isVisibleGridAvailable;
+	/**
+	 * Positions with static things to draw. Only available if the map informs about changes of them.
+	 */
+	private final StaticDrawList staticDrawList;
+	private boolean staticDrawListFoWEnabled;
 
 	private final Background background;
 
@@ -186,6 +207,17 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	private final MapInterfaceConnector connector;
 
 	private final FramerateComputer framerate = new FramerateComputer();
+	private final FrameProfilerOverlay profilerOverlay = new FrameProfilerOverlay();
+	private FrameProfiler profiler;
+	private boolean showFrameProfiler = false;
+	private boolean saveFrameTrace = false;
+	/**
+	 * The number of frames that are still recorded before the trace requested by {@link EActionType#SAVE_FRAME_TRACE} is saved. 0 if no trace is
+	 * recorded.
+	 */
+	private int frameTraceFramesLeft = 0;
+	private String frameTraceStatus = null;
+	private long frameTraceStatusUntil = 0;
 
 	private final Messenger messenger;
 	private final SoundManager soundmanager;
@@ -269,13 +301,22 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		}
 		width = map.getWidth();
 		height = map.getHeight();
+		this.context = new MapDrawContext(map);
+		if (map instanceof IDirectGridProvider) {
+			IDirectGridProvider dgp = (IDirectGridProvider) map;
+			staticDrawList = new StaticDrawList(width, height, this::getStaticFlags);
+			staticDrawListFoWEnabled = dgp.isFoWEnabled();
+			context.getChangeDispatcher().addMapObjectsListener(staticDrawList);
+		} else {
+			staticDrawList = null;
+		}
 		this.localPlayer = game.getInGamePlayer();
+		ImageProvider.getInstance().setPreloadedCivilisations(getCivilisations(game));
 		this.gameTimeProvider = game.getGameTimeProvider();
 		this.gamespeedCalculator = new IntervalTimeRateCalculator(50*1000*1000L, 20, this::getGameTimeNS);
 		this.textDrawPosition = textDrawPosition;
 		this.messenger = new Messenger(this.gameTimeProvider);
 		this.textDrawer = new ReplaceableTextDrawer();
-		this.context = new MapDrawContext(map);
 		this.soundmanager = new SoundManager(soundPlayer);
 		this.musicManager = new MusicManager(soundPlayer, localPlayer.getCivilisation());
 		this.background = new Background(context);
@@ -296,6 +337,19 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		this.connector.addListener(this);
 	}
 
+	private static Set<ECivilisation> getCivilisations(IStartedGame game) {
+		Set<ECivilisation> civilisations = EnumSet.of(game.getInGamePlayer().getCivilisation());
+		IInGamePlayer[] players = game.getAllInGamePlayers();
+		if (players != null) {
+			for (IInGamePlayer player : players) {
+				if (player != null) {
+					civilisations.add(player.getCivilisation());
+				}
+			}
+		}
+		return civilisations;
+	}
+
 	private void resizeTo(int newWindowWidth, int newWindowHeight) {
 		windowWidth = newWindowWidth;
 		windowHeight = newWindowHeight;
@@ -310,6 +364,9 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	@Override
 	public void drawContent(GLDrawContext gl, int newWidth, int newHeight) {
 		try {
+			profiler = gl.getProfiler();
+			profiler.setEnabled(showFrameProfiler || frameTraceFramesLeft > 0);
+			profiler.startFrame();
 			framerate.nextFrame();
 			gamespeedCalculator.tick();
 
@@ -327,22 +384,30 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			adaptScreenSize();
 			this.objectDrawer.nextFrame();
 
+			profiler.enter(EFramePhase.UPLOADS);
+			ImageProvider.getInstance().runPreloadTasks(gl, PRELOAD_UPLOAD_NANOS_PER_FRAME);
+			profiler.enter(EFramePhase.OTHER);
+
 			this.context.begin(gl);
 			long start = System.nanoTime();
 
 			FloatRectangle screen = this.context.getScreen().getPosition().bigger(SCREEN_PADDING);
+			profiler.enter(EFramePhase.BACKGROUND);
 			drawBackground(screen);
+			profiler.enter(EFramePhase.OTHER);
 			long backgroundDuration = System.nanoTime() - start;
 
 			start = System.nanoTime();
 			drawMain(screen);
 
+			profiler.enter(EFramePhase.MARKERS);
 			if (scrollMarker != null) {
 				drawGotoMarker();
 			}
 			if (moveToMarker != null) {
 				drawMoveToMarker();
 			}
+			profiler.enter(EFramePhase.OTHER);
 
 			this.context.end();
 			long foregroundDuration = System.nanoTime() - start;
@@ -350,8 +415,11 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			start = System.nanoTime();
 			gl.clearDepthBuffer();
 			gl.setGlobalAttributes(0, 0, 0, 1, 1, 1);
+			profiler.enter(EFramePhase.MARKERS);
 			drawSelectionHint(gl);
+			profiler.enter(EFramePhase.CONTROLS);
 			controls.drawAt(gl);
+			profiler.enter(EFramePhase.MESSAGES);
 			drawMessages(gl);
 			drawWinStateMsg(gl);
 
@@ -360,13 +428,37 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			if (actionThreadIsSlow) {
 				drawActionThreadSlow(gl);
 			}
+			drawFrameTraceStatus(gl);
+			drawPreloadStatus(gl);
 			drawTooltip(gl);
+			profiler.enter(EFramePhase.OTHER);
 			long uiTime = System.nanoTime() - start;
 
 			if (CommonConstants.ENABLE_GRAPHICS_TIMES_DEBUG_OUTPUT) {
 				System.out.println("Background: " + backgroundDuration/1000 + "µs, Foreground: " + foregroundDuration/1000 + "µs, UI: " + uiTime/1000 + "µs");
 			}
+			profiler.endFrame();
+
+			if (showFrameProfiler) {
+				profilerOverlay.draw(gl, profiler, textDrawer.getTextDrawer(gl, EFontSize.SMALL));
+			}
+			if (saveFrameTrace) {
+				saveFrameTrace = false;
+				if (showFrameProfiler && profiler.getRecordedFrames() > 0) {
+					saveFrameTrace(profiler);
+				} else if (frameTraceFramesLeft == 0) {
+					// the profiler only records while its overlay is shown, so record the frames for the trace now
+					frameTraceFramesLeft = FrameProfiler.HISTORY_FRAMES;
+					showFrameTraceStatus(Labels.getString("map-frame-trace-recording", FrameProfiler.HISTORY_FRAMES));
+				}
+			} else if (frameTraceFramesLeft > 0 && --frameTraceFramesLeft == 0) {
+				saveFrameTrace(profiler);
+			}
 		} catch (Throwable t) {
+			if (profiler != null) {
+				profiler.endFrame();
+			}
+
 			System.err.println("Main draw handler cought throwable:");
 			t.printStackTrace();
 
@@ -379,6 +471,22 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		}
 	}
 
+	private void saveFrameTrace(FrameProfiler profiler) {
+		File file = new File(ResourceManager.getResourcesDirectory(), "frame-trace-" + System.currentTimeMillis() + ".json");
+		try (Writer writer = new FileWriter(file)) {
+			profiler.writeChromeTrace(writer);
+			showFrameTraceStatus(Labels.getString("map-frame-trace-saved", profiler.getRecordedFrames(), file.getAbsolutePath()));
+		} catch (IOException e) {
+			e.printStackTrace();
+			showFrameTraceStatus(Labels.getString("map-frame-trace-failed", e.getMessage()));
+		}
+	}
+
+	private void showFrameTraceStatus(String status) {
+		frameTraceStatus = status;
+		frameTraceStatusUntil = System.currentTimeMillis() + FRAME_TRACE_STATUS_TIME;
+	}
+
 	private Throwable lastException;
 
 	private void showError(GLDrawContext gl, Throwable t) {
@@ -576,6 +684,28 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		}
 	}
 
+	private void drawFrameTraceStatus(GLDrawContext gl) {
+		if (frameTraceStatus == null || (frameTraceFramesLeft == 0 && System.currentTimeMillis() > frameTraceStatusUntil)) {
+			return;
+		}
+		TextDrawer drawer = textDrawer.getTextDrawer(gl, EFontSize.NORMAL);
+		float x = windowWidth - drawer.getWidth(frameTraceStatus) - 5;
+		float y = windowHeight - 4.5f * drawer.getHeight(frameTraceStatus);
+		drawer.drawString(x, y, frameTraceStatus);
+	}
+
+	private void drawPreloadStatus(GLDrawContext gl) {
+		float progress = ImageProvider.getInstance().getPreloadUploadProgress();
+		if (progress >= 1) {
+			return;
+		}
+		TextDrawer drawer = textDrawer.getTextDrawer(gl, EFontSize.NORMAL);
+		String string = Labels.getString("map-preloading-images", (int) (progress * 100));
+		float x = windowWidth - drawer.getWidth(string) - 5;
+		float y = windowHeight - 6 * drawer.getHeight(string);
+		drawer.drawString(x, y, string);
+	}
+
 	private void drawActionThreadSlow(GLDrawContext gl) {
 		TextDrawer drawer = textDrawer.getTextDrawer(gl, EFontSize.NORMAL);
 		String string = Labels.getString("action_firerer_slow");
@@ -590,7 +720,16 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	private void drawMain(FloatRectangle screen) {
 		MapRectangle area = this.context.getConverter().getMapForScreen(screen);
 
+		if (staticDrawList != null) {
+			boolean fowEnabled = ((IDirectGridProvider) map).isFoWEnabled();
+			if (fowEnabled != staticDrawListFoWEnabled) {
+				staticDrawListFoWEnabled = fowEnabled;
+				staticDrawList.invalidateAll();
+			}
+		}
+
 		double bottomDrawY = screen.getMinY() - OVERDRAW_BOTTOM_PX;
+		EFramePhase previousPhase = profiler.enter(EFramePhase.OBJECTS);
 
 		boolean linePartiallyVisible = true;
 		for(int line = 0; line < area.getHeight() + 50 && linePartiallyVisible; line++) {
@@ -605,17 +744,23 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 
 			int endX = Math.min(area.getLineEndX(line), width - 1);
 			int startX = Math.max(area.getLineStartX(line), 0);
-			for(int x = startX; x <= endX; x++) {
-				drawTile(x, y);
-				if(!linePartiallyVisible) {
-					double drawSpaceY = this.context.getConverter().getViewY(x, y, heightGrid == null ? this.context.getHeight(x, y) : heightGrid[x][y]);
-					if (drawSpaceY > bottomDrawY) {
-						linePartiallyVisible = true;
-					}
+			if (staticDrawList != null) {
+				drawCachedLine(y, startX, endX);
+			} else {
+				for (int x = startX; x <= endX; x++) {
+					drawTile(x, y);
+				}
+			}
+
+			for (int x = startX; x <= endX && !linePartiallyVisible; x++) {
+				double drawSpaceY = this.context.getConverter().getViewY(x, y, heightGrid == null ? this.context.getHeight(x, y) : heightGrid[x + y * width]);
+				if (drawSpaceY > bottomDrawY) {
+					linePartiallyVisible = true;
 				}
 			}
 		}
 
+		profiler.enter(EFramePhase.MARKERS);
 		if(placementBuilding != null) {
 			ShortPoint2D underMouse = this.context.getPositionOnScreen((float) mousePosition.getX(), (float) mousePosition.getY());
 			if(0 <= underMouse.x && underMouse.x < width && 0 <= underMouse.y && underMouse.y < height) {
@@ -627,17 +772,104 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			}
 		}
 
+		profiler.enter(previousPhase);
+
 		if(debugColorMode != EDebugColorModes.NONE) {
 			drawDebugColors();
 		}
 	}
 
+	/**
+	 * Draws a part of a line using the {@link #staticDrawList}. Only the movables are looked up for every position.
+	 */
+	private void drawCachedLine(int y, int startX, int endX) {
+		int entryCount = staticDrawList.collectLine(y, startX, endX);
+		int[] entries = staticDrawList.getLineEntries();
+		int nextEntry = 0;
+		int lineIndex = y * width;
+
+		for (int x = startX; x <= endX; x++) {
+			int flags = 0;
+			if (nextEntry < entryCount && StaticDrawList.getX(entries[nextEntry]) == x) {
+				flags = StaticDrawList.getFlags(entries[nextEntry++]);
+			}
+			IGraphicsMovable movable = movableGrid[lineIndex + x];
+			if (flags != 0 || movable != null) {
+				drawCachedTile(x, y, flags, movable);
+			}
+		}
+	}
+
+	/**
+	 * Draws the same as {@link #drawTile(int, int)}, but only looks for the static things given by the flags of the {@link StaticDrawList}.
+	 */
+	private void drawCachedTile(int x, int y, int flags, IGraphicsMovable movable) {
+		int tileIndex = x + y * width;
+		boolean fogClear = isFogClear(x, y);
+
+		if ((flags & StaticDrawList.OBJECT) != 0) {
+			profiler.enter(EFramePhase.OBJECTS);
+			IMapObject object = fogClear ? objectsGrid[tileIndex] : map.getVisibleMapObjectsAt(x, y);
+			if (object != null) {
+				this.objectDrawer.drawMapObject(x, y, object);
+			}
+		}
+
+		if ((flags & StaticDrawList.DOCK) != 0) {
+			profiler.enter(EFramePhase.OBJECTS);
+			IMapObject object = fogClear ? objectsGrid[tileIndex + 3 * width] : map.getVisibleMapObjectsAt(x, y + 3);
+			if (object != null && object.getObjectType() == EMapObjectType.DOCK) {
+				this.objectDrawer.drawDock(x, y + 3, object);
+			}
+		}
+
+		if (fogClear) {
+			if (movable != null) {
+				profiler.enter(EFramePhase.MOVABLES);
+				this.objectDrawer.draw(movable);
+			}
+
+			if ((flags & StaticDrawList.BORDER) != 0 && borderGrid.get(tileIndex)) {
+				profiler.enter(EFramePhase.BORDERS);
+				objectDrawer.drawPlayerBorderObject(x, y, map.getPlayerAt(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Finds the static things {@link #drawCachedTile(int, int, int, IGraphicsMovable)} has to draw at a position.
+	 */
+	private int getStaticFlags(int x, int y) {
+		int tileIndex = x + y * width;
+		boolean fogClear = isFogClear(x, y);
+		int flags = 0;
+
+		if ((fogClear ? objectsGrid[tileIndex] : map.getVisibleMapObjectsAt(x, y)) != null) {
+			flags |= StaticDrawList.OBJECT;
+		}
+		if (y < height - 3) {
+			IMapObject object = fogClear ? objectsGrid[tileIndex + 3 * width] : map.getVisibleMapObjectsAt(x, y + 3);
+			if (object != null && object.getObjectType() == EMapObjectType.DOCK) {
+				flags |= StaticDrawList.DOCK;
+			}
+		}
+		if (fogClear && borderGrid.get(tileIndex)) {
+			flags |= StaticDrawList.BORDER;
+		}
+		return flags;
+	}
+
+	private boolean isFogClear(int x, int y) {
+		byte fow = visibleGrid != null && ((IDirectGridProvider)map).isFoWEnabled() ? visibleGrid[x + y * width] : map.getVisibleStatus(x, y);
+		return fow > CommonConstants.FOG_OF_WAR_EXPLORED;
+	}
+
 	private void drawTile(int x, int y) {
 		int tileIndex = x+y*width;
 
-		byte fow = visibleGrid != null && ((IDirectGridProvider)map).isFoWEnabled() ? visibleGrid[x][y] : map.getVisibleStatus(x, y);
-		boolean fogClear = fow > CommonConstants.FOG_OF_WAR_EXPLORED;
+		boolean fogClear = isFogClear(x, y);
 
+		profiler.enter(EFramePhase.OBJECTS);
 		IMapObject object = objectsGrid != null && fogClear ? objectsGrid[tileIndex] : map.getVisibleMapObjectsAt(x, y);
 		if(object != null) {
 			this.objectDrawer.drawMapObject(x, y, object);
@@ -656,10 +888,12 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		if(fogClear) {
 			IGraphicsMovable movable = movableGrid != null ? movableGrid[tileIndex] : map.getMovableAt(x, y);
 			if (movable != null) {
+				profiler.enter(EFramePhase.MOVABLES);
 				this.objectDrawer.draw(movable);
 			}
 
 			if (borderGrid != null ? borderGrid.get(tileIndex) : map.isBorder(x, y)) {
+				profiler.enter(EFramePhase.BORDERS);
 				IPlayer player = map.getPlayerAt(x, y);
 				objectDrawer.drawPlayerBorderObject(x, y, player);
 			}
@@ -770,6 +1004,15 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		}
 	}
 
+	/**
+	 * Sets the zoom factor, 1 is the default zoom.
+	 */
+	public void setZoom(float zoom) {
+		if (context != null) {
+			setZoom(zoom, null);
+		}
+	}
+
 	private void fireActionEvent(GOEvent event, Optional<Action> action) {
 		event.setHandler(new ActionHandler(action, this));
 	}
@@ -818,6 +1061,10 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			return new Action(EActionType.ZOOM_OUT);
 		} else if ("F2".equalsIgnoreCase(keyCode)) {
 			return new Action(EActionType.SAVE);
+		} else if ("F9".equalsIgnoreCase(keyCode)) {
+			return new Action(EActionType.TOGGLE_FRAME_PROFILER);
+		} else if ("F10".equalsIgnoreCase(keyCode)) {
+			return new Action(EActionType.SAVE_FRAME_TRACE);
 		} else if ("TAB".equalsIgnoreCase(keyCode)) {
 			return new Action(EActionType.FILTER_WOUNDED);
 		} else if ("DELETE".equalsIgnoreCase(keyCode)) {
@@ -1025,6 +1272,12 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		case TOGGLE_ORIGINAL_GRAPHICS:
 			DrawConstants.FORCE_ORIGINAL = !DrawConstants.FORCE_ORIGINAL;
 			break;
+		case TOGGLE_FRAME_PROFILER:
+			showFrameProfiler = !showFrameProfiler;
+			break;
+		case SAVE_FRAME_TRACE:
+			saveFrameTrace = true;
+			break;
 		case PAN_TO:
 			PointAction panAction = (PointAction) action;
 			scrollTo(panAction.getPosition(), false);
@@ -1123,6 +1376,11 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 		musicManager.stopMusic();
 		backgroundSound.stop();
 		controls.stop();
+
+		AtlasCache atlasCache = AtlasCache.getInstance();
+		if (atlasCache != null) {
+			atlasCache.saveInBackground();
+		}
 	}
 
 	void loadUIState(UIState state) {
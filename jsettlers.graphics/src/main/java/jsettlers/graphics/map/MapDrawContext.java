@@ -57,6 +57,8 @@ public final class MapDrawContext implements IGLProvider {
 
 	private final MapCoordinateConverter converter;
 
+	private final MapChangeDispatcher changeDispatcher;
+
 	/**
 	 * Those are the colors used for the players. The first color is used for the first player. If there are more players than colors, colors are
 	 * re-used.
@@ -119,6 +121,14 @@ public final class MapDrawContext implements IGLProvider {
 			DrawConstants.DISTANCE_Y, map.getWidth(),
 			map.getHeight()
 		);
+		this.changeDispatcher = new MapChangeDispatcher(map);
+	}
+
+	/**
+	 * @return The dispatcher to register listeners for changes of the map at.
+	 */
+	public MapChangeDispatcher getChangeDispatcher() {
+		return changeDispatcher;
 	}
 
 	/**
@@ -20,7 +20,10 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import go.graphics.AdvancedUpdateBufferCache;
@@ -70,7 +73,11 @@ public class Background implements IGraphicsBackgroundListener {
 	 */
 	private static final int TEXTURE_GRID = 32;
 
-	private static final int BYTES_PER_FIELD = 4*6*3*2; // 4 bytes per float * 6 components(x,y,z,t,v,color) * 3 points per triangle * 2 triangles per field
+	private static final int BYTES_PER_FIELD = BackgroundDrawHandle.BYTES_PER_VERTEX*3*2; // 3 points per triangle * 2 triangles per field
+	/**
+	 * The vertices are generated in chunks of CHUNK_SIZE x CHUNK_SIZE fields on the common fork join pool.
+	 */
+	private static final int CHUNK_SIZE = 32;
 
 	/**
 	 * Where are the textures on the map?
@@ -1037,6 +1044,11 @@ public class Background implements IGraphicsBackgroundListener {
 		localVertexBfr = new ThreadLocal<>();
 		vertexCache = new AdvancedUpdateBufferCache(this::getLocalVertexBfr, BYTES_PER_FIELD, context::getGl, () -> backgroundHandle.vertices, bufferWidth);
 		asyncAccessContext = context;
+
+		chunksPerLine = (bufferWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		dirtyChunks = new BitSet(chunksPerLine * ((bufferHeight + CHUNK_SIZE - 1) / CHUNK_SIZE));
+		dirtyFields = new BitSet[bufferHeight];
+		for(int y = 0; y != bufferHeight; y++) dirtyFields[y] = new BitSet(bufferWidth);
 	}
 
 	private ByteBuffer getLocalVertexBfr() {
@@ -1146,24 +1158,28 @@ public class Background implements IGraphicsBackgroundListener {
 
 		MapRectangle screenArea = context.getConverter().getMapForScreen(screen);
 
-		updateGeometry(context, screenArea);
+		int lines = screenArea.getLines();
+		int[] lineY = new int[lines];
+		int[] lineStartX = new int[lines];
+		int[] lineEndX = new int[lines];
+		for(int i = 0; i < lines; i++) {
+			lineY[i] = screenArea.getLineY(i);
+			lineStartX[i] = Math.max(screenArea.getLineStartX(i), 0);
+			lineEndX[i] = Math.min(screenArea.getLineEndX(i), bufferWidth);
+		}
+
+		updateGeometry(context, lineY, lineStartX, lineEndX);
 
 		backgroundHandle.texture = getTextureData(gl);
 
-		backgroundHandle.regionCount = screenArea.getLines();
+		backgroundHandle.regionCount = lines;
 		backgroundHandle.regions = new int[backgroundHandle.regionCount*2];
 		for(int i = 0; i < backgroundHandle.regionCount; i++) {
-			int startX = screenArea.getLineStartX(i);
-			if(startX < 0) startX = 0;
-
-			int endX = screenArea.getLineEndX(i);
-			if(endX >= bufferWidth) endX = bufferWidth;
+			int y = lineY[i];
+			if(y < 0 || y >= bufferHeight || lineStartX[i] >= lineEndX[i]) continue;
 
-			int y = screenArea.getLineY(i);
-			if(y < 0 || y > bufferHeight) continue;
-
-			backgroundHandle.regions[i*2] = (bufferWidth * y + startX) * 2 * 3;
-			backgroundHandle.regions[i*2+1] = (endX-startX)* 2 * 3;
+			backgroundHandle.regions[i*2] = (bufferWidth * y + lineStartX[i]) * 2 * 3;
+			backgroundHandle.regions[i*2+1] = (lineEndX[i]-lineStartX[i])* 2 * 3;
 		}
 		gl.drawBackground(backgroundHandle);
 	}
@@ -1174,61 +1190,108 @@ public class Background implements IGraphicsBackgroundListener {
 
 		fowEnabled = hasdgp && dgp.isFoWEnabled();
 
-		ByteBuffer bufferLine = ByteBuffer.allocateDirect(BYTES_PER_FIELD * bufferWidth).order(ByteOrder.nativeOrder());
+		// the vertices are generated chunk by chunk when they become visible
+		markDirty(0, bufferHeight, 0, bufferWidth);
 
-		for(int y = 0;y != bufferHeight;y++) {
-			for(int x = 0; x != bufferWidth;x++) {
-				addTrianglesToGeometry(context, bufferLine, x, y);
-			}
-			bufferLine.rewind();
-			context.getGl().updateBufferAt(backgroundHandle.vertices, BYTES_PER_FIELD*bufferWidth*y, bufferLine);
-		}
-
-		context.getMap().setBackgroundListener(this);
+		context.getChangeDispatcher().addBackgroundListener(this);
 	}
 
 	private final AdvancedUpdateBufferCache vertexCache;
 	private final ByteBuffer vertexBfr;
 	private final ThreadLocal<ByteBuffer> localVertexBfr;
 
-	private void updateGeometry(MapDrawContext context, MapRectangle screen) {
-		fowEnabled = hasdgp && dgp.isFoWEnabled();
+	/**
+	 * The fields whose vertices have to be (re)generated, one set per line.
+	 */
+	private final BitSet[] dirtyFields;
+	/**
+	 * The chunks containing at least one dirty field. Chunk (cx, cy) has the index cy*chunksPerLine+cx.
+	 */
+	private final BitSet dirtyChunks;
+	private final int chunksPerLine;
 
-		try {
-			int height = screen.getHeight();
-			int width = screen.getWidth();
-			int miny = screen.getMinY();
-			int minx = screen.getMinX();
-			int maxy = miny + height;
+	/**
+	 * Regenerates the dirty chunks visible on the given lines in parallel and uploads the changed vertices.
+	 */
+	private void updateGeometry(MapDrawContext context, int[] lineY, int[] lineStartX, int[] lineEndX) {
+		boolean newFowEnabled = hasdgp && dgp.isFoWEnabled();
+		if(newFowEnabled != fowEnabled) {
+			fowEnabled = newFowEnabled;
+			markDirty(0, bufferHeight, 0, bufferWidth);
+		}
 
-			if (maxy > bufferHeight) maxy = bufferHeight;
-			if (miny < 0) miny = 0;
-			int linestart = minx - (miny / 2);
+		List<Integer> chunks = new ArrayList<>();
+		synchronized (dirtyChunks) {
+			for(int i = 0; i != lineY.length; i++) {
+				int y = lineY[i];
+				if(y < 0 || y >= bufferHeight || lineStartX[i] >= lineEndX[i]) continue;
+
+				int rowStart = y / CHUNK_SIZE * chunksPerLine;
+				for(int chunk = rowStart + lineStartX[i] / CHUNK_SIZE; chunk <= rowStart + (lineEndX[i]-1) / CHUNK_SIZE; chunk++) {
+					if(dirtyChunks.get(chunk)) {
+						dirtyChunks.clear(chunk);
+						chunks.add(chunk);
+					}
+				}
+			}
+		}
+		// each chunk is written to a separate region of the buffer, the upload waits until all of them are done
+		chunks.parallelStream().forEach(this::generateChunk);
 
+		try {
 			if(context.getGl() instanceof VkDrawContext) {
 				vertexCache.clearCache();
 			} else {
-				for (int y = miny; y < maxy; y++) {
-					int lineStartX = linestart + (y / 2);
-
-					int linewidth = (width + lineStartX);
-					if (linewidth >= bufferWidth) {
-						linewidth = bufferWidth;
-					}
+				for(int i = 0; i != lineY.length; i++) {
+					int y = lineY[i];
+					if(y < 0 || y >= bufferHeight || lineStartX[i] >= lineEndX[i]) continue;
 
-					int linex = lineStartX;
-					if (linex < 0) {
-						linex = 0;
-					}
-
-					vertexCache.clearCacheRegion(y, linex, linewidth);
+					vertexCache.clearCacheRegion(y, lineStartX[i], lineEndX[i]);
 				}
+				vertexCache.flush();
 			}
 		} catch (IllegalBufferException e) {
 			e.printStackTrace();
 		}
 	}
 
+	private void generateChunk(int chunk) {
+		int minX = chunk % chunksPerLine * CHUNK_SIZE;
+		int minY = chunk / chunksPerLine * CHUNK_SIZE;
+		int maxX = Math.min(minX + CHUNK_SIZE, bufferWidth);
+		int maxY = Math.min(minY + CHUNK_SIZE, bufferHeight);
+
+		for(int y = minY; y != maxY; y++) {
+			BitSet dirtyLine;
+			synchronized (dirtyFields[y]) {
+				dirtyLine = dirtyFields[y].get(minX, maxX);
+				dirtyFields[y].clear(minX, maxX);
+			}
+
+			int start = dirtyLine.nextSetBit(0);
+			while(start != -1) {
+				int end = dirtyLine.nextClearBit(start);
+				updateLine(y, minX + start, minX + end);
+				start = dirtyLine.nextSetBit(end);
+			}
+		}
+	}
+
+	private void markDirty(int minY, int maxY, int minX, int maxX) {
+		for(int y = minY; y != maxY; y++) {
+			synchronized (dirtyFields[y]) {
+				dirtyFields[y].set(minX, maxX);
+			}
+		}
+
+		synchronized (dirtyChunks) {
+			for(int chunkY = minY / CHUNK_SIZE; chunkY <= (maxY-1) / CHUNK_SIZE; chunkY++) {
+				int rowStart = chunkY * chunksPerLine;
+				dirtyChunks.set(rowStart + minX / CHUNK_SIZE, rowStart + (maxX-1) / CHUNK_SIZE + 1);
+			}
+		}
+	}
+
 	/**
 	 * Adds the two triangles for a point to the list of verteces
 	 */
@@ -1341,12 +1404,7 @@ public class Background implements IGraphicsBackgroundListener {
 			if(fowEnabled) color *= visibleStatus / (float)CommonConstants.FOG_OF_WAR_VISIBLE;
 		}
 
-		buffer.putFloat(x);
-		buffer.putFloat(y);
-		buffer.putFloat(height);
-		buffer.putFloat(u);
-		buffer.putFloat(v);
-		buffer.putFloat(color);
+		BackgroundDrawHandle.putVertex(buffer, x, y, height, u, v, color);
 	}
 
 	private static int realModulo(int number, int modulo) {
@@ -1376,14 +1434,13 @@ public class Background implements IGraphicsBackgroundListener {
 		if(x2 < bufferWidth) x2 = x2+1;
 		if(x2 > bufferWidth) x2 = bufferWidth;
 
-		updateLine(y, x, x2);
-		if (y > 0) updateLine(y - 1, x, x2);
-		if (y < bufferHeight - 1) updateLine(y + 1, x, x2);
+		// only mark the fields, they are regenerated when they are drawn the next time
+		markDirty(Math.max(y - 1, 0), Math.min(y + 2, bufferHeight), x, x2);
 	}
 
 	@Override
 	public void fogOfWarEnabledStatusChanged(boolean enabled) {
-		fowEnabled = hasdgp && enabled;
+		// the new state is picked up by the next updateGeometry call
 	}
 
 	/**
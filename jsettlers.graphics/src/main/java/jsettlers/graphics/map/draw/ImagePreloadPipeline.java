@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import go.graphics.GLDrawContext;
+import jsettlers.common.menu.EProgressState;
+import jsettlers.common.menu.IPreloadProgressListener;
+import jsettlers.graphics.image.AtlasCache;
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.map.draw.settlerimages.SettlerImageMap;
+
+/**
+ * Loads the settler images in three stages:
+ * <ol>
+ * <li>The workers open the DAT files, read their indexes and look up the images of the {@link SettlerImageMap}, one task per file. Another task
+ * reads the atlas cache file. Starting a game waits for this stage.</li>
+ * <li>When the first frame is drawn, the workers generate the textures of the images that are neither uploaded nor in the atlas cache. Only
+ * the images of the civilisations in the game are prepared, see {@link ImageProvider#setPreloadedCivilisations(java.util.Set)}. At most
+ * {@link #MAX_PREPARED_IMAGES} textures wait for their upload at a time.</li>
+ * <li>The draw thread uploads the prepared textures in slices of each frame, see {@link ImageProvider#runPreloadTasks(GLDrawContext, long)}.
+ * Afterwards the atlas cache is saved.</li>
+ * </ol>
+ * The loading screen shows the progress of the first stage. The game shows the combined progress of the other two, see
+ * {@link ImageProvider#getPreloadUploadProgress()}.
+ */
+final class ImagePreloadPipeline {
+	private static final int MAX_PREPARED_IMAGES = 64;
+	private static final long PROGRESS_INTERVAL_MS = 50;
+	private static final long WORKER_KEEP_ALIVE_SECONDS = 5;
+
+	private final ImageProvider imageProvider;
+	private final int threads;
+	private final int generation;
+	private final ThreadPoolExecutor workers;
+
+	private final CountDownLatch loaded = new CountDownLatch(1);
+	private final AtomicInteger filesLoaded = new AtomicInteger();
+	private volatile int filesToLoad = -1;
+
+	private final AtomicBoolean preparing = new AtomicBoolean();
+	private final Semaphore preparedImages = new Semaphore(MAX_PREPARED_IMAGES);
+	private final AtomicInteger nextImage = new AtomicInteger();
+	private final AtomicInteger imagesUploaded = new AtomicInteger();
+	private volatile List<Image> images;
+
+	/**
+	 * Creates a new pipeline.
+	 *
+	 * @param imageProvider
+	 * 		The provider to load the images for.
+	 * @param threads
+	 * 		The number of worker threads.
+	 */
+	ImagePreloadPipeline(ImageProvider imageProvider, int threads) {
+		this.imageProvider = imageProvider;
+		this.threads = threads;
+		this.generation = imageProvider.getGeneration();
+		this.workers = new ThreadPoolExecutor(threads, threads, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "image preloader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.workers.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Starts loading the files.
+	 */
+	void start() {
+		execute(this::loadFiles);
+	}
+
+	private void execute(Runnable task) {
+		try {
+			workers.execute(task);
+		} catch (RejectedExecutionException e) {
+			// the pipeline was cancelled
+		}
+	}
+
+	private void loadFiles() {
+		try {
+			SettlerImageMap settlerImageMap = SettlerImageMap.getInstance();
+			int[] files = settlerImageMap.getFiles();
+			// the atlas cache file is read like one more file
+			int tasks = files.length + 1;
+			filesToLoad = tasks;
+			for (int file : files) {
+				execute(() -> {
+					try {
+						if (generation == imageProvider.getGeneration()) {
+							settlerImageMap.resolveImages(file);
+						}
+					} catch (RuntimeException e) {
+						e.printStackTrace();
+					}
+					fileDone(tasks);
+				});
+			}
+			execute(() -> {
+				try {
+					AtlasCache atlasCache = AtlasCache.getInstance();
+					if (atlasCache != null && generation == imageProvider.getGeneration()) {
+						atlasCache.preload();
+					}
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+				fileDone(tasks);
+			});
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			loaded.countDown();
+		}
+	}
+
+	private void fileDone(int tasks) {
+		if (filesLoaded.incrementAndGet() == tasks) {
+			loaded.countDown();
+		}
+	}
+
+	/**
+	 * Blocks until the files are loaded.
+	 *
+	 * @param progressListener
+	 * 		Receives the progress while waiting.
+	 * @throws InterruptedException
+	 * 		If the thread was interrupted while waiting.
+	 */
+	void waitForLoading(IPreloadProgressListener progressListener) throws InterruptedException {
+		while (!loaded.await(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+			progressListener.preloadProgressChanged(EProgressState.LOADING_IMAGES, getLoadProgress());
+		}
+		progressListener.preloadProgressChanged(EProgressState.LOADING_IMAGES, 1);
+	}
+
+	/**
+	 * @return The share of the files that are loaded.
+	 */
+	float getLoadProgress() {
+		int filesToLoad = this.filesToLoad;
+		return filesToLoad > 0 ? (float) filesLoaded.get() / filesToLoad : 0;
+	}
+
+	/**
+	 * Starts generating the textures after the files are loaded. This is called on the draw thread for every frame.
+	 *
+	 * @param gl
+	 * 		The context the images are drawn with.
+	 */
+	void startPreparing(GLDrawContext gl) {
+		if (loaded.getCount() > 0 || generation != imageProvider.getGeneration() || preparing.get() || !preparing.compareAndSet(false, true)) {
+			return;
+		}
+
+		// the atlas cache only knows its images after it restored its pages for the context
+		AtlasCache atlasCache = AtlasCache.getInstance();
+		if (atlasCache != null) {
+			atlasCache.attach(gl);
+		}
+		images = SettlerImageMap.getInstance().getResolvedImages(imageProvider.getPreloadedCivilisations());
+		for (int i = 0; i < threads; i++) {
+			execute(this::prepareImages);
+		}
+	}
+
+	private void prepareImages() {
+		List<Image> images = this.images;
+		int index;
+		while (generation == imageProvider.getGeneration() && (index = nextImage.getAndIncrement()) < images.size()) {
+			Image image = images.get(index);
+			if (!(image instanceof SingleImage)) {
+				imageDone();
+				continue;
+			}
+
+			SingleImage singleImage = (SingleImage) image;
+			try {
+				preparedImages.acquire();
+			} catch (InterruptedException e) {
+				return;
+			}
+			boolean prepared;
+			try {
+				prepared = singleImage.prepareTexture();
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+				prepared = false;
+			}
+
+			if (prepared) {
+				imageProvider.addPreloadTask(gl -> {
+					try {
+						if (generation == imageProvider.getGeneration()) {
+							singleImage.upload(gl);
+						}
+					} finally {
+						imageDone();
+						preparedImages.release();
+					}
+				});
+			} else {
+				imageDone();
+				preparedImages.release();
+			}
+		}
+	}
+
+	/**
+	 * Counts an image as done. After the last one, the atlas cache is saved, so that the context does not need to keep the copies of its pages
+	 * any longer.
+	 */
+	private void imageDone() {
+		if (imagesUploaded.incrementAndGet() == images.size() && generation == imageProvider.getGeneration()) {
+			AtlasCache atlasCache = AtlasCache.getInstance();
+			if (atlasCache != null) {
+				atlasCache.saveInBackground();
+			}
+		}
+	}
+
+	/**
+	 * Stops the pipeline after the images were invalidated. Tasks that were already queued for the draw thread do nothing and waiting for the
+	 * loading returns.
+	 */
+	void cancel() {
+		workers.shutdownNow();
+		loaded.countDown();
+	}
+
+	/**
+	 * @return The share of the images that are uploaded or did not need to be prepared. It is 0 until the preparation started.
+	 */
+	float getUploadProgress() {
+		List<Image> images = this.images;
+		if (images == null) {
+			return 0;
+		}
+		return images.isEmpty() ? 1 : (float) imagesUploaded.get() / images.size();
+	}
+}
@@ -15,12 +15,17 @@
 package jsettlers.graphics.map.draw;
 
 import java.util.function.Supplier;
+
+import go.graphics.GLDrawContext;
 import jsettlers.common.images.DirectImageLink;
 import jsettlers.common.images.EImageLinkType;
 import jsettlers.common.images.ImageLink;
 import jsettlers.common.images.OriginalImageLink;
 import jsettlers.common.images.TextureMap;
+import jsettlers.common.menu.IPreloadProgressListener;
 import jsettlers.common.player.ECivilisation;
+import jsettlers.common.resources.ResourceManager;
+import jsettlers.graphics.image.AtlasCache;
 import jsettlers.graphics.image.Image;
 import jsettlers.graphics.image.ImageIndexFile;
 import jsettlers.graphics.image.SingleImage;
@@ -43,10 +48,12 @@ import jsettlers.graphics.image.sequence.Sequence;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Locale;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -82,10 +89,16 @@ public final class ImageProvider {
 
 	private final Queue<GLPreloadTask> tasks = new ConcurrentLinkedQueue<>();
 	private final Hashtable<Integer, DatFileReader> readers = new Hashtable<>();
+	/**
+	 * The readers of {@link #readers} indexed by file number, so that the images can be looked up while drawing without locking.
+	 */
+	private volatile DatFileReader[] readersByFile = new DatFileReader[0];
+	private volatile int generation = 0;
 
 	private GfxFolderMapping gfxFolderMapping = new DefaultGfxFolderMapping();
 
-	private Thread preloadingThread;
+	private volatile ImagePreloadPipeline preloadPipeline;
+	private volatile Set<ECivilisation> preloadedCivilisations = EnumSet.allOf(ECivilisation.class);
 	private ImageIndexFile indexFile = null;
 
 	private ImageProvider() {
@@ -111,6 +124,8 @@ public final class ImageProvider {
 	 */
 	public static void setLookupPath(File path, String settlersVersionId) {
 		ImageProvider.lookupPath = path;
+		File resources = ResourceManager.getResourcesDirectory();
+		AtlasCache.setInstance(resources.getPath().isEmpty() ? null : new AtlasCache(new File(resources, "atlas-cache"), settlersVersionId));
 		getInstance().gfxFolderMapping = SettlersVersionMapping.getMappingForVersionId(settlersVersionId);
 		getInstance().startPreloading();
 	}
@@ -122,17 +137,40 @@ public final class ImageProvider {
 	 * 		The file number to search for.
 	 * @return The content as set or <code> null </code>
 	 */
-	public synchronized DatFileReader getFileReader(int file) {
-		Integer integer = file;
-		DatFileReader set = this.readers.get(integer);
-		if (set == null) {
-			set = createFileReader(file);
-			this.readers.put(integer, set);
+	public DatFileReader getFileReader(int file) {
+		DatFileReader[] readersByFile = this.readersByFile;
+		if (file >= 0 && file < readersByFile.length && readersByFile[file] != null) {
+			return readersByFile[file];
+		}
+
+		synchronized (this) {
+			DatFileReader set = this.readers.get(file);
+			if (set == null) {
+				set = createFileReader(file);
+				setFileReader(file, set);
+			}
+			return set;
+		}
+	}
+
+	/**
+	 * Uses the given reader for a file instead of the file in the lookup path.
+	 *
+	 * @param file
+	 * 		The file number.
+	 * @param reader
+	 * 		The reader to use for that file.
+	 */
+	public synchronized void setFileReader(int file, DatFileReader reader) {
+		this.readers.put(file, reader);
+		if (file >= 0) {
+			DatFileReader[] readersByFile = Arrays.copyOf(this.readersByFile, Math.max(file + 1, this.readersByFile.length));
+			readersByFile[file] = reader;
+			this.readersByFile = readersByFile;
 		}
-		return set;
 	}
 
-	public synchronized DatFileSet getFileSet(int file) {
+	public DatFileSet getFileSet(int file) {
 		return getFileReader(file);
 	}
 
@@ -294,12 +332,35 @@ public final class ImageProvider {
 	 * marks all loaded images as invalid. TODO: ensure that they get deleted
 	 */
 	public void invalidateAll() {
-		readers.clear();
+		synchronized (this) {
+			readers.clear();
+			readersByFile = new DatFileReader[0];
+			generation++;
+			if (preloadPipeline != null) {
+				preloadPipeline.cancel();
+				preloadPipeline = null;
+			}
+			tasks.clear();
+		}
 		Background.invalidateTexture();
 	}
 
+	/**
+	 * Gets a number that changes whenever the images are invalidated. Images that were looked up for an older generation must not be used any
+	 * more.
+	 *
+	 * @return The current generation of the images.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
 	private File findFileInPaths(String fileName) {
-		for (File currentFile : lookupPath.listFiles()) {
+		File[] files = lookupPath.listFiles();
+		if (files == null) {
+			return null;
+		}
+		for (File currentFile : files) {
 			if (currentFile.isFile() && currentFile.canRead() &&
 					currentFile.getName().equalsIgnoreCase(fileName)) {
 				return currentFile;
@@ -330,24 +391,91 @@ public final class ImageProvider {
 	/**
 	 * Starts preloading the images, if lookup paths have been set.
 	 *
-	 * @return
+	 * @see ImagePreloadPipeline
 	 */
-	public void startPreloading() {
-		if (lookupPath != null && preloadingThread == null) {
-			preloadingThread = new Thread(new ImagePreloadTask(), "image preloader");
-			preloadingThread.start();
+	public synchronized void startPreloading() {
+		if (lookupPath != null && preloadPipeline == null) {
+			preloadPipeline = new ImagePreloadPipeline(this, Runtime.getRuntime().availableProcessors());
+			preloadPipeline.start();
 		}
 	}
 
+	/**
+	 * Sets the civilisations whose settler textures are generated and uploaded by the preloading. This has to be set before the first frame
+	 * of a game is drawn. The images of other civilisations are generated when they are drawn first.
+	 *
+	 * @param civilisations
+	 * 		The civilisations in the game.
+	 */
+	public void setPreloadedCivilisations(Set<ECivilisation> civilisations) {
+		preloadedCivilisations = EnumSet.copyOf(civilisations);
+	}
+
+	Set<ECivilisation> getPreloadedCivilisations() {
+		return preloadedCivilisations;
+	}
+
+	ImagePreloadPipeline getPreloadPipeline() {
+		return preloadPipeline;
+	}
+
 	public void waitForPreloadingFinish() {
+		waitForPreloadingFinish(IPreloadProgressListener.DEFAULT_IMPLEMENTATION);
+	}
+
+	/**
+	 * Blocks until the image files are loaded. The textures are generated and uploaded later, while the game is drawn.
+	 *
+	 * @param progressListener
+	 * 		Receives the progress while waiting.
+	 */
+	public void waitForPreloadingFinish(IPreloadProgressListener progressListener) {
 		startPreloading();
+		ImagePreloadPipeline preloadPipeline = this.preloadPipeline;
+		if (preloadPipeline == null) {
+			return;
+		}
 		try {
-			preloadingThread.join();
+			preloadPipeline.waitForLoading(progressListener);
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * @return The share of the preloaded images whose textures are generated and uploaded. This is 1 if nothing is preloaded.
+	 */
+	public float getPreloadUploadProgress() {
+		ImagePreloadPipeline preloadPipeline = this.preloadPipeline;
+		return preloadPipeline != null ? preloadPipeline.getUploadProgress() : 1;
+	}
+
+	/**
+	 * Runs the preload tasks on the OpenGL thread. This should be called once per frame. It restarts the preloading after the images were
+	 * invalidated.
+	 *
+	 * @param gl
+	 * 		The context to upload to.
+	 * @param maxNanos
+	 * 		The time after which no more tasks are started.
+	 */
+	public void runPreloadTasks(GLDrawContext gl, long maxNanos) {
+		ImagePreloadPipeline preloadPipeline = this.preloadPipeline;
+		if (preloadPipeline == null && lookupPath != null) {
+			startPreloading();
+			preloadPipeline = this.preloadPipeline;
+		}
+		if (preloadPipeline != null) {
+			preloadPipeline.startPreparing(gl);
+		}
+
+		long start = System.nanoTime();
+		GLPreloadTask task;
+		while (System.nanoTime() - start < maxNanos && (task = tasks.poll()) != null) {
+			task.run(gl);
+		}
+	}
+
 	/**
 	 * Adds a preload task that is executed on the OpenGl thread with a opengl context.
 	 * <p>
@@ -203,7 +203,8 @@ public class MapObjectDrawer {
 	private static final int FLAG_FILE = 13;
 	private final SoundManager   sound;
 	private final MapDrawContext context;
-	private byte[][] visibleGrid = null;
+	private final int mapWidth;
+	private byte[] visibleGrid = null;
 
 	/**
 	 * An animation counter, used for trees and other waving/animated things.
@@ -230,6 +231,7 @@ public class MapObjectDrawer {
 		this.context = context;
 		this.sound = sound;
 
+		mapWidth = context.getMap().getWidth();
 		z_per_y = 1f/(context.getMap().getHeight()*100);
 		shadow_offset = 20 * z_per_y;
 		construction_offset = z_per_y;
@@ -237,7 +239,7 @@ public class MapObjectDrawer {
 		tower_front_offset = z_per_y / 2;
 	}
 
-	public void setVisibleGrid(byte[][] visibleGrid) {
+	public void setVisibleGrid(byte[] visibleGrid) {
 		this.visibleGrid = visibleGrid;
 	}
 
@@ -252,7 +254,7 @@ public class MapObjectDrawer {
 	 * 		The object (tree, ...) to draw.
 	 */
 	public void drawMapObject(int x, int y, IMapObject object) {
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[x + y * mapWidth] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus == 0) {
 			return; // break
 		}
@@ -277,14 +279,14 @@ public class MapObjectDrawer {
 
 	private void drawShipInConstruction(int x, int y, IShipInConstruction ship) {
 		EMovableType shipType = ship.getObjectType() == EMapObjectType.FERRY ? EMovableType.FERRY : EMovableType.CARGO_SHIP;
-		float shade = getColor(visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE);
+		float shade = getColor(visibleGrid != null ? visibleGrid[x + y * mapWidth] : CommonConstants.FOG_OF_WAR_VISIBLE);
 		float state = ship.getStateProgress();
 		Image image = imageMap.getImageForSettler(ship.getPlayer().getCivilisation(), shipType, EMovableAction.NO_ACTION, EMaterialType.TREE, ship.getDirection(), 0);
 		drawWithConstructionMask(x, y, state, image, shade);
 	}
 
 	private void drawShip(IGraphicsMovable ship, int x, int y) {
-		byte fogOfWarVisibleStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogOfWarVisibleStatus = visibleGrid != null ? visibleGrid[x + y * mapWidth] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogOfWarVisibleStatus == 0) {
 			return;
 		}
@@ -727,141 +729,127 @@ public class MapObjectDrawer {
 			return;
 		}
 		int soundNumber = -1;
+		boolean due = false;
 		float delay = movable.getMoveProgress();
 		switch (movable.getAction()) {
 			case ACTION1:
 				switch (movable.getMovableType()) {
 					case LUMBERJACK:
-						if (delay > .8) {
-							soundNumber = 0;
-						}
+						soundNumber = 0;
+						due = delay > .8;
 						break;
 					case BRICKLAYER:
-						if (delay > .7) {
-							soundNumber = 1;
-						}
+						soundNumber = 1;
+						due = delay > .7;
 						break;
 					case DIGGER:
-						if (delay > .6) {
-							soundNumber = 2;
-						}
+						soundNumber = 2;
+						due = delay > .6;
 						break;
 					case STONECUTTER:
-						if (delay > .8) {
-							soundNumber = 3;
-						}
+						soundNumber = 3;
+						due = delay > .8;
 						break;
 					case SAWMILLER:
-						if (delay > .2) {
-							soundNumber = 5;
-						}
+						soundNumber = 5;
+						due = delay > .2;
 						break;
 					case SMITH:
-						if (delay > .7) {
-							soundNumber = 6;
-						}
+						soundNumber = 6;
+						due = delay > .7;
 						break;
 					case FARMER:
-						if (delay > .8) {
-							soundNumber = 9;
-						}
+						soundNumber = 9;
+						due = delay > .8;
 						break;
 					case FISHERMAN:
-						if (delay > .8) {
-							soundNumber = 16;
-						}
+						soundNumber = 16;
+						due = delay > .8;
 						break;
 					case DOCKWORKER:
-						if (delay > .8) {
-							soundNumber = 20;
-						}
+						soundNumber = 20;
+						due = delay > .8;
 						break;
 					case HEALER:
-						if (delay > .8) {
-							soundNumber = 21;
-						}
+						soundNumber = 21;
+						due = delay > .8;
 						break;
 					case GEOLOGIST: // TODO: should also check grid.getResourceAmountAt(x, y)
-						if (sound.random.nextInt(256) == 0) {
-							soundNumber = 24;
-						}
+						soundNumber = 24;
+						due = sound.random.nextInt(256) == 0;
 						break;
 					case SWORDSMAN_L1:
 					case SWORDSMAN_L2:
 					case SWORDSMAN_L3:
-						if (delay > .8) {
-							soundNumber = 30;
-						}
+						soundNumber = 30;
+						due = delay > .8;
 						break;
 					case BOWMAN_L1:
 					case BOWMAN_L2:
 					case BOWMAN_L3:
-						if (delay > .4) {
-							soundNumber = 33;
-						}
+						soundNumber = 33;
+						due = delay > .4;
 						break;
 					case PIKEMAN_L1:
 					case PIKEMAN_L2:
 					case PIKEMAN_L3:
 						soundNumber = 34;
+						due = true;
 						break;
 					case MELTER:
 						soundNumber = 38;
+						due = true;
 						break;
 					case PIG_FARMER:
-						if (delay > .4) {
-							soundNumber = 39;
-						}
+						soundNumber = 39;
+						due = delay > .4;
 						break;
 					case DONKEY_FARMER:
-						if (delay > .4) {
-							soundNumber = 40;
-						}
+						soundNumber = 40;
+						due = delay > .4;
 						break;
 					case CHARCOAL_BURNER:
-						if (delay > .8) {
-							soundNumber = 45;
-						}
+						soundNumber = 45;
+						due = delay > .8;
 						break;
 				}
 				break;
 			case ACTION2:
 				switch (movable.getMovableType()) {
 					case FARMER:
-						if (delay > .8) {
-							soundNumber = 12;
-						}
+						soundNumber = 12;
+						due = delay > .8;
 						break;
 					case FISHERMAN:
-						if (delay > .5) {
-							soundNumber = 15;
-						}
+						soundNumber = 15;
+						due = delay > .5;
 						break;
 					case LUMBERJACK:
-						if (delay > .8) {
-							soundNumber = 36;
-						}
+						soundNumber = 36;
+						due = delay > .8;
 						break;
 				}
+				break;
 			case ACTION3:
 				switch (movable.getMovableType()) {
 					case FISHERMAN:
-						if (delay > .95) {
-							soundNumber = 17;
-						}
+						soundNumber = 17;
+						due = delay > .95;
 						break;
 				}
 				break;
 
 		}
-		if (soundNumber >= 0) {
+		if (due) {
 			sound.playSound(soundNumber, 1, movable.getPosition());
 			movable.setSoundPlayed();
+		} else if (soundNumber >= 0) {
+			sound.prefetchSound(soundNumber);
 		}
 	}
 
 	private void drawMovableAt(IGraphicsMovable movable, int x, int y) {
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[x + y * mapWidth] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus <= CommonConstants.FOG_OF_WAR_EXPLORED) {
 			return; // break
 		}
@@ -1223,7 +1211,7 @@ public class MapObjectDrawer {
 	 * 		The player.
 	 */
 	public void drawPlayerBorderObject(int x, int y, IPlayer player) {
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[x + y * mapWidth] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus <= CommonConstants.FOG_OF_WAR_EXPLORED) {
 			return; // break
 		}
@@ -1359,7 +1347,7 @@ public class MapObjectDrawer {
 					draw(image, x, y, building.getBuildingVariant().isVariantOf(EBuildingType.MARKET_PLACE) ? BACKGROUND_Z : 0, null, color);
 				}
 
-				byte fow = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+				byte fow = visibleGrid != null ? visibleGrid[x + y * mapWidth] : CommonConstants.FOG_OF_WAR_VISIBLE;
 
 				if (building instanceof IOccupied && fow > CommonConstants.FOG_OF_WAR_EXPLORED) {
 					drawOccupiers(x, y, (IOccupied) building, color);
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import jsettlers.common.map.IGraphicsMapObjectsListener;
+
+/**
+ * Caches the positions that have something static to draw: map objects, docks (which are drawn three lines above their position) and player
+ * borders.
+ * <p>
+ * The map is split into chunks of {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} positions. The list of a chunk is built on first use and rebuilt on
+ * the next use after a change was reported for one of its positions through {@link #mapObjectsChangedAt(int, int)}. Changes may be reported from
+ * any thread, the lists are only used and rebuilt by the drawing thread.
+ */
+public class StaticDrawList implements IGraphicsMapObjectsListener {
+	/**
+	 * The position may have map objects to draw.
+	 */
+	public static final int OBJECT = 1;
+	/**
+	 * The position three lines below may have a dock to draw.
+	 */
+	public static final int DOCK = 2;
+	/**
+	 * The position may have a border to draw.
+	 */
+	public static final int BORDER = 4;
+
+	static final int CHUNK_SIZE = 32;
+	private static final int FLAG_BITS = 3;
+	private static final int FLAG_MASK = (1 << FLAG_BITS) - 1;
+
+	/**
+	 * Tells which static things are drawn at a position.
+	 */
+	public interface IStaticTileClassifier {
+		/**
+		 * @param x
+		 *            x coordinate of the position.
+		 * @param y
+		 *            y coordinate of the position.
+		 * @return A combination of {@link #OBJECT}, {@link #DOCK} and {@link #BORDER}.
+		 */
+		int getStaticFlags(int x, int y);
+	}
+
+	private final int width;
+	private final int height;
+	private final int chunksPerLine;
+	private final IStaticTileClassifier classifier;
+
+	/**
+	 * Entries of each chunk sorted by y and x, see {@link #getX(int)} and {@link #getFlags(int)}.
+	 */
+	private final int[][] chunkEntries;
+	/**
+	 * For each chunk the index of the first entry of each of its lines. The last value is the number of entries.
+	 */
+	private final int[][] chunkLineStarts;
+	private final AtomicIntegerArray dirtyChunks;
+
+	private final int[] chunkBuffer = new int[CHUNK_SIZE * CHUNK_SIZE];
+	private int[] lineEntries = new int[CHUNK_SIZE];
+	private int rebuiltChunks;
+
+	public StaticDrawList(int width, int height, IStaticTileClassifier classifier) {
+		this.width = width;
+		this.height = height;
+		this.classifier = classifier;
+		this.chunksPerLine = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+		int chunkCount = chunksPerLine * ((height + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		chunkEntries = new int[chunkCount][];
+		chunkLineStarts = new int[chunkCount][];
+		dirtyChunks = new AtomicIntegerArray(chunkCount);
+		invalidateAll();
+	}
+
+	@Override
+	public void mapObjectsChangedAt(int x, int y) {
+		markDirty(x, y);
+		if (y >= 3) {
+			// a dock at this position is drawn three lines above it.
+			markDirty(x, y - 3);
+		}
+	}
+
+	private void markDirty(int x, int y) {
+		dirtyChunks.set(y / CHUNK_SIZE * chunksPerLine + x / CHUNK_SIZE, 1);
+	}
+
+	/**
+	 * Rebuilds all lists on their next use, e.g. because the fog of war got enabled or disabled.
+	 */
+	public void invalidateAll() {
+		for (int i = 0; i < dirtyChunks.length(); i++) {
+			dirtyChunks.set(i, 1);
+		}
+	}
+
+	/**
+	 * Collects the entries of a part of a line. They can be read from {@link #getLineEntries()} afterwards.
+	 *
+	 * @param y
+	 *            The line.
+	 * @param startX
+	 *            The first x coordinate.
+	 * @param endX
+	 *            The last x coordinate (inclusive).
+	 * @return The number of entries, sorted by x.
+	 */
+	public int collectLine(int y, int startX, int endX) {
+		int chunkLine = y / CHUNK_SIZE * chunksPerLine;
+		int lineInChunk = y % CHUNK_SIZE;
+		int count = 0;
+
+		for (int chunkX = startX / CHUNK_SIZE; chunkX <= endX / CHUNK_SIZE; chunkX++) {
+			int chunk = chunkLine + chunkX;
+			if (dirtyChunks.get(chunk) != 0 && dirtyChunks.getAndSet(chunk, 0) != 0) {
+				rebuildChunk(chunk, chunkX * CHUNK_SIZE, y - lineInChunk);
+			}
+
+			int[] entries = chunkEntries[chunk];
+			int[] lineStarts = chunkLineStarts[chunk];
+			for (int i = lineStarts[lineInChunk]; i < lineStarts[lineInChunk + 1]; i++) {
+				int x = getX(entries[i]);
+				if (x >= startX && x <= endX) {
+					if (count == lineEntries.length) {
+						int[] newEntries = new int[count * 2];
+						System.arraycopy(lineEntries, 0, newEntries, 0, count);
+						lineEntries = newEntries;
+					}
+					lineEntries[count++] = entries[i];
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return The entries found by the last call to {@link #collectLine(int, int, int)}.
+	 */
+	public int[] getLineEntries() {
+		return lineEntries;
+	}
+
+	public static int getX(int entry) {
+		return entry >>> FLAG_BITS;
+	}
+
+	public static int getFlags(int entry) {
+		return entry & FLAG_MASK;
+	}
+
+	private void rebuildChunk(int chunk, int chunkX, int chunkY) {
+		int[] lineStarts = chunkLineStarts[chunk];
+		if (lineStarts == null) {
+			lineStarts = chunkLineStarts[chunk] = new int[CHUNK_SIZE + 1];
+		}
+
+		int endX = Math.min(chunkX + CHUNK_SIZE, width);
+		int count = 0;
+		for (int line = 0; line < CHUNK_SIZE; line++) {
+			lineStarts[line] = count;
+			int y = chunkY + line;
+			if (y >= height) {
+				continue;
+			}
+			for (int x = chunkX; x < endX; x++) {
+				int flags = classifier.getStaticFlags(x, y);
+				if (flags != 0) {
+					chunkBuffer[count++] = x << FLAG_BITS | flags;
+				}
+			}
+		}
+		lineStarts[CHUNK_SIZE] = count;
+
+		int[] entries = chunkEntries[chunk];
+		if (entries == null || entries.length < count || entries.length > 2 * count + CHUNK_SIZE) {
+			entries = chunkEntries[chunk] = new int[count];
+		}
+		System.arraycopy(chunkBuffer, 0, entries, 0, count);
+		rebuiltChunks++;
+	}
+
+	/**
+	 * @return The number of chunk lists built so far.
+	 */
+	int getRebuiltChunks() {
+		return rebuiltChunks;
+	}
+}
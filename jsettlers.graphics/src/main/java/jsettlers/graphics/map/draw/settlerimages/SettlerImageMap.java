@@ -17,6 +17,12 @@ package jsettlers.graphics.map.draw.settlerimages;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +35,7 @@ import jsettlers.common.movable.IGraphicsMovable;
 import jsettlers.common.player.ECivilisation;
 import jsettlers.graphics.image.Image;
 import jsettlers.graphics.image.NullImage;
+import jsettlers.graphics.image.sequence.Sequence;
 import jsettlers.graphics.localization.Labels;
 import jsettlers.graphics.map.draw.ImageProvider;
 
@@ -36,6 +43,9 @@ import jsettlers.graphics.map.draw.ImageProvider;
  * This is a settler image map that maps the state of a settler to the sequence that is to be played.
  * <p>
  * The mapping is a function: (civilisation, type, material, direction) => (file, sequence index, start, duration)
+ * <p>
+ * The items are stored in one flat table with the fallbacks to the roman images already applied. Each item caches the images of its frames, so
+ * looking up the image of a settler that is drawn every frame only reads a few arrays.
  *
  * @author michael
  */
@@ -47,7 +57,12 @@ public final class SettlerImageMap {
 
 	private final ImageProvider imageProvider = ImageProvider.getInstance();
 
-	private final SettlerImageMapItem[][][][][] map;
+	/**
+	 * The items indexed by {@link #getIndex(int, int, int, int, int)}. It does not contain <code>null</code>.
+	 */
+	private final SettlerImageMapItem[] map;
+	private final SettlerImageMapItem[] distinctItems;
+	private volatile int imageGeneration;
 
 	private final Pattern linePattern = Pattern.compile("\\s*([\\w*]+)\\s*,"
 			+ "\\s*([\\w*]+)\\s*," + "\\s*([\\w*]+)\\s*,"
@@ -74,7 +89,7 @@ public final class SettlerImageMap {
 		this.actions = EMovableAction.values().length;
 		this.materials = EMaterialType.NUMBER_OF_MATERIALS;
 		this.directions = EDirection.VALUES.length;
-		this.map = new SettlerImageMapItem[this.civilisations][this.types][this.actions][this.materials][this.directions];
+		this.map = new SettlerImageMapItem[this.civilisations * this.types * this.actions * this.materials * this.directions];
 
 
 		MovableParser parser;
@@ -85,7 +100,7 @@ public final class SettlerImageMap {
 			parser = new MovableParser(str -> getClass().getResourceAsStream(str));
 		}
 
-		int[][][][][] priorities = new int[this.civilisations][this.types][this.actions][this.materials][this.directions];
+		int[] priorities = new int[this.map.length];
 		// add pseudo entry.
 		addEntryToMap(priorities, null, null, null, null, null, DEFAULT_ITEM, -1);
 
@@ -93,6 +108,37 @@ public final class SettlerImageMap {
 		for(ECivilisation civ : ECivilisation.values()) {
 			readFromFile(parser, priorities, civ, "movables-" + civ + ".txt");
 		}
+
+		this.distinctItems = applyFallbacks();
+		this.imageGeneration = imageProvider.getGeneration();
+	}
+
+	/**
+	 * Replaces the empty cells of the map with the item of the roman civilisation or the default item.
+	 *
+	 * @return All items that are used in the map.
+	 */
+	private SettlerImageMapItem[] applyFallbacks() {
+		int romanOffset = getIndex(ECivilisation.ROMAN.ordinal(), 0, 0, 0, 0);
+		int civilisationLength = this.map.length / this.civilisations;
+		Set<SettlerImageMapItem> items = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		for (int index = romanOffset; index < romanOffset + civilisationLength; index++) {
+			if (map[index] == null) {
+				map[index] = DEFAULT_ITEM;
+			}
+		}
+		for (int index = 0; index < map.length; index++) {
+			if (map[index] == null) {
+				map[index] = map[romanOffset + index % civilisationLength];
+			}
+			items.add(map[index]);
+		}
+		return items.toArray(new SettlerImageMapItem[0]);
+	}
+
+	private int getIndex(int civilisation, int type, int action, int material, int direction) {
+		return (((civilisation * this.types + type) * this.actions + action) * this.materials + material) * this.directions + direction;
 	}
 
 	/**
@@ -101,7 +147,7 @@ public final class SettlerImageMap {
 	 * @param name
 	 * 		The file to read from.
 	 */
-	private void readFromFile(MovableParser parser, int[][][][][] priorities, ECivilisation civ, String name) {
+	private void readFromFile(MovableParser parser, int[] priorities, ECivilisation civ, String name) {
 		try {
 			parser.parseFile(name, line -> addByLine(priorities, civ, line));
 		} catch (IOException e) {
@@ -119,7 +165,7 @@ public final class SettlerImageMap {
 	 * @throws IllegalArgumentException
 	 * 		if the line is not correct.
 	 */
-	private void addByLine(int[][][][][] priorities, ECivilisation civ, String line) {
+	private void addByLine(int[] priorities, ECivilisation civ, String line) {
 		final Matcher matcher = parseLine(line);
 		final String typeString = matcher.group(1);
 		final String actionString = matcher.group(2);
@@ -244,7 +290,7 @@ public final class SettlerImageMap {
 	 * @param item
 	 * @param priority
 	 */
-	private void addEntryToMap(int[][][][][] priorities, ECivilisation civ, EMovableType type, EMovableAction action, EMaterialType material, EDirection direction, SettlerImageMapItem item, int priority) {
+	private void addEntryToMap(int[] priorities, ECivilisation civ, EMovableType type, EMovableAction action, EMaterialType material, EDirection direction, SettlerImageMapItem item, int priority) {
 		int minCiv, maxCiv;
 		if(civ == null) {
 			minCiv = 0;
@@ -295,9 +341,10 @@ public final class SettlerImageMap {
 				for (int actionIndex = minAction; actionIndex < maxAction; actionIndex++) {
 					for (int materialIndex = minMaterial; materialIndex < maxMaterial; materialIndex++) {
 						for (int direcitonIndex = minDirection; direcitonIndex < maxDirection; direcitonIndex++) {
-							if (priorities[civIndex][typeIndex][actionIndex][materialIndex][direcitonIndex] < priority) {
-								map[civIndex][typeIndex][actionIndex][materialIndex][direcitonIndex] = item;
-								priorities[civIndex][typeIndex][actionIndex][materialIndex][direcitonIndex] = priority;
+							int index = getIndex(civIndex, typeIndex, actionIndex, materialIndex, direcitonIndex);
+							if (priorities[index] < priority) {
+								map[index] = item;
+								priorities[index] = priority;
 							}
 						}
 					}
@@ -344,15 +391,32 @@ public final class SettlerImageMap {
 	 * @return The image.
 	 */
 	public Image getImageForSettler(ECivilisation civilisation, EMovableType movableType, EMovableAction action, EMaterialType material, EDirection direction, float progress) {
-		SettlerImageMapItem item = getMapItem(civilisation, movableType, action, material, direction);
+		if (imageGeneration != imageProvider.getGeneration()) {
+			clearFrames();
+		}
 
-		int duration = item.getDuration();
-		int imageIndex;
-		if (duration >= 0) {
-			imageIndex = item.getStart() + Math.min((int) (progress * duration), duration - 1);
-		} else {
-			imageIndex = item.getStart() + Math.max((int) (progress * duration), duration + 1);
+		SettlerImageMapItem item = getMapItem(civilisation, movableType, action, material, direction);
+		Image[] frames = item.frames;
+		if (frames == null) {
+			frames = resolveFrames(item);
 		}
+		int frame = item.getFrame(progress);
+		int frameIndex = item.getDuration() >= 0 ? frame : -frame;
+		if (frameIndex >= 0 && frameIndex < frames.length && frames[frameIndex] != null) {
+			return frames[frameIndex];
+		}
+		return getImageUncached(civilisation, movableType, action, material, direction, progress);
+	}
+
+	/**
+	 * Gets an image for a given settler without using the images cached in the items.
+	 *
+	 * @see #getImageForSettler(ECivilisation, EMovableType, EMovableAction, EMaterialType, EDirection, float)
+	 */
+	Image getImageUncached(ECivilisation civilisation, EMovableType movableType, EMovableAction action, EMaterialType material, EDirection direction, float progress) {
+		SettlerImageMapItem item = getMapItem(civilisation, movableType, action, material, direction);
+
+		int imageIndex = item.getStart() + item.getFrame(progress);
 		Image image = this.imageProvider.getSettlerSequence(item.getFile(), item.getSequenceIndex()).getImageSafe(imageIndex, () -> Labels.getName(movableType) + "-" + action + "-" + Labels.getName(material, false ) + "-" + direction + "%" + progress);
 		if(image == NullImage.getInstance() && civilisation != ECivilisation.ROMAN) image = getImageForSettler(ECivilisation.ROMAN, movableType, action, material, direction, progress);
 		return image;
@@ -369,19 +433,130 @@ public final class SettlerImageMap {
 	 * @return The item of the map at the given position. Is not null.
 	 */
 	private SettlerImageMapItem getMapItem(ECivilisation civilisation, EMovableType movableType, EMovableAction action, EMaterialType material, EDirection direction) {
-		SettlerImageMapItem item = this.map[civilisation.ordinal()][movableType.ordinal()][action.ordinal()][material.ordinal][direction.ordinal];
-		if (item == null) {
-			if(civilisation != ECivilisation.ROMAN) {
-				return getMapItem(ECivilisation.ROMAN, movableType, action, material, direction);
-			} else {
-				return DEFAULT_ITEM;
+		return this.map[getIndex(civilisation.ordinal(), movableType.ordinal(), action.ordinal(), material.ordinal, direction.ordinal)];
+	}
+
+	/**
+	 * Looks up the images of all frames of all items, so that they do not need to be looked up while drawing.
+	 */
+	public void resolveImages() {
+		if (imageGeneration != imageProvider.getGeneration()) {
+			clearFrames();
+		}
+		for (SettlerImageMapItem item : distinctItems) {
+			if (item.frames == null) {
+				resolveFrames(item);
 			}
-		} else {
-			return item;
 		}
 	}
 
-	public static SettlerImageMap getInstance() {
+	/**
+	 * Looks up the images of all frames of the items that are read from one file.
+	 *
+	 * @param file
+	 * 		The number of the file.
+	 * @see #getFiles()
+	 */
+	public void resolveImages(int file) {
+		if (imageGeneration != imageProvider.getGeneration()) {
+			clearFrames();
+		}
+		for (SettlerImageMapItem item : distinctItems) {
+			if (item.getFile() == file && item.frames == null) {
+				resolveFrames(item);
+			}
+		}
+	}
+
+	/**
+	 * Gets the files the settler images are read from.
+	 *
+	 * @return The file numbers in ascending order.
+	 */
+	public int[] getFiles() {
+		return Arrays.stream(distinctItems).mapToInt(SettlerImageMapItem::getFile).distinct().sorted().toArray();
+	}
+
+	/**
+	 * Gets the images of the frames that were looked up so far.
+	 *
+	 * @return The distinct images in the order of the items.
+	 */
+	public List<Image> getResolvedImages() {
+		return getResolvedImages(Arrays.asList(distinctItems));
+	}
+
+	/**
+	 * Gets the images of the frames that were looked up so far and that are used by the given civilisations. This
+	 * includes the images a civilisation falls back to.
+	 *
+	 * @param civilisations
+	 *            The civilisations to get the images for.
+	 * @return The distinct images in the order of the items.
+	 */
+	public List<Image> getResolvedImages(Set<ECivilisation> civilisations) {
+		Set<SettlerImageMapItem> used = Collections.newSetFromMap(new IdentityHashMap<>());
+		int civilisationLength = map.length / this.civilisations;
+		for (ECivilisation civilisation : civilisations) {
+			int start = getIndex(civilisation.ordinal(), 0, 0, 0, 0);
+			used.addAll(Arrays.asList(map).subList(start, start + civilisationLength));
+		}
+
+		List<SettlerImageMapItem> items = new ArrayList<>();
+		for (SettlerImageMapItem item : distinctItems) {
+			if (used.contains(item)) {
+				items.add(item);
+			}
+		}
+		return getResolvedImages(items);
+	}
+
+	private static List<Image> getResolvedImages(List<SettlerImageMapItem> items) {
+		Set<Image> added = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<Image> images = new ArrayList<>();
+		for (SettlerImageMapItem item : items) {
+			Image[] frames = item.frames;
+			if (frames != null) {
+				for (Image frame : frames) {
+					if (frame != null && added.add(frame)) {
+						images.add(frame);
+					}
+				}
+			}
+		}
+		return images;
+	}
+
+	private Image[] resolveFrames(SettlerImageMapItem item) {
+		int generation = imageProvider.getGeneration();
+		Sequence<? extends Image> sequence = imageProvider.getSettlerSequence(item.getFile(), item.getSequenceIndex());
+		int duration = item.getDuration();
+		Image[] frames = new Image[Math.abs(duration)];
+		for (int i = 0; i < frames.length; i++) {
+			int imageIndex = item.getStart() + (duration >= 0 ? i : -i);
+			Image image = sequence.getImageSafe(imageIndex, () -> "settler-" + item.getFile() + "-" + item.getSequenceIndex() + ":" + imageIndex);
+			frames[i] = image != NullImage.getInstance() ? image : null;
+		}
+		if (generation == imageGeneration) {
+			item.frames = frames;
+		}
+		return frames;
+	}
+
+	/**
+	 * Drops the cached images after the image provider was invalidated.
+	 */
+	private synchronized void clearFrames() {
+		int generation = imageProvider.getGeneration();
+		if (imageGeneration != generation) {
+			for (SettlerImageMapItem item : distinctItems) {
+				item.frames = null;
+			}
+			imageGeneration = generation;
+		}
+	}
+
+	public static synchronized SettlerImageMap getInstance() {
 		if (instance == null) {
 			instance = new SettlerImageMap(null);
 		}
@@ -391,7 +566,7 @@ public final class SettlerImageMap {
 	/**
 	 * Reloads the movables.txt files from the project directory instead of the jar file. Allows editing the movables files without restarting the game.
 	 */
-	public static void reloadFromDirectory() {
+	public static synchronized void reloadFromDirectory() {
 		if(!CommonConstants.MUTABLE_MOVABLES_TXT) {
 			throw new IllegalAccessError("reloading movables.txt is not supported!");
 		}
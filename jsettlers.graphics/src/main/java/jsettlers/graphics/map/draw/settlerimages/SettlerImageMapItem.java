@@ -14,6 +14,8 @@
  *******************************************************************************/
 package jsettlers.graphics.map.draw.settlerimages;
 
+import jsettlers.graphics.image.Image;
+
 /**
  * This is a map item of settler images.
  * 
@@ -29,6 +31,12 @@ public class SettlerImageMapItem {
 
 	private final int duration;
 
+	/**
+	 * The images of the frames as resolved by the {@link SettlerImageMap}, indexed by the distance of the frame from the start. Missing images are
+	 * <code>null</code>.
+	 */
+	volatile Image[] frames;
+
 	public SettlerImageMapItem(int file, int sequenceIndex, int start,
 			int duration) {
 		this.file = file;
@@ -52,4 +60,19 @@ public class SettlerImageMapItem {
 	public int getDuration() {
 		return this.duration;
 	}
+
+	/**
+	 * Gets the frame to show for a given progress.
+	 *
+	 * @param progress
+	 * 		The progress of the animation.
+	 * @return The frame relative to {@link #getStart()}.
+	 */
+	public int getFrame(float progress) {
+		if (duration >= 0) {
+			return Math.min((int) (progress * duration), duration - 1);
+		} else {
+			return Math.max((int) (progress * duration), duration + 1);
+		}
+	}
 }
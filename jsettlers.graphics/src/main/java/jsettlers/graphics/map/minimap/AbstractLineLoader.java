@@ -14,10 +14,18 @@
  *******************************************************************************/
 package jsettlers.graphics.map.minimap;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
 import jsettlers.common.Color;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.buildings.IBuilding;
+import jsettlers.common.map.IDirectGridProvider;
+import jsettlers.common.map.IGraphicsBackgroundListener;
 import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsMapObjectsListener;
+import jsettlers.common.map.IGraphicsMovablesListener;
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.movable.IGraphicsMovable;
@@ -28,22 +36,30 @@ import jsettlers.graphics.map.minimap.MinimapMode.SettlersMode;
 
 /**
  * This class does the minimap line loading without knowing how to store the data.
+ * <p>
+ * The map is split into blocks of {@link #BLOCK_SIZE} x {@link #BLOCK_SIZE} positions. Changes of the map reported to the listener methods mark
+ * their block dirty and only the minimap pixels covering dirty blocks are computed again. If nothing is dirty, the loader thread sleeps. Maps
+ * that are no {@link IDirectGridProvider} don't report changes of objects and movables, so they are refreshed completely every
+ * {@link #FULL_REFRESH_INTERVAL_MS}.
  * 
  * @author Michael Zangl
  */
-public abstract class AbstractLineLoader implements Runnable {
+public abstract class AbstractLineLoader implements Runnable, IGraphicsBackgroundListener, IGraphicsMapObjectsListener, IGraphicsMovablesListener {
 	protected static final int BLACK = Color.BLACK.getRGBA();
 	protected static final short TRANSPARENT = 0;
-	private static final int Y_STEP_HEIGHT = 5;
-	private static final int X_STEP_WIDTH = 5;
 	private static final int LINES_PER_RUN = 30;
+	static final int BLOCK_SIZE = 8;
+	/**
+	 * The minimum time between two updates. Changes during that time are collected, so positions that change often are not computed again after
+	 * every change.
+	 */
+	private static final long UPDATE_INTERVAL_MS = 100;
+	private static final long FULL_REFRESH_INTERVAL_MS = 2000;
 
-	private int currentLine = 0;
-	private boolean stopped;
+	private volatile boolean stopped;
+	private volatile Thread loaderThread;
 	private int workingMinimapWidth = -1;
 	private int workingMinimapHeight = -1;
-	private int currYOffset = 0;
-	private int currXOffset = 0;
 
 	private final MinimapMode modeSettings;
 	protected final IMinimapData minimapData;
@@ -52,17 +68,40 @@ public abstract class AbstractLineLoader implements Runnable {
 	 */
 	private int[][] landscape = new int[1][1];
 
+	private final int mapWidth;
+	private final int mapHeight;
+	private final boolean reportsChanges;
+	private final int blocksPerLine;
+	private final AtomicIntegerArray dirtyBlocks;
+	private volatile boolean changesPending;
+	/**
+	 * The range of pixels of each minimap line that needs to be computed again, the end is exclusive.
+	 */
+	private int[] dirtyLineStart = new int[0];
+	private int[] dirtyLineEnd = new int[0];
+
 	public AbstractLineLoader(IMinimapData minimapData, MinimapMode modeSettings) {
 		this.minimapData = minimapData;
 		this.modeSettings = modeSettings;
 		landscape[0][0] = TRANSPARENT;
+
+		IGraphicsGrid map = minimapData.getContext().getMap();
+		mapWidth = map.getWidth();
+		mapHeight = map.getHeight();
+		reportsChanges = map instanceof IDirectGridProvider;
+		blocksPerLine = (mapWidth + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		dirtyBlocks = new AtomicIntegerArray(blocksPerLine * ((mapHeight + BLOCK_SIZE - 1) / BLOCK_SIZE));
+		markAllDirty();
 	}
 
 	@Override
 	public void run() {
+		loaderThread = Thread.currentThread();
 		while (!stopped) {
 			try {
-				updateLine();
+				if (!updateLines()) {
+					waitForChanges();
+				}
 			} catch (Throwable e) {
 				e.printStackTrace();
 			}
@@ -70,40 +109,140 @@ public abstract class AbstractLineLoader implements Runnable {
 	}
 
 	/**
-	 * Updates a line by putting it to the update buffer. Next time the gl context is available, it is updated.
+	 * Computes up to {@link #LINES_PER_RUN} dirty lines and puts them to the update buffer. Next time the gl context is available, they are
+	 * updated.
+	 *
+	 * @return false if there was nothing to compute.
 	 */
-	private void updateLine() {
+	private boolean updateLines() {
 		minimapData.blockUntilUpdateAllowedOrStopped();
-		for (int i = 0; i < LINES_PER_RUN; i++) {
-			int width = minimapData.getWidth();
-			int height = minimapData.getHeight();
-			if (workingMinimapWidth != width || workingMinimapHeight != height) {
-				workingMinimapWidth = width;
-				workingMinimapHeight = height;
-				resizeBuffer(width, height);
-				resizeBackground(width, height);
-				currentLine = 0;
-				currXOffset = 0;
-				currYOffset = 0;
+		if (stopped) {
+			return true;
+		}
+
+		int width = minimapData.getWidth();
+		int height = minimapData.getHeight();
+		if (workingMinimapWidth != width || workingMinimapHeight != height) {
+			workingMinimapWidth = width;
+			workingMinimapHeight = height;
+			resizeBuffer(width, height);
+			resizeBackground(width, height);
+			dirtyLineStart = new int[height];
+			dirtyLineEnd = new int[height];
+			markAllDirty();
+		}
+		collectDirtyBlocks();
+
+		int updatedLines = 0;
+		for (int line = 0; line < workingMinimapHeight && updatedLines < LINES_PER_RUN; line++) {
+			if (dirtyLineStart[line] < dirtyLineEnd[line]) {
+				calculateLineData(line, dirtyLineStart[line], dirtyLineEnd[line]);
+				markLineUpdate(line);
+				dirtyLineStart[line] = dirtyLineEnd[line] = 0;
+				updatedLines++;
 			}
+		}
+		return updatedLines > 0;
+	}
 
-			calculateLineData(currentLine);
-			markLineUpdate(currentLine);
+	private void waitForChanges() throws InterruptedException {
+		Thread.sleep(UPDATE_INTERVAL_MS);
+		while (!changesPending && !stopped) {
+			if (reportsChanges) {
+				LockSupport.park(this);
+			} else {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FULL_REFRESH_INTERVAL_MS));
+				markAllDirty();
+			}
+		}
+	}
 
-			currentLine += Y_STEP_HEIGHT;
-			if (currentLine >= workingMinimapHeight) {
-				currYOffset++;
-				if (currYOffset >= Y_STEP_HEIGHT) {
-					currYOffset = 0;
-					currXOffset += 3;
-					currXOffset %= X_STEP_WIDTH;
-				}
+	/**
+	 * Moves the dirty blocks to the dirty ranges of the minimap lines covering them.
+	 */
+	private void collectDirtyBlocks() {
+		// cleared before reading the blocks, so a block marked after it was read wakes up the thread again
+		changesPending = false;
+		for (int block = 0; block < dirtyBlocks.length(); block++) {
+			if (dirtyBlocks.get(block) != 0) {
+				dirtyBlocks.set(block, 0);
+				markBlockLines(block);
+			}
+		}
+	}
 
-				currentLine = currYOffset;
+	private void markBlockLines(int block) {
+		int blockX = block % blocksPerLine * BLOCK_SIZE;
+		int blockY = block / blocksPerLine * BLOCK_SIZE;
+		int width = workingMinimapWidth;
+		int height = workingMinimapHeight;
+
+		// the pixels are computed from slightly bigger areas, see calculateLineData
+		int startX = Math.max(0, blockX * width / mapWidth - 1);
+		int endX = Math.min(width, (blockX + BLOCK_SIZE) * width / mapWidth + 2);
+		int startLine = Math.max(0, (mapHeight - blockY - BLOCK_SIZE) * height / mapHeight - 1);
+		int endLine = Math.min(height, (mapHeight - blockY) * height / mapHeight + 3);
+
+		for (int line = startLine; line < endLine; line++) {
+			if (dirtyLineStart[line] < dirtyLineEnd[line]) {
+				dirtyLineStart[line] = Math.min(dirtyLineStart[line], startX);
+				dirtyLineEnd[line] = Math.max(dirtyLineEnd[line], endX);
+			} else {
+				dirtyLineStart[line] = startX;
+				dirtyLineEnd[line] = endX;
 			}
 		}
 	}
 
+	private void markDirty(int x, int y) {
+		if (x < 0 || x >= mapWidth || y < 0 || y >= mapHeight) {
+			return;
+		}
+
+		int block = y / BLOCK_SIZE * blocksPerLine + x / BLOCK_SIZE;
+		if (dirtyBlocks.get(block) == 0) {
+			dirtyBlocks.set(block, 1);
+		}
+		if (!changesPending) {
+			changesPending = true;
+			unparkLoader();
+		}
+	}
+
+	/**
+	 * Marks the whole minimap to be computed again.
+	 */
+	public void markAllDirty() {
+		for (int block = 0; block < dirtyBlocks.length(); block++) {
+			dirtyBlocks.set(block, 1);
+		}
+		changesPending = true;
+		unparkLoader();
+	}
+
+	@Override
+	public void backgroundLineChangedAt(int x, int y, int length) {
+		for (int blockX = x; blockX < x + length; blockX += BLOCK_SIZE) {
+			markDirty(blockX, y);
+		}
+		markDirty(x + length - 1, y);
+	}
+
+	@Override
+	public void fogOfWarEnabledStatusChanged(boolean enabled) {
+		markAllDirty();
+	}
+
+	@Override
+	public void mapObjectsChangedAt(int x, int y) {
+		markDirty(x, y);
+	}
+
+	@Override
+	public void movablesChangedAt(int x, int y) {
+		markDirty(x, y);
+	}
+
 	private void resizeBackground(int width, int height) {
 		int[][] oldLandscape = landscape;
 		landscape = new int[height][width];
@@ -122,7 +261,7 @@ public abstract class AbstractLineLoader implements Runnable {
 
 	protected abstract void resizeBuffer(int width, int height);
 
-	private void calculateLineData(final int currentline) {
+	private void calculateLineData(final int currentline, int startX, int endX) {
 		// may change!
 		final int safeWidth = workingMinimapWidth;
 		final int safeHeight = workingMinimapHeight;
@@ -147,9 +286,7 @@ public abstract class AbstractLineLoader implements Runnable {
 			}
 		}
 
-		int myXOffset = (currXOffset + currentline * 3) % X_STEP_WIDTH;
-
-		for (int x = myXOffset; x < safeWidth; x += X_STEP_WIDTH) {
+		for (int x = startX; x < Math.min(endX, safeWidth); x++) {
 			int mapMinX = (int) ((float) x / safeWidth * mapWidth);
 			int mapMaxX = (int) ((float) (x + 1) / safeWidth * mapWidth);
 
@@ -265,5 +402,13 @@ public abstract class AbstractLineLoader implements Runnable {
 	 */
 	public void stop() {
 		stopped = true;
+		unparkLoader();
+	}
+
+	private void unparkLoader() {
+		Thread thread = loaderThread;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
 	}
 }
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.graphics.map.minimap;
 
+import go.graphics.EFramePhase;
 import go.graphics.EPrimitiveType;
 import go.graphics.GLDrawContext;
 import go.graphics.IllegalBufferException;
@@ -77,6 +78,10 @@ public final class Minimap implements IMinimapData {
 		converter = new MapCoordinateConverter(map.getWidth(), map.getHeight(), 1, 1);
 		miniMapShapeCalculator = new MiniMapShapeCalculator(stride, converter);
 		lineLoader = new LineLoader(this, modeSettings);
+		modeSettings.setChangeListener(lineLoader::markAllDirty);
+		context.getChangeDispatcher().addBackgroundListener(lineLoader);
+		context.getChangeDispatcher().addMapObjectsListener(lineLoader);
+		context.getChangeDispatcher().addMovablesListener(lineLoader);
 		Thread miniMapThread = new Thread(lineLoader, "minimap loader");
 		miniMapThread.setDaemon(true);
 		miniMapThread.start();
@@ -91,6 +96,7 @@ public final class Minimap implements IMinimapData {
 			updateGeometry = true;
 			imageIsValid = false;
 		}
+		lineLoader.markAllDirty();
 	}
 
 	private boolean updateGeometry = true;
@@ -106,6 +112,12 @@ public final class Minimap implements IMinimapData {
 	}
 
 	public void draw(GLDrawContext context, float x, float y) {
+		EFramePhase previousPhase = context.getProfiler().enter(EFramePhase.MINIMAP);
+		drawMinimap(context, x, y);
+		context.getProfiler().enter(previousPhase);
+	}
+
+	private void drawMinimap(GLDrawContext context, float x, float y) {
 		boolean imageWasCreatedJustNow = false;
 		try {
 			synchronized (updateMutex) {
@@ -124,10 +136,12 @@ public final class Minimap implements IMinimapData {
 					}
 					updatedLines.clear();
 					imageIsValid = true;
+					lineLoader.markAllDirty();
 				}
 
 				int updatedLineCount = updatedLines.size();
 				if (updatedLineCount > 0) {
+					context.getProfiler().enter(EFramePhase.UPLOADS);
 					if(context instanceof VkDrawContext) {
 						int padding = -(-width%2);
 
@@ -155,6 +169,7 @@ public final class Minimap implements IMinimapData {
 						}
 					}
 					updatedLines.clear();
+					context.getProfiler().enter(EFramePhase.MINIMAP);
 				}
 				updateMutex.notifyAll();
 			}
@@ -165,6 +180,7 @@ public final class Minimap implements IMinimapData {
 			}
 
 			if(updateGeometry) {
+				context.getProfiler().enter(EFramePhase.UPLOADS);
 				lineBfr.asFloatBuffer().put(miniMapShapeCalculator.getMiniMapShapeNodes(), 0, 12);
 				context.updateBufferAt(lineGeometry.vertices, 0, lineBfr);
 
@@ -174,6 +190,7 @@ public final class Minimap implements IMinimapData {
 				replaceBufferValue(context, 12, stride * width);
 				replaceBufferValue(context, 13, height);
 				updateGeometry = false;
+				context.getProfiler().enter(EFramePhase.MINIMAP);
 			}
 
 			geometry.drawSimple(EPrimitiveType.Quad, x, y, 0, 1, 1, null, 1);
@@ -187,7 +204,7 @@ public final class Minimap implements IMinimapData {
 				synchronized (updateMutex) {
 					imageIsValid = false;
 				}
-				draw(context, x, y);
+				drawMinimap(context, x, y);
 			}
 		}
 	}
@@ -253,6 +270,9 @@ public final class Minimap implements IMinimapData {
 	}
 
 	public void stop() {
+		context.getChangeDispatcher().removeBackgroundListener(lineLoader);
+		context.getChangeDispatcher().removeMapObjectsListener(lineLoader);
+		context.getChangeDispatcher().removeMovablesListener(lineLoader);
 		lineLoader.stop();
 		stopped = true;
 		synchronized (updateMutex) {
@@ -14,6 +14,8 @@
  *******************************************************************************/
 package jsettlers.graphics.map.minimap;
 
+import java.util.Objects;
+
 /**
  * This is the current mode the minimap should have.
  * 
@@ -35,6 +37,17 @@ public class MinimapMode {
 	private boolean displayBuildings = true;
 	private OccupiedAreaMode displayOccupied = OccupiedAreaMode.BORDERS;
 	private SettlersMode displaySettlers = SettlersMode.SOILDERS;
+	private Runnable changeListener = () -> { };
+
+	/**
+	 * Sets the listener that is called after one of the settings changed.
+	 *
+	 * @param changeListener
+	 *            The listener or {@code null} to remove the current one.
+	 */
+	public void setChangeListener(Runnable changeListener) {
+		this.changeListener = Objects.requireNonNullElse(changeListener, () -> { });
+	}
 
 	public boolean getDisplayBuildings() {
 		return displayBuildings;
@@ -42,6 +55,7 @@ public class MinimapMode {
 
 	public void setDisplayBuildings(boolean displayBuildings) {
 		this.displayBuildings = displayBuildings;
+		changeListener.run();
 	}
 
 	public OccupiedAreaMode getDisplayOccupied() {
@@ -50,6 +64,7 @@ public class MinimapMode {
 
 	public void setDisplayOccupied(OccupiedAreaMode displayOccupied) {
 		this.displayOccupied = displayOccupied;
+		changeListener.run();
 	}
 
 	public SettlersMode getDisplaySettlers() {
@@ -58,5 +73,6 @@ public class MinimapMode {
 
 	public void setDisplaySettlers(SettlersMode displaySettlers) {
 		this.displaySettlers = displaySettlers;
+		changeListener.run();
 	}
 }
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.sound;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import go.graphics.sound.ISoundDataRetriever;
+
+/**
+ * Decodes the sounds of a (memory mapped) sound file when they are first played. The decoded samples are kept in a cache that is bounded by the
+ * number of bytes it uses and drops the least recently played sounds first. Without a limit, every sound is decoded when it is requested and
+ * nothing is kept.
+ */
+public class SoundDataCache implements ISoundDataRetriever {
+	/**
+	 * The number of bytes in front of the samples of a sound.
+	 */
+	private static final int SOUND_HEADER_LENGTH = 20;
+	private static final int PREFETCH_THREAD_KEEP_ALIVE_SECONDS = 5;
+
+	private final ByteBuffer file;
+	private final long maxBytes;
+
+	private final LinkedHashMap<Integer, short[]> sounds = new LinkedHashMap<>(16, .75f, true);
+	private final Set<Integer> prefetching = new HashSet<>();
+	private long cachedBytes = 0;
+
+	private final ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(0, 1, PREFETCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "sound prefetch");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	/**
+	 * Creates a new {@link SoundDataCache}.
+	 *
+	 * @param file
+	 * 		The content of the sound file, e.g. mapped by {@link jsettlers.graphics.image.reader.bytereader.MappedByteReader#map(java.io.File)}.
+	 * 		The position and limit of the buffer are not changed.
+	 * @param maxBytes
+	 * 		The maximum number of bytes the decoded samples may use, or 0 if the samples are not kept, e.g. because the sound player keeps its own
+	 * 		copy.
+	 */
+	public SoundDataCache(ByteBuffer file, long maxBytes) {
+		this.file = file;
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	public short[] getSoundData(int soundStart) throws IOException {
+		synchronized (sounds) {
+			short[] data = sounds.get(soundStart);
+			if (data != null) {
+				return data;
+			}
+		}
+
+		short[] data = decode(soundStart);
+		if (maxBytes <= 0) {
+			return data;
+		}
+
+		synchronized (sounds) {
+			short[] old = sounds.put(soundStart, data);
+			if (old != null) {
+				cachedBytes -= getBytes(old);
+			}
+			cachedBytes += getBytes(data);
+			trim();
+		}
+		return data;
+	}
+
+	/**
+	 * Decodes the given sound in the background if it is not cached yet. This does nothing if the samples are not kept.
+	 *
+	 * @param soundStart
+	 * 		The start of the sound in the file.
+	 */
+	public void prefetch(int soundStart) {
+		if (maxBytes <= 0) {
+			return;
+		}
+		synchronized (sounds) {
+			if (sounds.containsKey(soundStart) || !prefetching.add(soundStart)) {
+				return;
+			}
+		}
+
+		prefetchExecutor.execute(() -> {
+			try {
+				getSoundData(soundStart);
+			} catch (IOException e) {
+				e.printStackTrace();
+			} finally {
+				synchronized (sounds) {
+					prefetching.remove(soundStart);
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return The number of bytes used by the cached samples.
+	 */
+	public long getCachedBytes() {
+		synchronized (sounds) {
+			return cachedBytes;
+		}
+	}
+
+	/**
+	 * @param soundStart
+	 * 		The start of the sound in the file.
+	 * @return <code>true</code> if the samples of that sound are cached.
+	 */
+	public boolean isCached(int soundStart) {
+		synchronized (sounds) {
+			return sounds.containsKey(soundStart);
+		}
+	}
+
+	private void trim() {
+		Iterator<short[]> iterator = sounds.values().iterator();
+		// the most recently added sound is always kept, even if it is bigger than the limit.
+		while (cachedBytes > maxBytes && sounds.size() > 1) {
+			cachedBytes -= getBytes(iterator.next());
+			iterator.remove();
+		}
+	}
+
+	private short[] decode(int soundStart) throws IOException {
+		if (soundStart < 0 || soundStart > file.limit() - SOUND_HEADER_LENGTH) {
+			throw new IOException("Sound start " + soundStart + " is not in the sound file.");
+		}
+
+		ByteBuffer buffer = file.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		int length = buffer.getInt(soundStart) / 2 - SoundManager.SOUND_META_LENGTH;
+		if (length <= 0) {
+			return new short[0];
+		}
+		int samplesStart = soundStart + SOUND_HEADER_LENGTH;
+		if (length > (buffer.limit() - samplesStart) / 2) {
+			throw new IOException("Sound at " + soundStart + " exceeds the sound file.");
+		}
+
+		short[] data = new short[length];
+		buffer.position(samplesStart);
+		buffer.asShortBuffer().get(data);
+		return data;
+	}
+
+	private static long getBytes(short[] data) {
+		return 2L * data.length;
+	}
+}
@@ -17,9 +17,9 @@ package jsettlers.graphics.sound;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.Random;
 
-import go.graphics.sound.ISoundDataRetriever;
 import go.graphics.sound.SoundPlayer;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.map.shapes.MapRectangle;
@@ -27,6 +27,8 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.FileUtils;
 import jsettlers.graphics.map.MapDrawContext;
 import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.IByteReader;
+import jsettlers.graphics.image.reader.bytereader.MappedByteReader;
 
 /*
  * This class manages reading and playing of the sound file.
@@ -99,9 +101,13 @@ public class SoundManager {
 	private static final String SOUND_FILE_NAME = "Siedler3_00.dat";
 
 	private static final int Z_STEPS_FOR_MAX_VOLUME = 50;
-	private static final int SOUND_META_LENGTH = 16;
+	static final int SOUND_META_LENGTH = 16;
 	private static final int SOUND_FILE_START = 0x24;
 	private static final int SEQUENCE_N = 118;
+	/**
+	 * The maximum number of bytes of decoded samples kept in memory for sound players that do not keep the samples themselves.
+	 */
+	private static final long MAX_CACHED_SOUND_BYTES = 4 * 1024 * 1024;
 
 	private static final byte[] SOUND_FILE_MAGIC = new byte[] {
 			0x44,
@@ -131,6 +137,7 @@ public class SoundManager {
 	 * The start positions of all the playable sounds.
 	 */
 	private int[][] soundStarts;
+	private volatile SoundDataCache soundCache;
 	private boolean initializing = false;
 	private MapDrawContext map = null;
 	private MapRectangle area = null;
@@ -155,7 +162,7 @@ public class SoundManager {
 	 * @throws IOException
 	 * 		If the file could not be read.
 	 */
-	protected static int[][] getSoundStarts(ByteReader reader) throws IOException {
+	protected static int[][] getSoundStarts(IByteReader reader) throws IOException {
 		int[] sequenceHeaderStarts = new int[SEQUENCE_N];
 		for (int i = 0; i < SEQUENCE_N; i++) {
 			sequenceHeaderStarts[i] = reader.read32();
@@ -313,43 +320,46 @@ public class SoundManager {
 	}
 
 	private void loadSounds() throws IOException {
-		ByteReader reader = openSoundFile();
+		File sndFile = getSoundFile();
+		if (sndFile == null) {
+			throw new IOException("Sound file not found.");
+		}
+
+		ByteBuffer data = MappedByteReader.map(sndFile);
+		MappedByteReader reader = new MappedByteReader(data, 0);
+		reader.assumeToRead(SOUND_FILE_MAGIC);
+		reader.skipTo(SOUND_FILE_START);
 		this.soundStarts = getSoundStarts(reader);
-		soundPlayer.setSoundDataRetriever(new SoundDataRetriever(reader));
+
+		SoundDataCache cache = new SoundDataCache(data, soundPlayer.keepsSoundData() ? 0 : MAX_CACHED_SOUND_BYTES);
+		soundPlayer.setSoundDataRetriever(cache);
+		this.soundCache = cache;
 	}
 
 	/**
-	 * Sets the sound file lookup path.
+	 * Decodes all alternatives of a sound in the background, so that they can be played without delay later. This does nothing if the sound
+	 * player keeps the samples itself.
 	 *
-	 * @param lookupPath
-	 * 		The file path.
+	 * @param soundId
+	 * 		The sound id that is likely to be played soon.
 	 */
-	public static void setLookupPath(File lookupPath) {
-		SoundManager.lookupPath = lookupPath;
+	public void prefetchSound(int soundId) {
+		SoundDataCache cache = soundCache;
+		if (cache != null && soundId >= 0 && soundId < SEQUENCE_N) {
+			for (int soundStart : soundStarts[soundId]) {
+				cache.prefetch(soundStart);
+			}
+		}
 	}
 
 	/**
-	 * This class wraps an open {@link ByteReader} to a {@link ISoundDataRetriever}.
+	 * Sets the sound file lookup path.
 	 *
-	 * @author Michael Zangl
+	 * @param lookupPath
+	 * 		The file path.
 	 */
-	private static class SoundDataRetriever implements ISoundDataRetriever {
-		private final ByteReader reader;
-
-		/**
-		 * Create a new {@link SoundDataRetriever}.
-		 *
-		 * @param reader
-		 * 		The byte reader.
-		 */
-		SoundDataRetriever(ByteReader reader) {
-			this.reader = reader;
-		}
-
-		@Override
-		public synchronized short[] getSoundData(int soundStart) throws IOException {
-			return SoundManager.getSoundData(reader, soundStart);
-		}
+	public static void setLookupPath(File lookupPath) {
+		SoundManager.lookupPath = lookupPath;
 	}
 
 	/**
@@ -363,7 +373,7 @@ public class SoundManager {
 	 * @throws IOException
 	 * 		If that sound could not be read.
 	 */
-	protected static short[] getSoundData(ByteReader reader, int start) throws IOException {
+	protected static short[] getSoundData(IByteReader reader, int start) throws IOException {
 		reader.skipTo(start);
 
 		int length = reader.read32() / 2 - SOUND_META_LENGTH;
@@ -375,7 +385,7 @@ public class SoundManager {
 		return loadSound(reader, length);
 	}
 
-	private static short[] loadSound(ByteReader reader, int length) throws IOException {
+	private static short[] loadSound(IByteReader reader, int length) throws IOException {
 		if (length < 0) {
 			return new short[0];
 		}
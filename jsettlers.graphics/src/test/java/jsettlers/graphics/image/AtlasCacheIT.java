@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import go.graphics.RecordingDrawContext;
+import jsettlers.graphics.image.reader.AdvancedDatFileReader;
+import jsettlers.graphics.image.reader.SyntheticDatFile;
+import jsettlers.graphics.image.sequence.Sequence;
+
+/**
+ * Measures how long it takes to get the draw calls of all images of a dat file without and with an {@link AtlasCache}. For the warm start, the
+ * time the loader threads need to read the cache file is printed separately from the time spent drawing.
+ */
+public class AtlasCacheIT {
+	private static final int IMAGES = 1000;
+	private static final int SIZE = 40;
+
+	private File directory;
+	private File datFile;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("atlas-cache-it").toFile();
+		datFile = new File(directory, "siedler3_00" + SyntheticDatFile.TYPE.getFileSuffix());
+		SyntheticDatFile.write(datFile, IMAGES, SIZE, SIZE, 5);
+	}
+
+	@After
+	public void tearDown() {
+		AtlasCache.setInstance(null);
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void compareColdAndWarmStart() throws IOException {
+		for (int run = 0; run < 3; run++) {
+			AtlasCache.setInstance(null);
+			long uncached = drawAll();
+
+			for (File file : directory.listFiles((dir, name) -> name.startsWith("atlas-"))) {
+				file.delete();
+			}
+			AtlasCache.setInstance(new AtlasCache(directory, "it"));
+			long cold = drawAll();
+			long start = System.currentTimeMillis();
+			AtlasCache.getInstance().save();
+			long save = System.currentTimeMillis() - start;
+
+			AtlasCache.setInstance(new AtlasCache(directory, "it"));
+			start = System.currentTimeMillis();
+			AtlasCache.getInstance().preload();
+			long preload = System.currentTimeMillis() - start;
+			long warm = drawAll();
+
+			System.out.println(IMAGES + " images: without cache " + uncached + "ms, cold start " + cold + "ms (+" + save + "ms to save), warm start "
+					+ warm + "ms (+" + preload + "ms to read the cache on a loader thread)");
+		}
+	}
+
+	private long drawAll() {
+		long start = System.currentTimeMillis();
+		RecordingDrawContext gl = new RecordingDrawContext();
+		Sequence<SingleImage> landscapes = new AdvancedDatFileReader(datFile, SyntheticDatFile.TYPE, "F0").getLandscapes();
+		for (int i = 0; i < IMAGES; i++) {
+			landscapes.getImageSafe(i, null).drawImageAtRect(gl, 0, 0, SIZE, SIZE, 1);
+		}
+		return System.currentTimeMillis() - start;
+	}
+}
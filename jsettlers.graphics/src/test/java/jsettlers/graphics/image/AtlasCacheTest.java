@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import go.graphics.RecordingDrawContext;
+import jsettlers.graphics.image.reader.AdvancedDatFileReader;
+import jsettlers.graphics.image.reader.SyntheticDatFile;
+import jsettlers.graphics.image.sequence.Sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AtlasCacheTest {
+	private static final int IMAGES = 300;
+
+	private File directory;
+	private File datFile;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("atlas-cache-test").toFile();
+		datFile = new File(directory, "siedler3_00" + SyntheticDatFile.TYPE.getFileSuffix());
+		SyntheticDatFile.write(datFile, IMAGES, 24, 16, 3);
+	}
+
+	@After
+	public void tearDown() {
+		AtlasCache.setInstance(null);
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void testWarmStartUploadsPages() throws IOException {
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		RecordingDrawContext cold = drawAll();
+		// every image is uploaded to both textures of the page
+		assertEquals(2 * IMAGES, cold.textureUploads);
+		int pages = cold.getManagedPages().size();
+		AtlasCache.getInstance().save();
+		// the copies of the pages are not needed after saving
+		assertNull(cold.getManagedPages());
+
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		RecordingDrawContext warm = drawAll();
+		assertEquals(2 * pages, warm.textureUploads);
+		// the quads of all images are the same
+		for (int page = 0; page < pages; page++) {
+			assertEquals(cold.getContent(cold.getManagedVertices(page)), warm.getContent(warm.getManagedVertices(page)));
+		}
+	}
+
+	@Test
+	public void testPreloadedPagesAreRestored() throws IOException {
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		RecordingDrawContext cold = drawAll();
+		int pages = cold.getManagedPages().size();
+		AtlasCache.getInstance().save();
+
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		AtlasCache.getInstance().preload();
+		// attaching the context does not read the file again
+		for (File file : directory.listFiles((dir, name) -> name.startsWith("atlas-"))) {
+			assertTrue(file.delete());
+		}
+		RecordingDrawContext warm = drawAll();
+		assertEquals(2 * pages, warm.textureUploads);
+		for (int page = 0; page < pages; page++) {
+			assertEquals(cold.getContent(cold.getManagedVertices(page)), warm.getContent(warm.getManagedVertices(page)));
+		}
+	}
+
+	@Test
+	public void testNewImagesAreAddedToRestoredPages() throws IOException {
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		draw(IMAGES / 4);
+		AtlasCache.getInstance().save();
+
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		RecordingDrawContext warm = draw(IMAGES / 2);
+		// the restored page is uploaded once, the new images go to its free area instead of a new page
+		int pages = warm.getManagedPages().size();
+		assertEquals(1, pages);
+		assertEquals(2 + 2 * (IMAGES / 2 - IMAGES / 4), warm.textureUploads);
+		AtlasCache.getInstance().save();
+
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		RecordingDrawContext next = draw(IMAGES / 2);
+		assertEquals(2 * pages, next.textureUploads);
+		for (int page = 0; page < pages; page++) {
+			assertEquals(warm.getContent(warm.getManagedVertices(page)), next.getContent(next.getManagedVertices(page)));
+		}
+	}
+
+	@Test
+	public void testOtherVersionDoesNotUseCache() throws IOException {
+		AtlasCache.setInstance(new AtlasCache(directory, "test"));
+		drawAll();
+		AtlasCache.getInstance().save();
+
+		AtlasCache.setInstance(new AtlasCache(directory, "other"));
+		assertEquals(2 * IMAGES, drawAll().textureUploads);
+		AtlasCache.getInstance().save();
+
+		// the outdated cache file is removed
+		String[] files = directory.list((dir, name) -> name.startsWith("atlas-"));
+		assertEquals(1, files.length);
+		assertTrue(files[0].contains("other"));
+	}
+
+	private RecordingDrawContext drawAll() {
+		return draw(IMAGES);
+	}
+
+	private RecordingDrawContext draw(int images) {
+		RecordingDrawContext gl = new RecordingDrawContext();
+		Sequence<SingleImage> landscapes = new AdvancedDatFileReader(datFile, SyntheticDatFile.TYPE, "F0").getLandscapes();
+		for (int i = 0; i < images; i++) {
+			landscapes.getImageSafe(i, null).drawImageAtRect(gl, 0, 0, 24, 16, 1);
+		}
+		return gl;
+	}
+}
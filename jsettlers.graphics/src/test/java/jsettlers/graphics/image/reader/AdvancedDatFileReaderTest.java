@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.reader;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.bytereader.MappedByteReader;
+import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class AdvancedDatFileReaderTest {
+	private static final int IMAGES = 40;
+	private static final int WIDTH = 48;
+	private static final int HEIGHT = 32;
+
+	private File file;
+	private short[][] colors;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("siedler3_99", SyntheticDatFile.TYPE.getFileSuffix());
+		colors = SyntheticDatFile.write(file, IMAGES, WIDTH, HEIGHT, 42);
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testReadsLandscapeImages() throws IOException {
+		AdvancedDatFileReader reader = new AdvancedDatFileReader(file, SyntheticDatFile.TYPE, "F99");
+
+		assertEquals(IMAGES, reader.getLandscapes().length());
+		for (int i = 0; i < IMAGES; i++) {
+			assertImage(reader, i);
+		}
+	}
+
+	@Test
+	public void testDecodesConcurrently() throws Exception {
+		AdvancedDatFileReader reader = new AdvancedDatFileReader(file, SyntheticDatFile.TYPE, "F99");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				int first = thread;
+				results.add(executor.submit((Callable<Void>) () -> {
+					for (int round = 0; round < 5; round++) {
+						for (int i = 0; i < IMAGES; i++) {
+							assertImage(reader, (first + i) % IMAGES);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testMissingFileIsEmpty() {
+		AdvancedDatFileReader reader = new AdvancedDatFileReader(new File(file.getPath() + ".missing"), SyntheticDatFile.TYPE, "F99");
+
+		assertEquals(0, reader.getLandscapes().length());
+		assertEquals(0, reader.getSettlers().size());
+	}
+
+	@Test
+	public void testMappedByteReaderIsLittleEndian() throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, (byte) 0xfe, (byte) 0xff, 0x78, 0x56, 0x34, 0x12, 7 });
+		MappedByteReader reader = new MappedByteReader(buffer, 0);
+
+		assertEquals(0x0201, reader.read16());
+		assertEquals(-2, reader.read16signed());
+		assertEquals(0x12345678, reader.read32());
+		assertEquals(8, reader.getReadBytes());
+		assertEquals(7, reader.read8());
+		try {
+			reader.read8();
+			fail("read after the end of the buffer");
+		} catch (EOFException e) {
+			// expected
+		}
+
+		reader.skipTo(2);
+		assertEquals(0xfffe, reader.read16());
+		assertEquals(0, buffer.position());
+	}
+
+	private void assertImage(AdvancedDatFileReader reader, int index) throws IOException {
+		DatBitmapTranslator<SingleImage> translator = reader.getLandscapeTranslator();
+		ImageMetadata metadata = new ImageMetadata();
+		long dataPosition = reader.readImageHeader(translator, metadata, reader.getOffsetForLandscape(index));
+		assertEquals(WIDTH, metadata.width);
+		assertEquals(HEIGHT, metadata.height);
+
+		IntArrayWriter writer = new IntArrayWriter();
+		reader.readCompressedData(translator, metadata, writer, dataPosition);
+		IntBuffer pixels = writer.getArray();
+		for (int i = 0; i < WIDTH * HEIGHT; i++) {
+			assertEquals(SyntheticDatFile.TYPE.convertTo8888(colors[index][i]), pixels.get(i));
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
+
+/**
+ * Compares decoding all images of a dat file through the old {@link ByteReader} with one lock against the memory mapped reader used by several
+ * threads.
+ */
+public class DatFileDecodingIT {
+	private static final int IMAGES = 3000;
+	private static final int SIZE = 64;
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("siedler3_98", SyntheticDatFile.TYPE.getFileSuffix());
+		SyntheticDatFile.write(file, IMAGES, SIZE, SIZE, 1);
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void compareReaders() throws Exception {
+		for (int run = 0; run < 3; run++) {
+			long byteReaderTime = decodeWithByteReader();
+			long mappedTime = decodeMapped();
+			System.out.println("Decoding " + IMAGES + " images: ByteReader " + byteReaderTime + "ms, mapped with " + THREADS + " threads " + mappedTime + "ms");
+		}
+	}
+
+	private long decodeWithByteReader() throws IOException {
+		long start = System.currentTimeMillis();
+		AdvancedDatFileReader index = new AdvancedDatFileReader(file, SyntheticDatFile.TYPE, "F98");
+		DatBitmapTranslator<SingleImage> translator = index.getLandscapeTranslator();
+		try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+			ByteReader reader = new ByteReader(in);
+			for (int i = 0; i < IMAGES; i++) {
+				ImageMetadata metadata = new ImageMetadata();
+				reader.skipTo(index.getOffsetForLandscape(i));
+				DatBitmapReader.readImageHeader(reader, translator, metadata);
+				DatBitmapReader.readCompressedData(reader, translator, metadata.width, metadata.height, new IntArrayWriter());
+			}
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	private long decodeMapped() throws Exception {
+		long start = System.currentTimeMillis();
+		AdvancedDatFileReader reader = new AdvancedDatFileReader(file, SyntheticDatFile.TYPE, "F98");
+		DatBitmapTranslator<SingleImage> translator = reader.getLandscapeTranslator();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				int first = thread;
+				results.add(executor.submit((Callable<Void>) () -> {
+					for (int i = first; i < IMAGES; i += THREADS) {
+						ImageMetadata metadata = new ImageMetadata();
+						long dataPosition = reader.readImageHeader(translator, metadata, reader.getOffsetForLandscape(i));
+						reader.readCompressedData(translator, metadata, new IntArrayWriter(), dataPosition);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return System.currentTimeMillis() - start;
+	}
+}
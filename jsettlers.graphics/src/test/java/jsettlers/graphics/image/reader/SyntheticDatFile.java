@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+/**
+ * Writes a dat file that only contains landscape images with random pixels. Images must not be wider than 255 pixels.
+ */
+public final class SyntheticDatFile {
+	private static final byte[] FILE_START1 = {
+		0x04, 0x13, 0x04, 0x00, 0x0c, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x54, 0x00, 0x00, 0x00, 0x20,
+		0x00, 0x00, 0x00, 0x40, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x10, 0x00, 0x00, 0x00, 0x00
+	};
+	private static final byte[] FILE_START2 = { 0x00, 0x00, 0x1f, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 };
+	private static final byte[] FILE_HEADER_END = { 0x04, 0x19, 0x00, 0x00, 0x0c, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 };
+	private static final int ID_LANDSCAPE = 0x2412;
+	private static final int SEQUENCE_TYPE_COUNT = 6;
+
+	public static final DatFileType TYPE = DatFileType.RGB555;
+
+	private SyntheticDatFile() {
+	}
+
+	/**
+	 * Writes the file.
+	 *
+	 * @return The 555 colors of the images, indexed by image, then by pixel.
+	 */
+	public static short[][] write(File file, int images, int width, int height, long seed) throws IOException {
+		Random random = new Random(seed);
+		short[][] colors = new short[images][width * height];
+
+		// magic, file size, unknown int, sequence pointers, unknown int, header end
+		int indexStart = FILE_START1.length + TYPE.getFileStartMagic().length + FILE_START2.length + 8 + 4 * SEQUENCE_TYPE_COUNT + 4 + FILE_HEADER_END.length;
+		int imageSize = 6 + height * (2 + 2 * width);
+		int firstImage = indexStart + 8 + 4 * images;
+		int length = firstImage + images * imageSize;
+
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(FILE_START1).put(TYPE.getFileStartMagic()).put(FILE_START2);
+		buffer.putInt(length);
+		buffer.putInt(0);
+		for (int i = 0; i < SEQUENCE_TYPE_COUNT; i++) {
+			buffer.putInt(indexStart);
+		}
+		buffer.putInt(0);
+		buffer.put(FILE_HEADER_END);
+
+		buffer.putInt(ID_LANDSCAPE);
+		buffer.putShort((short) (images * 4 + 8));
+		buffer.putShort((short) images);
+		for (int i = 0; i < images; i++) {
+			buffer.putInt(firstImage + i * imageSize);
+		}
+
+		for (int i = 0; i < images; i++) {
+			buffer.putShort((short) width).putShort((short) height).putShort((short) 0);
+			for (int y = 0; y < height; y++) {
+				buffer.putShort((short) (0x8000 | width));
+				for (int x = 0; x < width; x++) {
+					short color = (short) random.nextInt(0x8000);
+					colors[i][y * width + x] = color;
+					buffer.putShort(color);
+				}
+			}
+		}
+
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			out.setLength(0);
+			out.write(buffer.array());
+		}
+		return colors;
+	}
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import go.graphics.BackgroundDrawHandle;
+import go.graphics.RecordingDrawContext;
+import jsettlers.common.landscape.ELandscapeType;
+import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IGraphicsBackgroundListener;
+import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.partition.IPartitionData;
+import jsettlers.common.mapobject.IMapObject;
+import jsettlers.common.movable.IGraphicsMovable;
+import jsettlers.common.player.IPlayer;
+import jsettlers.graphics.image.reader.SyntheticDatFile;
+import jsettlers.graphics.map.MapDrawContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BackgroundTest {
+	private static final int SIZE = 128;
+	private static final int FIELDS = (SIZE - 1) * (SIZE - 1);
+	private static final int LEGACY_BYTES_PER_FIELD = 6 * 4 * 3 * 2;
+	private static final int BYTES_PER_FIELD = BackgroundDrawHandle.BYTES_PER_VERTEX * 3 * 2;
+
+	private static File lookupPath;
+
+	private final TestGrid grid = new TestGrid();
+	private RecordingDrawContext gl;
+	private MapDrawContext context;
+	private Background background;
+
+	@BeforeClass
+	public static void setUpLandscapeFile() throws IOException {
+		lookupPath = Files.createTempDirectory("background-test").toFile();
+		File file = new File(lookupPath, "siedler3_00" + SyntheticDatFile.TYPE.getFileSuffix());
+		SyntheticDatFile.write(file, 240, 2, 2, 1);
+		ImageProvider.setLookupPath(lookupPath, Long.toString(-1L));
+	}
+
+	@AfterClass
+	public static void deleteLandscapeFile() {
+		for (File file : lookupPath.listFiles()) {
+			file.delete();
+		}
+		lookupPath.delete();
+	}
+
+	@Before
+	public void setUp() {
+		gl = new RecordingDrawContext();
+		context = new MapDrawContext(grid);
+		context.setSize(SIZE * DrawConstants.DISTANCE_X * 2, SIZE * DrawConstants.DISTANCE_Y * 2);
+		background = new Background(context);
+		draw();
+	}
+
+	@After
+	public void tearDown() {
+		Background.invalidateTexture();
+	}
+
+	@Test
+	public void testVertexMemory() {
+		long bytes = gl.allocatedBytes;
+		System.out.println("Background of " + SIZE + "x" + SIZE + ": " + bytes + " bytes, " + (FIELDS * (long) LEGACY_BYTES_PER_FIELD) + " bytes with float vertices");
+
+		assertEquals(FIELDS * (long) BYTES_PER_FIELD, bytes);
+		assertEquals(bytes, gl.uploadedBytes);
+		assertEquals(1, gl.backgroundDraws);
+	}
+
+	@Test
+	public void testVerticesAreEncoded() {
+		assertNotNull(grid.listener);
+		ByteBuffer vertices = gl.getContent(gl.lastBackground.vertices);
+
+		for (int y = 1; y < SIZE - 3; y += 7) {
+			for (int x = 1; x < SIZE - 3; x += 5) {
+				// the first vertex of a field is the top left point of its upper triangle
+				int offset = (y * (SIZE - 1) + x) * BYTES_PER_FIELD;
+				assertEquals(x, vertices.getShort(offset));
+				assertEquals(y, vertices.getShort(offset + 2));
+				assertEquals(grid.getVisibleHeightAt(x, y), vertices.get(offset + 8));
+
+				float shade = Math.max(0.4f, 0.875f + (grid.getVisibleHeightAt(x, y - 1) - grid.getVisibleHeightAt(x, y)) * .125f);
+				float storedShade = (vertices.get(offset + 9) & 0xff) * BackgroundDrawHandle.MAX_SHADE / 0xff;
+				assertEquals(Math.min(shade, BackgroundDrawHandle.MAX_SHADE), storedShade, BackgroundDrawHandle.MAX_SHADE / 0xff);
+			}
+		}
+	}
+
+	@Test
+	public void testLineChangeUploadsChangedFields() {
+		gl.resetCounters();
+
+		grid.heightOffset = 1;
+		grid.listener.backgroundLineChangedAt(10, 50, 20);
+		draw();
+
+		// the changed line and its neighbours, one field more on each side
+		long expectedFields = 3 * 22;
+		System.out.println("Changing 20 fields uploads " + gl.uploadedBytes + " bytes, " + (expectedFields * LEGACY_BYTES_PER_FIELD) + " bytes with float vertices");
+		assertEquals(expectedFields * BYTES_PER_FIELD, gl.uploadedBytes);
+		assertEquals(grid.getVisibleHeightAt(20, 50), gl.getContent(gl.lastBackground.vertices).get((50 * (SIZE - 1) + 20) * BYTES_PER_FIELD + 8));
+	}
+
+	@Test
+	public void testUploadsAreCoalesced() {
+		// the whole map is visible, so all lines are uploaded at once
+		assertEquals(1, gl.uploads);
+
+		gl.resetCounters();
+		grid.listener.backgroundLineChangedAt(0, 20, SIZE - 1);
+		grid.listener.backgroundLineChangedAt(0, 23, SIZE - 1);
+		draw();
+
+		assertEquals(1, gl.uploads);
+		assertEquals(6 * (SIZE - 1) * (long) BYTES_PER_FIELD, gl.uploadedBytes);
+	}
+
+	@Test
+	public void testOnlyVisibleFieldsAreGenerated() {
+		gl = new RecordingDrawContext();
+		context.setSize(10 * DrawConstants.DISTANCE_X, 10 * DrawConstants.DISTANCE_Y);
+		background = new Background(context);
+		draw();
+
+		long visibleBytes = gl.uploadedBytes;
+		assertTrue(visibleBytes > 0);
+		assertTrue(visibleBytes < gl.allocatedBytes / 4);
+
+		gl.resetCounters();
+		context.setSize(SIZE * DrawConstants.DISTANCE_X * 2, SIZE * DrawConstants.DISTANCE_Y * 2);
+		draw();
+		assertEquals(gl.allocatedBytes - visibleBytes, gl.uploadedBytes);
+	}
+
+	private void draw() {
+		context.begin(gl);
+		background.drawMapContent(context, context.getScreen().getPosition());
+		context.end();
+	}
+
+	private static class TestGrid implements IGraphicsGrid {
+		private IGraphicsBackgroundListener listener;
+		private int heightOffset;
+
+		@Override
+		public short getWidth() {
+			return SIZE;
+		}
+
+		@Override
+		public short getHeight() {
+			return SIZE;
+		}
+
+		@Override
+		public byte getVisibleHeightAt(int x, int y) {
+			return (byte) ((x * 3 + y * 5) % 31 + heightOffset);
+		}
+
+		@Override
+		public ELandscapeType getVisibleLandscapeTypeAt(int x, int y) {
+			return (x / 10 + y / 10) % 2 == 0 ? ELandscapeType.GRASS : ELandscapeType.SAND;
+		}
+
+		@Override
+		public byte getVisibleStatus(int x, int y) {
+			return 0;
+		}
+
+		@Override
+		public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
+			this.listener = backgroundListener;
+		}
+
+		@Override
+		public IGraphicsMovable getMovableAt(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public IMapObject getVisibleMapObjectsAt(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public int getDebugColorAt(int x, int y, EDebugColorModes debugColorMode) {
+			return 0;
+		}
+
+		@Override
+		public boolean isBorder(int x, int y) {
+			return false;
+		}
+
+		@Override
+		public IPlayer getPlayerAt(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public IPartitionData getPartitionData(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public boolean isBuilding(int x, int y) {
+			return false;
+		}
+	}
+}
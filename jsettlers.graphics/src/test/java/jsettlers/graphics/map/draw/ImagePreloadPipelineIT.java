@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import go.graphics.RecordingDrawContext;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.graphics.image.AtlasCache;
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.AdvancedDatFileReader;
+import jsettlers.graphics.image.reader.SyntheticDatFile;
+import jsettlers.graphics.image.sequence.Sequence;
+import jsettlers.graphics.map.draw.settlerimages.SettlerImageMap;
+import jsettlers.graphics.map.draw.settlerimages.SyntheticSettlerFile;
+
+/**
+ * Measures how long the draw thread is busy with the first draw of the images of a dat file, once with the textures generated while drawing and
+ * once with the textures prepared by worker threads like the {@link ImagePreloadPipeline} does. Also compares the startup and the texture memory
+ * of the settler images with and without the pipeline.
+ */
+public class ImagePreloadPipelineIT {
+	private static final int IMAGES = 2000;
+	private static final int SIZE = 48;
+	private static final int SETTLER_SIZE = 32;
+	private static final long UPLOAD_NANOS_PER_FRAME = 3 * 1000 * 1000;
+	private static final int FRAME_MILLIS = 13;
+
+	private File directory;
+	private File datFile;
+	private AtlasCache atlasCache;
+
+	@Before
+	public void setUp() throws IOException {
+		atlasCache = AtlasCache.getInstance();
+		AtlasCache.setInstance(null);
+		directory = Files.createTempDirectory("image-preload-it").toFile();
+		datFile = new File(directory, "siedler3_00" + SyntheticDatFile.TYPE.getFileSuffix());
+		SyntheticDatFile.write(datFile, IMAGES, SIZE, SIZE, 7);
+	}
+
+	@After
+	public void tearDown() {
+		AtlasCache.setInstance(atlasCache);
+		datFile.delete();
+		directory.delete();
+	}
+
+	@Test
+	public void compareDrawThreadTime() throws InterruptedException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		for (int run = 0; run < 3; run++) {
+			Sequence<SingleImage> landscapes = openLandscapes();
+			RecordingDrawContext gl = new RecordingDrawContext();
+			long start = System.nanoTime();
+			for (int i = 0; i < IMAGES; i++) {
+				landscapes.getImageSafe(i, null).drawImageAtRect(gl, 0, 0, SIZE, SIZE, 1);
+			}
+			long generatedWhileDrawing = System.nanoTime() - start;
+
+			Sequence<SingleImage> preparedLandscapes = openLandscapes();
+			ExecutorService workers = Executors.newFixedThreadPool(threads);
+			start = System.nanoTime();
+			for (int i = 0; i < IMAGES; i++) {
+				SingleImage image = (SingleImage) preparedLandscapes.getImageSafe(i, null);
+				workers.execute(image::prepareTexture);
+			}
+			workers.shutdown();
+			workers.awaitTermination(1, TimeUnit.MINUTES);
+			long prepare = System.nanoTime() - start;
+
+			gl = new RecordingDrawContext();
+			start = System.nanoTime();
+			for (int i = 0; i < IMAGES; i++) {
+				((SingleImage) preparedLandscapes.getImageSafe(i, null)).upload(gl);
+			}
+			long upload = System.nanoTime() - start;
+
+			System.out.printf("%d images of %dx%d: draw thread %.1fms (%.3fms per image) without preparing, "
+					+ "%.1fms (%.3fms per image) after preparing on %d threads in %.1fms%n", IMAGES, SIZE, SIZE, generatedWhileDrawing / 1e6,
+					generatedWhileDrawing / 1e6 / IMAGES, upload / 1e6, upload / 1e6 / IMAGES, threads, prepare / 1e6);
+		}
+	}
+
+	@Test
+	public void compareStartup() throws IOException, InterruptedException {
+		ImageProvider imageProvider = ImageProvider.getInstance();
+		imageProvider.waitForPreloadingFinish();
+		try {
+			for (int run = 0; run < 3; run++) {
+				for (Set<ECivilisation> civilisations : Arrays.asList(EnumSet.of(ECivilisation.ROMAN), EnumSet.allOf(ECivilisation.class))) {
+					measureWithoutPipeline(civilisations);
+					measureWithPipeline(civilisations);
+				}
+			}
+		} finally {
+			imageProvider.setPreloadedCivilisations(EnumSet.allOf(ECivilisation.class));
+			imageProvider.invalidateAll();
+		}
+	}
+
+	/**
+	 * Without the pipeline the game starts after the settler image map is created. The textures are generated and uploaded on the frame that draws
+	 * an image for the first time.
+	 */
+	private void measureWithoutPipeline(Set<ECivilisation> civilisations) {
+		ImageProvider.getInstance().invalidateAll();
+		SyntheticSettlerFile.install(SETTLER_SIZE);
+		SettlerImageMap.getInstance().resolveImages();
+		List<Image> images = SettlerImageMap.getInstance().getResolvedImages(civilisations);
+
+		PageCountingContext gl = new PageCountingContext();
+		long start = System.nanoTime();
+		for (Image image : images) {
+			image.drawOnlyImageAt(gl, 0, 0, 0, null, 1);
+		}
+		long drawThread = System.nanoTime() - start;
+
+		System.out.printf("without pipeline, %s: nothing loaded before the start, draw thread %.1fms on the first draws of %d images, %d pages with %.0fMB of textures%n",
+				civilisations, drawThread / 1e6, images.size(), gl.getPageCount(), gl.getPageTextureBytes() / 1e6);
+	}
+
+	/**
+	 * The pipeline loads the files before the game starts. Afterwards the frames upload the textures in slices, the atlas cache keeps a copy of the
+	 * pages until it is saved.
+	 */
+	private void measureWithPipeline(Set<ECivilisation> civilisations) throws IOException, InterruptedException {
+		ImageProvider imageProvider = ImageProvider.getInstance();
+		imageProvider.invalidateAll();
+		SyntheticSettlerFile.install(SETTLER_SIZE);
+		imageProvider.setPreloadedCivilisations(civilisations);
+		File cacheDirectory = Files.createTempDirectory("atlas-cache-it").toFile();
+		AtlasCache.setInstance(new AtlasCache(cacheDirectory, "it"));
+		try {
+			ImagePreloadPipeline pipeline = new ImagePreloadPipeline(imageProvider, Runtime.getRuntime().availableProcessors());
+			long start = System.nanoTime();
+			pipeline.start();
+			pipeline.waitForLoading((state, progress) -> { });
+			long startup = System.nanoTime() - start;
+
+			PageCountingContext gl = new PageCountingContext();
+			int frames = 0;
+			long drawThread = 0;
+			start = System.nanoTime();
+			do {
+				long frameStart = System.nanoTime();
+				pipeline.startPreparing(gl);
+				imageProvider.runPreloadTasks(gl, UPLOAD_NANOS_PER_FRAME);
+				drawThread += System.nanoTime() - frameStart;
+				frames++;
+				Thread.sleep(FRAME_MILLIS);
+			} while (pipeline.getUploadProgress() < 1);
+			long uploaded = System.nanoTime() - start;
+			long pageCopyBytes = gl.getPageCount() * gl.getPageBytes();
+			while (gl.getManagedPages() != null) {
+				Thread.sleep(1);
+			}
+			long pageCopiesKept = System.nanoTime() - start;
+
+			System.out.printf("with pipeline, %s: startup %.1fms, all uploaded after %.1fms in %d frames with %.1fms on the draw thread, "
+					+ "%d pages with %.0fMB of textures, %.0fMB of page copies kept for %.1fms%n", civilisations, startup / 1e6, uploaded / 1e6, frames,
+					drawThread / 1e6, gl.getPageCount(), gl.getPageTextureBytes() / 1e6, pageCopyBytes / 1e6, pageCopiesKept / 1e6);
+		} finally {
+			AtlasCache.setInstance(null);
+			for (File file : cacheDirectory.listFiles()) {
+				file.delete();
+			}
+			cacheDirectory.delete();
+		}
+	}
+
+	private Sequence<SingleImage> openLandscapes() {
+		return new AdvancedDatFileReader(datFile, SyntheticDatFile.TYPE, "F0").getLandscapes();
+	}
+
+	/**
+	 * Counts the managed pages. Each of them has two textures of the maximum managed texture size. The uniform blocks are as large as those of the
+	 * desktop contexts, so that a page holds {@link go.graphics.ManagedHandle#MAX_QUADS} images.
+	 */
+	private static class PageCountingContext extends RecordingDrawContext {
+		PageCountingContext() {
+			maxUniformBlockSize = 64 * 1024;
+		}
+
+		int getPageCount() {
+			return managedHandles.size();
+		}
+
+		long getPageBytes() {
+			return (long) getMaxManagedTextureSize() * getMaxManagedTextureSize() * 4;
+		}
+
+		long getPageTextureBytes() {
+			return getPageCount() * 2 * getPageBytes();
+		}
+	}
+}
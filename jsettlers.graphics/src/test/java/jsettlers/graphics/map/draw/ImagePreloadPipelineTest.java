@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import go.graphics.RecordingDrawContext;
+import jsettlers.common.menu.EProgressState;
+import jsettlers.common.menu.IPreloadProgressListener;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.graphics.image.AtlasCache;
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.map.draw.settlerimages.SettlerImageMap;
+import jsettlers.graphics.map.draw.settlerimages.SyntheticSettlerFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImagePreloadPipelineTest {
+	private static final long TIMEOUT_MS = 10000;
+
+	private AtlasCache atlasCache;
+
+	@Before
+	public void setUp() {
+		atlasCache = AtlasCache.getInstance();
+		AtlasCache.setInstance(null);
+		// the preloading started by other tests must not resolve the images while the synthetic files are installed
+		ImageProvider.getInstance().waitForPreloadingFinish();
+		ImageProvider.getInstance().invalidateAll();
+		SyntheticSettlerFile.install();
+	}
+
+	@After
+	public void tearDown() {
+		ImageProvider.getInstance().setPreloadedCivilisations(EnumSet.allOf(ECivilisation.class));
+		ImageProvider.getInstance().invalidateAll();
+		AtlasCache.setInstance(atlasCache);
+	}
+
+	@Test
+	public void testLoadingReportsProgress() throws InterruptedException {
+		ImagePreloadPipeline pipeline = new ImagePreloadPipeline(ImageProvider.getInstance(), 2);
+		pipeline.start();
+
+		List<Float> progresses = new ArrayList<>();
+		pipeline.waitForLoading((state, progress) -> {
+			assertEquals(EProgressState.LOADING_IMAGES, state);
+			progresses.add(progress);
+		});
+
+		assertEquals(1, progresses.get(progresses.size() - 1), 0);
+		for (int i = 1; i < progresses.size(); i++) {
+			assertTrue(progresses.get(i - 1) <= progresses.get(i));
+		}
+		assertFalse(SettlerImageMap.getInstance().getResolvedImages().isEmpty());
+	}
+
+	@Test
+	public void testImagesAreUploadedByPreloadTasks() throws InterruptedException {
+		ImagePreloadPipeline pipeline = new ImagePreloadPipeline(ImageProvider.getInstance(), 2);
+		pipeline.start();
+		pipeline.waitForLoading((state, progress) -> { });
+
+		RecordingDrawContext gl = new RecordingDrawContext();
+		long timeout = System.currentTimeMillis() + TIMEOUT_MS;
+		do {
+			pipeline.startPreparing(gl);
+			ImageProvider.getInstance().runPreloadTasks(gl, Long.MAX_VALUE);
+			Thread.sleep(1);
+		} while (pipeline.getUploadProgress() < 1 && System.currentTimeMillis() < timeout);
+		assertEquals(1, pipeline.getUploadProgress(), 0);
+
+		gl.resetCounters();
+		for (Image image : SettlerImageMap.getInstance().getResolvedImages()) {
+			SingleImage singleImage = (SingleImage) image;
+			assertFalse(singleImage.prepareTexture());
+			singleImage.drawOnlyImageAt(gl, 0, 0, 0, null, 1);
+		}
+		assertEquals(0, gl.textureUploads);
+	}
+
+	@Test
+	public void testOnlyImagesOfPreloadedCivilisationsAreUploaded() throws InterruptedException {
+		ImageProvider.getInstance().setPreloadedCivilisations(EnumSet.of(ECivilisation.ROMAN));
+		ImagePreloadPipeline pipeline = new ImagePreloadPipeline(ImageProvider.getInstance(), 2);
+		pipeline.start();
+		pipeline.waitForLoading((state, progress) -> { });
+
+		RecordingDrawContext gl = new RecordingDrawContext();
+		long timeout = System.currentTimeMillis() + TIMEOUT_MS;
+		do {
+			pipeline.startPreparing(gl);
+			ImageProvider.getInstance().runPreloadTasks(gl, Long.MAX_VALUE);
+			Thread.sleep(1);
+		} while (pipeline.getUploadProgress() < 1 && System.currentTimeMillis() < timeout);
+		assertEquals(1, pipeline.getUploadProgress(), 0);
+
+		List<Image> romanImages = SettlerImageMap.getInstance().getResolvedImages(EnumSet.of(ECivilisation.ROMAN));
+		Set<Image> uploaded = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Image image : romanImages) {
+			assertFalse(((SingleImage) image).prepareTexture());
+			uploaded.add(image);
+		}
+
+		List<Image> allImages = SettlerImageMap.getInstance().getResolvedImages();
+		assertTrue(romanImages.size() < allImages.size());
+		for (Image image : allImages) {
+			if (!uploaded.contains(image)) {
+				assertTrue(((SingleImage) image).prepareTexture());
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidateRestartsPreloading() throws IOException, InterruptedException {
+		File lookupPath = Files.createTempDirectory("image-preload-test").toFile();
+		try {
+			ImageProvider.setLookupPath(lookupPath, Long.toString(-1L));
+			ImageProvider imageProvider = ImageProvider.getInstance();
+			ImagePreloadPipeline cancelled = imageProvider.getPreloadPipeline();
+			assertNotNull(cancelled);
+
+			imageProvider.invalidateAll();
+			assertNull(imageProvider.getPreloadPipeline());
+			cancelled.waitForLoading(IPreloadProgressListener.DEFAULT_IMPLEMENTATION);
+
+			imageProvider.runPreloadTasks(new RecordingDrawContext(), 0);
+			assertNotNull(imageProvider.getPreloadPipeline());
+			assertNotSame(cancelled, imageProvider.getPreloadPipeline());
+		} finally {
+			lookupPath.delete();
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares the CPU time needed to find the things to draw when zoomed out far: Looking up objects, docks, borders and movables for every
+ * visible position against using a {@link StaticDrawList} and only looking up the movables.
+ */
+public class StaticDrawListIT {
+	private static final int WIDTH = 1024;
+	private static final int HEIGHT = 1024;
+	private static final int VISIBLE_LINES = 700;
+	private static final int VISIBLE_COLUMNS = 1000;
+	private static final int FRAMES = 50;
+	/**
+	 * Number of positions changed between two frames.
+	 */
+	private static final int CHANGES_PER_FRAME = 20;
+
+	private final Object[] objects = new Object[WIDTH * HEIGHT];
+	private final Object[] movables = new Object[WIDTH * HEIGHT];
+	private final Object dock = new Object();
+	private final BitSet borders = new BitSet(WIDTH * HEIGHT);
+	private final byte[] visible = new byte[WIDTH * HEIGHT];
+
+	private int drawn;
+
+	@Test
+	public void compareTileWalkAndDrawList() {
+		Random random = new Random(1);
+		Object tree = new Object();
+		for (int i = 0; i < WIDTH * HEIGHT; i++) {
+			visible[i] = (byte) (random.nextInt(10) == 0 ? 0 : 100);
+			objects[i] = random.nextInt(8) == 0 ? tree : random.nextInt(500) == 0 ? dock : null;
+			movables[i] = random.nextInt(100) == 0 ? tree : null;
+			borders.set(i, random.nextInt(50) == 0);
+		}
+		StaticDrawList drawList = new StaticDrawList(WIDTH, HEIGHT, this::getStaticFlags);
+
+		for (int run = 0; run < 5; run++) {
+			drawn = 0;
+			long start = System.nanoTime();
+			for (int frame = 0; frame < FRAMES; frame++) {
+				for (int y = 0; y < VISIBLE_LINES; y++) {
+					for (int x = 0; x < VISIBLE_COLUMNS; x++) {
+						drawTile(x, y, StaticDrawList.OBJECT | StaticDrawList.DOCK | StaticDrawList.BORDER);
+					}
+				}
+			}
+			long walk = System.nanoTime() - start;
+			int walkDrawn = drawn;
+
+			drawn = 0;
+			start = System.nanoTime();
+			for (int frame = 0; frame < FRAMES; frame++) {
+				for (int i = 0; i < CHANGES_PER_FRAME; i++) {
+					drawList.mapObjectsChangedAt(random.nextInt(VISIBLE_COLUMNS), random.nextInt(VISIBLE_LINES));
+				}
+				for (int y = 0; y < VISIBLE_LINES; y++) {
+					int count = drawList.collectLine(y, 0, VISIBLE_COLUMNS - 1);
+					int[] entries = drawList.getLineEntries();
+					int next = 0;
+					for (int x = 0; x < VISIBLE_COLUMNS; x++) {
+						int flags = 0;
+						if (next < count && StaticDrawList.getX(entries[next]) == x) {
+							flags = StaticDrawList.getFlags(entries[next++]);
+						}
+						if (flags != 0 || movables[x + y * WIDTH] != null) {
+							drawTile(x, y, flags);
+						}
+					}
+				}
+			}
+			long cached = System.nanoTime() - start;
+
+			System.out.println(VISIBLE_LINES * VISIBLE_COLUMNS + " visible positions: tile walk " + walk / FRAMES / 1000 + "us/frame, draw list "
+					+ cached / FRAMES / 1000 + "us/frame (" + walkDrawn + " / " + drawn + " draws)");
+		}
+	}
+
+	private int getStaticFlags(int x, int y) {
+		int index = x + y * WIDTH;
+		boolean fogClear = visible[index] > 50;
+		int flags = 0;
+		if (fogClear && objects[index] != null) {
+			flags |= StaticDrawList.OBJECT;
+		}
+		if (fogClear && y < HEIGHT - 3 && objects[index + 3 * WIDTH] == dock) {
+			flags |= StaticDrawList.DOCK;
+		}
+		if (fogClear && borders.get(index)) {
+			flags |= StaticDrawList.BORDER;
+		}
+		return flags;
+	}
+
+	private void drawTile(int x, int y, int flags) {
+		int index = x + y * WIDTH;
+		if (visible[index] <= 50) {
+			return;
+		}
+		if ((flags & StaticDrawList.OBJECT) != 0 && objects[index] != null) {
+			drawn++;
+		}
+		if ((flags & StaticDrawList.DOCK) != 0 && y < HEIGHT - 3 && objects[index + 3 * WIDTH] == dock) {
+			drawn++;
+		}
+		if (movables[index] != null) {
+			drawn++;
+		}
+		if ((flags & StaticDrawList.BORDER) != 0 && borders.get(index)) {
+			drawn++;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StaticDrawListTest {
+	private static final int WIDTH = 100;
+	private static final int HEIGHT = 80;
+
+	private int[] flags;
+	private StaticDrawList drawList;
+
+	@Before
+	public void setUp() {
+		flags = new int[WIDTH * HEIGHT];
+		drawList = new StaticDrawList(WIDTH, HEIGHT, (x, y) -> flags[x + y * WIDTH]);
+	}
+
+	@Test
+	public void testLineEntriesAreSortedAndClipped() {
+		set(10, 40, StaticDrawList.OBJECT);
+		set(31, 40, StaticDrawList.BORDER);
+		set(32, 40, StaticDrawList.OBJECT | StaticDrawList.DOCK);
+		set(70, 40, StaticDrawList.OBJECT);
+		set(99, 40, StaticDrawList.BORDER);
+		set(50, 41, StaticDrawList.OBJECT);
+
+		assertLine(40, 0, WIDTH - 1, 10, 31, 32, 70, 99);
+		assertLine(40, 11, 70, 31, 32, 70);
+		assertLine(41, 0, WIDTH - 1, 50);
+		assertLine(79, 0, WIDTH - 1);
+
+		int count = drawList.collectLine(40, 30, 40);
+		assertEquals(StaticDrawList.BORDER, StaticDrawList.getFlags(drawList.getLineEntries()[0]));
+		assertEquals(StaticDrawList.OBJECT | StaticDrawList.DOCK, StaticDrawList.getFlags(drawList.getLineEntries()[count - 1]));
+	}
+
+	@Test
+	public void testChunksAreOnlyRebuiltAfterChanges() {
+		drawList.collectLine(5, 0, WIDTH - 1);
+		int chunksPerLine = (WIDTH + StaticDrawList.CHUNK_SIZE - 1) / StaticDrawList.CHUNK_SIZE;
+		assertEquals(chunksPerLine, drawList.getRebuiltChunks());
+
+		set(3, 6, StaticDrawList.OBJECT);
+		drawList.collectLine(6, 0, WIDTH - 1);
+		assertEquals(chunksPerLine, drawList.getRebuiltChunks());
+		assertLine(6, 0, WIDTH - 1);
+
+		drawList.mapObjectsChangedAt(3, 6);
+		assertLine(6, 0, WIDTH - 1, 3);
+		assertEquals(chunksPerLine + 1, drawList.getRebuiltChunks());
+	}
+
+	@Test
+	public void testDockChangeInvalidatesLineAbove() {
+		int y = StaticDrawList.CHUNK_SIZE - 1;
+		drawList.collectLine(y, 0, WIDTH - 1);
+
+		set(20, y, StaticDrawList.DOCK);
+		drawList.mapObjectsChangedAt(20, y + 3);
+		assertLine(y, 0, WIDTH - 1, 20);
+	}
+
+	@Test
+	public void testInvalidateAll() {
+		drawList.collectLine(70, 0, WIDTH - 1);
+		set(90, 70, StaticDrawList.BORDER);
+		drawList.invalidateAll();
+		assertLine(70, 0, WIDTH - 1, 90);
+	}
+
+	private void set(int x, int y, int value) {
+		flags[x + y * WIDTH] = value;
+	}
+
+	private void assertLine(int y, int startX, int endX, int... expectedX) {
+		int count = drawList.collectLine(y, startX, endX);
+		int[] actualX = Arrays.stream(drawList.getLineEntries(), 0, count).map(StaticDrawList::getX).toArray();
+		assertArrayEquals(expectedX, actualX);
+	}
+}
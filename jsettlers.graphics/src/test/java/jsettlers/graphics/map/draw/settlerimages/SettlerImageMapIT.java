@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw.settlerimages;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import go.graphics.RecordingDrawContext;
+import jsettlers.common.Color;
+import jsettlers.common.material.EMaterialType;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.movable.EMovableAction;
+import jsettlers.common.movable.EMovableType;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.map.draw.ImageProvider;
+
+/**
+ * Draws the images of many settlers into a {@link RecordingDrawContext} and compares the time needed to look up the images with and without the
+ * images resolved by the {@link SettlerImageMap}.
+ */
+public class SettlerImageMapIT {
+	private static final int SETTLERS = 5000;
+	private static final int WARMUP_FRAMES = 200;
+	private static final int FRAMES = 500;
+
+	private final ECivilisation[] civilisations = new ECivilisation[SETTLERS];
+	private final EMovableType[] types = new EMovableType[SETTLERS];
+	private final EMovableAction[] actions = new EMovableAction[SETTLERS];
+	private final EMaterialType[] materials = new EMaterialType[SETTLERS];
+	private final EDirection[] directions = new EDirection[SETTLERS];
+
+	@After
+	public void tearDown() {
+		ImageProvider.getInstance().invalidateAll();
+	}
+
+	@Test
+	public void measureLookup() {
+		SyntheticSettlerFile.install();
+		SettlerImageMap map = SettlerImageMap.getInstance();
+		map.resolveImages();
+
+		Random random = new Random(1);
+		for (int i = 0; i < SETTLERS; i++) {
+			civilisations[i] = ECivilisation.values()[random.nextInt(ECivilisation.values().length)];
+			types[i] = EMovableType.VALUES[random.nextInt(EMovableType.NUMBER_OF_MOVABLETYPES)];
+			actions[i] = EMovableAction.values()[random.nextInt(EMovableAction.values().length)];
+			materials[i] = EMaterialType.VALUES[random.nextInt(EMaterialType.NUMBER_OF_MATERIALS)];
+			directions[i] = EDirection.VALUES[random.nextInt(EDirection.VALUES.length)];
+		}
+
+		RecordingDrawContext gl = new RecordingDrawContext();
+		for (int round = 0; round < 3; round++) {
+			for (boolean draw : new boolean[] { false, true }) {
+				long uncached = measure(map, gl, false, draw);
+				long resolved = measure(map, gl, true, draw);
+				System.out.printf("round %d, %s of %d settlers per frame: uncached %.3f ms, resolved %.3f ms (%.1f ns vs %.1f ns per settler)%n", round,
+						draw ? "lookup and draw" : "lookup", SETTLERS, uncached / 1e6 / FRAMES, resolved / 1e6 / FRAMES, (double) uncached / FRAMES / SETTLERS,
+						(double) resolved / FRAMES / SETTLERS);
+			}
+		}
+	}
+
+	private long measure(SettlerImageMap map, RecordingDrawContext gl, boolean resolved, boolean draw) {
+		long start = 0;
+		for (int frame = -WARMUP_FRAMES; frame < FRAMES; frame++) {
+			if (frame == 0) {
+				start = System.nanoTime();
+			}
+			gl.startFrame();
+			float progress = (frame & 0xff) / 256f;
+			for (int i = 0; i < SETTLERS; i++) {
+				Image image = resolved
+						? map.getImageForSettler(civilisations[i], types[i], actions[i], materials[i], directions[i], progress)
+						: map.getImageUncached(civilisations[i], types[i], actions[i], materials[i], directions[i], progress);
+				if (draw) {
+					image.drawAt(gl, i % 100, i / 100, 0, Color.BLACK, 1);
+				}
+			}
+			gl.finishFrame();
+		}
+		return System.nanoTime() - start;
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw.settlerimages;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.common.material.EMaterialType;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.movable.EMovableAction;
+import jsettlers.common.movable.EMovableType;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.NullImage;
+import jsettlers.graphics.map.draw.ImageProvider;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class SettlerImageMapTest {
+	private static final float[] PROGRESSES = { 0, .1f, .5f, .99f, 1, 1.5f };
+
+	@Before
+	public void setUp() {
+		SyntheticSettlerFile.install();
+	}
+
+	@After
+	public void tearDown() {
+		ImageProvider.getInstance().invalidateAll();
+	}
+
+	@Test
+	public void testResolvedImagesAreTheLookedUpImages() {
+		SettlerImageMap map = SettlerImageMap.getInstance();
+		map.resolveImages();
+
+		for (ECivilisation civilisation : ECivilisation.values()) {
+			for (EMovableType type : EMovableType.VALUES) {
+				for (EMovableAction action : EMovableAction.values()) {
+					for (EMaterialType material : EMaterialType.VALUES) {
+						for (EDirection direction : EDirection.VALUES) {
+							for (float progress : PROGRESSES) {
+								assertSame(map.getImageUncached(civilisation, type, action, material, direction, progress),
+										map.getImageForSettler(civilisation, type, action, material, direction, progress));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidateDropsResolvedImages() {
+		SettlerImageMap map = SettlerImageMap.getInstance();
+		map.resolveImages();
+		EMovableAction action = null;
+		Image before = NullImage.getInstance();
+		for (int i = 0; i < EMovableAction.values().length && before == NullImage.getInstance(); i++) {
+			action = EMovableAction.values()[i];
+			before = map.getImageForSettler(ECivilisation.ROMAN, EMovableType.BEARER, action, EMaterialType.NO_MATERIAL, EDirection.EAST, 0);
+		}
+		assertNotSame(NullImage.getInstance(), before);
+
+		ImageProvider.getInstance().invalidateAll();
+		SyntheticSettlerFile.install();
+
+		Image after = map.getImageForSettler(ECivilisation.ROMAN, EMovableType.BEARER, action, EMaterialType.NO_MATERIAL, EDirection.EAST, 0);
+		assertNotSame(before, after);
+		assertSame(map.getImageUncached(ECivilisation.ROMAN, EMovableType.BEARER, action, EMaterialType.NO_MATERIAL, EDirection.EAST, 0), after);
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw.settlerimages;
+
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.EmptyDatFile;
+import jsettlers.graphics.image.reader.ImageMetadata;
+import jsettlers.graphics.map.draw.ImageProvider;
+import jsettlers.graphics.image.sequence.ArraySequence;
+import jsettlers.graphics.image.sequence.Sequence;
+import jsettlers.graphics.image.sequence.SequenceList;
+
+/**
+ * A dat file with settler sequences of square images, 1x1 pixel unless another size is given. The number of frames differs between the sequences,
+ * some are empty.
+ */
+public class SyntheticSettlerFile extends EmptyDatFile {
+	static final int FILES = 100;
+	private static final int SEQUENCES = 300;
+	private static final int MAX_FRAMES = 30;
+
+	private final int file;
+	private final ImageMetadata metadata = new ImageMetadata();
+	private final ArraySequence<Image>[] sequences;
+
+	@SuppressWarnings("unchecked")
+	SyntheticSettlerFile(int file, int size) {
+		this.file = file;
+		metadata.width = size;
+		metadata.height = size;
+		sequences = new ArraySequence[SEQUENCES];
+	}
+
+	/**
+	 * The sequences are created when they are requested first, so that only the images of the settler image map use memory.
+	 */
+	private synchronized Sequence<Image> getSequence(int index) {
+		if (sequences[index] == null) {
+			Image[] images = new Image[(file + index * 7) % MAX_FRAMES];
+			for (int j = 0; j < images.length; j++) {
+				images[j] = new SingleImage(metadata, new int[metadata.width * metadata.height], file + "-" + index + ":" + j);
+			}
+			sequences[index] = new ArraySequence<>(images);
+		}
+		return sequences[index];
+	}
+
+	/**
+	 * Uses new synthetic files for all files of the image provider.
+	 */
+	public static void install() {
+		install(1);
+	}
+
+	/**
+	 * Uses new synthetic files for all files of the image provider.
+	 *
+	 * @param size
+	 * 		The width and height of the images.
+	 */
+	public static void install(int size) {
+		ImageProvider imageProvider = ImageProvider.getInstance();
+		for (int file = 0; file < FILES; file++) {
+			imageProvider.setFileReader(file, new SyntheticSettlerFile(file, size));
+		}
+	}
+
+	@Override
+	public SequenceList<Image> getSettlers() {
+		return new SequenceList<Image>() {
+			@Override
+			public Sequence<Image> get(int index) {
+				return getSequence(index);
+			}
+
+			@Override
+			public int size() {
+				return sequences.length;
+			}
+		};
+	}
+}
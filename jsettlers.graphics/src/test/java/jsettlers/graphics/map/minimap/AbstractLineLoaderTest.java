@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.minimap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.graphics.map.MapDrawContext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AbstractLineLoaderTest {
+	private static final int MAP_SIZE = 256;
+	private static final int WIDTH = 128;
+	private static final int HEIGHT = 64;
+	private static final long TIMEOUT_MS = 5000;
+
+	private final MapDrawContext context = new MapDrawContext(new MinimapTestGrid(MAP_SIZE));
+	private final List<int[]> computedPixels = new ArrayList<>();
+	private RecordingLineLoader loader;
+
+	@Before
+	public void setUp() throws InterruptedException {
+		loader = new RecordingLineLoader();
+		Thread thread = new Thread(loader, "test minimap loader");
+		thread.setDaemon(true);
+		thread.start();
+		waitForPixels(WIDTH * HEIGHT);
+	}
+
+	@After
+	public void tearDown() {
+		loader.stop();
+	}
+
+	@Test
+	public void testNothingIsComputedWithoutChanges() throws InterruptedException {
+		Thread.sleep(500);
+		assertEquals(WIDTH * HEIGHT, pixelCount());
+	}
+
+	@Test
+	public void testChangeComputesCoveringPixels() throws InterruptedException {
+		clearPixels();
+		loader.movablesChangedAt(100, 200);
+		waitForPixels(1);
+		Thread.sleep(300);
+
+		// position (100, 200) is drawn at pixel (50, 14)
+		boolean found = false;
+		synchronized (computedPixels) {
+			for (int[] pixel : computedPixels) {
+				found |= pixel[0] == 50 && pixel[1] == 14;
+			}
+		}
+		assertTrue(found);
+		assertTrue(pixelCount() < WIDTH * HEIGHT / 20);
+	}
+
+	@Test
+	public void testMarkAllDirtyComputesEverything() throws InterruptedException {
+		clearPixels();
+		loader.markAllDirty();
+		waitForPixels(WIDTH * HEIGHT);
+		Thread.sleep(300);
+		assertEquals(WIDTH * HEIGHT, pixelCount());
+	}
+
+	private int pixelCount() {
+		synchronized (computedPixels) {
+			return computedPixels.size();
+		}
+	}
+
+	private void clearPixels() {
+		synchronized (computedPixels) {
+			computedPixels.clear();
+		}
+	}
+
+	private void waitForPixels(int count) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT_MS;
+		while (pixelCount() < count && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		assertTrue(pixelCount() >= count);
+	}
+
+	private class RecordingLineLoader extends AbstractLineLoader {
+		RecordingLineLoader() {
+			super(new IMinimapData() {
+				@Override
+				public int getWidth() {
+					return WIDTH;
+				}
+
+				@Override
+				public int getHeight() {
+					return HEIGHT;
+				}
+
+				@Override
+				public MapDrawContext getContext() {
+					return context;
+				}
+
+				@Override
+				public void blockUntilUpdateAllowedOrStopped() {
+				}
+			}, new MinimapMode());
+		}
+
+		@Override
+		protected void markLineUpdate(int line) {
+		}
+
+		@Override
+		protected void resizeBuffer(int width, int height) {
+		}
+
+		@Override
+		protected void setBuffer(int currentline, int x, int color) {
+			synchronized (computedPixels) {
+				computedPixels.add(new int[] { x, currentline });
+			}
+		}
+	}
+}
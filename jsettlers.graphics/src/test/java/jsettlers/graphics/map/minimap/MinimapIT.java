@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.minimap;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+import go.graphics.RecordingDrawContext;
+import jsettlers.common.map.shapes.MapRectangle;
+import jsettlers.graphics.map.MapDrawContext;
+
+/**
+ * Measures the CPU time the minimap loader thread uses while the map does not change.
+ */
+public class MinimapIT {
+	private static final int MAP_SIZE = 512;
+	private static final int MINIMAP_WIDTH = 300;
+	private static final int MINIMAP_HEIGHT = 150;
+	private static final long WARMUP_MS = 1000;
+	private static final long MEASURE_MS = 5000;
+	private static final long FRAME_MS = 16;
+
+	@Test
+	public void measureIdleCpuTime() throws InterruptedException {
+		RecordingDrawContext gl = new RecordingDrawContext();
+		Minimap minimap = new Minimap(new MapDrawContext(new MinimapTestGrid(MAP_SIZE)), new MinimapMode());
+		minimap.setSize(MINIMAP_WIDTH, MINIMAP_HEIGHT);
+		minimap.setMapViewport(new MapRectangle(0, 0, 100, 100));
+
+		Thread loader = Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("minimap loader")).findAny().get();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		drawFor(minimap, gl, WARMUP_MS);
+		long cpuStart = threads.getThreadCpuTime(loader.getId());
+		drawFor(minimap, gl, MEASURE_MS);
+		long cpu = threads.getThreadCpuTime(loader.getId()) - cpuStart;
+		minimap.stop();
+
+		System.out.printf("minimap loader on a static %dx%d map: %.1f ms CPU in %d ms (%.1f%%)%n", MAP_SIZE, MAP_SIZE, cpu / 1e6, MEASURE_MS,
+				cpu / 1e4 / MEASURE_MS);
+	}
+
+	private static void drawFor(Minimap minimap, RecordingDrawContext gl, long millis) throws InterruptedException {
+		long end = System.currentTimeMillis() + millis;
+		while (System.currentTimeMillis() < end) {
+			gl.startFrame();
+			minimap.draw(gl, 0, 0);
+			gl.finishFrame();
+			Thread.sleep(FRAME_MS);
+		}
+	}
+}
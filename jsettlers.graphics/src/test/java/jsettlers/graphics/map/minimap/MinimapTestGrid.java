@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.minimap;
+
+import java.util.BitSet;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.landscape.ELandscapeType;
+import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IDirectGridProvider;
+import jsettlers.common.map.IGraphicsBackgroundListener;
+import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.IGraphicsMapObjectsListener;
+import jsettlers.common.map.IGraphicsMovablesListener;
+import jsettlers.common.map.partition.IPartitionData;
+import jsettlers.common.mapobject.IMapObject;
+import jsettlers.common.movable.IGraphicsMovable;
+import jsettlers.common.player.IPlayer;
+
+/**
+ * A completely visible map without objects and movables that reports its changes like the game grid.
+ */
+class MinimapTestGrid implements IGraphicsGrid, IDirectGridProvider {
+	private final short size;
+
+	MinimapTestGrid(int size) {
+		this.size = (short) size;
+	}
+
+	@Override
+	public short getWidth() {
+		return size;
+	}
+
+	@Override
+	public short getHeight() {
+		return size;
+	}
+
+	@Override
+	public byte getVisibleHeightAt(int x, int y) {
+		return (byte) ((x * 3 + y * 5) % 31);
+	}
+
+	@Override
+	public ELandscapeType getVisibleLandscapeTypeAt(int x, int y) {
+		return (x / 10 + y / 10) % 2 == 0 ? ELandscapeType.GRASS : ELandscapeType.SAND;
+	}
+
+	@Override
+	public byte getVisibleStatus(int x, int y) {
+		return CommonConstants.FOG_OF_WAR_VISIBLE;
+	}
+
+	@Override
+	public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
+	}
+
+	@Override
+	public IGraphicsMovable getMovableAt(int x, int y) {
+		return null;
+	}
+
+	@Override
+	public IMapObject getVisibleMapObjectsAt(int x, int y) {
+		return null;
+	}
+
+	@Override
+	public int getDebugColorAt(int x, int y, EDebugColorModes debugColorMode) {
+		return 0;
+	}
+
+	@Override
+	public boolean isBorder(int x, int y) {
+		return false;
+	}
+
+	@Override
+	public IPlayer getPlayerAt(int x, int y) {
+		return null;
+	}
+
+	@Override
+	public IPartitionData getPartitionData(int x, int y) {
+		return null;
+	}
+
+	@Override
+	public boolean isBuilding(int x, int y) {
+		return false;
+	}
+
+	@Override
+	public IMapObject[] getObjectArray() {
+		return new IMapObject[size * size];
+	}
+
+	@Override
+	public IGraphicsMovable[] getMovableArray() {
+		return new IGraphicsMovable[size * size];
+	}
+
+	@Override
+	public BitSet getBorderArray() {
+		return new BitSet();
+	}
+
+	@Override
+	public byte[] getVisibleStatusArray() {
+		return null;
+	}
+
+	@Override
+	public byte[] getHeightArray() {
+		return null;
+	}
+
+	@Override
+	public boolean isFoWEnabled() {
+		return false;
+	}
+
+	@Override
+	public void setMapObjectsListener(IGraphicsMapObjectsListener listener) {
+	}
+
+	@Override
+	public void setMovablesListener(IGraphicsMovablesListener listener) {
+	}
+}
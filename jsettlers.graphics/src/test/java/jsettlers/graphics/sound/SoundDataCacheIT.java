@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.sound;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.bytereader.MappedByteReader;
+
+/**
+ * Plays a sequence of sounds in which some sounds are played more often than others, as the work sounds of many settlers are. It compares the
+ * time needed to get the samples and the heap kept by decoded samples with the {@link RandomAccessFile} reader that was used before:
+ * <ul>
+ * <li>Desktop: the player keeps an OpenAL buffer for every played sound. It asked the reader once per sound and now asks a
+ * {@link SoundDataCache} without a limit. No samples are kept on the heap in both cases.</li>
+ * <li>Android: the player asked the reader on every play. It now asks a cache that keeps up to 4 MB of samples. Decoding the mapped file on
+ * every play is measured as well.</li>
+ * </ul>
+ */
+public class SoundDataCacheIT {
+	private static final int ALTERNATIVES = 2;
+	// about one second
+	private static final int SAMPLES_PER_SOUND = 22050;
+	private static final long MAX_CACHED_BYTES = 4 * 1024 * 1024;
+	private static final int PLAYS = 2000;
+	private static final int ROUNDS = 3;
+
+	@Test
+	public void comparePlaysWithTheReader() throws IOException {
+		File file = Files.createTempFile("sounds", ".dat").toFile();
+		try {
+			SyntheticSoundFile sounds = SyntheticSoundFile.write(file, ALTERNATIVES, SAMPLES_PER_SOUND, 1);
+			int[] plays = createPlays(sounds);
+			ByteBuffer data = MappedByteReader.map(file);
+
+			for (int round = 0; round < ROUNDS; round++) {
+				long desktopReaderNanos;
+				long androidReaderNanos;
+				try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+					ByteReader reader = new ByteReader(in);
+					desktopReaderNanos = play(plays, true, start -> SoundManager.getSoundData(reader, start));
+					androidReaderNanos = play(plays, false, start -> SoundManager.getSoundData(reader, start));
+				}
+
+				SoundDataCache desktopCache = new SoundDataCache(data, 0);
+				long desktopCacheNanos = play(plays, true, desktopCache::getSoundData);
+				long androidMappedNanos = play(plays, false, new SoundDataCache(data, 0)::getSoundData);
+				SoundDataCache androidCache = new SoundDataCache(data, MAX_CACHED_BYTES);
+				long androidCacheNanos = play(plays, false, androidCache::getSoundData);
+
+				System.out.printf("round %d, %d plays of %d sounds: desktop %.1f ms with the reader, %.1f ms now, %.1f MB kept on the heap now%n", round,
+						PLAYS, countSounds(plays), desktopReaderNanos / 1e6, desktopCacheNanos / 1e6, desktopCache.getCachedBytes() / 1024.0 / 1024);
+				System.out.printf("round %d, %d plays of %d sounds: android %.1f ms with the reader, %.1f ms decoding the mapped file on every play, %.1f ms"
+						+ " now, %.1f MB kept on the heap now%n", round, PLAYS, countSounds(plays), androidReaderNanos / 1e6, androidMappedNanos / 1e6,
+						androidCacheNanos / 1e6, androidCache.getCachedBytes() / 1024.0 / 1024);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * @return The starts of the played sounds. Sounds with lower ids are played more often.
+	 */
+	private static int[] createPlays(SyntheticSoundFile sounds) {
+		Random random = new Random(1);
+		int[] plays = new int[PLAYS];
+		for (int i = 0; i < PLAYS; i++) {
+			double r = random.nextDouble();
+			plays[i] = sounds.getStart((int) (r * r * SyntheticSoundFile.SEQUENCES), random.nextInt(ALTERNATIVES));
+		}
+		return plays;
+	}
+
+	private static int countSounds(int[] plays) {
+		Set<Integer> played = new HashSet<>();
+		for (int start : plays) {
+			played.add(start);
+		}
+		return played.size();
+	}
+
+	/**
+	 * @return The nanoseconds spent getting the samples.
+	 */
+	private static long play(int[] plays, boolean onlyFirstPlay, SoundData soundData) throws IOException {
+		Set<Integer> played = new HashSet<>();
+		long nanos = 0;
+		for (int start : plays) {
+			if (!onlyFirstPlay || played.add(start)) {
+				long startTime = System.nanoTime();
+				soundData.get(start);
+				nanos += System.nanoTime() - startTime;
+			}
+		}
+		return nanos;
+	}
+
+	private interface SoundData {
+		short[] get(int start) throws IOException;
+	}
+}
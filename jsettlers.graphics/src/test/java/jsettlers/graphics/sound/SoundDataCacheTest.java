@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.sound;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.graphics.image.reader.bytereader.MappedByteReader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SoundDataCacheTest {
+	private static final int SAMPLES = 100;
+
+	private File file;
+	private SyntheticSoundFile sounds;
+	private ByteBuffer data;
+
+	@Before
+	public void setUp() throws IOException {
+		file = Files.createTempFile("sounds", ".dat").toFile();
+		sounds = SyntheticSoundFile.write(file, 2, SAMPLES, 7);
+		data = MappedByteReader.map(file);
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testDecodesLikeTheReader() throws IOException {
+		SoundDataCache cache = new SoundDataCache(data, Long.MAX_VALUE);
+		int[][] starts = SoundManager.getSoundStarts(new MappedByteReader(data, 0x24));
+		for (int i = 0; i < starts.length; i++) {
+			for (int j = 0; j < starts[i].length; j++) {
+				assertEquals(sounds.getStart(i, j), starts[i][j]);
+				short[] expected = SoundManager.getSoundData(new MappedByteReader(data, 0), starts[i][j]);
+				assertArrayEquals(sounds.getSamples(i, j), expected);
+				assertArrayEquals(expected, cache.getSoundData(starts[i][j]));
+			}
+		}
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws IOException {
+		SoundDataCache cache = new SoundDataCache(data, 2 * 2 * SAMPLES);
+		int a = sounds.getStart(0, 0);
+		int b = sounds.getStart(0, 1);
+		int c = sounds.getStart(1, 0);
+
+		short[] first = cache.getSoundData(a);
+		cache.getSoundData(b);
+		assertSame(first, cache.getSoundData(a));
+		cache.getSoundData(c);
+
+		assertTrue(cache.isCached(a));
+		assertFalse(cache.isCached(b));
+		assertTrue(cache.isCached(c));
+		assertEquals(2 * 2 * SAMPLES, cache.getCachedBytes());
+	}
+
+	@Test
+	public void testKeepsSoundBiggerThanLimit() throws IOException {
+		SoundDataCache cache = new SoundDataCache(data, 1);
+		cache.getSoundData(sounds.getStart(0, 0));
+		cache.getSoundData(sounds.getStart(0, 1));
+
+		assertFalse(cache.isCached(sounds.getStart(0, 0)));
+		assertTrue(cache.isCached(sounds.getStart(0, 1)));
+		assertEquals(2 * SAMPLES, cache.getCachedBytes());
+	}
+
+	@Test
+	public void testPrefetch() throws InterruptedException {
+		SoundDataCache cache = new SoundDataCache(data, Long.MAX_VALUE);
+		int start = sounds.getStart(5, 1);
+		cache.prefetch(start);
+		for (int i = 0; i < 100 && !cache.isCached(start); i++) {
+			Thread.sleep(10);
+		}
+		assertTrue(cache.isCached(start));
+	}
+
+	@Test
+	public void testKeepsNothingWithoutLimit() throws IOException, InterruptedException {
+		SoundDataCache cache = new SoundDataCache(data, 0);
+		int start = sounds.getStart(3, 0);
+		assertArrayEquals(sounds.getSamples(3, 0), cache.getSoundData(start));
+		cache.prefetch(sounds.getStart(3, 1));
+		Thread.sleep(50);
+
+		assertFalse(cache.isCached(start));
+		assertFalse(cache.isCached(sounds.getStart(3, 1)));
+		assertEquals(0, cache.getCachedBytes());
+	}
+
+	@Test(expected = IOException.class)
+	public void testStartOutsideOfFile() throws IOException {
+		new SoundDataCache(data, Long.MAX_VALUE).getSoundData(data.capacity());
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.sound;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Writes a sound file with random samples in the format read by {@link SoundManager}.
+ */
+public final class SyntheticSoundFile {
+	private static final byte[] MAGIC = { 0x44, 0x15, 0x01, 0x00, 0x02, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x1C, 0x00, 0x00, 0x00 };
+	private static final int SEQUENCE_TABLE_START = 0x24;
+	public static final int SEQUENCES = 118;
+	private static final int SOUND_HEADER_LENGTH = 20;
+
+	private final int[][] starts;
+	private final short[][] samples;
+
+	private SyntheticSoundFile(int[][] starts, short[][] samples) {
+		this.starts = starts;
+		this.samples = samples;
+	}
+
+	/**
+	 * Writes the file. Every sequence gets the given number of alternatives.
+	 */
+	public static SyntheticSoundFile write(File file, int alternatives, int samplesPerSound, long seed) throws IOException {
+		Random random = new Random(seed);
+		int sounds = SEQUENCES * alternatives;
+		int sequenceHeaders = SEQUENCE_TABLE_START + 4 * SEQUENCES;
+		int firstSound = sequenceHeaders + SEQUENCES * (4 + 4 * alternatives);
+		int soundSize = SOUND_HEADER_LENGTH + 2 * samplesPerSound;
+
+		ByteBuffer buffer = ByteBuffer.allocate(firstSound + sounds * soundSize).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(MAGIC);
+		buffer.position(SEQUENCE_TABLE_START);
+		for (int i = 0; i < SEQUENCES; i++) {
+			buffer.putInt(sequenceHeaders + i * (4 + 4 * alternatives));
+		}
+
+		int[][] starts = new int[SEQUENCES][alternatives];
+		short[][] samples = new short[sounds][samplesPerSound];
+		for (int i = 0; i < SEQUENCES; i++) {
+			buffer.putInt(alternatives);
+			for (int j = 0; j < alternatives; j++) {
+				starts[i][j] = firstSound + (i * alternatives + j) * soundSize;
+				buffer.putInt(starts[i][j]);
+			}
+		}
+
+		for (int i = 0; i < sounds; i++) {
+			buffer.putInt(2 * (samplesPerSound + SoundManager.SOUND_META_LENGTH));
+			buffer.putInt(0);
+			buffer.putInt(22050);
+			buffer.putInt(44100);
+			buffer.putInt(0);
+			for (int j = 0; j < samplesPerSound; j++) {
+				samples[i][j] = (short) random.nextInt();
+				buffer.putShort(samples[i][j]);
+			}
+		}
+
+		Files.write(file.toPath(), buffer.array());
+		return new SyntheticSoundFile(starts, samples);
+	}
+
+	public int getStart(int sequence, int alternative) {
+		return starts[sequence][alternative];
+	}
+
+	public short[] getSamples(int sequence, int alternative) {
+		return samples[sequence * starts[sequence].length + alternative];
+	}
+}
@@ -28,7 +28,8 @@ public abstract class AlgorithmConstants {
 	public static final int MINHEAP_INIT_NUMBER_OF_ELEMENTS = 1000;
 	/**
 	 * if the construction marks are currently activated and the user does not move the view, the markings will be updated after this time (ms).
+	 * Only the positions affected by changes of the grid are recalculated then, so this can be short.
 	 */
-	public static final int CONSTRUCT_MARKS_MAX_REFRESH_TIME = 1300;
+	public static final int CONSTRUCT_MARKS_MAX_REFRESH_TIME = 250;
 
 }
@@ -80,4 +80,12 @@ public abstract class AbstractConstructionMarkableMap {
 	public abstract boolean canConstructAt(int x, int y, EBuildingType type, byte playerId);
 
 	public abstract byte calculateConstructionMarkValue(int mapX, int mapY, final RelativePoint[] flattenPositions);
+
+	/**
+	 * Sets the listener that is informed about all changes of the grid that may influence the construction marks.
+	 *
+	 * @param listener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public abstract void setGridChangedListener(IConstructionGridChangedListener listener);
 }
@@ -16,8 +16,6 @@ package jsettlers.algorithms.construction;
 
 import jsettlers.algorithms.AlgorithmConstants;
 import jsettlers.common.buildings.BuildingVariant;
-import jsettlers.common.logging.MilliStopWatch;
-import jsettlers.common.logging.StopWatch;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.network.client.interfaces.IPausingSupplier;
 
@@ -63,15 +61,10 @@ public final class ConstructionMarksThread implements Runnable {
 
 				while (building != null && !canceled) {
 					if (!pausingSupplier.isPausing()) {
-						StopWatch watch = new MilliStopWatch();
-						watch.restart();
-
 						BuildingVariant building = this.building;
 						if (building != null && mapArea != null) { // if the task has already been canceled
 							algorithm.calculateConstructMarks(mapArea, building);
 						}
-
-						watch.stop("calculation of construction marks");
 					}
 					synchronized (this) {
 						wait(AlgorithmConstants.CONSTRUCT_MARKS_MAX_REFRESH_TIME);
@@ -14,6 +14,9 @@
  *******************************************************************************/
 package jsettlers.algorithms.construction;
 
+import java.util.BitSet;
+
+import jsettlers.common.buildings.BuildingAreaBitSet;
 import jsettlers.common.buildings.BuildingVariant;
 import jsettlers.common.map.shapes.IMapArea;
 import jsettlers.common.map.shapes.MapRectangle;
@@ -21,63 +24,213 @@ import jsettlers.common.position.RelativePoint;
 
 /**
  * Algorithm to calculate the construction marks for the user.
+ * <p>
+ * The marks are calculated completely only once per building variant. After that, only the newly visible positions are calculated when the screen
+ * area changes and only the positions affected by changes of the grid (reported via {@link IConstructionGridChangedListener}) are recalculated. If
+ * the grid reports a change without positions, all marks are calculated again.
  *
  * @author Andreas Eberle
  *
  */
-public final class NewConstructionMarksAlgorithm {
+public final class NewConstructionMarksAlgorithm implements IConstructionGridChangedListener {
 	private final AbstractConstructionMarkableMap map;
 	private final byte playerId;
+	private final short mapWidth;
+	private final short mapHeight;
+
+	/**
+	 * Positions of the map whose grid values changed since the last calculation. Access needs to be synchronized on this object.
+	 */
+	private BitSet changedPositions;
+	private BitSet swappedChangedPositions;
+	private final BitSet positionsToUpdate;
+	/**
+	 * Whether the grid changed at positions that were not reported. Access needs to be synchronized on this object.
+	 */
+	private boolean allPositionsChanged = false;
+	private volatile boolean trackChanges = false;
 
 	private MapRectangle lastArea = null;
+	private BuildingVariant lastBuildingVariant = null;
 
 	public NewConstructionMarksAlgorithm(AbstractConstructionMarkableMap map, byte player) {
 		this.map = map;
 		this.playerId = player;
+		this.mapWidth = map.getWidth();
+		this.mapHeight = map.getHeight();
+
+		int size = mapWidth * mapHeight;
+		this.changedPositions = new BitSet(size);
+		this.swappedChangedPositions = new BitSet(size);
+		this.positionsToUpdate = new BitSet(size);
+
+		map.setGridChangedListener(this);
+	}
+
+	@Override
+	public void constructionGridChangedAt(int x, int y) {
+		if (trackChanges) {
+			synchronized (this) {
+				changedPositions.set(x + y * mapWidth);
+			}
+		}
+	}
+
+	@Override
+	public void constructionGridChanged() {
+		if (trackChanges) {
+			synchronized (this) {
+				allPositionsChanged = true;
+			}
+		}
 	}
 
 	public void calculateConstructMarks(final MapRectangle mapArea, BuildingVariant buildingVariant) {
+		if (lastArea == null || lastBuildingVariant != buildingVariant || haveAllPositionsChanged()) {
+			calculateAllConstructMarks(mapArea, buildingVariant);
+		} else {
+			BitSet changed = swapChangedPositions();
+
+			if (!isSameArea(lastArea, mapArea)) {
+				removeConstructionMarks(lastArea, mapArea);
+				calculateConstructMarks(mapArea, buildingVariant, lastArea);
+			}
+
+			updateChangedConstructMarks(mapArea, buildingVariant, changed);
+		}
+
+		// set the lastArea variable for the next run
+		lastArea = mapArea;
+		lastBuildingVariant = buildingVariant;
+	}
+
+	private void calculateAllConstructMarks(MapRectangle mapArea, BuildingVariant buildingVariant) {
 		if (lastArea != null) {
 			removeConstructionMarks(lastArea, mapArea);
 		}
 
-		boolean binaryConstructionMarkValues = !buildingVariant.needsFlattenedGround();
-		RelativePoint[] buildingArea = buildingVariant.getBuildingArea();
+		// start tracking before the calculation, so that no change can be missed
+		trackChanges = true;
+		swapChangedPositions();
 
+		calculateConstructMarks(mapArea, buildingVariant, null);
+	}
+
+	/**
+	 * Calculates the construction marks of all positions of the given area that are not contained in the skipped area.
+	 *
+	 * @param mapArea
+	 *            The area to calculate the marks for.
+	 * @param buildingVariant
+	 *            The building the marks are calculated for.
+	 * @param skippedArea
+	 *            The area that already has up to date marks or null if the complete area shall be calculated.
+	 */
+	private void calculateConstructMarks(MapRectangle mapArea, BuildingVariant buildingVariant, MapRectangle skippedArea) {
 		final short height = mapArea.getHeight();
 		final short width = mapArea.getWidth();
 
-		for(short line = 0; line < height; line++) {
+		for (short line = 0; line < height; line++) {
 			short y = (short) mapArea.getLineY(line);
 
 			short minX = (short) mapArea.getLineStartX(line);
 
-			for(short tile = 0; tile < width; tile++) {
+			for (short tile = 0; tile < width; tile++) {
 				short x = (short) (minX + tile);
 
-				if(map.canConstructAt(x, y, buildingVariant.getType(), playerId)) {
-					map.setConstructMarking(x, y, true, binaryConstructionMarkValues, buildingArea);
-				} else {
-					map.setConstructMarking(x, y, false, false, null);
+				if (skippedArea == null || !skippedArea.contains(x, y)) {
+					calculateConstructMarkAt(x, y, buildingVariant);
 				}
+			}
+		}
+	}
+
+	/**
+	 * Recalculates the construction marks of all positions in the given area whose building area (including its border) contains a changed
+	 * position.
+	 */
+	private void updateChangedConstructMarks(MapRectangle mapArea, BuildingVariant buildingVariant, BitSet changed) {
+		if (changed.isEmpty()) {
+			return;
+		}
 
+		// a position p is affected by a change at c, if c - p is a relative point of the building area or its border
+		BuildingAreaBitSet areaBitSet = buildingVariant.getBuildingAreaBitSet();
+		int minDx = areaBitSet.minX - 1;
+		int maxDx = areaBitSet.maxX + 1;
+		int minDy = areaBitSet.minY - 1;
+		int maxDy = areaBitSet.maxY + 1;
+
+		for (int index = changed.nextSetBit(0); index >= 0; index = changed.nextSetBit(index + 1)) {
+			int changedX = index % mapWidth;
+			int changedY = index / mapWidth;
+
+			for (int y = Math.max(0, changedY - maxDy); y <= Math.min(mapHeight - 1, changedY - minDy); y++) {
+				if (!mapArea.containsLine(y)) {
+					continue;
+				}
+				for (int x = Math.max(0, changedX - maxDx); x <= Math.min(mapWidth - 1, changedX - minDx); x++) {
+					positionsToUpdate.set(x + y * mapWidth);
+				}
 			}
 		}
 
-		// set the lastArea variable for the next run
-		lastArea = mapArea;
+		for (int index = positionsToUpdate.nextSetBit(0); index >= 0; index = positionsToUpdate.nextSetBit(index + 1)) {
+			int x = index % mapWidth;
+			int y = index / mapWidth;
+
+			if (mapArea.contains(x, y)) {
+				calculateConstructMarkAt(x, y, buildingVariant);
+			}
+		}
+		positionsToUpdate.clear();
+	}
+
+	private void calculateConstructMarkAt(int x, int y, BuildingVariant buildingVariant) {
+		if (map.canConstructAt(x, y, buildingVariant.getType(), playerId)) {
+			map.setConstructMarking(x, y, true, !buildingVariant.needsFlattenedGround(), buildingVariant.getBuildingArea());
+		} else {
+			map.setConstructMarking(x, y, false, false, null);
+		}
+	}
+
+	private synchronized boolean haveAllPositionsChanged() {
+		return allPositionsChanged;
+	}
+
+	/**
+	 * Exchanges the set of changed positions with an empty one. This also forgets changes without positions.
+	 *
+	 * @return The positions that changed since the last call. The returned set is only valid until the next call of this method.
+	 */
+	private synchronized BitSet swapChangedPositions() {
+		allPositionsChanged = false;
+		BitSet changed = changedPositions;
+		swappedChangedPositions.clear();
+		changedPositions = swappedChangedPositions;
+		swappedChangedPositions = changed;
+		return changed;
+	}
+
+	private static boolean isSameArea(MapRectangle area1, MapRectangle area2) {
+		return area1.getMinX() == area2.getMinX() && area1.getMinY() == area2.getMinY()
+				&& area1.getWidth() == area2.getWidth() && area1.getHeight() == area2.getHeight();
 	}
 
 	/**
 	 * Removes all construction marks on the screen.
 	 */
 	public void removeConstructionMarks() {
+		trackChanges = false;
+		swapChangedPositions();
+
 		if (lastArea != null) {
 			lastArea.stream()
 					.filterBounds(map.getWidth(), map.getHeight())
 					.forEach((x, y) -> map.setConstructMarking(x, y, false, false, null));
 			lastArea = null;
 		}
+		lastBuildingVariant = null;
 	}
 
 	/**
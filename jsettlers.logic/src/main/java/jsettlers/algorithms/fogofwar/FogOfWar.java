@@ -14,7 +14,9 @@
  *******************************************************************************/
 package jsettlers.algorithms.fogofwar;
 
+import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.BitSet;
 import java.util.HashMap;
@@ -25,9 +27,11 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.IGraphicsBackgroundListener;
+import jsettlers.common.map.IGraphicsMapObjectsListener;
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.position.ShortPoint2D;
 import go.graphics.FramerateComputer;
+import jsettlers.logic.SerializationUtils;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
@@ -54,10 +58,21 @@ public final class FogOfWar implements Serializable {
 
 	public final short width;
 	public final short height;
-	public final byte[][] sight;
-	public final ELandscapeType[][] hiddenLandscape;
-	public final byte[][] hiddenHeight;
-	public final IMapObject[][] hiddenMapObjects;
+	/**
+	 * The following four layers are only used while (de)serializing to keep the savegame format. At runtime the transient layers below are used.
+	 */
+	private byte[][] sight;
+	private ELandscapeType[][] hiddenLandscape;
+	private byte[][] hiddenHeight;
+	private IMapObject[][] hiddenMapObjects;
+
+	/**
+	 * The layers below are stored row by row. The value of position (x, y) is at index {@code x + y * width}.
+	 */
+	public transient byte[] visibleStatus;
+	public transient ELandscapeType[] hiddenLandscapeTypes;
+	public transient byte[] hiddenHeights;
+	public transient IMapObject[] hiddenObjects;
 	public final short[][][] visibleRefs;
 	public final HashMap<Byte, LinkedList<Object>>[][] namedRefs;
 	public transient FowDimThread dimThread;
@@ -67,6 +82,7 @@ public final class FogOfWar implements Serializable {
 
 	public transient CircleDrawer circleDrawer;
 	private transient IGraphicsBackgroundListener backgroundListener;
+	private transient IGraphicsMapObjectsListener mapObjectsListener;
 	public transient boolean enabled;
 	public transient boolean canceled;
 
@@ -74,10 +90,10 @@ public final class FogOfWar implements Serializable {
 		this.width = root.getWidth();
 		this.height = root.getHeight();
 		this.team = teamId;
-		this.sight = new byte[width][height];
-		this.hiddenLandscape = new ELandscapeType[width][height];
-		this.hiddenHeight = new byte[width][height];
-		this.hiddenMapObjects = new IMapObject[width][height];
+		this.visibleStatus = new byte[width * height];
+		this.hiddenLandscapeTypes = new ELandscapeType[width * height];
+		this.hiddenHeights = new byte[width * height];
+		this.hiddenObjects = new IMapObject[width * height];
 		this.visibleRefs = new short[width][height][0];
 		this.landscapeGrid = root.getLandscapeGrid();
 		this.objectsGrid = root.getObjectsGrid();
@@ -120,6 +136,28 @@ public final class FogOfWar implements Serializable {
 		}
 	}
 
+	/**
+	 * Sets the listener informed whenever the objects shown at a position change because it got hidden or visible.
+	 *
+	 * @param mapObjectsListener
+	 *            The listener or {@code null} to remove the current one.
+	 */
+	public void setMapObjectsListener(IGraphicsMapObjectsListener mapObjectsListener) {
+		this.mapObjectsListener = Objects.requireNonNullElse(mapObjectsListener, IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION);
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		sight = SerializationUtils.toColumns(visibleStatus, width, height);
+		hiddenLandscape = SerializationUtils.toColumns(hiddenLandscapeTypes, width, height, ELandscapeType.class);
+		hiddenHeight = SerializationUtils.toColumns(hiddenHeights, width, height);
+		hiddenMapObjects = SerializationUtils.toColumns(hiddenObjects, width, height, IMapObject.class);
+		oos.defaultWriteObject();
+		sight = null;
+		hiddenLandscape = null;
+		hiddenHeight = null;
+		hiddenMapObjects = null;
+	}
+
 	private void readObject(ObjectInputStream ois) {
 		if(ois != null) {
 			try {
@@ -127,6 +165,14 @@ public final class FogOfWar implements Serializable {
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
+			visibleStatus = SerializationUtils.toRowMajor(sight);
+			hiddenLandscapeTypes = SerializationUtils.toRowMajor(hiddenLandscape, ELandscapeType.class);
+			hiddenHeights = SerializationUtils.toRowMajor(hiddenHeight);
+			hiddenObjects = SerializationUtils.toRowMajor(hiddenMapObjects, IMapObject.class);
+			sight = null;
+			hiddenLandscape = null;
+			hiddenHeight = null;
+			hiddenMapObjects = null;
 		}
 		refThread = new FoWRefThread();
 		dimThread = new FowDimThread();
@@ -134,14 +180,15 @@ public final class FogOfWar implements Serializable {
 		enabled = Constants.FOG_OF_WAR_DEFAULT_ENABLED;
 		canceled = false;
 		backgroundListener = new MainGrid.NullBackgroundListener();
+		mapObjectsListener = IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION;
 	}
 
 	public boolean isHidden(int x, int y) {
-		return enabled && hiddenLandscape[x][y] != null;
+		return enabled && hiddenLandscapeTypes[x + y * width] != null;
 	}
 
 	public ELandscapeType getLandscapeTypeAt(int x, int y) {
-		return hiddenLandscape[x][y];
+		return hiddenLandscapeTypes[x + y * width];
 	}
 
 	public static class BuildingFoWTask implements FoWTask {
@@ -168,11 +215,14 @@ public final class FogOfWar implements Serializable {
 	 * @return The status from 0 to visible.
 	 */
 	public final byte getVisibleStatus(int x, int y) {
-		return enabled ? sight[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		return enabled ? visibleStatus[x + y * width] : CommonConstants.FOG_OF_WAR_VISIBLE;
 	}
 
-	public byte[][] getVisibleStatusArray() {
-		return sight;
+	/**
+	 * @return the visible status of all positions stored row by row. The status of position (x, y) is at index {@code x + y * width}.
+	 */
+	public byte[] getVisibleStatusArray() {
+		return visibleStatus;
 	}
 
 	public final void toggleEnabled() {
@@ -326,18 +376,26 @@ public final class FogOfWar implements Serializable {
 					for(; x < x2; x++) {
 						final byte refSight = refSight(x, y);
 						final byte dimTo = targetSight(x, y, refSight);
-						final byte oldSight = sight[x][y];
+						final int index = x + y * width;
+						final byte oldSight = visibleStatus[index];
 
-						final byte newSight = dim(sight[x][y], dimTo, dim);
+						final byte newSight = dim(oldSight, dimTo, dim);
 
+						boolean objectsChanged = true;
 						if(oldSight <= CommonConstants.FOG_OF_WAR_EXPLORED && newSight > CommonConstants.FOG_OF_WAR_EXPLORED) {
 							clearHidden(x, y);
 						} else if((oldSight > CommonConstants.FOG_OF_WAR_EXPLORED && newSight <= CommonConstants.FOG_OF_WAR_EXPLORED) ||
 								(oldSight <= CommonConstants.FOG_OF_WAR_EXPLORED && refSight < oldSight)) {
 							recordHidden(x, y);
+						} else {
+							objectsChanged = false;
 						}
 
-						sight[x][y] = newSight;
+						visibleStatus[index] = newSight;
+						if(objectsChanged) {
+							// informed after the status is stored, so the listener sees the new state
+							mapObjectsListener.mapObjectsChangedAt(x, y);
+						}
 
 						if(dimTo != oldSight) {
 							if(lastUpdate + 1 != x) {
@@ -348,9 +406,9 @@ public final class FogOfWar implements Serializable {
 								lastUpdate = x;
 							}
 
-							if(sight[x][y] == dimTo) update.clear(y * width + x);
+							if(newSight == dimTo) update.clear(index);
 						} else {
-							update.set(y * width + x, false);
+							update.clear(index);
 						}
 					}
 					if (firstUpdate != -1) {
@@ -375,15 +433,21 @@ public final class FogOfWar implements Serializable {
 	}
 
 	private void clearHidden(int x, int y) {
-		hiddenLandscape[x][y] = null;
-		hiddenHeight[x][y] = -1;
-		hiddenMapObjects[x][y] = null;
+		final int index = x + y * width;
+		hiddenLandscapeTypes[index] = null;
+		hiddenHeights[index] = -1;
+		hiddenObjects[index] = null;
 	}
 
 	private void recordHidden(int x, int y) {
-		hiddenLandscape[x][y] = landscapeGrid.getLandscapeTypeAt(x, y);
-		hiddenHeight[x][y] = landscapeGrid.getHeightAt(x, y);
-		hiddenMapObjects[x][y] = recordMapObjects(objectsGrid.getObjectsAt(x, y));
+		final int index = x + y * width;
+		hiddenLandscapeTypes[index] = landscapeGrid.getLandscapeTypeAt(x, y);
+		hiddenHeights[index] = landscapeGrid.getHeightAt(x, y);
+		if (objectsGrid.mayContainMapObjectTypes(x, y, HiddenMapObjectCreator.RECORDED_TYPES_MASK)) {
+			hiddenObjects[index] = recordMapObjects(objectsGrid.getObjectsAt(x, y));
+		} else {
+			hiddenObjects[index] = null;
+		}
 	}
 
 	private IMapObject recordMapObjects(AbstractHexMapObject objects) {
@@ -421,7 +485,7 @@ public final class FogOfWar implements Serializable {
 
 	final byte targetSight(int x, int y, byte refValue) {
 
-		byte currentValue = sight[x][y];
+		byte currentValue = visibleStatus[x + y * width];
 
 		if(currentValue >= CommonConstants.FOG_OF_WAR_EXPLORED && refValue < CommonConstants.FOG_OF_WAR_EXPLORED) {
 			return CommonConstants.FOG_OF_WAR_EXPLORED;
@@ -588,7 +652,7 @@ public final class FogOfWar implements Serializable {
 						}
 					}
 
-					if((state&CIRCLE_DIM) > 0 && sight[x][y] != refSight(x, y)) {
+					if((state&CIRCLE_DIM) > 0 && visibleStatus[x + y * width] != refSight(x, y)) {
 						synchronized (instance.dimThread.nextUpdate) {
 							instance.dimThread.nextUpdate.set(y*width+x);
 						}
@@ -2,25 +2,19 @@ package jsettlers.algorithms.fogofwar;
 
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.logic.map.grid.objects.AbstractHexMapObject;
+import jsettlers.logic.map.grid.objects.ObjectsGrid;
 
 public class HiddenMapObjectCreator {
+	/**
+	 * Mask of all types that are recorded when a position is hidden by the fog of war.
+	 */
+	public static final long RECORDED_TYPES_MASK = calculateRecordedTypesMask();
+
 	public static HiddenMapObject create(AbstractHexMapObject object) {
 		EMapObjectType type = object.getObjectType();
-		if(!type.persistent) return null;
+		if(!isRecorded(type)) return null;
 
 		switch (type) {
-			case PLACEMENT_BUILDING:
-			case SMOKE:
-			case SMOKE_WITH_FIRE:
-			case PIG:
-			case DONKEY:
-			case GHOST:
-			case BUILDING_DECONSTRUCTION_SMOKE:
-			case ATTACKABLE_TOWER:
-			case INFORMABLE_MAP_OBJECT:
-			case EYE:
-			case SPELL_EFFECT:
-				return null;
 			case MANNA_BOWL:
 				return new HiddenMapObject.HiddenMannaBowlObject(object);
 			case BUILDING:
@@ -39,4 +33,35 @@ public class HiddenMapObjectCreator {
 				return new HiddenMapObject(object);
 		}
 	}
+
+	private static boolean isRecorded(EMapObjectType type) {
+		if(!type.persistent) return false;
+
+		switch (type) {
+			case PLACEMENT_BUILDING:
+			case SMOKE:
+			case SMOKE_WITH_FIRE:
+			case PIG:
+			case DONKEY:
+			case GHOST:
+			case BUILDING_DECONSTRUCTION_SMOKE:
+			case ATTACKABLE_TOWER:
+			case INFORMABLE_MAP_OBJECT:
+			case EYE:
+			case SPELL_EFFECT:
+				return false;
+			default:
+				return true;
+		}
+	}
+
+	private static long calculateRecordedTypesMask() {
+		long mask = 0;
+		for (EMapObjectType type : EMapObjectType.VALUES) {
+			if (isRecorded(type)) {
+				mask |= ObjectsGrid.getTypeMask(type);
+			}
+		}
+		return mask;
+	}
 }
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.traversing.borders;
+
+import jsettlers.algorithms.interfaces.IContainingProvider;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Step wise version of {@link BorderTraversingAlgorithm}. This allows to walk along multiple borders at the same time and stop as soon as one of
+ * them gives an answer.
+ */
+public final class BorderWalker {
+	private final IContainingProvider containingProvider;
+
+	private final int startInsideX;
+	private final int startInsideY;
+	private final int startOutsideX;
+	private final int startOutsideY;
+
+	private int insideX;
+	private int insideY;
+	private int outsideX;
+	private int outsideY;
+
+	private int traversedPositions = 1;
+
+	/**
+	 * Creates a new walker starting at the two neighbors insideStartPosition and outsideStartPosition.
+	 *
+	 * @param containingProvider
+	 *            {@link IContainingProvider} defining the position that are in and the ones that are outside the area.
+	 * @param insideStartPosition
+	 *            The inside start position for the traversing. This position must be in the area but at the border!
+	 * @param outsideStartPosition
+	 *            The outside start position for the traversing. This position must be outside the area but at the border and a direct neighbor of
+	 *            insideStartPosition
+	 */
+	public BorderWalker(IContainingProvider containingProvider, ShortPoint2D insideStartPosition, ShortPoint2D outsideStartPosition) {
+		this.containingProvider = containingProvider;
+
+		this.startInsideX = this.insideX = insideStartPosition.x;
+		this.startInsideY = this.insideY = insideStartPosition.y;
+		this.startOutsideX = this.outsideX = outsideStartPosition.x;
+		this.startOutsideY = this.outsideY = outsideStartPosition.y;
+	}
+
+	/**
+	 * Moves the walker one step further along the border.
+	 *
+	 * @return true if the walker is back at its start position, which means the whole border has been traversed.<br>
+	 *         false otherwise.
+	 */
+	public boolean step() {
+		traversedPositions++;
+
+		EDirection outInDir = EDirection.getDirection(insideX - outsideX, insideY - outsideY);
+		EDirection neighborDir = outInDir.getNeighbor(-1);
+
+		int neighborX = neighborDir.gridDeltaX + outsideX;
+		int neighborY = neighborDir.gridDeltaY + outsideY;
+
+		if (containingProvider.contains(neighborX, neighborY)) {
+			insideX = neighborX;
+			insideY = neighborY;
+		} else {
+			outsideX = neighborX;
+			outsideY = neighborY;
+		}
+
+		return insideX == startInsideX && insideY == startInsideY && outsideX == startOutsideX && outsideY == startOutsideY;
+	}
+
+	public boolean isInsideAt(int x, int y) {
+		return insideX == x && insideY == y;
+	}
+
+	/**
+	 * @return The number of positions traversed so far (counted the same way as by {@link BorderTraversingAlgorithm}).
+	 */
+	public int getTraversedPositions() {
+		return traversedPositions;
+	}
+}
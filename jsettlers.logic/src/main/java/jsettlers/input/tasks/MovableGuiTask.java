@@ -20,12 +20,21 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import jsettlers.network.client.task.packets.TaskLogOutputStream;
+import jsettlers.network.infrastructure.utils.VarInts;
+
 /**
  * 
  * @author Andreas Eberle
  * 
  */
 public class MovableGuiTask extends SimpleGuiTask {
+	/**
+	 * Marks a delta encoded selection, which is only written to replay logs. The network encoding writes the selection size as int first, whose
+	 * highest byte is never this value.
+	 */
+	private static final byte COMPACT_SELECTION_MARKER = (byte) 0x80;
+
 	private List<Integer> selection;
 
 	public MovableGuiTask() {
@@ -44,9 +53,14 @@ public class MovableGuiTask extends SimpleGuiTask {
 	protected void serializeTask(DataOutputStream dos) throws IOException {
 		super.serializeTask(dos);
 
-		dos.writeInt(selection.size());
-		for (Integer curr : selection) {
-			dos.writeInt(curr);
+		if (dos instanceof TaskLogOutputStream) {
+			dos.writeByte(COMPACT_SELECTION_MARKER);
+			VarInts.writeDeltaList(dos, selection);
+		} else {
+			dos.writeInt(selection.size());
+			for (Integer curr : selection) {
+				dos.writeInt(curr);
+			}
 		}
 	}
 
@@ -54,7 +68,13 @@ public class MovableGuiTask extends SimpleGuiTask {
 	protected void deserializeTask(DataInputStream dis) throws IOException {
 		super.deserializeTask(dis);
 
-		int numberOfElements = dis.readInt();
+		byte firstByte = dis.readByte();
+		if (firstByte == COMPACT_SELECTION_MARKER) {
+			selection = VarInts.readDeltaList(dis);
+			return;
+		}
+
+		int numberOfElements = (firstByte << 24) | (dis.readUnsignedByte() << 16) | dis.readUnsignedShort();
 		selection = new ArrayList<>(numberOfElements);
 		for (int i = 0; i < numberOfElements; i++) {
 			selection.add(dis.readInt());
@@ -44,4 +44,63 @@ public class SerializationUtils {
 		}
 		return data;
 	}
+
+	/**
+	 * Converts a grid layer stored row by row ({@code x + y * width}) into an array of columns ({@code [x][y]}). This is used to keep the savegame
+	 * format of layers that were stored as columns before.
+	 */
+	public static byte[][] toColumns(byte[] rowMajor, int width, int height) {
+		byte[][] columns = new byte[width][height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				columns[x][y] = rowMajor[x + y * width];
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * Converts a grid layer stored as columns ({@code [x][y]}) into an array stored row by row ({@code x + y * width}).
+	 */
+	public static byte[] toRowMajor(byte[][] columns) {
+		int width = columns.length;
+		int height = width > 0 ? columns[0].length : 0;
+		byte[] rowMajor = new byte[width * height];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				rowMajor[x + y * width] = columns[x][y];
+			}
+		}
+		return rowMajor;
+	}
+
+	/**
+	 * @see #toColumns(byte[], int, int)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T[][] toColumns(T[] rowMajor, int width, int height, Class<T> arrayElementType) {
+		T[][] columns = (T[][]) Array.newInstance(arrayElementType, width, height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				columns[x][y] = rowMajor[x + y * width];
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * @see #toRowMajor(byte[][])
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T[] toRowMajor(T[][] columns, Class<T> arrayElementType) {
+		int width = columns.length;
+		int height = width > 0 ? columns[0].length : 0;
+		T[] rowMajor = (T[]) Array.newInstance(arrayElementType, width * height);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				rowMajor[x + y * width] = columns[x][y];
+			}
+		}
+		return rowMajor;
+	}
 }
@@ -120,6 +120,7 @@ public class GameSerializer {
 				HarborBuilding.readStaticState(ois);
 				MovableManager.readStaticState(ois);
 				grid = (MainGrid) ois.readObject();
+				grid.getPartitionsGrid().recountProfessions();
 			} catch (Throwable t) {
 				t.printStackTrace();
 				this.exception = t;
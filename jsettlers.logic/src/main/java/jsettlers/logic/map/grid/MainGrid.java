@@ -21,12 +21,14 @@ import java.io.Serializable;
 import java.util.BitSet;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Set;
 
 import java.util.Optional;
 import jsettlers.algorithms.borders.BordersThread;
 import jsettlers.algorithms.borders.IBordersThreadGrid;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
+import jsettlers.algorithms.construction.IConstructionGridChangedListener;
 import jsettlers.algorithms.fogofwar.FogOfWar;
 import jsettlers.algorithms.landmarks.EnclosedBlockedAreaFinderAlgorithm;
 import jsettlers.algorithms.landmarks.IEnclosedBlockedAreaFinderGrid;
@@ -52,6 +54,8 @@ import jsettlers.common.landscape.EPartitionType;
 import jsettlers.common.landscape.EResourceType;
 import jsettlers.common.map.EDebugColorModes;
 import jsettlers.common.map.IGraphicsBackgroundListener;
+import jsettlers.common.map.IGraphicsMapObjectsListener;
+import jsettlers.common.map.IGraphicsMovablesListener;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.map.IDirectGridProvider;
 import jsettlers.common.map.partition.IPartitionData;
@@ -213,6 +217,7 @@ public final class MainGrid implements Serializable {
 		this.guiInputGrid = new GuiInputGrid();
 
 		this.partitionsGrid.setPlayerChangedListener(new PlayerChangedListener());
+		this.constructionMarksGrid.setGridChangedListener(null);
 		this.enclosedBlockedAreaFinderGrid = new EnclosedBlockedAreaFinderGrid();
 	}
 
@@ -829,6 +834,7 @@ public final class MainGrid implements Serializable {
 
 	final class GraphicsGrid implements IGraphicsGrid, IDirectGridProvider {
 		private transient BitSet bordersGrid = new BitSet(width * height);
+		private transient IGraphicsMapObjectsListener mapObjectsListener = IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION;
 
 		@Override
 		public final short getHeight() {
@@ -852,7 +858,7 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public final IMapObject getVisibleMapObjectsAt(int x, int y) {
-			if(fogOfWar.isHidden(x, y)) return fogOfWar.hiddenMapObjects[x][y];
+			if(fogOfWar.isHidden(x, y)) return fogOfWar.hiddenObjects[x + y * width];
 			return objectsGrid.getObjectsAt(x, y);
 		}
 
@@ -862,12 +868,12 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public final byte getVisibleHeightAt(int x, int y) {
-			if(fogOfWar.isHidden(x, y)) return fogOfWar.hiddenHeight[x][y];
+			if(fogOfWar.isHidden(x, y)) return fogOfWar.hiddenHeights[x + y * width];
 			return landscapeGrid.getHeightAt(x, y);
 		}
 
 		@Override
-		public byte[][] getHeightArray() {
+		public byte[] getHeightArray() {
 			return landscapeGrid.getHeightArray();
 		}
 
@@ -941,7 +947,7 @@ public final class MainGrid implements Serializable {
 		}
 
 		@Override
-		public byte[][] getVisibleStatusArray() {
+		public byte[] getVisibleStatusArray() {
 			return fogOfWar.getVisibleStatusArray();
 		}
 
@@ -956,6 +962,26 @@ public final class MainGrid implements Serializable {
 			fogOfWar.setBackgroundListener(backgroundListener);
 		}
 
+		@Override
+		public void setMapObjectsListener(IGraphicsMapObjectsListener listener) {
+			mapObjectsListener = Objects.requireNonNullElse(listener, IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION);
+			objectsGrid.setMapObjectsListener(listener);
+			fogOfWar.setMapObjectsListener(listener);
+		}
+
+		@Override
+		public void setMovablesListener(IGraphicsMovablesListener listener) {
+			movableGrid.setMovablesListener(listener);
+		}
+
+		private void setBorderAt(int x, int y, boolean isBorder) {
+			int index = x + y * width;
+			if (bordersGrid.get(index) != isBorder) {
+				bordersGrid.set(index, isBorder);
+				mapObjectsListener.mapObjectsChangedAt(x, y);
+			}
+		}
+
 		@Override
 		public IPartitionData getPartitionData(int x, int y) {
 			return partitionsGrid.getPartitionDataForManagerAt(x, y);
@@ -1228,6 +1254,13 @@ public final class MainGrid implements Serializable {
 		public boolean isInBounds(int x, int y) {
 			return MainGrid.this.isInBounds(x, y);
 		}
+
+		@Override
+		public void setGridChangedListener(IConstructionGridChangedListener listener) {
+			flagsGrid.setConstructionGridChangedListener(listener);
+			landscapeGrid.setConstructionGridChangedListener(listener);
+			partitionsGrid.setConstructionGridChangedListener(listener);
+		}
 	}
 
 	final class MovablePathfinderGrid extends AbstractMovableGrid {
@@ -1486,6 +1519,16 @@ public final class MainGrid implements Serializable {
 			}
 		}
 
+		@Override
+		public Partition updateProfessionCount(ILogicMovable movable, Partition countedPartition) {
+			return partitionsGrid.updateProfessionCount(movable, countedPartition);
+		}
+
+		@Override
+		public void removeFromProfessionCount(ILogicMovable movable, Partition countedPartition) {
+			partitionsGrid.removeFromProfessionCount(movable, countedPartition);
+		}
+
 		public void notifyAttackers(ShortPoint2D position, IAttackableMovable movable, boolean informFullArea) {
 			if (movable.isAttackable()) {
 				movableGrid.informMovables(movable, position.x, position.y, informFullArea);
@@ -1712,7 +1755,7 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public final void setBorderAt(int x, int y, boolean isBorder) {
-			graphicsGrid.bordersGrid.set(x + y * width, isBorder);
+			graphicsGrid.setBorderAt(x, y, isBorder);
 		}
 
 		@Override
@@ -2286,6 +2329,7 @@ public final class MainGrid implements Serializable {
 		public void playerChangedAt(int x, int y, byte newPlayerId) {
 			final ShortPoint2D position = new ShortPoint2D(x, y);
 			bordersThread.checkPosition(position);
+			graphicsGrid.mapObjectsListener.mapObjectsChangedAt(x, y);
 
 			Building building = objectsGrid.getBuildingAt(x, y);
 			if (building != null && building.getPlayer().getPlayerId() != newPlayerId) {
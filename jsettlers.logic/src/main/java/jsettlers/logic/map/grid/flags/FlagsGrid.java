@@ -16,7 +16,9 @@ package jsettlers.logic.map.grid.flags;
 
 import java.io.Serializable;
 import java.util.BitSet;
+import java.util.Objects;
 
+import jsettlers.algorithms.construction.IConstructionGridChangedListener;
 import jsettlers.algorithms.partitions.IBlockingProvider;
 
 /**
@@ -35,6 +37,7 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 	private final BitSet protectedGrid;
 
 	private IProtectedChangedListener protectedChangedListener = null;
+	private transient IConstructionGridChangedListener constructionGridChangedListener = IConstructionGridChangedListener.DEFAULT_IMPLEMENTATION;
 
 	public FlagsGrid(final short width, final short height) {
 		this.width = width;
@@ -83,8 +86,11 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		this.blockedGrid.set(idx, newBlocked);
 		this.protectedGrid.set(idx, newProtected);
 
-		if (protectedChangedListener != null && oldProtected != newProtected) {
-			this.protectedChangedListener.protectedChanged(x, y, newProtected);
+		if (oldProtected != newProtected) {
+			if (protectedChangedListener != null) {
+				this.protectedChangedListener.protectedChanged(x, y, newProtected);
+			}
+			constructionGridChangedListener.constructionGridChangedAt(x, y);
 		}
 	}
 
@@ -107,6 +113,7 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		if (protectedChangedListener != null) {
 			this.protectedChangedListener.protectedChanged(x, y, newProtected);
 		}
+		constructionGridChangedListener.constructionGridChangedAt(x, y);
 	}
 
 	public boolean isPioneerBlocked(int x, int y) {
@@ -118,4 +125,14 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 	public void setProtectedChangedListener(IProtectedChangedListener protectedChangedListener) {
 		this.protectedChangedListener = protectedChangedListener;
 	}
+
+	/**
+	 * Sets the given listener. The listener will then be informed of any positions that change their protected state.
+	 *
+	 * @param listener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public void setConstructionGridChangedListener(IConstructionGridChangedListener listener) {
+		this.constructionGridChangedListener = Objects.requireNonNullElse(listener, IConstructionGridChangedListener.DEFAULT_IMPLEMENTATION);
+	}
 }
@@ -16,6 +16,7 @@ package jsettlers.logic.map.grid.landscape;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -25,6 +26,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 
+import jsettlers.algorithms.construction.IConstructionGridChangedListener;
 import jsettlers.algorithms.partitions.IBlockingProvider;
 import jsettlers.algorithms.partitions.PartitionCalculatorAlgorithm;
 import jsettlers.algorithms.previewimage.IPreviewImageDataSupplier;
@@ -37,6 +39,7 @@ import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.ESpellType;
 import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.SerializationUtils;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.MainGrid;
@@ -53,7 +56,11 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 	private static final int BLOCKED_PARTITION = 0;
 
-	private final byte[][] heightGrid;
+	/**
+	 * Only used while (de)serializing to keep the savegame format. At runtime the heights are stored in {@link #heights}.
+	 */
+	private byte[][] heightGrid;
+	private transient byte[] heights;
 	private final byte[] landscapeGrid;
 	private final byte[] resourceAmount;
 	private final byte[] temporaryFlatened;
@@ -72,13 +79,14 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 	private transient int[] debugColors;
 	private transient IGraphicsBackgroundListener backgroundListener;
+	private transient IConstructionGridChangedListener constructionGridChangedListener;
 
 	public LandscapeGrid(short width, short height, IProtectedProvider protectedProvider) {
 		this.width = width;
 		this.height = height;
 		this.protectedProvider = protectedProvider;
 		final int tiles = width * height;
-		this.heightGrid = new byte[width][height];
+		this.heights = new byte[tiles];
 		this.landscapeGrid = new byte[tiles];
 		this.resourceAmount = new byte[tiles];
 		this.resourceType = new byte[tiles];
@@ -89,13 +97,23 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 		this.flattenedResetter = new FlattenedResetter(this);
 		setBackgroundListener(null);
+		setConstructionGridChangedListener(null);
 
 		protectedProvider.setProtectedChangedListener(this);
 	}
 
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		heightGrid = SerializationUtils.toColumns(heights, width, height);
+		oos.defaultWriteObject();
+		heightGrid = null;
+	}
+
 	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
+		heights = SerializationUtils.toRowMajor(heightGrid);
+		heightGrid = null;
 		setBackgroundListener(null);
+		setConstructionGridChangedListener(null);
 
 		initDebugColors();
 	}
@@ -109,11 +127,14 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 	}
 
 	public final byte getHeightAt(int x, int y) {
-		return heightGrid[x][y];
+		return heights[x + y * width];
 	}
 
-	public byte[][] getHeightArray() {
-		return heightGrid;
+	/**
+	 * @return the heights of all positions stored row by row. The height of position (x, y) is at index {@code x + y * width}.
+	 */
+	public byte[] getHeightArray() {
+		return heights;
 	}
 
 	public final ELandscapeType getLandscapeTypeAt(int x, int y) {
@@ -205,6 +226,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		updateBlockedPartition(x, y, landscapeType.blockedType());
 
 		backgroundListener.backgroundLineChangedAt(x, y, 1);
+		constructionGridChangedListener.constructionGridChangedAt(x, y);
 	}
 
 
@@ -275,14 +297,15 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 	}
 
 	public final void setHeightAt(short x, short y, byte height) {
-		this.heightGrid[x][y] = height;
+		this.heights[x + y * width] = height;
 		backgroundListener.backgroundLineChangedAt(x, y, 1);
+		constructionGridChangedListener.constructionGridChangedAt(x, y);
 	}
 
 	public void flattenAndChangeHeightTowards(int x, int y, byte targetHeight) {
 		final int index = x + y * width;
 
-		this.heightGrid[x][y] += Math.signum(targetHeight - this.heightGrid[x][y]);
+		this.heights[index] += Math.signum(targetHeight - this.heights[index]);
 		if(canChangeLandscapeTo(x, y, ELandscapeType.FLATTENED)) {
 			setLandscapeTypeAt(x, y, ELandscapeType.FLATTENED, true);
 		} else {
@@ -291,12 +314,17 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		this.temporaryFlatened[index] = Byte.MAX_VALUE; // cancel the flattening
 
 		backgroundListener.backgroundLineChangedAt(x, y, 1);
+		constructionGridChangedListener.constructionGridChangedAt(x, y);
 	}
 
 	public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 		this.backgroundListener = Objects.requireNonNullElseGet(backgroundListener, MainGrid.NullBackgroundListener::new);
 	}
 
+	public final void setConstructionGridChangedListener(IConstructionGridChangedListener listener) {
+		this.constructionGridChangedListener = Objects.requireNonNullElse(listener, IConstructionGridChangedListener.DEFAULT_IMPLEMENTATION);
+	}
+
 	public final void setResourceAt(short x, short y, EResourceType resourceType, byte amount) {
 		this.resourceType[x + y * width] = resourceType.ordinal;
 		this.resourceAmount[x + y * width] = (byte) Math.min(amount, Constants.MAX_RESOURCE_AMOUNT_PER_POSITION);
@@ -473,7 +501,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 			int y = currPos.calculateY(position.y);
 			int index =x + y * width;
 
-			if (heightGrid[x][y] != expectedHeight || (canChangeLandscapeTo(x, y, ELandscapeType.FLATTENED) && landscapeGrid[index] != ELandscapeType.FLATTENED.ordinal)) {
+			if (heights[index] != expectedHeight || (canChangeLandscapeTo(x, y, ELandscapeType.FLATTENED) && landscapeGrid[index] != ELandscapeType.FLATTENED.ordinal)) {
 				return false;
 			}
 		}
@@ -18,7 +18,9 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Objects;
 
+import jsettlers.common.map.IGraphicsMovablesListener;
 import jsettlers.common.map.shapes.HexGridArea;
 import jsettlers.common.movable.EMovableType;
 import jsettlers.common.movable.IGraphicsMovable;
@@ -46,6 +48,7 @@ public final class MovableGrid implements Serializable {
 	private final short width;
 
 	private final short height;
+	private transient IGraphicsMovablesListener movablesListener = IGraphicsMovablesListener.DEFAULT_IMPLEMENTATION;
 
 	public MovableGrid(short width, short height, IWalkableGround ground) {
 		this.width = width;
@@ -62,6 +65,17 @@ public final class MovableGrid implements Serializable {
 	private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
 		ois.defaultReadObject();
 		movableGrid = SerializationUtils.readSparseArray(ois, ILogicMovable.class);
+		movablesListener = IGraphicsMovablesListener.DEFAULT_IMPLEMENTATION;
+	}
+
+	/**
+	 * Sets the listener informed when movables enter or leave positions.
+	 *
+	 * @param listener
+	 *            The listener or {@code null} to remove the current one.
+	 */
+	public void setMovablesListener(IGraphicsMovablesListener listener) {
+		this.movablesListener = Objects.requireNonNullElse(listener, IGraphicsMovablesListener.DEFAULT_IMPLEMENTATION);
 	}
 
 	public final ILogicMovable getMovableAt(int x, int y) {
@@ -76,6 +90,7 @@ public final class MovableGrid implements Serializable {
 		int idx = position.x + position.y * width;
 		if (this.movableGrid[idx] == movable) {
 			this.movableGrid[idx] = null;
+			movablesListener.movablesChangedAt(position.x, position.y);
 		}
 	}
 
@@ -92,6 +107,7 @@ public final class MovableGrid implements Serializable {
 		final short y = position.y;
 
 		this.movableGrid[x + y * width] = movable;
+		movablesListener.movablesChangedAt(x, y);
 		if (movable != null && movable.getMovableType() == EMovableType.BEARER) {
 			ground.walkOn(x, y);
 		}
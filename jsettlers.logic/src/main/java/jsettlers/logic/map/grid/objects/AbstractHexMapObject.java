@@ -135,6 +135,16 @@ public abstract class AbstractHexMapObject implements IMapObject, Serializable {
 		return this.next != null && this.next.hasMapObjectTypes(mapObjectTypes);
 	}
 
+	/**
+	 * Returns the bits of all {@link EMapObjectType}s {@link #getObjectType()} can return from now on while this object stays on the grid. Objects
+	 * changing their type have to include the types they can change to.
+	 * 
+	 * @return mask of the possible types as created by {@link ObjectsGrid#getTypesMask(EMapObjectType...)}.
+	 */
+	public long getObjectTypesMask() {
+		return ObjectsGrid.getTypeMask(getObjectType());
+	}
+
 	public AbstractHexMapObject getMapObject(EMapObjectType type) {
 		if (this.getObjectType() == type) {
 			return this;
@@ -18,8 +18,10 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Objects;
 import java.util.Set;
 
+import jsettlers.common.map.IGraphicsMapObjectsListener;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.HexGridArea;
 import jsettlers.common.mapobject.EMapObjectType;
@@ -35,6 +37,10 @@ import jsettlers.logic.movable.interfaces.IInformable;
 
 /**
  * This grid stores the objects located at each position.
+ * <p>
+ * Additionally to the objects, a bit mask of the {@link EMapObjectType}s found at each position is stored. The mask may contain more types than
+ * actually present (e.g. types a growing object will reach later on), but never misses a type of an object on the position. Therefore lookups for
+ * types not present at a position can be answered without walking the list of objects.
  * 
  * @author Andreas Eberle
  * 
@@ -42,19 +48,62 @@ import jsettlers.logic.movable.interfaces.IInformable;
 public final class ObjectsGrid implements Serializable {
 	private static final long serialVersionUID = 2919416226544282748L;
 
+	private static final boolean VALIDATE_TYPES_MASKS = false;
+
+	static {
+		if (EMapObjectType.VALUES.length > Long.SIZE) {
+			throw new IllegalStateException("EMapObjectType has more values than fit into the types mask.");
+		}
+	}
+
 	private final short width;
 	private final short height;
 
 	private transient AbstractHexMapObject[] objectsGrid;
+	private transient long[] typesMasks;
 	private transient Building[] buildingsGrid;
+	private transient IGraphicsMapObjectsListener mapObjectsListener = IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION;
 
 	public ObjectsGrid(short width, short height) {
 		this.width = width;
 		this.height = height;
 		this.objectsGrid = new AbstractHexMapObject[width * height];
+		this.typesMasks = new long[width * height];
 		this.buildingsGrid = new Building[width * height];
 	}
 
+	/**
+	 * Sets the listener informed whenever objects are added to or removed from a position.
+	 *
+	 * @param listener
+	 *            The listener or {@code null} to remove the current one.
+	 */
+	public void setMapObjectsListener(IGraphicsMapObjectsListener listener) {
+		this.mapObjectsListener = Objects.requireNonNullElse(listener, IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION);
+	}
+
+	/**
+	 * @param mapObjectType
+	 *            type to get the mask bit for.
+	 * @return the bit used for the given type in the types masks.
+	 */
+	public static long getTypeMask(EMapObjectType mapObjectType) {
+		return 1L << mapObjectType.ordinal();
+	}
+
+	/**
+	 * @param mapObjectTypes
+	 *            types to get the mask for.
+	 * @return the mask containing the bits of all given types.
+	 */
+	public static long getTypesMask(EMapObjectType... mapObjectTypes) {
+		long mask = 0;
+		for (EMapObjectType mapObjectType : mapObjectTypes) {
+			mask |= getTypeMask(mapObjectType);
+		}
+		return mask;
+	}
+
 	private final void writeObject(ObjectOutputStream oos) throws IOException {
 		oos.defaultWriteObject();
 
@@ -83,15 +132,18 @@ public final class ObjectsGrid implements Serializable {
 	private final void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
 		ois.defaultReadObject();
 
+		mapObjectsListener = IGraphicsMapObjectsListener.DEFAULT_IMPLEMENTATION;
 		buildingsGrid = SerializationUtils.readSparseArray(ois, Building.class);
 
 		int length = ois.readInt();
 		objectsGrid = new AbstractHexMapObject[length];
+		typesMasks = new long[length];
 
 		int index = ois.readInt();
 		while (index >= 0) {
 			AbstractHexMapObject currObject = (AbstractHexMapObject) ois.readObject();
 			objectsGrid[index] = currObject;
+			typesMasks[index] = calculateTypesMask(currObject);
 
 			while (currObject != null) {
 				AbstractHexMapObject newObject = (AbstractHexMapObject) ois.readObject();
@@ -112,8 +164,12 @@ public final class ObjectsGrid implements Serializable {
 	}
 
 	public final AbstractHexMapObject getMapObjectAt(int x, int y, EMapObjectType mapObjectType) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
+		if (!mayContain(idx, getTypeMask(mapObjectType))) {
+			return null;
+		}
 
+		AbstractHexMapObject mapObjectHead = objectsGrid[idx];
 		return mapObjectHead != null ? mapObjectHead.getMapObject(mapObjectType) : null;
 	}
 
@@ -129,6 +185,8 @@ public final class ObjectsGrid implements Serializable {
 		if (mapObjectHead != null) {
 			mapObjectHead.removeMapObjectTypes(mapObjectTypes);
 		}
+		typesMasks[idx] = calculateTypesMask(mapObjectHead);
+		mapObjectsListener.mapObjectsChangedAt(x, y);
 	}
 
 	public final boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject) {
@@ -143,6 +201,10 @@ public final class ObjectsGrid implements Serializable {
 				removed = mapObjectHead.removeMapObject(mapObject);
 			}
 
+			if (removed) {
+				typesMasks[idx] = calculateTypesMask(objectsGrid[idx]);
+				mapObjectsListener.mapObjectsChangedAt(x, y);
+			}
 			return removed;
 		} else
 			return false;
@@ -158,39 +220,93 @@ public final class ObjectsGrid implements Serializable {
 		} else {
 			mapObjectHead.addMapObject(mapObject);
 		}
+		typesMasks[idx] |= mapObject.getObjectTypesMask();
+
+		if (VALIDATE_TYPES_MASKS) {
+			validateTypesMask(idx);
+		}
+		mapObjectsListener.mapObjectsChangedAt(x, y);
 	}
 
 	public final boolean hasCuttableObject(int x, int y, EMapObjectType mapObjectType) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
+		if (!mayContain(idx, getTypeMask(mapObjectType))) {
+			return false;
+		}
 
+		AbstractHexMapObject mapObjectHead = objectsGrid[idx];
 		return mapObjectHead != null && mapObjectHead.hasCuttableObject(mapObjectType);
 	}
 
 	public final boolean hasMapObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
+		if (!mayContain(idx, getTypesMask(mapObjectTypes))) {
+			return false;
+		}
 
+		AbstractHexMapObject mapObjectHead = objectsGrid[idx];
 		return mapObjectHead != null && mapObjectHead.hasMapObjectTypes(mapObjectTypes);
 	}
 
-	public final boolean hasNeighborObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
-		EDirection[] directions = EDirection.VALUES;
+	/**
+	 * Checks if an object of one of the types in the given mask may be located at the given position. If this method returns false, there is
+	 * definitely no such object. If it returns true, there might be one.
+	 * 
+	 * @param x
+	 *            x coordinate of the position.
+	 * @param y
+	 *            y coordinate of the position.
+	 * @param typesMask
+	 *            mask of the types as created by {@link #getTypesMask(EMapObjectType...)}.
+	 * @return false if none of the types is at the position.
+	 */
+	public final boolean mayContainMapObjectTypes(int x, int y, long typesMask) {
+		return mayContain(x + y * width, typesMask);
+	}
+
+	private boolean mayContain(int idx, long typesMask) {
+		boolean mayContain = (typesMasks[idx] & typesMask) != 0;
 
-		for (EDirection currDir : directions) {
-			ShortPoint2D currPos = currDir.getNextHexPoint(x, y);
-			if (hasMapObjectType(currPos.x, currPos.y, mapObjectTypes)) {
-				return true;
+		if (VALIDATE_TYPES_MASKS && !mayContain) {
+			validateTypesMask(idx);
+		}
+		return mayContain;
+	}
+
+	private static long calculateTypesMask(AbstractHexMapObject mapObjectHead) {
+		long mask = 0;
+		for (AbstractHexMapObject curr = mapObjectHead; curr != null; curr = curr.getNextObject()) {
+			mask |= curr.getObjectTypesMask();
+		}
+		return mask;
+	}
+
+	private void validateTypesMask(int idx) {
+		for (AbstractHexMapObject curr = objectsGrid[idx]; curr != null; curr = curr.getNextObject()) {
+			if ((typesMasks[idx] & getTypeMask(curr.getObjectType())) == 0) {
+				System.err.println("ObjectsGrid: types mask at (" + (idx % width) + "|" + (idx / width) + ") misses the type " + curr.getObjectType());
 			}
 		}
-		return false;
+	}
+
+	public final boolean hasNeighborObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
+		return getNeighborObjectTypeDirection(x, y, mapObjectTypes) != null;
 	}
 
 	public final ShortPoint2D getNeighboorObjectTypePoint(int x, int y, EMapObjectType... mapObjectTypes) {
-		EDirection[] directions = EDirection.VALUES;
+		EDirection direction = getNeighborObjectTypeDirection(x, y, mapObjectTypes);
+		return direction != null ? direction.getNextHexPoint(x, y) : null;
+	}
+
+	private EDirection getNeighborObjectTypeDirection(int x, int y, EMapObjectType... mapObjectTypes) {
+		long typesMask = getTypesMask(mapObjectTypes);
+
+		for (EDirection currDir : EDirection.VALUES) {
+			int idx = currDir.getNextTileX(x) + currDir.getNextTileY(y) * width;
+			AbstractHexMapObject mapObjectHead = objectsGrid[idx];
 
-		for (EDirection currDir : directions) {
-			ShortPoint2D currPos = currDir.getNextHexPoint(x, y);
-			if (hasMapObjectType(currPos.x, currPos.y, mapObjectTypes)) {
-				return currPos;
+			if (mayContain(idx, typesMask) && mapObjectHead != null && mapObjectHead.hasMapObjectTypes(mapObjectTypes)) {
+				return currDir;
 			}
 		}
 		return null;
@@ -15,6 +15,8 @@
 package jsettlers.logic.map.grid.partition;
 
 import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import jsettlers.common.player.IPlayer;
 import jsettlers.common.position.ShortPoint2D;
@@ -41,6 +43,16 @@ public final class Partition extends PartitionManager implements Serializable {
 	private int xSum    = 0;
 	private int ySum    = 0;
 
+	/**
+	 * The partition this partition has been merged into or null if it hasn't been merged.
+	 */
+	private transient Partition mergedInto = null;
+	/**
+	 * The settlers standing in this partition. They are counted in the profession statistics, if they belong to the player of this partition. A
+	 * linked set is used to keep the iteration order deterministic.
+	 */
+	private transient Set<IProfessionCounted> countedSettlers = new LinkedHashSet<>();
+
 	public Partition(PartitionsGrid grid, short partitionId, IPlayer player, IOffersCountListener countListener) {
 		super(player, countListener);
 		this.partitionId = partitionId;
@@ -74,6 +86,48 @@ public final class Partition extends PartitionManager implements Serializable {
 		counter = 0;
 		xSum = 0;
 		ySum = 0;
+
+		getPartitionSettings().getProfessionSettings().moveCountsTo(newPartition.getPartitionSettings().getProfessionSettings());
+		newPartition.countedSettlers.addAll(countedSettlers);
+		countedSettlers.clear();
+		mergedInto = newPartition;
+	}
+
+	void addCountedSettler(IProfessionCounted settler) {
+		countedSettlers.add(settler);
+	}
+
+	void removeCountedSettler(IProfessionCounted settler) {
+		countedSettlers.remove(settler);
+	}
+
+	/**
+	 * Updates all settlers registered in this partition. Settlers whose position now belongs to another partition move their count there.
+	 */
+	void updateCountedSettlers() {
+		for (IProfessionCounted settler : countedSettlers.toArray(new IProfessionCounted[0])) {
+			settler.updateProfessionCount();
+		}
+	}
+
+	/**
+	 * Resets the profession statistics of this partition and forgets all registered settlers.
+	 */
+	void resetProfessionCount() {
+		getPartitionSettings().getProfessionSettings().resetCount();
+		countedSettlers = new LinkedHashSet<>();
+	}
+
+	/**
+	 * @return The partition that currently holds the data of this partition. This is this partition itself, if it hasn't been merged into another
+	 *         one.
+	 */
+	Partition getMergedPartition() {
+		Partition partition = this;
+		while (partition.mergedInto != null) {
+			partition = partition.mergedInto;
+		}
+		return partition;
 	}
 
 	public void removePositionTo(final int x, final int y, final Partition newPartitionObject) {
@@ -14,13 +14,18 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition;
 
-import jsettlers.algorithms.traversing.borders.BorderTraversingAlgorithm;
+import jsettlers.algorithms.interfaces.IContainingProvider;
+import jsettlers.algorithms.traversing.borders.BorderWalker;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.mutables.MutableInt;
 import jsettlers.logic.map.grid.partition.PartitionsListingBorderVisitor.BorderPartitionInfo;
 
 /**
  * This class implements an algorithm used by the {@link PartitionsGrid} to check if two positions of a partition are divided.
+ * <p>
+ * The borders starting at both positions are walked alternately. The test ends as soon as one walker finds the position of the other one (the
+ * partition is not divided) or is back at its start (the partition is divided and that walker's part is the smaller one). Therefore the costs only
+ * depend on the smaller part and not on the size of the whole partition.
  * 
  * @author Andreas Eberle
  * 
@@ -41,42 +46,52 @@ final class PartitionsDividedTester {
 	 * @param width
 	 * @param partition1
 	 * @param partition1Size
+	 *            Will contain the border length of the first part or a lower bound of it if the walk along that border could be stopped early.
 	 * @param partition2
 	 * @param partition2Size
-	 * @return true if both positions are connected by the given partition.<br>
-	 *         false if the positions are not connected.
+	 *            Will contain the border length of the second part or a lower bound of it if the walk along that border could be stopped early.
+	 * @return true if the positions are not connected.<br>
+	 *         false if both positions are connected by the given partition.
 	 */
 	public static boolean isPartitionDivided(Partition[] partitionObjects, short[] partitions, short width, BorderPartitionInfo partition1,
 			MutableInt partition1Size, BorderPartitionInfo partition2, MutableInt partition2Size) {
 
 		assert partition1.partitionId == partition2.partitionId;
 
-		return posNotOnBorder(partitionObjects, partitions, width, partition1.positionOfPartition,
-				partition1.insideNeighborPosition, partition2.positionOfPartition, partition1.partitionId, partition1Size)
-				&& posNotOnBorder(partitionObjects, partitions, width, partition2.positionOfPartition,
-						partition2.insideNeighborPosition, partition1.positionOfPartition, partition1.partitionId, partition2Size);
-	}
+		final short partitionId = partition1.partitionId;
+		final ShortPoint2D position1 = partition1.positionOfPartition;
+		final ShortPoint2D position2 = partition2.positionOfPartition;
 
-	/**
-	 * NOTE: The call to this method is different if the given positions are swapped!
-	 *
-	 * @param partitionObjects
-	 * @param partitions
-	 * @param width
-	 * @param insideStartPosition
-	 * @param checkPosition
-	 * @param partitionSize
-	 * @return
-	 */
-	private static boolean posNotOnBorder(final Partition[] partitionObjects, final short[] partitions, final short width,
-			final ShortPoint2D insideStartPosition, final ShortPoint2D outsideStartPosition, final ShortPoint2D checkPosition,
-			final short partitionId, MutableInt partitionSize) {
+		if (position1.equals(position2)) {
+			return false;
+		}
+
+		IContainingProvider containingProvider = (x, y) -> partitionObjects[partitions[x + y * width]].partitionId == partitionId;
+		BorderWalker walker1 = new BorderWalker(containingProvider, position1, partition1.insideNeighborPosition);
+		BorderWalker walker2 = new BorderWalker(containingProvider, position2, partition2.insideNeighborPosition);
 
-		final short checkPositionX = checkPosition.x;
-		final short checkPositionY = checkPosition.y;
+		while (true) {
+			if (walker1.step()) { // the first part has been walked around completely without finding the second position
+				boolean secondClosed = walker2.step(); // one more step to detect parts with equal border lengths
+				if (!secondClosed && walker2.isInsideAt(position1.x, position1.y)) {
+					return false;
+				}
+				partition1Size.value = walker1.getTraversedPositions();
+				partition2Size.value = secondClosed ? walker2.getTraversedPositions() : walker2.getTraversedPositions() + 1;
+				return true;
+			}
+			if (walker1.isInsideAt(position2.x, position2.y)) {
+				return false;
+			}
 
-		return BorderTraversingAlgorithm.traverseBorder(
-				(x, y) -> partitionObjects[partitions[x + y * width]].partitionId == partitionId, insideStartPosition, outsideStartPosition,
-				(insideX, insideY, outsideX, outsideY) -> checkPositionX != insideX || checkPositionY != insideY, false, partitionSize);
+			if (walker2.step()) { // the second part has been walked around completely without finding the first position
+				partition1Size.value = walker1.getTraversedPositions() + 1;
+				partition2Size.value = walker2.getTraversedPositions();
+				return true;
+			}
+			if (walker2.isInsideAt(position1.x, position1.y)) {
+				return false;
+			}
+		}
 	}
-}
\ No newline at end of file
+}
@@ -15,26 +15,33 @@
 package jsettlers.logic.map.grid.partition;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import jsettlers.algorithms.construction.IConstructionGridChangedListener;
 import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.algorithms.partitions.IBlockingProvider;
 import jsettlers.algorithms.partitions.PartitionCalculatorAlgorithm;
 import jsettlers.algorithms.traversing.area.AreaTraversingAlgorithm;
 import jsettlers.algorithms.traversing.area.IAreaVisitor;
 import jsettlers.algorithms.traversing.borders.BorderTraversingAlgorithm;
+import jsettlers.common.CommonConstants;
 import jsettlers.common.map.partition.IPartitionData;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.IMapArea;
 import jsettlers.common.map.shapes.MapCircle;
 import jsettlers.common.map.shapes.MapShapeFilter;
 import jsettlers.common.movable.EDirection;
+import jsettlers.common.movable.EMovableType;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.SRectangle;
 import jsettlers.common.position.ShortPoint2D;
@@ -45,6 +52,7 @@ import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSet
 import jsettlers.logic.map.grid.partition.PartitionsListingBorderVisitor.BorderPartitionInfo;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
 import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSettings;
+import jsettlers.logic.map.grid.partition.manager.settings.ProfessionSettings;
 import jsettlers.logic.movable.MovableManager;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.player.Player;
@@ -83,6 +91,11 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 	Partition[] partitionObjects = new Partition[NUMBER_OF_START_PARTITION_OBJECTS];
 
 	private transient IPlayerChangedListener playerChangedListener = IPlayerChangedListener.DEFAULT_IMPLEMENTATION;
+	private transient IConstructionGridChangedListener constructionGridChangedListener = IConstructionGridChangedListener.DEFAULT_IMPLEMENTATION;
+	/**
+	 * Partitions that lost positions since their counted settlers have been updated the last time.
+	 */
+	private transient Set<Partition> partitionsWithRemovedPositions = new LinkedHashSet<>();
 
 	public PartitionsGrid(short width, short height, PlayerSetting[] playerSettings, IBlockingProvider blockingProvider) {
 		this.width = width;
@@ -137,6 +150,11 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 		oos.defaultWriteObject();
 	}
 
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		partitionsWithRemovedPositions = new LinkedHashSet<>();
+	}
+
 	public boolean isDefaultPartition(short partitionId) {
 		return partitionId == NO_PLAYER_PARTITION_ID;
 	}
@@ -225,6 +243,7 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 				influencingArea.getBorders(), (int) influencingArea.getRadius());
 
 		occupyAreaOfTower(tower);
+		updateCountedSettlersOfChangedPartitions();
 	}
 
 	/**
@@ -243,6 +262,7 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 		// reduce the tower counter
 		changeTowerCounter(tower.playerId, tower.area.stream(), -1);
 		checkOtherTowersInArea(tower);
+		updateCountedSettlersOfChangedPartitions();
 	}
 
 	/**
@@ -267,6 +287,7 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 
 		PartitionOccupyingTower newTower = new PartitionOccupyingTower(newPlayerId, tower);
 		occupyAreaOfTower(newTower);
+		updateCountedSettlersOfChangedPartitions();
 		return newTower.area.stream();
 	}
 
@@ -300,6 +321,7 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 			}
 
 			checkMergesAndDividesOnPartitionsList(playerId, newPartition, borderVisitor.getPartitionsList());
+			updateCountedSettlersOfChangedPartitions();
 		}
 	}
 
@@ -533,6 +555,7 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 			System.err.println("ERROR: Merging blocked partition!!!");
 		}
 
+		boolean smallerPartitionHasPositions = smallerPartitionObject.getNumberOfElements() > 0;
 		smallerPartitionObject.mergeInto(biggerPartitionObject);
 		smallerPartitionObject.stopManager();
 
@@ -552,6 +575,11 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 			}
 		}
 
+		// the partition id of every position of the smaller partition changed
+		if (smallerPartitionHasPositions) {
+			constructionGridChangedListener.constructionGridChanged();
+		}
+
 		return biggerPartition;
 	}
 
@@ -623,6 +651,8 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 		synchronized (this) {
 			partitions[idx] = newPartition;
 		}
+		constructionGridChangedListener.constructionGridChangedAt(x, y);
+		partitionsWithRemovedPositions.add(oldPartitionObject);
 
 		return newPartitionObject.playerId;
 	}
@@ -664,6 +694,7 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 		if (getPartitionAt(x, y) != partitionObjects[newPartition]) {
 			byte playerId = changePartitionUncheckedAt(x, y, newPartition);
 			notifyPlayerChangedListener(x, y, playerId);
+			updateCountedSettlersOfChangedPartitions();
 		}
 	}
 
@@ -681,6 +712,16 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 		}
 	}
 
+	/**
+	 * Sets the given listener. The listener will then be informed of any positions that change their partition.
+	 *
+	 * @param listener
+	 *            The listener to be set or null if no listener should be set.
+	 */
+	public void setConstructionGridChangedListener(IConstructionGridChangedListener listener) {
+		this.constructionGridChangedListener = Objects.requireNonNullElse(listener, IConstructionGridChangedListener.DEFAULT_IMPLEMENTATION);
+	}
+
 	public byte getNumberOfPlayers() {
 		return (byte) players.length;
 	}
@@ -728,32 +769,137 @@ public final class PartitionsGrid implements Serializable, IScheduledTimerable {
 
 	@Override
 	public int timerEvent() {
-		updatePartitionProfessionStats();
+		if (CommonConstants.DEBUG_PROFESSION_COUNTS) {
+			validateProfessionCounts();
+		}
+
+		for (Partition partition : partitionObjects) {
+			if (partition == null) continue;
+
+			partition.convertWorkers();
+		}
 		return RESCHEDULE_DELAY;
 	}
 
-	public void updatePartitionProfessionStats() {
-		for(Partition partition : partitionObjects) {
-			if(partition == null) continue;
+	/**
+	 * Updates the profession counters of the partitions for the given movable. A movable is registered in the partition at its position and counted
+	 * there, if that partition belongs to the movable's player. Movables controlled by the player aren't registered at all.
+	 *
+	 * @param movable
+	 *            The movable that changed its position or has been created.
+	 * @param countedPartition
+	 *            The partition the movable is currently registered in or null if it is not registered yet.
+	 * @return The partition the movable is registered in after this call or null if it is not registered.
+	 */
+	public Partition updateProfessionCount(ILogicMovable movable, Partition countedPartition) {
+		ShortPoint2D position = movable.getPosition();
+		return updateProfessionCount(movable, movable.getMovableType(), movable.getPlayer().getPlayerId(), position.x, position.y, countedPartition);
+	}
 
-			partition.getPartitionSettings().getProfessionSettings().resetCount();
+	/**
+	 * Updates the profession counters of the partitions for a settler with the given properties.
+	 *
+	 * @see #updateProfessionCount(ILogicMovable, Partition)
+	 */
+	Partition updateProfessionCount(IProfessionCounted settler, EMovableType movableType, byte playerId, int x, int y, Partition countedPartition) {
+		Partition newPartition = movableType.isPlayerControllable() ? null : getPartitionAt(x, y);
+		Partition oldPartition = countedPartition != null ? countedPartition.getMergedPartition() : null;
+
+		if (oldPartition != newPartition) {
+			if (oldPartition != null) {
+				if (oldPartition.playerId == playerId) {
+					oldPartition.getPartitionSettings().getProfessionSettings().decrement(movableType);
+				}
+				oldPartition.removeCountedSettler(settler);
+			}
+			if (newPartition != null) {
+				if (newPartition.playerId == playerId) {
+					newPartition.getPartitionSettings().getProfessionSettings().increment(movableType);
+				}
+				newPartition.addCountedSettler(settler);
+			}
 		}
+		return newPartition;
+	}
 
-		for(ILogicMovable movable : MovableManager.getAllMovables()) {
-			if(movable.getMovableType().isPlayerControllable()) continue;
+	/**
+	 * Removes the given movable from the profession counters.
+	 *
+	 * @param movable
+	 *            The movable that died or is replaced by another movable.
+	 * @param countedPartition
+	 *            The partition the movable is currently registered in or null if it is not registered.
+	 */
+	public void removeFromProfessionCount(ILogicMovable movable, Partition countedPartition) {
+		if (countedPartition != null) {
+			Partition partition = countedPartition.getMergedPartition();
+			if (partition.playerId == movable.getPlayer().getPlayerId()) {
+				partition.getPartitionSettings().getProfessionSettings().decrement(movable.getMovableType());
+			}
+			partition.removeCountedSettler(movable);
+		}
+	}
 
-			ShortPoint2D position = movable.getPosition();
-			Partition partition = getPartitionAt(position.x, position.y);
+	private Partition getProfessionPartitionOf(ILogicMovable movable) {
+		if (movable.getMovableType().isPlayerControllable()) {
+			return null;
+		}
 
-			if(partition.playerId != movable.getPlayer().getPlayerId()) continue;
+		ShortPoint2D position = movable.getPosition();
+		Partition partition = getPartitionAt(position.x, position.y);
+		return partition.playerId == movable.getPlayer().getPlayerId() ? partition : null;
+	}
+
+	/**
+	 * Recounts the professions of all partitions by iterating over all movables. This is needed after loading a savegame, as the counted partition
+	 * of a movable is not saved.
+	 */
+	public void recountProfessions() {
+		for (Partition partition : partitionObjects) {
+			if (partition == null) continue;
 
-			partition.getPartitionSettings().getProfessionSettings().increment(movable.getMovableType());
+			partition.resetProfessionCount();
 		}
 
-		for(Partition partition : partitionObjects) {
-			if(partition == null) continue;
+		for (ILogicMovable movable : MovableManager.getAllMovables()) {
+			movable.recountProfession();
+		}
+	}
 
-			partition.convertWorkers();
+	/**
+	 * Updates the counted settlers of all partitions that lost positions, so settlers standing on these positions are counted in their new
+	 * partition. This also covers settlers that are not visible on the grid, like workers inside buildings.
+	 */
+	private void updateCountedSettlersOfChangedPartitions() {
+		for (Partition partition : partitionsWithRemovedPositions) {
+			partition.updateCountedSettlers();
+		}
+		partitionsWithRemovedPositions.clear();
+	}
+
+	/**
+	 * Debug check comparing the maintained profession counters with a complete count over all movables.
+	 */
+	private void validateProfessionCounts() {
+		Map<Partition, ProfessionSettings> counted = new HashMap<>();
+
+		for (ILogicMovable movable : MovableManager.getAllMovables()) {
+			Partition partition = getProfessionPartitionOf(movable);
+			if (partition != null) {
+				counted.computeIfAbsent(partition, p -> new ProfessionSettings()).increment(movable.getMovableType());
+			}
+		}
+
+		for (Partition partition : partitionObjects) {
+			if (partition == null || partition.partitionId == NO_PLAYER_PARTITION_ID || partition.getMergedPartition() != partition) continue;
+
+			ProfessionSettings maintained = partition.getPartitionSettings().getProfessionSettings();
+			ProfessionSettings expected = counted.getOrDefault(partition, new ProfessionSettings());
+
+			if (maintained.getWorkerCount() != expected.getWorkerCount()) {
+				System.out.println("PartitionsGrid: profession counters of partition " + partition.partitionId + " are out of sync: " + maintained.getWorkerCount() +
+						" workers counted but " + expected.getWorkerCount() + " found.");
+			}
 		}
 	}
 
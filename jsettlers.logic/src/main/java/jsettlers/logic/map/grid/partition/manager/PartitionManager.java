@@ -245,6 +245,10 @@ public abstract class PartitionManager implements IScheduledTimerable, Serializa
 	}
 
 	private <T extends ILocatable> void removePositionTo(ShortPoint2D pos, LinkedList<T> fromList, LinkedList<T> toList, boolean newHasSamePlayer) {
+		if (fromList.isEmpty()) {
+			return;
+		}
+
 		Iterator<T> iter = fromList.iterator();
 		while (iter.hasNext()) {
 			T curr = iter.next();
@@ -485,7 +489,6 @@ public abstract class PartitionManager implements IScheduledTimerable, Serializa
 	public abstract boolean contains(ILogicMovable mov);
 
 	public void convertWorkers() {
-		SingleProfessionLimit bearerSettings = settings.getProfessionSettings().getSettings(EMovableType.BEARER);
 		SingleProfessionLimit bricklayerSettings = settings.getProfessionSettings().getSettings(EMovableType.BRICKLAYER);
 		float convertBricklayers = -bricklayerSettings.getRemainingAmount();
 
@@ -496,9 +499,7 @@ public abstract class PartitionManager implements IScheduledTimerable, Serializa
 				break;
 			}
 
-			bricklayer.convertToBearer();
-			bricklayerSettings.decrementRealAmount();
-			bearerSettings.incrementRealAmount();
+			bricklayer.convertToBearer(); // the profession counters are updated by the conversion of the movable
 		}
 
 		SingleProfessionLimit diggerSettings = settings.getProfessionSettings().getSettings(EMovableType.DIGGER);
@@ -511,9 +512,7 @@ public abstract class PartitionManager implements IScheduledTimerable, Serializa
 				break;
 			}
 
-			digger.convertToBearer();
-			diggerSettings.decrementRealAmount();
-			bearerSettings.incrementRealAmount();
+			digger.convertToBearer(); // the profession counters are updated by the conversion of the movable
 		}
 	}
 }
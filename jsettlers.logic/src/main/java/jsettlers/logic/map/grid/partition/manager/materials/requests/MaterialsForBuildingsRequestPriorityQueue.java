@@ -126,6 +126,10 @@ public final class MaterialsForBuildingsRequestPriorityQueue extends AbstractMat
 		for (int priorityIndex = 0; priorityIndex < queues.length; priorityIndex++) {
 			DoubleLinkedList<MaterialRequestObject>[] priorityQueue = queues[priorityIndex];
 			for (int queueIdx = 0; queueIdx < numberOfConfigurableBuildings; queueIdx++) {
+				if (priorityQueue[queueIdx].isEmpty()) {
+					continue; // this is called for every position of a divided partition, most of the queues are empty
+				}
+
 				Iterator<MaterialRequestObject> iterator = priorityQueue[queueIdx].iterator();
 				while (iterator.hasNext()) {
 					MaterialRequestObject curr = iterator.next();
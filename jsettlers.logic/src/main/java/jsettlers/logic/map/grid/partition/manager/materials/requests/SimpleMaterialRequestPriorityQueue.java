@@ -50,6 +50,10 @@ public final class SimpleMaterialRequestPriorityQueue extends AbstractMaterialRe
 		SimpleMaterialRequestPriorityQueue newQueue = (SimpleMaterialRequestPriorityQueue) newAbstractQueue;
 
 		for (int queueIdx = 0; queueIdx < queues.length; queueIdx++) {
+			if (queues[queueIdx].isEmpty()) {
+				continue;
+			}
+
 			Iterator<MaterialRequestObject> iter = queues[queueIdx].iterator();
 			while (iter.hasNext()) {
 				MaterialRequestObject curr = iter.next();
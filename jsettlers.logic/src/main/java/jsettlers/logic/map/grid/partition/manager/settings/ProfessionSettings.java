@@ -49,14 +49,15 @@ public class ProfessionSettings implements Serializable, IProfessionSettings {
 
 
 
+	/**
+	 * Removes the temporary amounts of a bearer conversion. The real amounts are updated by the conversion of the movable itself.
+	 */
 	public void applyBearerConversion(EMovableType newType) {
-		bearerSettings.decrementRealAmount();
 		bearerSettings.incrementTempAmount();
 
 		SingleProfessionLimit settings = getSettings(newType);
 		if(settings != null) {
 			settings.decrementTempAmount();
-			settings.incrementRealAmount();
 		}
 	}
 
@@ -106,6 +107,27 @@ public class ProfessionSettings implements Serializable, IProfessionSettings {
 		}
 	}
 
+	public void decrement(EMovableType movableType) {
+		if(!movableType.isPlayerControllable()) workerCount--;
+
+		SingleProfessionLimit settings = getSettings(movableType);
+		if(settings != null) {
+			settings.decrementRealAmount();
+		}
+	}
+
+	/**
+	 * Moves the counted professions of this settings to the given settings.
+	 */
+	public void moveCountsTo(ProfessionSettings other) {
+		other.workerCount += workerCount;
+		workerCount = 0;
+
+		bearerSettings.moveRealAmountTo(other.bearerSettings);
+		diggerSettings.moveRealAmountTo(other.diggerSettings);
+		bricklayerSettings.moveRealAmountTo(other.bricklayerSettings);
+	}
+
 	public int getWorkerCount() {
 		return workerCount;
 	}
@@ -48,6 +48,11 @@ public abstract class SingleProfessionLimit implements ISingleProfessionLimit, S
 		currentAmount = 0;
 	}
 
+	final void moveRealAmountTo(SingleProfessionLimit other) {
+		other.currentAmount += currentAmount;
+		currentAmount = 0;
+	}
+
 	@Override
 	public final int getCurrentCount() {
 		return currentAmount + tempAmount;
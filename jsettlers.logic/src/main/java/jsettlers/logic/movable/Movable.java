@@ -40,6 +40,7 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.selectable.ESelectionType;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.partition.Partition;
 import jsettlers.logic.movable.cargo.CargoShipMovable;
 import jsettlers.logic.movable.cargo.DonkeyMovable;
 import jsettlers.logic.movable.civilian.AlchemistMovable;
@@ -122,6 +123,7 @@ public abstract class Movable implements ILogicMovable, FoWTask {
 	private boolean leavePosition = false;
 
 	private transient Tick<? extends Movable> tick;
+	private transient Partition                professionPartition;
 
 	protected Movable(AbstractMovableGrid grid, EMovableType movableType, ShortPoint2D position, Player player, Movable replace) {
 		this.grid = grid;
@@ -502,6 +504,7 @@ public abstract class Movable implements ILogicMovable, FoWTask {
 				mov.grid.enterPosition(targetPosition, mov, false);
 				realMov.position = targetPosition;
 				realMov.isRightstep = !realMov.isRightstep;
+				realMov.updateProfessionCount();
 
 			}),
 			playAction(EMovableAction.WALKING, mov -> mov.getMovableType().getStepDurationMs())
@@ -677,6 +680,18 @@ public abstract class Movable implements ILogicMovable, FoWTask {
 		}
 
 		this.position = position;
+		updateProfessionCount();
+	}
+
+	@Override
+	public final void updateProfessionCount() {
+		professionPartition = grid.updateProfessionCount(this, professionPartition);
+	}
+
+	@Override
+	public final void recountProfession() {
+		professionPartition = null;
+		updateProfessionCount();
 	}
 
 	public final void setVisible(boolean visible) {
@@ -858,6 +873,8 @@ public abstract class Movable implements ILogicMovable, FoWTask {
 		grid.leavePosition(this.position, this);
 
 		MovableManager.remove(this);
+		grid.removeFromProfessionCount(this, professionPartition);
+		professionPartition = null;
 	}
 
 	protected void killMovable() {
@@ -1027,6 +1044,7 @@ public abstract class Movable implements ILogicMovable, FoWTask {
 
 		MovableManager.add(movable);
 		grid.enterPosition(position, movable, true);
+		movable.updateProfessionCount();
 
 		if(replaceMovable != null) replaceMovable.killMovable();
 		return movable;
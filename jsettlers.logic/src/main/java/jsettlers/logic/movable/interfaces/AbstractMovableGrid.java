@@ -19,6 +19,7 @@ import jsettlers.algorithms.path.Path;
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.common.material.ESearchType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.partition.Partition;
 import jsettlers.logic.player.Player;
 
 /**
@@ -59,6 +60,19 @@ public abstract class AbstractMovableGrid extends AbstractStrategyGrid {
 
 	public abstract void notifyAttackers(ShortPoint2D position, IAttackableMovable movable, boolean informFullArea);
 
+	/**
+	 * Updates the profession counters of the partitions for the given movable.
+	 *
+	 * @param movable
+	 *            The movable that changed its position or has been created.
+	 * @param countedPartition
+	 *            The partition the movable is currently counted in or null if it is not counted yet.
+	 * @return The partition the movable is counted in after this call or null if it is not counted.
+	 */
+	public abstract Partition updateProfessionCount(ILogicMovable movable, Partition countedPartition);
+
+	public abstract void removeFromProfessionCount(ILogicMovable movable, Partition countedPartition);
+
 	public abstract Path calculatePathTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
 	public abstract Path calculatePathTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos, ShortPoint2D startPos);
 
@@ -24,10 +24,12 @@ import jsettlers.common.movable.IGraphicsMovable;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.input.IGuiMovable;
+import jsettlers.logic.map.grid.partition.IProfessionCounted;
 import jsettlers.logic.player.Player;
 import jsettlers.logic.timer.IScheduledTimerable;
 
-public interface ILogicMovable extends IScheduledTimerable, IPathCalculatable, IDebugable, Serializable, IGuiMovable, ILocatable, IGraphicsMovable, MovableFoWTask {
+public interface ILogicMovable extends IScheduledTimerable, IPathCalculatable, IDebugable, Serializable, IGuiMovable, ILocatable, IGraphicsMovable, MovableFoWTask,
+		IProfessionCounted {
 	void push(ILogicMovable pushingMovable);
 
 	ShortPoint2D getPosition();
@@ -41,6 +43,11 @@ public interface ILogicMovable extends IScheduledTimerable, IPathCalculatable, I
 
 	void setPosition(ShortPoint2D to);
 
+	/**
+	 * Counts this movable in the profession statistics again, ignoring the partition it has been counted in before.
+	 */
+	void recountProfession();
+
 
 	/**
 	 * Lets this movable stop or start its work.
@@ -19,6 +19,7 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.objects.IMapObjectsManagerGrid;
 import jsettlers.logic.map.grid.objects.MapObjectsManager;
+import jsettlers.logic.map.grid.objects.ObjectsGrid;
 
 
 /**
@@ -37,6 +38,8 @@ public final class HiveObject extends ProgressingSoundableObject {
 	private static final int[] GROWTH_DURATION_BOUNDS = {110, 180};
 	//private static final int[] BEE_ANIMATION_BOUNDS = {0, 5};
 
+	private static final long HIVE_TYPES_MASK = ObjectsGrid.getTypesMask(EMapObjectType.HIVE_EMPTY, EMapObjectType.HIVE_GROWING, EMapObjectType.HIVE_HARVESTABLE);
+
 	private EMapObjectType state;
 
 	//private int beeAnimation;
@@ -97,6 +100,11 @@ public final class HiveObject extends ProgressingSoundableObject {
 		return state;
 	}
 
+	@Override
+	public long getObjectTypesMask() {
+		return HIVE_TYPES_MASK;
+	}
+
 	private int getRandomEmptyDuration() {
 		return MatchConstants.random().nextInt(EMPTY_DURATION_BOUNDS[0], EMPTY_DURATION_BOUNDS[1]);
 	}
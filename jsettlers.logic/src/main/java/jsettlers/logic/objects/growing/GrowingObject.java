@@ -16,6 +16,7 @@ package jsettlers.logic.objects.growing;
 
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.objects.ObjectsGrid;
 import jsettlers.logic.objects.ProgressingObject;
 
 /**
@@ -69,6 +70,11 @@ public abstract class GrowingObject extends ProgressingObject {
 		return this.state;
 	}
 
+	@Override
+	public long getObjectTypesMask() {
+		return ObjectsGrid.getTypesMask(state, getAdultState(), getDeadState());
+	}
+
 	@Override
 	protected void changeState() {
 		if (state == getAdultState()) {
@@ -211,7 +211,7 @@ public class JSettlersGame {
 				mainGrid.startThreads();
 
 				waitForStartingGameListener();
-				startingGameListener.waitForPreloading();
+				startingGameListener.waitForPreloading((state, progress) -> updateProgressListener(state, 0.7f + 0.28f * progress));
 
 				updateProgressListener(EProgressState.WAITING_FOR_OTHER_PLAYERS, 0.98f);
 
@@ -17,6 +17,7 @@ package jsettlers.main.replay;
 import jsettlers.common.menu.EGameError;
 import jsettlers.common.menu.EProgressState;
 import jsettlers.common.menu.IMapInterfaceConnector;
+import jsettlers.common.menu.IPreloadProgressListener;
 import jsettlers.common.menu.IStartedGame;
 import jsettlers.common.menu.IStartingGameListener;
 
@@ -65,6 +66,6 @@ class DummyStartingGameListener implements IStartingGameListener {
 	}
 
 	@Override
-	public void waitForPreloading() {
+	public void waitForPreloading(IPreloadProgressListener progressListener) {
 	}
 }
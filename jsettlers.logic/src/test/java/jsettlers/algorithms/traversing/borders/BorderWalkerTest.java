@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.traversing.borders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import jsettlers.algorithms.interfaces.IContainingProvider;
+import jsettlers.common.map.shapes.MapCircle;
+import jsettlers.common.movable.EDirection;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.mutables.MutableInt;
+
+import org.junit.Test;
+
+public class BorderWalkerTest {
+
+	@Test
+	public void testWalkerTraversesLikeBorderTraversingAlgorithm() {
+		final MapCircle outer = new MapCircle(100, 100, 50);
+		final MapCircle hole = new MapCircle(120, 100, 20);
+		final IContainingProvider containingProvider = (x, y) -> outer.contains(x, y) && !hole.contains(x, y);
+
+		ShortPoint2D outerStart = new ShortPoint2D(50, 100);
+		ShortPoint2D holeStart = new ShortPoint2D(99, 100);
+
+		assertSameTraversal(containingProvider, outerStart);
+		assertSameTraversal(containingProvider, holeStart);
+	}
+
+	@Test
+	public void testWalkerFindsPositionOnSameBorderOnly() {
+		final MapCircle outer = new MapCircle(100, 100, 50);
+		final MapCircle hole = new MapCircle(120, 100, 20);
+		final IContainingProvider containingProvider = (x, y) -> outer.contains(x, y) && !hole.contains(x, y);
+
+		ShortPoint2D outerStart = new ShortPoint2D(50, 100);
+		ShortPoint2D holeStart = new ShortPoint2D(99, 100);
+
+		assertFalse(walksOver(containingProvider, outerStart, holeStart));
+		assertTrue(walksOver(containingProvider, outerStart, new ShortPoint2D(150, 100)));
+	}
+
+	private static void assertSameTraversal(IContainingProvider containingProvider, ShortPoint2D insideStart) {
+		ShortPoint2D outsideStart = findOutsideNeighbor(containingProvider, insideStart);
+
+		MutableInt traversedPositions = new MutableInt();
+		assertTrue(BorderTraversingAlgorithm.traverseBorder(containingProvider, insideStart, outsideStart, (insideX, insideY, outsideX, outsideY) -> true,
+				false, traversedPositions));
+
+		BorderWalker walker = new BorderWalker(containingProvider, insideStart, outsideStart);
+		while (!walker.step()) {
+			assertTrue(walker.getTraversedPositions() <= traversedPositions.value);
+		}
+		assertEquals(traversedPositions.value, walker.getTraversedPositions());
+	}
+
+	private static boolean walksOver(IContainingProvider containingProvider, ShortPoint2D insideStart, ShortPoint2D position) {
+		BorderWalker walker = new BorderWalker(containingProvider, insideStart, findOutsideNeighbor(containingProvider, insideStart));
+		while (!walker.step()) {
+			if (walker.isInsideAt(position.x, position.y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ShortPoint2D findOutsideNeighbor(IContainingProvider containingProvider, ShortPoint2D position) {
+		for (EDirection direction : EDirection.VALUES) {
+			ShortPoint2D neighbor = direction.getNextHexPoint(position);
+			if (!containingProvider.contains(neighbor.x, neighbor.y)) {
+				return neighbor;
+			}
+		}
+		throw new AssertionError("position is not on the border: " + position);
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.input.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import jsettlers.common.action.EMoveToType;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.network.client.task.packets.SyncTasksLogReader;
+import jsettlers.network.client.task.packets.SyncTasksLogWriter;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskLogOutputStream;
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * Tests the serialization of the selection of a {@link MovableGuiTask}.
+ */
+public class MovableGuiTaskTest {
+
+	@Test
+	public void testSelectionRoundTrip() throws IOException {
+		MovableGuiTask task = new MovableGuiTask(EGuiAction.STOP_WORKING, (byte) 3, createSelection());
+
+		assertEquals(task, deserialize(serialize(task, false)));
+	}
+
+	@Test
+	public void testCompactLogSelectionRoundTrip() throws IOException {
+		List<Integer> selection = createSelection();
+		MovableGuiTask task = new MovableGuiTask(EGuiAction.STOP_WORKING, (byte) 3, selection);
+
+		byte[] data = serialize(task, true);
+
+		assertEquals(task, deserialize(data));
+		assertTrue(data.length < selection.size() * 2);
+	}
+
+	/**
+	 * The server forwards tasks unchanged, so clients of older versions must be able to read the tasks sent by this version.
+	 */
+	@Test
+	public void testNetworkEncodingIsReadableByLegacyClients() throws IOException {
+		List<Integer> selection = createSelection();
+		ShortPoint2D position = new ShortPoint2D(120, 87);
+		MoveToGuiTask task = new MoveToGuiTask((byte) 4, position, selection, EMoveToType.FORCED);
+
+		DataInputStream dis = new DataInputStream(new ByteArrayInputStream(serialize(task, false)));
+		assertEquals(EGuiAction.MOVE_TO.ordinal(), dis.readInt());
+		assertEquals(4, dis.readByte());
+		int numberOfElements = dis.readInt();
+		List<Integer> legacySelection = new ArrayList<>(numberOfElements);
+		for (int i = 0; i < numberOfElements; i++) {
+			legacySelection.add(dis.readInt());
+		}
+		assertEquals(selection, legacySelection);
+		assertEquals(position, SimpleGuiTask.deserializePosition(dis));
+		assertEquals(EMoveToType.FORCED.ordinal(), dis.readByte());
+		assertEquals(0, dis.available());
+	}
+
+	@Test
+	public void testReplayLogRoundTrip() throws IOException {
+		List<TaskPacket> tasks = new ArrayList<>();
+		tasks.add(new MoveToGuiTask((byte) 1, new ShortPoint2D(3, 4), createSelection(), EMoveToType.DEFAULT));
+		tasks.add(new MovableGuiTask(EGuiAction.STOP_WORKING, (byte) 2, Arrays.asList(9, 2, 400)));
+		SyncTasksPacket packet = new SyncTasksPacket(42, tasks);
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		SyncTasksLogWriter writer = new SyncTasksLogWriter(new DataOutputStream(buffer));
+		writer.write(packet);
+		writer.flush();
+
+		List<SyncTasksPacket> readPackets = new ArrayList<>();
+		SyncTasksLogReader.read(new ByteArrayInputStream(buffer.toByteArray()), readPackets::add);
+		assertEquals(Arrays.asList(packet), readPackets);
+	}
+
+	@Test
+	public void testReadsLegacySelection() throws IOException {
+		List<Integer> selection = Arrays.asList(12, 345678, -1, 7);
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(buffer);
+		dos.writeInt(EGuiAction.STOP_WORKING.ordinal());
+		dos.writeByte(2);
+		dos.writeInt(selection.size());
+		for (int id : selection) {
+			dos.writeInt(id);
+		}
+
+		assertEquals(new MovableGuiTask(EGuiAction.STOP_WORKING, (byte) 2, selection), deserialize(buffer.toByteArray()));
+	}
+
+	private static List<Integer> createSelection() {
+		List<Integer> selection = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			selection.add(5000 + 2 * i);
+		}
+		selection.add(17);
+		return selection;
+	}
+
+	private static byte[] serialize(MovableGuiTask task, boolean replayLog) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream dos = replayLog ? new TaskLogOutputStream(buffer) : new DataOutputStream(buffer);
+		task.serializeTask(dos);
+		dos.flush();
+		return buffer.toByteArray();
+	}
+
+	private static MovableGuiTask deserialize(byte[] data) throws IOException {
+		DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
+		MovableGuiTask task = new MovableGuiTask();
+		task.deserializeTask(dis);
+		assertEquals(0, dis.available());
+		return task;
+	}
+}
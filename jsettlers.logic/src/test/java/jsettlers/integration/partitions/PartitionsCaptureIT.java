@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.integration.partitions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.common.CommonConstants;
+import jsettlers.common.buildings.EBuildingType;
+import jsettlers.common.map.shapes.FreeMapArea;
+import jsettlers.common.map.shapes.MapCircle;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.map.grid.partition.PartitionsGrid;
+import jsettlers.logic.player.PlayerSetting;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures how long tower captures take when a big realm is cut into pieces. The grid has the size of the largest shipped map and is covered by
+ * the towers of one player. A second player then captures them in a random order, which divides the realm of the first player again and again.
+ */
+public class PartitionsCaptureIT {
+	private static final short SIZE = 768;
+	private static final int TOWER_DISTANCE = 50;
+	private static final int MARGIN = CommonConstants.TOWER_RADIUS + 10;
+	private static final int RUNS = 3;
+
+	@Test
+	public void captureAllTowers() {
+		for (int run = 0; run < RUNS; run++) {
+			PartitionsGrid grid = new PartitionsGrid(SIZE, SIZE, PlayerSetting.createDefaultSettings((byte) 0, (byte) 2), IBlockingProvider.DEFAULT_IMPLEMENTATION);
+
+			List<ShortPoint2D> towers = new ArrayList<>();
+			for (int y = MARGIN; y < SIZE - MARGIN; y += TOWER_DISTANCE) {
+				for (int x = MARGIN; x < SIZE - MARGIN; x += TOWER_DISTANCE) {
+					towers.add(new ShortPoint2D(x, y));
+				}
+			}
+
+			long start = System.nanoTime();
+			for (ShortPoint2D tower : towers) {
+				grid.addTowerAndOccupyArea((byte) 0, new MapCircle(tower, CommonConstants.TOWER_RADIUS), getGroundArea(tower));
+			}
+			long build = System.nanoTime() - start;
+
+			Collections.shuffle(towers, new Random(run));
+			long slowest = 0;
+			start = System.nanoTime();
+			for (ShortPoint2D tower : towers) {
+				long captureStart = System.nanoTime();
+				grid.changePlayerOfTower(tower, (byte) 1);
+				slowest = Math.max(slowest, System.nanoTime() - captureStart);
+			}
+			long capture = System.nanoTime() - start;
+
+			assertEquals(1, grid.getPlayerIdAt(SIZE / 2, SIZE / 2));
+			System.out.println(towers.size() + " towers on " + SIZE + "x" + SIZE + ": build " + build / 1000000 + "ms, capture all " + capture / 1000000
+					+ "ms, slowest capture " + slowest / 1000000 + "ms");
+		}
+	}
+
+	private static FreeMapArea getGroundArea(ShortPoint2D position) {
+		return new FreeMapArea(position, EBuildingType.TOWER.getVariant(ECivilisation.ROMAN).getProtectedTiles());
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import jsettlers.common.mapobject.EMapObjectType;
+
+public class ObjectsGridTest {
+	private final ObjectsGrid grid = new ObjectsGrid((short) 10, (short) 10);
+
+	@Test
+	public void testTypesMaskFollowsAddAndRemove() {
+		DecorationMapObject waves = new DecorationMapObject(EMapObjectType.WAVES);
+		DecorationMapObject fish = new DecorationMapObject(EMapObjectType.FISH_DECORATION);
+
+		grid.addMapObjectAt(3, 4, waves);
+		grid.addMapObjectAt(3, 4, fish);
+
+		assertTrue(grid.hasMapObjectType(3, 4, EMapObjectType.WAVES));
+		assertSame(fish, grid.getMapObjectAt(3, 4, EMapObjectType.FISH_DECORATION));
+		assertFalse(grid.mayContainMapObjectTypes(3, 4, ObjectsGrid.getTypesMask(EMapObjectType.STONE)));
+
+		assertTrue(grid.removeMapObject(3, 4, waves));
+		assertFalse(grid.mayContainMapObjectTypes(3, 4, ObjectsGrid.getTypeMask(EMapObjectType.WAVES)));
+		assertTrue(grid.hasMapObjectType(3, 4, EMapObjectType.FISH_DECORATION));
+
+		assertTrue(grid.removeMapObject(3, 4, fish));
+		assertFalse(grid.mayContainMapObjectTypes(3, 4, ObjectsGrid.getTypesMask(EMapObjectType.WAVES, EMapObjectType.FISH_DECORATION)));
+		assertNull(grid.getMapObjectAt(3, 4, EMapObjectType.FISH_DECORATION));
+	}
+
+	@Test
+	public void testTypesMaskFollowsRemoveTypes() {
+		grid.addMapObjectAt(1, 1, new DecorationMapObject(EMapObjectType.WAVES));
+		grid.addMapObjectAt(1, 1, new DecorationMapObject(EMapObjectType.FISH_DECORATION));
+		grid.addMapObjectAt(1, 1, new DecorationMapObject(EMapObjectType.WAVES));
+
+		grid.removeMapObjectTypes(1, 1, EnumSet.of(EMapObjectType.WAVES));
+
+		assertFalse(grid.hasMapObjectType(1, 1, EMapObjectType.WAVES));
+		assertTrue(grid.hasMapObjectType(1, 1, EMapObjectType.FISH_DECORATION));
+	}
+
+	@Test
+	public void testNeighborLookup() {
+		grid.addMapObjectAt(5, 6, new DecorationMapObject(EMapObjectType.FISH_DECORATION));
+
+		assertTrue(grid.hasNeighborObjectType(5, 5, EMapObjectType.FISH_DECORATION));
+		assertFalse(grid.hasNeighborObjectType(5, 5, EMapObjectType.WAVES));
+		assertEquals(5, grid.getNeighboorObjectTypePoint(5, 5, EMapObjectType.FISH_DECORATION).x);
+		assertEquals(6, grid.getNeighboorObjectTypePoint(5, 5, EMapObjectType.FISH_DECORATION).y);
+		assertFalse(grid.hasNeighborObjectType(2, 2, EMapObjectType.FISH_DECORATION));
+	}
+
+	@Test
+	public void testTypesMaskIsRestoredAfterDeserialization() throws IOException, ClassNotFoundException {
+		grid.addMapObjectAt(7, 2, new DecorationMapObject(EMapObjectType.STONE));
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			oos.writeObject(grid);
+		}
+		ObjectsGrid readGrid;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+			readGrid = (ObjectsGrid) ois.readObject();
+		}
+
+		assertTrue(readGrid.hasMapObjectType(7, 2, EMapObjectType.STONE));
+		assertFalse(readGrid.mayContainMapObjectTypes(7, 3, ObjectsGrid.getTypeMask(EMapObjectType.STONE)));
+	}
+}
@@ -14,12 +14,20 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition;
 
+import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
+import jsettlers.algorithms.construction.IConstructionGridChangedListener;
+import jsettlers.algorithms.construction.NewConstructionMarksAlgorithm;
 import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.common.buildings.BuildingVariant;
 import jsettlers.common.buildings.EBuildingType;
+import jsettlers.common.landscape.ELandscapeType;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.MapCircle;
+import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.material.EMaterialType;
+import jsettlers.common.movable.EMovableType;
 import jsettlers.common.player.ECivilisation;
+import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
@@ -27,6 +35,10 @@ import jsettlers.logic.map.grid.partition.manager.materials.offers.MaterialOffer
 import jsettlers.logic.player.PlayerSetting;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -114,6 +126,32 @@ public class PartitionsGridTest {
 		assertEquals(mergePartition, grid.getPartitionIdAt((short) 125, (short) 125));
 	}
 
+	@Test
+	public void testMergeUpdatesConstructionMarks() {
+		short partition1 = grid.createNewPartition((byte) 1);
+		short partition2 = grid.createNewPartition((byte) 1);
+		for (int y = 60; y < 140; y++) {
+			for (int x = 60; x < 140; x++) {
+				grid.changePartitionUncheckedAt(x, y, x < 100 ? partition1 : partition2);
+			}
+		}
+
+		ConstructionMarksMap map = new ConstructionMarksMap();
+		NewConstructionMarksAlgorithm algorithm = new NewConstructionMarksAlgorithm(map, (byte) 1);
+		BuildingVariant building = EBuildingType.LUMBERJACK.getVariant(ECivilisation.ROMAN);
+		MapRectangle area = new MapRectangle(50, 50, 100, 100);
+
+		algorithm.calculateConstructMarks(area, building);
+		boolean[] marksBeforeMerge = map.marks.clone();
+		map.assertMarksAreUpToDate(area, building);
+
+		grid.mergePartitions(partition1, partition2);
+		algorithm.calculateConstructMarks(area, building);
+		map.assertMarksAreUpToDate(area, building);
+		// building sites that span both partitions are marked now
+		assertFalse(Arrays.equals(marksBeforeMerge, map.marks));
+	}
+
 	@Test
 	public void testRemoveTower() {
 		addTower(0, 100, 100, 40);
@@ -204,6 +242,100 @@ public class PartitionsGridTest {
 		assertOfferAt(materialPos, EMaterialType.STONE, 2);
 	}
 
+	@Test
+	public void testDividePartitionMovesProfessionCounts() {
+		List<TestSettler> settlers = Arrays.asList(
+				new TestSettler(EMovableType.BEARER, 45, 100),
+				new TestSettler(EMovableType.DIGGER, 55, 105),
+				new TestSettler(EMovableType.BEARER, 150, 95));
+
+		addTower(0, 50, 100, 40);
+		addTower(0, 150, 100, 40);
+		addTower(0, 100, 100, 40);
+		addTower(1, 75, 55, 42);
+		addTower(1, 120, 145, 42);
+		assertEquals(3, getWorkerCount(50, 100));
+
+		removeTower(100, 100);
+
+		// the partition is divided
+		assertTrue(grid.getPartitionIdAt(50, 100) != grid.getPartitionIdAt(150, 100));
+		assertEquals(2, getWorkerCount(50, 100));
+		assertEquals(1, getWorkerCount(150, 100));
+		assertCountedInPartitionsOfPositions(settlers);
+	}
+
+	/**
+	 * The test settlers are never placed on a movable grid. This is the situation of a worker inside a building, which is invisible and doesn't
+	 * occupy its position.
+	 */
+	@Test
+	public void testDividePartitionMovesProfessionCountsOfWorkersInsideBuildings() {
+		addTower(0, 50, 100, 40);
+		addTower(0, 150, 100, 40);
+		addTower(0, 100, 100, 40);
+
+		TestSettler workerInBuilding = new TestSettler(EMovableType.BAKER, 140, 100);
+		TestSettler bearer = new TestSettler(EMovableType.BEARER, 60, 100);
+		removeTower(100, 100);
+		assertEquals(2, getWorkerCount(50, 100));
+
+		addTower(1, 100, 100, 40);
+
+		// the partition is divided
+		assertTrue(grid.getPartitionIdAt(50, 100) != grid.getPartitionIdAt(150, 100));
+		assertEquals(1, getWorkerCount(60, 100));
+		assertEquals(1, getWorkerCount(140, 100));
+		assertCountedInPartitionsOfPositions(Arrays.asList(workerInBuilding, bearer));
+	}
+
+	@Test
+	public void testOccupiedAreaCountsSettlersStandingThere() {
+		TestSettler settler = new TestSettler(EMovableType.BEARER, 50, 100);
+
+		addTower(0, 50, 100, 40);
+
+		assertEquals(1, getWorkerCount(50, 100));
+		assertCountedInPartitionsOfPositions(Arrays.asList(settler));
+
+		changePlayerOfTower(50, 100, 1);
+
+		assertEquals(0, getWorkerCount(50, 100));
+	}
+
+	private void assertCountedInPartitionsOfPositions(List<TestSettler> settlers) {
+		for (TestSettler settler : settlers) {
+			assertEquals(grid.getPartitionAt(settler.x, settler.y), settler.countedPartition.getMergedPartition());
+		}
+	}
+
+	private int getWorkerCount(int x, int y) {
+		return grid.getPartitionAt(x, y).getPartitionSettings().getProfessionSettings().getWorkerCount();
+	}
+
+	private class TestSettler implements IProfessionCounted {
+		final EMovableType movableType;
+		final int x;
+		final int y;
+		Partition countedPartition;
+
+		TestSettler(EMovableType movableType, int x, int y) {
+			this.movableType = movableType;
+			this.x = x;
+			this.y = y;
+			update();
+		}
+
+		void update() {
+			countedPartition = grid.updateProfessionCount(this, movableType, (byte) 0, x, y, countedPartition);
+		}
+
+		@Override
+		public void updateProfessionCount() {
+			update();
+		}
+	}
+
 	@Test
 	public void testTakeOverCloseTower() {
 		addTower(0, 50, 100, 40);
@@ -271,6 +403,76 @@ public class PartitionsGridTest {
 		return new MapCircle(new ShortPoint2D(x, y), radius);
 	}
 
+	/**
+	 * Construction marks of player 1 that only depend on the partitions of the grid.
+	 */
+	private class ConstructionMarksMap extends AbstractConstructionMarkableMap {
+		final boolean[] marks = new boolean[WIDTH * HEIGHT];
+
+		void assertMarksAreUpToDate(MapRectangle area, BuildingVariant building) {
+			area.stream().forEach((x, y) -> assertEquals(canConstructAt(x, y, building.getType(), (byte) 1), marks[x + y * WIDTH]));
+		}
+
+		@Override
+		public void setConstructMarking(int x, int y, boolean set, boolean binaryConstructionMarkValues, RelativePoint[] flattenPositions) {
+			marks[x + y * WIDTH] = set;
+		}
+
+		@Override
+		public short getWidth() {
+			return WIDTH;
+		}
+
+		@Override
+		public short getHeight() {
+			return HEIGHT;
+		}
+
+		@Override
+		public boolean canUsePositionForConstruction(int x, int y, Set<ELandscapeType> landscapeTypes, short partitionId) {
+			return isInBounds(x, y) && grid.getPartitionIdAt(x, y) == partitionId;
+		}
+
+		@Override
+		public short getPartitionIdAt(int x, int y) {
+			return grid.getPartitionIdAt(x, y);
+		}
+
+		@Override
+		public boolean canPlayerConstructOnPartition(byte playerId, short partitionId) {
+			return grid.ownsPlayerPartition(partitionId, playerId);
+		}
+
+		@Override
+		public boolean isInBounds(int x, int y) {
+			return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+		}
+
+		@Override
+		public boolean canConstructAt(int x, int y, EBuildingType type, byte playerId) {
+			short partitionId = getPartitionIdAt(x, y);
+			if (!canPlayerConstructOnPartition(playerId, partitionId)) {
+				return false;
+			}
+			for (RelativePoint curr : type.getVariant(ECivilisation.ROMAN).getBuildingArea()) {
+				if (!canUsePositionForConstruction(curr.calculateX(x), curr.calculateY(y), null, partitionId)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public byte calculateConstructionMarkValue(int mapX, int mapY, RelativePoint[] flattenPositions) {
+			return 0;
+		}
+
+		@Override
+		public void setGridChangedListener(IConstructionGridChangedListener listener) {
+			grid.setConstructionGridChangedListener(listener);
+		}
+	}
+
 	private void assertOfferAt(ShortPoint2D materialTestPos, EMaterialType material, int amount) {
 		MaterialOffer offer = grid.getPartitionAt(materialTestPos.x, materialTestPos.y).getMaterialOfferAt(materialTestPos, material,
 				EOfferPriority.NORMAL);
@@ -30,6 +30,7 @@ import android.widget.Toast;
 import jsettlers.common.menu.EGameError;
 import jsettlers.common.menu.EProgressState;
 import jsettlers.common.menu.IMapInterfaceConnector;
+import jsettlers.common.menu.IPreloadProgressListener;
 import jsettlers.common.menu.IStartedGame;
 import jsettlers.common.menu.IStartingGameListener;
 import jsettlers.graphics.localization.Labels;
@@ -113,7 +114,7 @@ public class LoadingFragment extends Fragment implements IStartingGameListener {
 	}
 
 	@Override
-	public void waitForPreloading() {
-		ImageProvider.getInstance().waitForPreloadingFinish();
+	public void waitForPreloading(IPreloadProgressListener progressListener) {
+		ImageProvider.getInstance().waitForPreloadingFinish(progressListener);
 	}
 }
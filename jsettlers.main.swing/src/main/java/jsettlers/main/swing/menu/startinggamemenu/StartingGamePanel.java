@@ -19,12 +19,14 @@ import java.awt.BorderLayout;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 
 import jsettlers.common.menu.EGameError;
 import jsettlers.common.menu.EProgressState;
 import jsettlers.common.menu.IMapInterfaceConnector;
+import jsettlers.common.menu.IPreloadProgressListener;
 import jsettlers.common.menu.IStartedGame;
 import jsettlers.common.menu.IStartingGame;
 import jsettlers.common.menu.IStartingGameListener;
@@ -41,6 +43,7 @@ public class StartingGamePanel extends BackgroundPanel implements IStartingGameL
 	private static final long serialVersionUID = -2242937805688362838L;
 
 	private final JLabel messageLabel = new JLabel("", SwingConstants.CENTER);
+	private final JProgressBar progressBar = new JProgressBar(0, 100);
 	private final JSettlersFrame settlersFrame;
 
 	public StartingGamePanel(JSettlersFrame settlersFrame) {
@@ -56,6 +59,7 @@ public class StartingGamePanel extends BackgroundPanel implements IStartingGameL
 		JPanel southPanel = new JPanel();
 		outerPanel.add(southPanel, BorderLayout.SOUTH);
 		southPanel.add(messageLabel);
+		southPanel.add(progressBar);
 		add(outerPanel);
 	}
 
@@ -74,7 +78,10 @@ public class StartingGamePanel extends BackgroundPanel implements IStartingGameL
 
 	@Override
 	public void startProgressChanged(EProgressState state, float progress) {
-		SwingUtilities.invokeLater(() -> messageLabel.setText(Labels.getProgress(state)));
+		SwingUtilities.invokeLater(() -> {
+			messageLabel.setText(Labels.getProgress(state));
+			progressBar.setValue((int) (progress * 100));
+		});
 	}
 
 	@Override
@@ -105,7 +112,7 @@ public class StartingGamePanel extends BackgroundPanel implements IStartingGameL
 	}
 
 	@Override
-	public void waitForPreloading() {
-		ImageProvider.getInstance().waitForPreloadingFinish();
+	public void waitForPreloading(IPreloadProgressListener progressListener) {
+		ImageProvider.getInstance().waitForPreloadingFinish(progressListener);
 	}
 }
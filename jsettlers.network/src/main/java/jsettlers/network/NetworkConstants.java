@@ -33,6 +33,35 @@ public final class NetworkConstants {
 	public static final boolean USE_DELAYED_SOCKETS = false;
 	public static final int RTT_LOGGING_THRESHOLD = 800;
 	public static final int JITTER_LOGGING_THRESHOLD = 200;
+	/**
+	 * If true, the client logs every scheduled and executed lockstep.
+	 */
+	public static final boolean LOG_LOCKSTEPS = false;
+	/**
+	 * Frames of synchronous tasks with at least this number of bytes are deflated in the compact encoding. Use {@link Integer#MAX_VALUE} to disable
+	 * the compression.
+	 */
+	public static final int FRAME_COMPRESSION_THRESHOLD = 512;
+
+	/**
+	 * Optional protocol features a client announces when identifying itself at the server. The server only uses a feature for players that
+	 * announced it, so clients and servers of different versions can still play together.
+	 */
+	public final static class Features {
+		private Features() {
+		}
+
+		/**
+		 * The client understands {@link ENetworkKey#SYNCHRONOUS_TASK_COMPACT} packets.
+		 */
+		public static final int COMPACT_SYNC_TASKS = 1;
+		/**
+		 * The client understands {@link ENetworkKey#SYNCHRONOUS_TASK_HISTORY} packets and can catch up with a running match.
+		 */
+		public static final int LOCKSTEP_HISTORY = 2;
+
+		public static final int SUPPORTED = COMPACT_SYNC_TASKS | LOCKSTEP_HISTORY;
+	}
 
 	/**
 	 * This class contains constants used by the Server part of network library.
@@ -68,6 +97,27 @@ public final class NetworkConstants {
 		}
 
 		public static final long OPEN_MATCHES_SEND_INTERVAL_MS = 5 * 1000;
+
+		/**
+		 * The maximum number of bytes used to store the lockstep history of a match. Players can only rejoin a running match as long as its history
+		 * fits into this limit.
+		 */
+		public static final int MAX_LOCKSTEP_HISTORY_BYTES = 32 * 1024 * 1024;
+
+		/**
+		 * The default time spectators are behind the players of a match.
+		 */
+		public static final int DEFAULT_SPECTATOR_DELAY_MS = 30 * 1000;
+		/**
+		 * The maximum number of packets queued for a spectator. Spectators that don't read fast enough to stay below this limit are disconnected.
+		 */
+		public static final int MAX_SPECTATOR_BACKLOG = 50;
+		/**
+		 * The maximum time writing a single packet to a spectator may take. Spectators whose socket doesn't take a packet within this time are
+		 * disconnected, so they don't hold a sender thread. This must stay well below the time needed to fill the backlog of the other spectators.
+		 */
+		public static final long SPECTATOR_WRITE_TIMEOUT_MS = 2000;
+		public static final int SPECTATOR_SENDER_THREADS = 4;
 	}
 
 	public final static class Client {
@@ -171,6 +221,10 @@ public final class NetworkConstants {
 		CHANGE_PLAYER_TYPE,
 		CHANGE_POSITION,
 		CHANGE_PLAYER_COUNT,
+
+		SYNCHRONOUS_TASK_COMPACT,
+		SYNCHRONOUS_TASK_HISTORY,
+		REQUEST_SPECTATE_MATCH,
 		;
 
 		private static final ENetworkKey[] values = ENetworkKey.values();
@@ -24,6 +24,7 @@ import jsettlers.network.client.interfaces.INetworkClient;
 import jsettlers.network.client.interfaces.INetworkConnector;
 import jsettlers.network.client.interfaces.ITaskScheduler;
 import jsettlers.network.client.receiver.IPacketReceiver;
+import jsettlers.network.client.task.TaskHistoryPacketListener;
 import jsettlers.network.client.task.TaskPacketListener;
 import jsettlers.network.client.task.packets.TaskPacket;
 import jsettlers.network.client.time.ISynchronizableClock;
@@ -34,6 +35,7 @@ import jsettlers.network.common.packets.BooleanMessagePacket;
 import jsettlers.network.common.packets.ByteTuplePacket;
 import jsettlers.network.common.packets.ChatMessagePacket;
 import jsettlers.network.common.packets.IdPacket;
+import jsettlers.network.common.packets.IdentifyUserPacket;
 import jsettlers.network.common.packets.IntegerMessagePacket;
 import jsettlers.network.common.packets.MapInfoPacket;
 import jsettlers.network.common.packets.MatchInfoPacket;
@@ -64,6 +66,7 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 	private final INetworkClientClock clock;
 
 	private EPlayerState state = EPlayerState.CHANNEL_CONNECTED;
+	private boolean spectator = false;
 	private PlayerInfoPacket playerInfo;
 
 	private MatchInfoPacket matchInfo;
@@ -109,7 +112,7 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 		channel.registerListener(new IdentifiedUserListener(this));
 		channel.registerListener(generateDefaultListener(NetworkConstants.ENetworkKey.ARRAY_OF_MATCHES, ArrayOfMatchInfosPacket.class,
 				matchesReceiver));
-		channel.sendPacketAsync(NetworkConstants.ENetworkKey.IDENTIFY_USER, playerInfo);
+		channel.sendPacketAsync(NetworkConstants.ENetworkKey.IDENTIFY_USER, new IdentifyUserPacket(playerInfo, NetworkConstants.Features.SUPPORTED));
 	}
 
 	/**
@@ -140,6 +143,17 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 		channel.sendPacketAsync(NetworkConstants.ENetworkKey.REQUEST_JOIN_MATCH, new IdPacket(matchId));
 	}
 
+	@Override
+	public void spectateMatch(String matchId, IPacketReceiver<MatchStartPacket> matchStartedListener) throws IllegalStateException {
+		EPlayerState.assertState(state, EPlayerState.LOGGED_IN);
+		spectator = true;
+
+		channel.registerListener(new MatchStartedListener(this, matchStartedListener));
+		channel.registerListener(new TaskPacketListener(clock));
+		channel.registerListener(new TaskHistoryPacketListener(clock));
+		channel.sendPacketAsync(NetworkConstants.ENetworkKey.REQUEST_SPECTATE_MATCH, new IdPacket(matchId));
+	}
+
 	@Override
 	public void leaveMatch() {
 		channel.sendPacketAsync(NetworkConstants.ENetworkKey.REQUEST_LEAVE_MATCH, new EmptyPacket());
@@ -210,10 +224,14 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 		channel.registerListener(new MatchStartedListener(this, matchStartedListener));
 		channel.registerListener(generateDefaultListener(ENetworkKey.CHAT_MESSAGE, ChatMessagePacket.class, chatMessageReceiver));
 		channel.registerListener(new TaskPacketListener(clock));
+		channel.registerListener(new TaskHistoryPacketListener(clock));
 	}
 
 	@Override
 	public void scheduleTask(TaskPacket task) {
+		if (spectator) {
+			return; // spectators can't influence the match
+		}
 		channel.sendPacketAsync(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, task);
 	}
 
@@ -263,10 +281,14 @@ public class NetworkClient implements ITaskScheduler, INetworkConnector, INetwor
 	}
 
 	void matchStartedEvent() {
-		this.state = EPlayerState.IN_RUNNING_MATCH;
 		channel.removeListener(NetworkConstants.ENetworkKey.MATCH_STARTED);
 
-		startTimeSynchronization(clock);
+		if (spectator) {
+			this.state = EPlayerState.SPECTATING; // the match does not wait for spectators, so they need no time synchronization
+		} else {
+			this.state = EPlayerState.IN_RUNNING_MATCH;
+			startTimeSynchronization(clock);
+		}
 		channel.initPinging();
 	}
 
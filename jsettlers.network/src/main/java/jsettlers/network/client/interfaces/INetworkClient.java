@@ -88,6 +88,19 @@ public interface INetworkClient {
 			IPacketReceiver<MatchInfoUpdatePacket> matchInfoUpdatedListener, IPacketReceiver<ChatMessagePacket> chatMessageReceiver)
 			throws IllegalStateException;
 
+	/**
+	 * Watches the match with the given id as spectator. Spectators receive the tasks of the match with a delay, but they can't send tasks
+	 * themselves.
+	 * 
+	 * @param matchId
+	 *            The id of an open or running match.
+	 * @param matchStartedListener
+	 *            The listener that will be called, when the match starts or directly, if it is already running.
+	 * @throws IllegalStateException
+	 *             If the client is not logged in or already in a match.
+	 */
+	void spectateMatch(String matchId, IPacketReceiver<MatchStartPacket> matchStartedListener) throws IllegalStateException;
+
 	void startMatch() throws IllegalStateException;
 
 	void setReadyState(boolean ready) throws IllegalStateException;
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.client.task.packets.SyncTasksHistoryPacket;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.infrastructure.channel.GenericDeserializer;
+import jsettlers.network.infrastructure.channel.listeners.PacketChannelListener;
+
+/**
+ * Receives the {@link SyncTasksHistoryPacket} sent when rejoining a running match and schedules every lockstep of it, so that the clock can catch up
+ * with the match.
+ */
+public class TaskHistoryPacketListener extends PacketChannelListener<SyncTasksHistoryPacket> {
+
+	private final ISyncTasksPacketScheduler receiver;
+
+	public TaskHistoryPacketListener(ISyncTasksPacketScheduler receiver) {
+		super(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK_HISTORY, new GenericDeserializer<>(SyncTasksHistoryPacket.class));
+		this.receiver = receiver;
+	}
+
+	@Override
+	protected void receivePacket(ENetworkKey key, SyncTasksHistoryPacket packet) throws IOException {
+		Iterator<SyncTasksPacket> packets = packet.getPackets().iterator();
+		SyncTasksPacket nextPacket = packets.hasNext() ? packets.next() : null;
+
+		for (int lockstep = 0; lockstep <= packet.getLastLockstep(); lockstep++) {
+			if (nextPacket != null && nextPacket.getLockstepNumber() == lockstep) {
+				receiver.scheduleSyncTasksPacket(nextPacket);
+				nextPacket = packets.hasNext() ? packets.next() : null;
+			} else {
+				receiver.scheduleSyncTasksPacket(new SyncTasksPacket(lockstep, Collections.emptyList()));
+			}
+		}
+	}
+}
@@ -15,11 +15,13 @@
 package jsettlers.network.client.task;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
 
-import jsettlers.network.NetworkConstants;
 import jsettlers.network.NetworkConstants.ENetworkKey;
 import jsettlers.network.client.task.packets.SyncTasksPacket;
 import jsettlers.network.infrastructure.channel.GenericDeserializer;
+import jsettlers.network.infrastructure.channel.IDeserializingable;
 import jsettlers.network.infrastructure.channel.listeners.PacketChannelListener;
 
 /**
@@ -32,10 +34,17 @@ public class TaskPacketListener extends PacketChannelListener<SyncTasksPacket> {
 	private final ISyncTasksPacketScheduler receiver;
 
 	public TaskPacketListener(ISyncTasksPacketScheduler receiver) {
-		super(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, new GenericDeserializer<>(SyncTasksPacket.class));
+		super(createDeserializers());
 		this.receiver = receiver;
 	}
 
+	private static Map<ENetworkKey, IDeserializingable<SyncTasksPacket>> createDeserializers() {
+		Map<ENetworkKey, IDeserializingable<SyncTasksPacket>> deserializers = new EnumMap<>(ENetworkKey.class);
+		deserializers.put(ENetworkKey.SYNCHRONOUS_TASK, new GenericDeserializer<>(SyncTasksPacket.class));
+		deserializers.put(ENetworkKey.SYNCHRONOUS_TASK_COMPACT, SyncTasksPacket.COMPACT_DESERIALIZER);
+		return deserializers;
+	}
+
 	@Override
 	protected void receivePacket(ENetworkKey key, SyncTasksPacket packet) throws IOException {
 		receiver.scheduleSyncTasksPacket(packet);
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task.packets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.utils.CompressedFrames;
+import jsettlers.network.infrastructure.utils.VarInts;
+
+/**
+ * The history of a running match that is sent to a client rejoining the match. It contains all {@link SyncTasksPacket}s with tasks up to the last
+ * lockstep sent by the server. All locksteps without a packet in the history are empty.
+ * <p>
+ * The packets are stored in segments. Every segment starts with its number of packets followed by a {@link CompressedFrames} frame containing the
+ * compact encoding of the packets.
+ */
+public class SyncTasksHistoryPacket extends Packet {
+
+	private int lastLockstep;
+	private List<SyncTasksPacket> packets;
+
+	public SyncTasksHistoryPacket() {
+	}
+
+	public SyncTasksHistoryPacket(int lastLockstep, List<SyncTasksPacket> packets) {
+		this.lastLockstep = lastLockstep;
+		this.packets = packets;
+	}
+
+	@Override
+	public void serialize(DataOutputStream dos) throws IOException {
+		VarInts.writeUnsigned(dos, lastLockstep);
+
+		if (packets.isEmpty()) {
+			VarInts.writeUnsigned(dos, 0);
+			return;
+		}
+
+		ByteArrayOutputStream segmentBytes = new ByteArrayOutputStream();
+		DataOutputStream segment = new DataOutputStream(segmentBytes);
+		for (SyncTasksPacket packet : packets) {
+			packet.serializeCompact(segment);
+		}
+		segment.flush();
+
+		VarInts.writeUnsigned(dos, 1);
+		VarInts.writeUnsigned(dos, packets.size());
+		CompressedFrames.write(dos, segmentBytes.toByteArray(), segmentBytes.size());
+	}
+
+	@Override
+	public void deserialize(DataInputStream dis) throws IOException {
+		lastLockstep = VarInts.readUnsigned(dis);
+		int numberOfSegments = VarInts.readUnsigned(dis);
+		packets = new ArrayList<>();
+
+		for (int i = 0; i < numberOfSegments; i++) {
+			int numberOfPackets = VarInts.readUnsigned(dis);
+			DataInputStream segment = new DataInputStream(new ByteArrayInputStream(CompressedFrames.read(dis)));
+			for (int j = 0; j < numberOfPackets; j++) {
+				SyncTasksPacket packet = new SyncTasksPacket();
+				packet.deserializeCompact(segment);
+				packets.add(packet);
+			}
+		}
+	}
+
+	/**
+	 * @return The last lockstep covered by this history.
+	 */
+	public int getLastLockstep() {
+		return lastLockstep;
+	}
+
+	/**
+	 * @return The packets with tasks ordered by their lockstep.
+	 */
+	public List<SyncTasksPacket> getPackets() {
+		return packets;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + lastLockstep;
+		result = prime * result + ((packets == null) ? 0 : packets.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SyncTasksHistoryPacket other = (SyncTasksHistoryPacket) obj;
+		if (lastLockstep != other.lastLockstep)
+			return false;
+		if (packets == null) {
+			if (other.packets != null)
+				return false;
+		} else if (!packets.equals(other.packets))
+			return false;
+		return true;
+	}
+}
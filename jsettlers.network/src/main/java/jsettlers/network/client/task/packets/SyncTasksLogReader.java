@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task.packets;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import jsettlers.network.client.task.ISyncTasksPacketScheduler;
+import jsettlers.network.infrastructure.utils.CompressedFrames;
+import jsettlers.network.infrastructure.utils.VarInts;
+
+/**
+ * Reads logs of {@link SyncTasksPacket}s. Both the compact format of the {@link SyncTasksLogWriter} and logs of consecutive
+ * {@link SyncTasksPacket#serialize(java.io.DataOutputStream)} calls written by older versions are supported.
+ */
+public final class SyncTasksLogReader {
+	private SyncTasksLogReader() {
+	}
+
+	/**
+	 * Reads all packets of the given stream and hands them to the given scheduler.
+	 * 
+	 * @param in
+	 *            The stream to read. It is read until its end.
+	 * @param scheduler
+	 *            Receives the read packets.
+	 * @throws IOException
+	 *             If the stream can not be read or ends within a packet.
+	 */
+	public static void read(InputStream in, ISyncTasksPacketScheduler scheduler) throws IOException {
+		PushbackInputStream pushbackStream = new PushbackInputStream(in, 1);
+		DataInputStream dis = new DataInputStream(pushbackStream);
+
+		int firstByte = pushbackStream.read();
+		if (firstByte == SyncTasksLogWriter.COMPACT_LOG_MARKER) {
+			int version = dis.readUnsignedByte();
+			if (version != SyncTasksLogWriter.COMPACT_LOG_VERSION) {
+				throw new IOException("Unsupported tasks log version: " + version);
+			}
+			readCompactLog(pushbackStream, dis, scheduler);
+
+		} else if (firstByte >= 0) {
+			pushbackStream.unread(firstByte);
+			readLegacyLog(pushbackStream, dis, scheduler);
+		}
+	}
+
+	private static void readLegacyLog(PushbackInputStream pushbackStream, DataInputStream dis, ISyncTasksPacketScheduler scheduler) throws IOException {
+		while (hasMoreData(pushbackStream)) {
+			SyncTasksPacket packet = new SyncTasksPacket();
+			packet.deserialize(dis);
+			scheduler.scheduleSyncTasksPacket(packet);
+		}
+	}
+
+	private static void readCompactLog(PushbackInputStream pushbackStream, DataInputStream dis, ISyncTasksPacketScheduler scheduler) throws IOException {
+		List<String> classNames = new ArrayList<>();
+		int lockstep = 0;
+
+		while (hasMoreData(pushbackStream)) {
+			lockstep += VarInts.readSigned(dis);
+			int numberOfTasks = VarInts.readUnsigned(dis);
+			List<TaskPacket> tasks = new LinkedList<>();
+
+			if (numberOfTasks > 0) {
+				DataInputStream frame = new DataInputStream(new ByteArrayInputStream(CompressedFrames.read(dis)));
+				for (int i = 0; i < numberOfTasks; i++) {
+					tasks.add(readTask(frame, classNames));
+				}
+			}
+
+			scheduler.scheduleSyncTasksPacket(new SyncTasksPacket(lockstep, tasks));
+		}
+	}
+
+	private static TaskPacket readTask(DataInputStream frame, List<String> classNames) throws IOException {
+		int classIndex = VarInts.readUnsigned(frame);
+		String className;
+		if (classIndex == 0) {
+			className = frame.readUTF();
+			classNames.add(className);
+		} else if (classIndex <= classNames.size()) {
+			className = classNames.get(classIndex - 1);
+		} else {
+			throw new IOException("Unknown task class index: " + classIndex);
+		}
+
+		byte[] data = new byte[VarInts.readUnsigned(frame)];
+		frame.readFully(data);
+
+		TaskPacket task = TaskPacket.createTask(className);
+		task.deserializeTask(new DataInputStream(new ByteArrayInputStream(data)));
+		return task;
+	}
+
+	private static boolean hasMoreData(PushbackInputStream stream) throws IOException {
+		int nextByte = stream.read();
+		if (nextByte < 0) {
+			return false;
+		}
+		stream.unread(nextByte);
+		return true;
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task.packets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jsettlers.network.infrastructure.utils.CompressedFrames;
+import jsettlers.network.infrastructure.utils.VarInts;
+
+/**
+ * Writes {@link SyncTasksPacket}s in the compact log format used for replays. The log starts with {@link #COMPACT_LOG_MARKER} and
+ * {@link #COMPACT_LOG_VERSION}. Every packet is stored as the difference to the previous lockstep number, so empty locksteps don't need any space,
+ * followed by the number of tasks and a {@link CompressedFrames} frame with the tasks. Task class names are only written on their first use and
+ * referenced by an index afterwards. The tasks are serialized to a {@link TaskLogOutputStream}.
+ * 
+ * @see SyncTasksLogReader
+ */
+public class SyncTasksLogWriter {
+	/**
+	 * Logs written by {@link SyncTasksPacket#serialize(DataOutputStream)} start with the highest byte of a non negative lockstep number, which can
+	 * never be this value.
+	 */
+	static final int COMPACT_LOG_MARKER = 0xFF;
+	static final int COMPACT_LOG_VERSION = 1;
+
+	private final DataOutputStream out;
+	private final Map<Class<? extends TaskPacket>, Integer> classIndexes = new HashMap<>();
+
+	private final ByteArrayOutputStream frameBuffer = new ByteArrayOutputStream();
+	private final DataOutputStream frameStream = new DataOutputStream(frameBuffer);
+	private final ByteArrayOutputStream taskBuffer = new ByteArrayOutputStream();
+	private final DataOutputStream taskStream = new TaskLogOutputStream(taskBuffer);
+
+	private boolean headerWritten = false;
+	private int lastLockstep = 0;
+
+	public SyncTasksLogWriter(DataOutputStream out) {
+		this.out = out;
+	}
+
+	public void write(SyncTasksPacket packet) throws IOException {
+		if (!headerWritten) {
+			out.writeByte(COMPACT_LOG_MARKER);
+			out.writeByte(COMPACT_LOG_VERSION);
+			headerWritten = true;
+		}
+
+		VarInts.writeSigned(out, packet.getLockstepNumber() - lastLockstep);
+		lastLockstep = packet.getLockstepNumber();
+
+		List<TaskPacket> tasks = packet.getTasks();
+		VarInts.writeUnsigned(out, tasks.size());
+		if (tasks.isEmpty()) {
+			return;
+		}
+
+		frameBuffer.reset();
+		for (TaskPacket task : tasks) {
+			writeClass(task.getClass());
+
+			taskBuffer.reset();
+			task.serializeTask(taskStream);
+			taskStream.flush();
+
+			VarInts.writeUnsigned(frameStream, taskBuffer.size());
+			taskBuffer.writeTo(frameStream);
+		}
+		frameStream.flush();
+
+		CompressedFrames.write(out, frameBuffer.toByteArray(), frameBuffer.size());
+	}
+
+	private void writeClass(Class<? extends TaskPacket> taskClass) throws IOException {
+		Integer index = classIndexes.get(taskClass);
+		if (index != null) {
+			VarInts.writeUnsigned(frameStream, index);
+		} else {
+			VarInts.writeUnsigned(frameStream, 0);
+			frameStream.writeUTF(taskClass.getName());
+			classIndexes.put(taskClass, classIndexes.size() + 1);
+		}
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+}
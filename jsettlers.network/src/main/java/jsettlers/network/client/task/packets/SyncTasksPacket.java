@@ -1,12 +1,18 @@
 package jsettlers.network.client.task.packets;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.IDeserializingable;
 import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.utils.CompressedFrames;
+import jsettlers.network.infrastructure.utils.VarInts;
 
 /**
  * 
@@ -14,6 +20,14 @@ import jsettlers.network.infrastructure.channel.packet.Packet;
  * 
  */
 public class SyncTasksPacket extends Packet {
+	/**
+	 * Deserializer for packets sent with the {@link ENetworkKey#SYNCHRONOUS_TASK_COMPACT} key.
+	 */
+	public static final IDeserializingable<SyncTasksPacket> COMPACT_DESERIALIZER = (key, dis) -> {
+		SyncTasksPacket packet = new SyncTasksPacket();
+		packet.deserializeCompact(dis);
+		return packet;
+	};
 
 	private int lockstepNumber;
 	private List<TaskPacket> tasks;
@@ -48,6 +62,51 @@ public class SyncTasksPacket extends Packet {
 		}
 	}
 
+	/**
+	 * Writes the compact encoding of this packet as it is read by {@link #deserializeCompact(DataInputStream)}.
+	 * 
+	 * @param dos
+	 * @throws IOException
+	 */
+	public void serializeCompact(DataOutputStream dos) throws IOException {
+		VarInts.writeUnsigned(dos, lockstepNumber);
+		VarInts.writeUnsigned(dos, tasks.size());
+
+		if (!tasks.isEmpty()) {
+			ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+			DataOutputStream frame = new DataOutputStream(frameBytes);
+			for (TaskPacket task : tasks) {
+				byte[] data = task.serializeToBytes();
+				VarInts.writeUnsigned(frame, data.length);
+				frame.write(data);
+			}
+			frame.flush();
+
+			CompressedFrames.write(dos, frameBytes.toByteArray(), frameBytes.size());
+		}
+	}
+
+	/**
+	 * Reads the compact encoding of this packet. It consists of the variable length encoded lockstep number and number of tasks, followed by a
+	 * {@link CompressedFrames} frame holding the length prefixed tasks if there are any.
+	 * 
+	 * @param dis
+	 * @throws IOException
+	 */
+	public void deserializeCompact(DataInputStream dis) throws IOException {
+		lockstepNumber = VarInts.readUnsigned(dis);
+		int numberOfTasks = VarInts.readUnsigned(dis);
+		tasks = new LinkedList<>();
+
+		if (numberOfTasks > 0) {
+			DataInputStream frame = new DataInputStream(new ByteArrayInputStream(CompressedFrames.read(dis)));
+			for (int i = 0; i < numberOfTasks; i++) {
+				VarInts.readUnsigned(frame); // the length is only needed by the server
+				tasks.add(TaskPacket.readTask(frame));
+			}
+		}
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task.packets;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+
+/**
+ * The stream {@link SyncTasksLogWriter} hands to {@link TaskPacket#serializeTask(DataOutputStream)}. Tasks may write a more compact encoding of
+ * their data when they are serialized to this stream, as long as their {@link TaskPacket#deserializeTask(java.io.DataInputStream)} reads both
+ * encodings. Tasks sent over the network always use the normal encoding, because the server forwards them unchanged to clients of any version.
+ */
+public class TaskLogOutputStream extends DataOutputStream {
+	public TaskLogOutputStream(OutputStream out) {
+		super(out);
+	}
+}
@@ -29,21 +29,41 @@ import jsettlers.network.infrastructure.channel.packet.Packet;
  */
 public abstract class TaskPacket extends Packet {
 	public static final IDeserializingable<TaskPacket> DEFAULT_DESERIALIZER = (key, dis) -> {
+		dis.readInt(); // read the length in bytes from the stream. We don't need it here, only the server needs it.
+		return readTask(dis);
+	};
+
+	/**
+	 * Reads a task written by {@link #serialize(DataOutputStream)} without the leading length.
+	 */
+	public static TaskPacket readTask(DataInputStream dis) throws IOException {
+		TaskPacket packet = createTask(dis.readUTF());
+		packet.deserializeTask(dis);
+		return packet;
+	}
+
+	static TaskPacket createTask(String className) throws IOException {
 		try {
-			dis.readInt(); // read the length in bytes from the stream. We don't need it here, only the server needs it.
-			String className = dis.readUTF();
 			@SuppressWarnings("unchecked")
 			Class<? extends TaskPacket> taskClass = (Class<? extends TaskPacket>) Class.forName(className);
-			TaskPacket packet = taskClass.newInstance();
-			packet.deserializeTask(dis);
-			return packet;
+			return taskClass.newInstance();
 		} catch (Exception e) {
 			throw new IOException(e);
 		}
-	};
+	}
 
 	@Override
 	public final void serialize(DataOutputStream dos) throws IOException {
+		byte[] data = serializeToBytes();
+		dos.writeInt(data.length);
+		dos.write(data);
+	}
+
+	/**
+	 * @return The data written by {@link #serialize(DataOutputStream)} without the leading length.
+	 * @throws IOException
+	 */
+	byte[] serializeToBytes() throws IOException {
 		ByteArrayOutputStream bufferOutStream = new ByteArrayOutputStream();
 		DataOutputStream bufferDataOutStream = new DataOutputStream(bufferOutStream);
 
@@ -51,8 +71,7 @@ public abstract class TaskPacket extends Packet {
 		serializeTask(bufferDataOutStream);
 		bufferDataOutStream.flush();
 
-		dos.writeInt(bufferOutStream.size());
-		bufferOutStream.writeTo(dos);
+		return bufferOutStream.toByteArray();
 	}
 
 	protected abstract void serializeTask(DataOutputStream dos) throws IOException;
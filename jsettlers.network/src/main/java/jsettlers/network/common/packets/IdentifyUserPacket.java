@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.common.packets;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+
+/**
+ * This packet is sent by a client to identify itself at the server. Next to the {@link PlayerInfoPacket} it contains the
+ * {@link NetworkConstants.Features} supported by the client. The features are appended to the player info, so older servers simply ignore them and
+ * packets of older clients are read without any features.
+ */
+public class IdentifyUserPacket extends Packet {
+
+	private PlayerInfoPacket playerInfo;
+	private int features;
+
+	public IdentifyUserPacket() {
+	}
+
+	public IdentifyUserPacket(PlayerInfoPacket playerInfo, int features) {
+		this.playerInfo = playerInfo;
+		this.features = features;
+	}
+
+	@Override
+	public void serialize(DataOutputStream dos) throws IOException {
+		playerInfo.serialize(dos);
+		dos.writeInt(features);
+	}
+
+	@Override
+	public void deserialize(DataInputStream dis) throws IOException {
+		playerInfo = new PlayerInfoPacket();
+		playerInfo.deserialize(dis);
+		features = dis.available() >= 4 ? dis.readInt() : 0;
+	}
+
+	public PlayerInfoPacket getPlayerInfo() {
+		return playerInfo;
+	}
+
+	public int getFeatures() {
+		return features;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + features;
+		result = prime * result + ((playerInfo == null) ? 0 : playerInfo.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IdentifyUserPacket other = (IdentifyUserPacket) obj;
+		if (features != other.features)
+			return false;
+		if (playerInfo == null) {
+			if (other.playerInfo != null)
+				return false;
+		} else if (!playerInfo.equals(other.playerInfo))
+			return false;
+		return true;
+	}
+}
@@ -25,6 +25,7 @@ import java.util.HashMap;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
 import jsettlers.network.infrastructure.channel.packet.Packet;
 import jsettlers.network.infrastructure.channel.ping.IPingUpdateListener;
 import jsettlers.network.infrastructure.channel.ping.IRoundTripTimeSupplier;
@@ -92,6 +93,25 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		thread = new Thread(this, "ChannelForSocket_" + socket);
 	}
 
+	/**
+	 * Creates a new Channel without a blocking socket and receiver thread. Subclasses using this constructor have to provide their own transport by
+	 * overriding {@link #start()}, {@link #sendPacketData(ENetworkKey, Packet)}, {@link #sendEncodedPacketData(EncodedPacket)}, {@link #close()} and
+	 * {@link #isClosed()}. Received packets have to be handed to {@link #receivePacket(ENetworkKey, int, DataInputStream)}.
+	 * 
+	 * @param logger
+	 *            The logger to be used.
+	 */
+	protected Channel(Logger logger) {
+		this.logger = new SwitchableLogger(logger);
+		this.socket = null;
+		this.outStream = null;
+		this.inStream = null;
+		this.thread = null;
+
+		pingPacketListener = new PingPacketListener(this.logger, this);
+		registerListener(pingPacketListener);
+	}
+
 	/**
 	 * Starts the message receiving of this {@link Channel}.
 	 * <p />
@@ -108,7 +128,7 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 	}
 
 	public synchronized void sendPacket(ENetworkKey key, Packet packet) {
-		if (socket.isClosed())
+		if (isClosed())
 			return;
 
 		try {
@@ -117,7 +137,7 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		}
 	}
 
-	private void sendPacketData(ENetworkKey key, Packet packet) throws IOException {
+	protected void sendPacketData(ENetworkKey key, Packet packet) throws IOException {
 		bufferDataOutStream.flush();
 		byteBufferOutStream.reset();
 
@@ -132,6 +152,27 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		outStream.flush();
 	}
 
+	/**
+	 * Sends the given already serialized packet. This allows to serialize a packet once and send it to many channels.
+	 * 
+	 * @param packet
+	 *            The packet to be sent.
+	 */
+	public synchronized void sendPacket(EncodedPacket packet) {
+		if (isClosed())
+			return;
+
+		try {
+			sendEncodedPacketData(packet);
+		} catch (IOException e) {
+		}
+	}
+
+	protected void sendEncodedPacketData(EncodedPacket packet) throws IOException {
+		packet.writeTo(outStream);
+		outStream.flush();
+	}
+
 	/**
 	 * Registers the given listener to receive data of the type it specifies with it's getKeys() method.
 	 * 
@@ -158,26 +199,7 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 
 				DataInputStream bufferIn = readBytesToBuffer(inStream, length);
 
-				IChannelListener listener = listenerRegistry.get(key);
-
-				if (listener != null) {
-					try {
-						listener.receive(key, length, bufferIn);
-						if (bufferIn.available() > 0) {
-							logger.warn("Deserialization did not read all bytes of input: " + key + " " + length + " " + bufferIn.available());
-						}
-					} catch (Exception e) { // ignore exceptions thrown in receive
-						e.printStackTrace();
-					}
-				} else {
-					logger.warn("NO LISTENER FOUND for key: " + key + "   (" + socket + ")");
-
-					if (key != NetworkConstants.ENetworkKey.REJECT_PACKET) { // prevent endless loop
-						sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
-								new RejectPacket(NetworkConstants.ENetworkMessage.NO_LISTENER_FOUND, key));
-					}
-				}
-
+				receivePacket(key, length, bufferIn);
 			} catch (Exception e) {
 				try {
 					socket.close();
@@ -188,10 +210,56 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 
 		close(); // release the resources
 
+		informChannelClosed();
+	}
+
+	/**
+	 * Hands a received packet to the listener registered for its key.
+	 * 
+	 * @param key
+	 *            The key of the received packet.
+	 * @param length
+	 *            The length of the packet data.
+	 * @param bufferIn
+	 *            A stream containing exactly the packet data.
+	 * @throws IOException
+	 *             If the stream could not be read.
+	 */
+	protected void receivePacket(ENetworkKey key, int length, DataInputStream bufferIn) throws IOException {
+		IChannelListener listener = listenerRegistry.get(key);
+
+		if (listener != null) {
+			try {
+				listener.receive(key, length, bufferIn);
+				if (bufferIn.available() > 0) {
+					logger.warn("Deserialization did not read all bytes of input: " + key + " " + length + " " + bufferIn.available());
+				}
+			} catch (Exception e) { // ignore exceptions thrown in receive
+				e.printStackTrace();
+			}
+		} else {
+			logger.warn("NO LISTENER FOUND for key: " + key + "   (" + this + ")");
+
+			if (key != NetworkConstants.ENetworkKey.REJECT_PACKET) { // prevent endless loop
+				sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
+						new RejectPacket(NetworkConstants.ENetworkMessage.NO_LISTENER_FOUND, key));
+			}
+		}
+	}
+
+	/**
+	 * Informs the {@link IChannelClosedListener} that this {@link Channel} has been shut down.
+	 */
+	protected void informChannelClosed() {
 		if (channelClosedListener != null) {
 			channelClosedListener.channelClosed();
 		}
-		logger.info("Channel listener shut down: " + socket);
+		logger.info("Channel listener shut down: " + this);
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(socket);
 	}
 
 	private DataInputStream readBytesToBuffer(DataInputStream inStream, int length) throws IOException {
@@ -275,6 +343,14 @@ public class Channel implements Runnable, IRoundTripTimeSupplier {
 		return started;
 	}
 
+	protected void setStarted() {
+		started = true;
+	}
+
+	protected Logger getLogger() {
+		return logger;
+	}
+
 	public void setLogger(Logger newLogger) {
 		this.logger.setLogger(newLogger);
 	}
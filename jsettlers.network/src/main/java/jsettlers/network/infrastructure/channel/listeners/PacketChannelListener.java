@@ -17,6 +17,7 @@ package jsettlers.network.infrastructure.channel.listeners;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.Hashtable;
+import java.util.Map;
 
 import jsettlers.network.NetworkConstants.ENetworkKey;
 import jsettlers.network.infrastructure.channel.Channel;
@@ -51,6 +52,11 @@ public abstract class PacketChannelListener<T extends Packet> implements IChanne
 		}
 	}
 
+	public PacketChannelListener(Map<ENetworkKey, IDeserializingable<T>> deserializers) {
+		this.keys = deserializers.keySet().toArray(new ENetworkKey[0]);
+		this.deserializers.putAll(deserializers);
+	}
+
 	@Override
 	public ENetworkKey[] getKeys() {
 		return keys;
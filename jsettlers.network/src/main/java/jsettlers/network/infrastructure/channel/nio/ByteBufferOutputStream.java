@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link OutputStream} writing into a {@link ByteBuffer}. If the buffer is full, it is replaced by a heap buffer of twice the size. Pooled buffers
+ * replaced that way are released to the given {@link ByteBufferPool}.
+ */
+public final class ByteBufferOutputStream extends OutputStream {
+	private final ByteBufferPool pool;
+	private ByteBuffer buffer;
+
+	public ByteBufferOutputStream(ByteBufferPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets the buffer the following writes will go to. Writing starts at the buffer's position.
+	 */
+	public void setBuffer(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * @return The buffer containing the written bytes. This may not be the buffer set with {@link #setBuffer(ByteBuffer)} if it had to be enlarged.
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	@Override
+	public void write(int b) {
+		ensureRemaining(1);
+		buffer.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) {
+		ensureRemaining(length);
+		buffer.put(bytes, offset, length);
+	}
+
+	private void ensureRemaining(int length) {
+		if (buffer.remaining() >= length) {
+			return;
+		}
+
+		ByteBuffer oldBuffer = buffer;
+		ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(oldBuffer.capacity() * 2, oldBuffer.position() + length));
+		oldBuffer.flip();
+		newBuffer.put(oldBuffer);
+		pool.release(oldBuffer);
+		buffer = newBuffer;
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A thread reading the data of many {@link NioChannel}s with a {@link Selector}. The listeners of the channels are called by this thread, so they
+ * must not block.
+ */
+public final class ChannelSelector implements Runnable {
+	private final Selector selector;
+	private final ByteBufferPool bufferPool;
+	private final ByteBuffer readBuffer;
+	private final ConcurrentLinkedQueue<NioChannel> registrations = new ConcurrentLinkedQueue<>();
+	private final Thread thread;
+
+	private volatile boolean canceled;
+
+	/**
+	 * Creates a new {@link ChannelSelector}.
+	 * 
+	 * @param name
+	 *            Name of the thread of this selector.
+	 * @param bufferPool
+	 *            The pool to get the buffers for reading and sending from.
+	 * @throws IOException
+	 *             If the selector could not be opened.
+	 */
+	public ChannelSelector(String name, ByteBufferPool bufferPool) throws IOException {
+		this.selector = Selector.open();
+		this.bufferPool = bufferPool;
+		this.readBuffer = bufferPool.acquire();
+		this.thread = new Thread(this, name);
+		this.thread.setDaemon(true);
+	}
+
+	public void start() {
+		thread.start();
+	}
+
+	ByteBufferPool getBufferPool() {
+		return bufferPool;
+	}
+
+	void register(NioChannel channel) {
+		registrations.offer(channel);
+		selector.wakeup();
+	}
+
+	void wakeup() {
+		selector.wakeup();
+	}
+
+	@Override
+	public void run() {
+		while (!canceled) {
+			try {
+				selector.select();
+			} catch (IOException e) {
+				e.printStackTrace();
+				break;
+			}
+
+			registerChannels();
+
+			Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+			while (selectedKeys.hasNext()) {
+				SelectionKey key = selectedKeys.next();
+				selectedKeys.remove();
+
+				NioChannel channel = (NioChannel) key.attachment();
+				try {
+					if (key.isWritable()) {
+						channel.writePending();
+					}
+					if (key.isReadable()) {
+						channel.readAvailable(readBuffer);
+					}
+				} catch (IOException | CancelledKeyException e) {
+					channel.close();
+				}
+			}
+		}
+
+		closeAll();
+	}
+
+	private void registerChannels() {
+		NioChannel channel;
+		while ((channel = registrations.poll()) != null) {
+			if (channel.isClosed()) {
+				continue;
+			}
+
+			try {
+				SelectionKey key = channel.getSocketChannel().register(selector, SelectionKey.OP_READ, channel);
+				channel.registered(key);
+			} catch (IOException e) {
+				channel.close();
+			}
+		}
+	}
+
+	private void closeAll() {
+		for (SelectionKey key : selector.keys()) {
+			((NioChannel) key.attachment()).close();
+		}
+		NioChannel channel;
+		while ((channel = registrations.poll()) != null) {
+			channel.close();
+		}
+
+		try {
+			selector.close();
+		} catch (IOException e) {
+		}
+	}
+
+	/**
+	 * Stops this selector and closes all channels registered to it.
+	 */
+	public void shutdown() {
+		canceled = true;
+		selector.wakeup();
+	}
+
+	/**
+	 * @return The number of channels currently registered to this selector.
+	 */
+	public int getNumberOfChannels() {
+		return selector.keys().size();
+	}
+
+	public boolean isAlive() {
+		return thread.isAlive();
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+import jsettlers.network.infrastructure.log.Logger;
+
+/**
+ * A group of {@link ChannelSelector}s sharing one {@link ByteBufferPool}. New channels are distributed round robin over the selectors.
+ */
+public final class ChannelSelectorGroup {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_POOLED_BUFFERS_PER_SELECTOR = 64;
+
+	private final ChannelSelector[] selectors;
+	private final ByteBufferPool bufferPool;
+	private int nextSelector;
+
+	/**
+	 * Creates a group with one selector per available processor.
+	 * 
+	 * @throws IOException
+	 *             If a selector could not be opened.
+	 */
+	public ChannelSelectorGroup() throws IOException {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public ChannelSelectorGroup(int numberOfSelectors) throws IOException {
+		bufferPool = new ByteBufferPool(BUFFER_SIZE, numberOfSelectors * MAX_POOLED_BUFFERS_PER_SELECTOR);
+		selectors = new ChannelSelector[numberOfSelectors];
+		for (int i = 0; i < numberOfSelectors; i++) {
+			selectors[i] = new ChannelSelector("ChannelSelector_" + i, bufferPool);
+		}
+	}
+
+	public void start() {
+		for (ChannelSelector selector : selectors) {
+			selector.start();
+		}
+	}
+
+	/**
+	 * Creates a new {@link NioChannel} for the given socket channel. The channel is assigned to the next selector of this group.
+	 * 
+	 * @param logger
+	 *            The logger of the new channel.
+	 * @param socketChannel
+	 *            The connected socket channel.
+	 * @return The new channel. It still has to be started.
+	 * @throws IOException
+	 *             If the socket channel can't be configured.
+	 */
+	public synchronized NioChannel createChannel(Logger logger, SocketChannel socketChannel) throws IOException {
+		ChannelSelector selector = selectors[nextSelector];
+		nextSelector = (nextSelector + 1) % selectors.length;
+		return new NioChannel(logger, socketChannel, selector);
+	}
+
+	/**
+	 * @return The number of channels registered to all selectors of this group.
+	 */
+	public int getNumberOfChannels() {
+		int channels = 0;
+		for (ChannelSelector selector : selectors) {
+			channels += selector.getNumberOfChannels();
+		}
+		return channels;
+	}
+
+	public int getNumberOfSelectors() {
+		return selectors.length;
+	}
+
+	/**
+	 * Stops all selectors and closes their channels.
+	 */
+	public void shutdown() {
+		for (ChannelSelector selector : selectors) {
+			selector.shutdown();
+		}
+	}
+}
@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.log.Logger;
+
+/**
+ * A {@link Channel} using a non blocking {@link SocketChannel}. Instead of a thread per channel, a {@link ChannelSelector} reads the data of many
+ * channels and hands the received packets to the registered listeners. The packets are framed the same way as by {@link Channel}: the
+ * {@link ENetworkKey}, the length of the data and the data itself.
+ * <p />
+ * Packets are serialized into buffers of a {@link ByteBufferPool}. {@link EncodedPacket}s are written directly from their shared buffer. If the socket
+ * can't take a packet at once, the rest is queued and written as soon as the socket gets writable again.
+ */
+public class NioChannel extends Channel {
+	private static final int HEADER_LENGTH = 5;
+	private static final int MAX_PACKET_LENGTH = 16 * 1024 * 1024;
+	private static final int MAX_PENDING_WRITE_BYTES = 4 * 1024 * 1024;
+	private static final int MAX_GATHERED_BUFFERS = 16;
+
+	private final SocketChannel socketChannel;
+	private final ChannelSelector selector;
+	private final ByteBufferPool pool;
+	private final String name;
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+	private final DataInputStream headerIn = new DataInputStream(new ByteBufferInputStream(header));
+	private final ByteBufferInputStream packetStream = new ByteBufferInputStream(null);
+	private final DataInputStream packetIn = new DataInputStream(packetStream);
+	private ENetworkKey frameKey;
+	private ByteBuffer frameBuffer;
+
+	private final ByteBufferOutputStream sendStream;
+	private final DataOutputStream sendDataStream;
+	private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+	private final ByteBuffer[] gatheredBuffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+	private int pendingWriteBytes;
+	private SelectionKey selectionKey;
+
+	/**
+	 * Creates a new {@link NioChannel}. The channel receives data after it has been started with {@link #start()}.
+	 * 
+	 * @param logger
+	 *            The logger to be used.
+	 * @param socketChannel
+	 *            The connected socket channel. It is switched to non blocking mode.
+	 * @param selector
+	 *            The {@link ChannelSelector} that shall read the data of this channel.
+	 * @throws IOException
+	 *             If the socket channel can't be configured.
+	 */
+	public NioChannel(Logger logger, SocketChannel socketChannel, ChannelSelector selector) throws IOException {
+		super(logger);
+		this.socketChannel = socketChannel;
+		this.selector = selector;
+		this.pool = selector.getBufferPool();
+		this.name = String.valueOf(socketChannel.getRemoteAddress());
+
+		socketChannel.configureBlocking(false);
+		socketChannel.socket().setTcpNoDelay(true);
+
+		sendStream = new ByteBufferOutputStream(pool);
+		sendDataStream = new DataOutputStream(sendStream);
+	}
+
+	@Override
+	public void start() {
+		setStarted();
+		selector.register(this);
+	}
+
+	SocketChannel getSocketChannel() {
+		return socketChannel;
+	}
+
+	synchronized void registered(SelectionKey selectionKey) {
+		this.selectionKey = selectionKey;
+		if (!pendingWrites.isEmpty()) {
+			selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+		}
+	}
+
+	@Override
+	protected void sendPacketData(ENetworkKey key, Packet packet) throws IOException {
+		ByteBuffer buffer = pool.acquire();
+		sendStream.setBuffer(buffer);
+
+		key.writeTo(sendDataStream);
+		sendDataStream.writeInt(0); // placeholder for the length
+		packet.serialize(sendDataStream);
+		sendDataStream.flush();
+
+		buffer = sendStream.getBuffer();
+		buffer.putInt(1, buffer.position() - HEADER_LENGTH);
+		buffer.flip();
+
+		write(buffer);
+	}
+
+	@Override
+	protected void sendEncodedPacketData(EncodedPacket packet) throws IOException {
+		write(packet.asByteBuffer());
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		if (pendingWrites.isEmpty()) {
+			socketChannel.write(buffer);
+
+			if (!buffer.hasRemaining()) {
+				pool.release(buffer);
+				return;
+			}
+		}
+
+		pendingWriteBytes += buffer.remaining();
+		pendingWrites.add(buffer);
+
+		if (pendingWriteBytes > MAX_PENDING_WRITE_BYTES) {
+			throw new IOException("Partner does not read the sent data: " + this);
+		}
+
+		if (selectionKey != null) {
+			try {
+				selectionKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+			} catch (CancelledKeyException e) {
+				throw new IOException(e);
+			}
+			selector.wakeup();
+		}
+	}
+
+	@Override
+	public synchronized void sendPacket(ENetworkKey key, Packet packet) {
+		if (isClosed()) {
+			return;
+		}
+
+		try {
+			sendPacketData(key, packet);
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	@Override
+	public synchronized void sendPacket(EncodedPacket packet) {
+		if (isClosed()) {
+			return;
+		}
+
+		try {
+			sendEncodedPacketData(packet);
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	/**
+	 * Writes as much of the queued data as the socket takes. Up to {@link #MAX_GATHERED_BUFFERS} queued buffers are handed to the socket with a
+	 * single gathering write. Called by the {@link ChannelSelector} when the socket got writable.
+	 * 
+	 * @throws IOException
+	 *             If writing failed.
+	 */
+	synchronized void writePending() throws IOException {
+		while (!pendingWrites.isEmpty()) {
+			int numberOfBuffers = 0;
+			for (ByteBuffer buffer : pendingWrites) {
+				gatheredBuffers[numberOfBuffers++] = buffer;
+				if (numberOfBuffers == MAX_GATHERED_BUFFERS) {
+					break;
+				}
+			}
+
+			pendingWriteBytes -= socketChannel.write(gatheredBuffers, 0, numberOfBuffers);
+			boolean socketFull = gatheredBuffers[numberOfBuffers - 1].hasRemaining();
+			Arrays.fill(gatheredBuffers, 0, numberOfBuffers, null);
+
+			while (!pendingWrites.isEmpty() && !pendingWrites.peek().hasRemaining()) {
+				pool.release(pendingWrites.poll());
+			}
+
+			if (socketFull) {
+				return;
+			}
+		}
+
+		selectionKey.interestOps(SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Reads the available data and hands all completely received packets to the listeners. Called by the {@link ChannelSelector} when data is
+	 * available.
+	 * 
+	 * @param readBuffer
+	 *            A buffer of the selector that may be used to read the data.
+	 * @throws IOException
+	 *             If reading failed or the partner closed the connection.
+	 */
+	void readAvailable(ByteBuffer readBuffer) throws IOException {
+		readBuffer.clear();
+		if (socketChannel.read(readBuffer) < 0) {
+			throw new IOException("Stream ended: " + this);
+		}
+		readBuffer.flip();
+
+		while (readBuffer.hasRemaining() && !isClosed()) {
+			if (frameBuffer == null) {
+				readHeader(readBuffer);
+			} else {
+				copyTo(readBuffer, frameBuffer);
+
+				if (!frameBuffer.hasRemaining()) {
+					ByteBuffer completedFrame = frameBuffer;
+					frameBuffer = null;
+
+					completedFrame.flip();
+					dispatch(completedFrame);
+					pool.release(completedFrame);
+				}
+			}
+		}
+	}
+
+	private void readHeader(ByteBuffer readBuffer) throws IOException {
+		copyTo(readBuffer, header);
+		if (header.hasRemaining()) {
+			return;
+		}
+
+		header.flip();
+		frameKey = ENetworkKey.readFrom(headerIn);
+		int length = headerIn.readInt();
+		header.clear();
+
+		if (length < 0 || length > MAX_PACKET_LENGTH) {
+			throw new IOException("Invalid packet length " + length + " for key " + frameKey + ": " + this);
+		}
+
+		if (readBuffer.remaining() >= length) { // the whole packet is available => no need to copy it
+			int limit = readBuffer.limit();
+			int packetEnd = readBuffer.position() + length;
+
+			readBuffer.limit(packetEnd);
+			dispatch(readBuffer);
+			readBuffer.limit(limit);
+			readBuffer.position(packetEnd);
+		} else {
+			frameBuffer = pool.acquire(length);
+			frameBuffer.limit(length);
+		}
+	}
+
+	private void dispatch(ByteBuffer data) throws IOException {
+		packetStream.setBuffer(data);
+		receivePacket(frameKey, data.remaining(), packetIn);
+		packetStream.setBuffer(null);
+	}
+
+	private static void copyTo(ByteBuffer source, ByteBuffer target) {
+		int length = Math.min(source.remaining(), target.remaining());
+		int limit = source.limit();
+		source.limit(source.position() + length);
+		target.put(source);
+		source.limit(limit);
+	}
+
+	@Override
+	public void close() {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			socketChannel.close();
+		} catch (IOException e) {
+		}
+
+		synchronized (this) {
+			for (ByteBuffer buffer : pendingWrites) {
+				pool.release(buffer);
+			}
+			pendingWrites.clear();
+			pendingWriteBytes = 0;
+		}
+
+		informChannelClosed();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed.get() || !socketChannel.isOpen();
+	}
+
+	@Override
+	public String toString() {
+		return "NioChannel(" + name + ")";
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.packet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+
+/**
+ * A {@link Packet} that has already been serialized together with its {@link ENetworkKey} and length. The same {@link EncodedPacket} can be sent
+ * over any number of {@link Channel}s without serializing the packet again, e.g. when a packet is broadcasted to all players of a match.
+ * <p />
+ * Instances are immutable and can be shared between threads.
+ */
+public final class EncodedPacket {
+	private static final int HEADER_LENGTH = 5;
+
+	private final ENetworkKey key;
+	private final byte[] frame;
+
+	private EncodedPacket(ENetworkKey key, byte[] frame) {
+		this.key = key;
+		this.frame = frame;
+	}
+
+	/**
+	 * Serializes the given packet.
+	 * 
+	 * @param key
+	 *            The key the packet will be sent with.
+	 * @param packet
+	 *            The packet to be serialized.
+	 * @return The encoded packet.
+	 */
+	public static EncodedPacket encode(ENetworkKey key, Packet packet) {
+		ByteArrayOutputStream byteOut = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(byteOut);
+
+		try {
+			key.writeTo(out);
+			out.writeInt(0); // placeholder for the length
+			packet.serialize(out);
+			out.flush();
+		} catch (IOException e) {
+			throw new IllegalStateException("Writing to a byte array must not fail.", e);
+		}
+
+		byte[] frame = byteOut.toByteArray();
+		int length = frame.length - HEADER_LENGTH;
+		frame[1] = (byte) (length >>> 24);
+		frame[2] = (byte) (length >>> 16);
+		frame[3] = (byte) (length >>> 8);
+		frame[4] = (byte) length;
+
+		return new EncodedPacket(key, frame);
+	}
+
+	public ENetworkKey getKey() {
+		return key;
+	}
+
+	/**
+	 * @return The length of the serialized packet without the key and length header.
+	 */
+	public int getLength() {
+		return frame.length - HEADER_LENGTH;
+	}
+
+	/**
+	 * Writes key, length and data of the packet with a single call to the given stream.
+	 * 
+	 * @param out
+	 *            The stream to write to.
+	 * @throws IOException
+	 *             If an I/O error occurs.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(frame);
+	}
+
+	/**
+	 * @return A new read only buffer containing key, length and data of the packet.
+	 */
+	public ByteBuffer asByteBuffer() {
+		return ByteBuffer.wrap(frame).asReadOnlyBuffer();
+	}
+
+	@Override
+	public String toString() {
+		return "EncodedPacket(" + key + ", " + getLength() + " bytes)";
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import jsettlers.network.NetworkConstants;
+
+/**
+ * Writes and reads blocks of bytes that are deflated if they are at least {@link NetworkConstants#FRAME_COMPRESSION_THRESHOLD} bytes long and the
+ * compression actually saves space.
+ */
+public final class CompressedFrames {
+	private static final byte PLAIN = 0;
+	private static final byte DEFLATED = 1;
+
+	private CompressedFrames() {
+	}
+
+	public static void write(DataOutputStream out, byte[] data, int length) throws IOException {
+		if (length >= NetworkConstants.FRAME_COMPRESSION_THRESHOLD) {
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try {
+				deflater.setInput(data, 0, length);
+				deflater.finish();
+
+				byte[] compressed = new byte[length];
+				int compressedLength = deflater.deflate(compressed);
+				if (deflater.finished()) {
+					out.writeByte(DEFLATED);
+					VarInts.writeUnsigned(out, length);
+					VarInts.writeUnsigned(out, compressedLength);
+					out.write(compressed, 0, compressedLength);
+					return;
+				}
+			} finally {
+				deflater.end();
+			}
+		}
+
+		out.writeByte(PLAIN);
+		VarInts.writeUnsigned(out, length);
+		out.write(data, 0, length);
+	}
+
+	public static byte[] read(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		int length = VarInts.readUnsigned(in);
+
+		switch (type) {
+		case PLAIN:
+			byte[] data = new byte[length];
+			in.readFully(data);
+			return data;
+
+		case DEFLATED:
+			byte[] compressed = new byte[VarInts.readUnsigned(in)];
+			in.readFully(compressed);
+			return inflate(compressed, length);
+
+		default:
+			throw new IOException("Unknown frame type: " + type);
+		}
+	}
+
+	private static byte[] inflate(byte[] compressed, int length) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			byte[] data = new byte[length];
+			int inflatedLength = inflater.inflate(data);
+			if (inflatedLength != length || !inflater.finished()) {
+				throw new IOException("Compressed frame has wrong length");
+			}
+			return data;
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
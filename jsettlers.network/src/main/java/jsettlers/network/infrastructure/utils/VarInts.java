@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers to write integers with a variable length encoding. Small values only need one byte, negative values are zigzag encoded by the signed
+ * variants.
+ */
+public final class VarInts {
+	private VarInts() {
+	}
+
+	/**
+	 * Writes the given value as unsigned integer in groups of 7 bits. Values below 128 need one byte, the worst case are five bytes.
+	 */
+	public static void writeUnsigned(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	public static int readUnsigned(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+	/**
+	 * Writes the given value zigzag encoded, so that values close to zero need few bytes regardless of their sign.
+	 */
+	public static void writeSigned(DataOutput out, int value) throws IOException {
+		writeUnsigned(out, (value << 1) ^ (value >> 31));
+	}
+
+	public static int readSigned(DataInput in) throws IOException {
+		int value = readUnsigned(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes the size of the list followed by the first value and the differences between consecutive values. The order of the list is kept, but
+	 * lists of close or sorted values (e.g. ids of selected movables) need much less space than four bytes per value.
+	 */
+	public static void writeDeltaList(DataOutput out, List<Integer> values) throws IOException {
+		writeUnsigned(out, values.size());
+
+		int last = 0;
+		for (int value : values) {
+			writeSigned(out, value - last);
+			last = value;
+		}
+	}
+
+	public static List<Integer> readDeltaList(DataInput in) throws IOException {
+		int size = readUnsigned(in);
+		List<Integer> values = new ArrayList<>(size);
+
+		int last = 0;
+		for (int i = 0; i < size; i++) {
+			last += readSigned(in);
+			values.add(last);
+		}
+		return values;
+	}
+}
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
 
+import jsettlers.network.infrastructure.log.LoggerManager;
 import jsettlers.network.server.match.Match;
 
 /**
@@ -30,10 +31,21 @@ public class DedicatedServerApp {
 
 	public static void main(String[] args) throws IOException {
 		boolean lan = false;
-		if(args.length == 1 && args[0].equals("--broadcast")) {
-			lan = true;
+		boolean nio = false;
+		Integer spectatorDelayMs = null;
+		for (String arg : args) {
+			if (arg.equals("--broadcast")) {
+				lan = true;
+			} else if (arg.equals("--nio")) {
+				nio = true;
+			} else if (arg.startsWith("--spectator-delay=")) {
+				spectatorDelayMs = Integer.parseInt(arg.substring("--spectator-delay=".length())) * 1000;
+			}
+		}
+		GameServerThread gameServer = new GameServerThread(lan, LoggerManager.ROOT_LOGGER, nio);
+		if (spectatorDelayMs != null) {
+			gameServer.setSpectatorDelay(spectatorDelayMs);
 		}
-		GameServerThread gameServer = new GameServerThread(lan);
 		gameServer.start();
 
 		Scanner s = new Scanner(System.in);
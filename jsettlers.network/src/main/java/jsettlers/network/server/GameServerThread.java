@@ -16,12 +16,15 @@ package jsettlers.network.server;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.nio.ChannelSelectorGroup;
 import jsettlers.network.infrastructure.channel.socket.ISocketFactory;
 import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.infrastructure.log.LoggerManager;
@@ -39,6 +42,7 @@ import jsettlers.network.server.lan.SingleLanServerAddressListener;
 public final class GameServerThread extends Thread {
 
 	private final ServerSocket serverSocket;
+	private final ChannelSelectorGroup channelSelectors;
 	private final ServerManager manager;
 	private final LanServerBroadcastThread lanBroadcastThread;
 	private final Logger logger;
@@ -51,9 +55,33 @@ public final class GameServerThread extends Thread {
 	}
 
 	public GameServerThread(boolean lan, Logger logger) throws IOException {
+		this(lan, logger, false);
+	}
+
+	/**
+	 * Creates a new game server.
+	 * 
+	 * @param lan
+	 *            If true, the server's address is broadcasted in the local network.
+	 * @param logger
+	 *            The logger to be used.
+	 * @param useNio
+	 *            If true, the clients are served by a few {@link jsettlers.network.infrastructure.channel.nio.ChannelSelector} threads instead of
+	 *            one thread per client.
+	 * @throws IOException
+	 *             If the server socket could not be opened.
+	 */
+	public GameServerThread(boolean lan, Logger logger, boolean useNio) throws IOException {
 		super("GameServer");
 		this.logger = logger;
-		this.serverSocket = new ServerSocket(NetworkConstants.Server.SERVER_PORT);
+		if (useNio) {
+			this.serverSocket = ServerSocketChannel.open().socket();
+			this.serverSocket.bind(new InetSocketAddress(NetworkConstants.Server.SERVER_PORT));
+			this.channelSelectors = new ChannelSelectorGroup();
+		} else {
+			this.serverSocket = new ServerSocket(NetworkConstants.Server.SERVER_PORT);
+			this.channelSelectors = null;
+		}
 		this.manager = new ServerManager(new InMemoryDB());
 
 		this.setDaemon(true);
@@ -73,7 +101,7 @@ public final class GameServerThread extends Thread {
 			try {
 				Socket clientSocket = serverSocket.accept();
 
-				Channel clientChannel = new Channel(logger, ISocketFactory.DEFAULT_FACTORY.generateSocket(clientSocket));
+				Channel clientChannel = createChannel(clientSocket);
 				manager.identifyNewChannel(clientChannel);
 				clientChannel.start();
 
@@ -85,6 +113,14 @@ public final class GameServerThread extends Thread {
 		}
 	}
 
+	private Channel createChannel(Socket clientSocket) throws IOException {
+		if (channelSelectors != null) {
+			return channelSelectors.createChannel(logger, clientSocket.getChannel());
+		} else {
+			return new Channel(logger, ISocketFactory.DEFAULT_FACTORY.generateSocket(clientSocket));
+		}
+	}
+
 	/**
 	 * NOTE: THIS METHOD IS BLOCKING for the given time
 	 * 
@@ -119,6 +155,9 @@ public final class GameServerThread extends Thread {
 
 	@Override
 	public synchronized void start() {
+		if (channelSelectors != null) {
+			channelSelectors.start();
+		}
 		super.start();
 		manager.start();
 		if(lanBroadcastThread != null) {
@@ -138,6 +177,10 @@ public final class GameServerThread extends Thread {
 		}
 
 		manager.shutdown();
+
+		if (channelSelectors != null) {
+			channelSelectors.shutdown();
+		}
 	}
 
 	public boolean isLanBroadcasterAlive() {
@@ -147,4 +190,11 @@ public final class GameServerThread extends Thread {
 	public IDBFacade getDatabase() {
 		return manager.getDatabase();
 	}
+
+	/**
+	 * @see ServerManager#setSpectatorDelay(int)
+	 */
+	public void setSpectatorDelay(int spectatorDelayMs) {
+		manager.setSpectatorDelay(spectatorDelayMs);
+	}
 }
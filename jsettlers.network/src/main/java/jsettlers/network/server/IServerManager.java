@@ -57,6 +57,14 @@ public interface IServerManager {
 
 	void joinMatch(String matchId, Player player);
 
+	/**
+	 * Joins the given player as spectator to the match with the given id. The player can join open and running matches.
+	 * 
+	 * @param matchId
+	 * @param player
+	 */
+	void spectateMatch(String matchId, Player player);
+
 	void setReadyStateForPlayer(Player player, boolean ready);
 
 	void setCivilisationForSlot(Player player, byte slot, byte civilisation);
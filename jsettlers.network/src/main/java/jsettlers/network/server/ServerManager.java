@@ -15,6 +15,8 @@
 package jsettlers.network.server;
 
 import java.util.Timer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.common.packets.ChatMessagePacket;
@@ -38,11 +40,13 @@ import jsettlers.network.server.listeners.TimeSyncForwardingListener;
 import jsettlers.network.server.listeners.matches.JoinMatchListener;
 import jsettlers.network.server.listeners.matches.LeaveMatchListener;
 import jsettlers.network.server.listeners.matches.OpenNewMatchListener;
+import jsettlers.network.server.listeners.matches.SpectateMatchListener;
 import jsettlers.network.server.listeners.matches.StartMatchListener;
 import jsettlers.network.server.match.EPlayerState;
 import jsettlers.network.server.match.Match;
 import jsettlers.network.server.match.MatchesListSendingTimerTask;
 import jsettlers.network.server.match.Player;
+import jsettlers.network.server.match.lockstep.LockstepScheduler;
 
 /**
  * This class is the central access point to the servers externally reachable functions.
@@ -54,9 +58,16 @@ public class ServerManager implements IServerManager {
 
 	private final IDBFacade database;
 	private final Timer sendMatchesListTimer = new Timer("SendMatchesListTimer", true);
-	private final Timer matchesTaskDistributionTimer = new Timer("MatchesTaskDistributionTimer", true);
+	private final LockstepScheduler lockstepScheduler = new LockstepScheduler();
+	private final ExecutorService spectatorSender = Executors.newFixedThreadPool(NetworkConstants.Server.SPECTATOR_SENDER_THREADS, runnable -> {
+		Thread thread = new Thread(runnable, "SpectatorSender");
+		thread.setDaemon(true);
+		return thread;
+	});
 	private final MatchesListSendingTimerTask matchSendingTask;
 
+	private int spectatorDelayMs = NetworkConstants.Server.DEFAULT_SPECTATOR_DELAY_MS;
+
 	public ServerManager(IDBFacade db) {
 		this.database = db;
 		matchSendingTask = new MatchesListSendingTimerTask(db);
@@ -68,7 +79,18 @@ public class ServerManager implements IServerManager {
 
 	public synchronized void shutdown() {
 		sendMatchesListTimer.cancel();
-		matchesTaskDistributionTimer.cancel();
+		lockstepScheduler.shutdown();
+		spectatorSender.shutdownNow();
+	}
+
+	/**
+	 * Sets the time spectators of matches opened from now on are behind the players.
+	 * 
+	 * @param spectatorDelayMs
+	 *            The delay in milliseconds.
+	 */
+	public void setSpectatorDelay(int spectatorDelayMs) {
+		this.spectatorDelayMs = spectatorDelayMs;
 	}
 
 	public void identifyNewChannel(Channel channel) {
@@ -88,6 +110,7 @@ public class ServerManager implements IServerManager {
 			channel.registerListener(new LeaveMatchListener(this, player));
 			channel.registerListener(new StartMatchListener(this, player));
 			channel.registerListener(new JoinMatchListener(this, player));
+			channel.registerListener(new SpectateMatchListener(this, player));
 			channel.registerListener(new ChatMessageForwardingListener(this, player));
 			channel.registerListener(new TimeSyncForwardingListener(this, player));
 			channel.registerListener(new ReadyStatePacketListener(this, player));
@@ -106,7 +129,7 @@ public class ServerManager implements IServerManager {
 
 	@Override
 	public void channelClosed(Player player) {
-		if (player.isInMatch()) {
+		if (player.isInMatch() || player.isSpectating()) {
 			try {
 				player.leaveMatch();
 			} catch (IllegalStateException e) {
@@ -119,7 +142,8 @@ public class ServerManager implements IServerManager {
 
 	@Override
 	public void createNewMatch(OpenNewMatchPacket matchInfo, Player player) {
-		Match match = new Match(matchInfo.getMatchName(), matchInfo.getMaxPlayers(), matchInfo.getMapInfo(), player, matchInfo.getRandomSeed());
+		Match match = new Match(matchInfo.getMatchName(), matchInfo.getMaxPlayers(), matchInfo.getMapInfo(), player, matchInfo.getRandomSeed(),
+				spectatorSender, spectatorDelayMs);
 		database.storeMatch(match);
 
 		joinMatch(match, player);
@@ -143,7 +167,7 @@ public class ServerManager implements IServerManager {
 	@Override
 	public void startMatch(Player player) {
 		try {
-			player.startMatch(matchesTaskDistributionTimer);
+			player.startMatch(lockstepScheduler);
 		} catch (IllegalStateException e) {
 			e.printStackTrace();
 			player.sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
@@ -176,6 +200,9 @@ public class ServerManager implements IServerManager {
 	public void joinMatch(String matchId, Player player) {
 		Match match = database.getMatchById(matchId);
 		try {
+			if (match == null) {
+				throw new IllegalStateException("Unknown match: " + matchId);
+			}
 			player.joinMatch(match);
 		} catch (IllegalStateException e) {
 			player.sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
@@ -183,6 +210,20 @@ public class ServerManager implements IServerManager {
 		}
 	}
 
+	@Override
+	public void spectateMatch(String matchId, Player player) {
+		Match match = database.getMatchById(matchId);
+		try {
+			if (match == null) {
+				throw new IllegalStateException("Unknown match: " + matchId);
+			}
+			player.spectateMatch(match);
+		} catch (IllegalStateException e) {
+			player.sendPacket(NetworkConstants.ENetworkKey.REJECT_PACKET,
+					new RejectPacket(NetworkConstants.ENetworkMessage.INVALID_STATE_ERROR, NetworkConstants.ENetworkKey.REQUEST_SPECTATE_MATCH));
+		}
+	}
+
 	@Override
 	public void setReadyStateForPlayer(Player player, boolean ready) {
 		try {
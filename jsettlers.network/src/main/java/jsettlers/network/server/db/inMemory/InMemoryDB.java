@@ -15,25 +15,45 @@
 package jsettlers.network.server.db.inMemory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import jsettlers.network.server.db.IDBFacade;
+import jsettlers.network.server.match.EMatchState;
 import jsettlers.network.server.match.EPlayerState;
+import jsettlers.network.server.match.IMatchStateListener;
+import jsettlers.network.server.match.IPlayerStateListener;
 import jsettlers.network.server.match.Match;
 import jsettlers.network.server.match.Player;
 
 /**
  * This class implements an in memory database.
+ * <p />
+ * Players and matches are stored in concurrent maps, so readers never block each other. The players are additionally indexed by their state and
+ * the matches by the ids of their players. The indexes are updated by listening to the state changes of the players and matches. Finished matches
+ * are removed from the database.
  * 
  * @author Andreas Eberle
  * 
  */
-public class InMemoryDB implements IDBFacade {
+public class InMemoryDB implements IDBFacade, IPlayerStateListener, IMatchStateListener {
 
-	private final HashMap<String, Player> players = new HashMap<>();
-	private final HashMap<String, Match> matches = new HashMap<>();
+	private final ConcurrentHashMap<String, Player> players = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Match> matches = new ConcurrentHashMap<>();
+
+	private final Map<EPlayerState, Set<Player>> playersByState = new EnumMap<>(EPlayerState.class);
+	private final ConcurrentHashMap<String, Set<Match>> matchesByPlayer = new ConcurrentHashMap<>();
+
+	public InMemoryDB() {
+		for (EPlayerState state : EPlayerState.values()) {
+			playersByState.put(state, ConcurrentHashMap.newKeySet());
+		}
+	}
 
 	@Override
 	public boolean isAcceptedPlayer(String id) {
@@ -42,25 +62,71 @@ public class InMemoryDB implements IDBFacade {
 
 	@Override
 	public void storePlayer(Player player) {
-		synchronized (players) {
-			players.put(player.getId(), player);
+		player.setStateListener(this);
+		Player oldPlayer = players.put(player.getId(), player);
+		if (oldPlayer != null && oldPlayer != player) {
+			unindexPlayer(oldPlayer);
 		}
+		playersByState.get(player.getState()).add(player);
 	}
 
 	@Override
 	public void removePlayer(Player player) {
-		synchronized (players) {
-			players.remove(player.getId());
+		if (players.remove(player.getId(), player)) {
+			unindexPlayer(player);
+		}
+	}
+
+	private void unindexPlayer(Player player) {
+		player.setStateListener(null);
+		for (Set<Player> playersOfState : playersByState.values()) {
+			playersOfState.remove(player);
+		}
+	}
+
+	@Override
+	public void playerStateChanged(Player player, EPlayerState oldState, EPlayerState newState) {
+		if (players.get(player.getId()) != player) {
+			return;
+		}
+
+		playersByState.get(oldState).remove(player);
+		playersByState.get(newState).add(player);
+
+		Match match = player.getMatch();
+		if (newState == EPlayerState.IN_MATCH && match != null && matches.containsKey(match.getId())) {
+			matchesByPlayer.computeIfAbsent(player.getId(), id -> ConcurrentHashMap.newKeySet()).add(match);
 		}
 	}
 
+	@Override
+	public void matchStateChanged(Match match, EMatchState oldState, EMatchState newState) {
+		if (newState == EMatchState.FINISHED) {
+			removeMatch(match);
+		}
+	}
+
+	private void removeMatch(Match match) {
+		match.setStateListener(null);
+		matches.remove(match.getId(), match);
+
+		for (String playerId : match.getParticipantIds()) {
+			matchesByPlayer.computeIfPresent(playerId, (id, matchesOfPlayer) -> {
+				matchesOfPlayer.remove(match);
+				return matchesOfPlayer.isEmpty() ? null : matchesOfPlayer;
+			});
+		}
+	}
+
+	private Set<Match> getMatchesOf(String playerId) {
+		return matchesByPlayer.getOrDefault(playerId, Collections.emptySet());
+	}
+
 	@Override
 	public Match getRunningMatchOf(Player player) {
-		synchronized (matches) {
-			for (Match curr : matches.values()) {
-				if (curr.isRunning() && curr.hasPlayer(player)) {
-					return curr;
-				}
+		for (Match curr : getMatchesOf(player.getId())) {
+			if (curr.isRunning() && curr.hasPlayer(player)) {
+				return curr;
 			}
 		}
 
@@ -69,21 +135,18 @@ public class InMemoryDB implements IDBFacade {
 
 	@Override
 	public List<Match> getJoinableMatches() {
-		synchronized (matches) {
-			return matches.values().stream().collect(Collectors.toList());
-		}
+		return new ArrayList<>(matches.values());
 	}
 
 	@Override
 	public List<Match> getJoinableRunningMatches(Player player) {
-		synchronized (matches) {
-			String playerId = player.getId();
-			return matches.values().stream().filter(Match::isRunning).filter(match -> match.hasLeftPlayer(playerId)).collect(Collectors.toList());
-		}
+		String playerId = player.getId();
+		return getMatchesOf(playerId).stream().filter(Match::isRunning).filter(match -> match.hasLeftPlayer(playerId)).collect(Collectors.toList());
 	}
 
 	@Override
 	public void storeMatch(Match match) {
+		match.setStateListener(this);
 		matches.put(match.getId(), match);
 	}
 
@@ -106,15 +169,15 @@ public class InMemoryDB implements IDBFacade {
 
 	@Override
 	public List<Player> getPlayers(EPlayerState... allowedStates) {
-		synchronized (players) {
-			return players.values().stream().filter(player -> EPlayerState.isOneOf(player.getState(), allowedStates)).collect(Collectors.toList());
+		List<Player> result = new ArrayList<>();
+		for (EPlayerState state : allowedStates) {
+			result.addAll(playersByState.get(state));
 		}
+		return result;
 	}
 
 	@Override
 	public List<Match> getMatches() {
-		synchronized (matches) {
-			return new ArrayList<>(matches.values());
-		}
+		return new ArrayList<>(matches.values());
 	}
 }
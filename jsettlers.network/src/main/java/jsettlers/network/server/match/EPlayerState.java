@@ -26,6 +26,7 @@ public enum EPlayerState {
 	LOGGED_IN,
 	IN_MATCH,
 	IN_RUNNING_MATCH,
+	SPECTATING,
 	DISCONNECTED, ;
 
 	public static void assertState(EPlayerState state, EPlayerState... expectedStates) throws IllegalStateException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015
+ * Copyright (c) 2020
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
  * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
@@ -12,13 +12,21 @@
  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
  * DEALINGS IN THE SOFTWARE.
  *******************************************************************************/
-package jsettlers.graphics.map.draw;
+package jsettlers.network.server.match;
 
-import jsettlers.graphics.map.draw.settlerimages.SettlerImageMap;
-
-public class ImagePreloadTask implements Runnable {
-	@Override
-	public void run() {
-		SettlerImageMap.getInstance();
-	}
+/**
+ * Is informed when the {@link EMatchState} of a {@link Match} changes.
+ */
+public interface IMatchStateListener {
+	/**
+	 * Called after the state of the given match changed.
+	 * 
+	 * @param match
+	 *            The match.
+	 * @param oldState
+	 *            The state before the change.
+	 * @param newState
+	 *            The new state of the match.
+	 */
+	void matchStateChanged(Match match, EMatchState oldState, EMatchState newState);
 }
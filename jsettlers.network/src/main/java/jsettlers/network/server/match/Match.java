@@ -14,10 +14,13 @@
  *******************************************************************************/
 package jsettlers.network.server.match;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedList;
-import java.util.Timer;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.NetworkConstants.ENetworkKey;
@@ -29,12 +32,18 @@ import jsettlers.network.common.packets.MatchStartPacket;
 import jsettlers.network.common.packets.PlayerInfoPacket;
 import jsettlers.network.common.packets.SlotInfoPacket;
 import jsettlers.network.common.packets.TimeSyncPacket;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
 import jsettlers.network.infrastructure.channel.packet.Packet;
 import jsettlers.network.infrastructure.log.Logger;
 import jsettlers.network.infrastructure.log.LoggerManager;
 import jsettlers.network.server.exceptions.NotAllPlayersReadyException;
+import jsettlers.network.server.match.lockstep.LockstepHistory;
+import jsettlers.network.server.match.lockstep.LockstepScheduler;
+import jsettlers.network.server.match.lockstep.LockstepScheduler.ScheduledTask;
 import jsettlers.network.server.match.lockstep.TaskCollectingListener;
 import jsettlers.network.server.match.lockstep.TaskSendingTimerTask;
+import jsettlers.network.server.packets.CompactServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
 
 /**
  * 
@@ -54,13 +63,32 @@ public class Match {
 	private final String name;
 	private final long randomSeed;
 	private final Player host;
+	private final SpectatorRelay spectatorRelay;
 
-	private EMatchState state = EMatchState.OPENED;
+	private final AtomicInteger infoVersion = new AtomicInteger();
+
+	private volatile EMatchState state = EMatchState.OPENED;
+	private volatile IMatchStateListener stateListener;
 	private TaskCollectingListener taskCollectingListener;
 	private TaskSendingTimerTask taskSendingTimerTask;
+	private ScheduledTask scheduledTaskSending;
+	private LockstepHistory lockstepHistory;
+	private MatchStartPacket matchStartPacket;
 	private int currPlayers;
 
-	public Match(String name, int maxPlayers, MapInfoPacket map, Player host, long randomSeed) {
+	/**
+	 * 
+	 * @param name
+	 * @param maxPlayers
+	 * @param map
+	 * @param host
+	 * @param randomSeed
+	 * @param spectatorSender
+	 *            The executor used to write the lockstep stream to the spectators of this match.
+	 * @param spectatorDelayMs
+	 *            The time in milliseconds the spectators are behind the players.
+	 */
+	public Match(String name, int maxPlayers, MapInfoPacket map, Player host, long randomSeed, Executor spectatorSender, int spectatorDelayMs) {
 		this.maxPlayers = maxPlayers;
 		currPlayers = maxPlayers;
 		this.slots = new Slot[maxPlayers];
@@ -73,6 +101,7 @@ public class Match {
 		this.leftPlayers = new LinkedList<>();
 		this.logger = LoggerManager.getMatchLogger(id, name);
 		this.date = new Date();
+		this.spectatorRelay = new SpectatorRelay(logger, spectatorSender, spectatorDelayMs / NetworkConstants.Client.LOCKSTEP_PERIOD);
 
 		for (int i = 0; i < maxPlayers; i++) {
 			slots[i] = new Slot(Byte.MAX_VALUE, (byte) i, Byte.MAX_VALUE, (byte) i);
@@ -83,6 +112,34 @@ public class Match {
 		return state;
 	}
 
+	private void setState(EMatchState newState) {
+		EMatchState oldState = state;
+		state = newState;
+		infoVersion.incrementAndGet();
+
+		IMatchStateListener stateListener = this.stateListener;
+		if (stateListener != null && oldState != newState) {
+			stateListener.matchStateChanged(this, oldState, newState);
+		}
+	}
+
+	/**
+	 * Sets the listener informed about state changes of this match. Only one listener can be set at a time.
+	 * 
+	 * @param stateListener
+	 *            The listener or <code>null</code> to remove the current one.
+	 */
+	public void setStateListener(IMatchStateListener stateListener) {
+		this.stateListener = stateListener;
+	}
+
+	/**
+	 * @return A number that changes whenever the information sent about this match in a {@link MatchInfoPacket} changes.
+	 */
+	public int getInfoVersion() {
+		return infoVersion.get();
+	}
+
 	public boolean canJoin() {
 		return state == EMatchState.OPENED && players.size() < currPlayers;
 	}
@@ -151,6 +208,24 @@ public class Match {
 		}
 	}
 
+	/**
+	 * @return The ids of the current players of this match and of the players that left it while it was running.
+	 */
+	public List<String> getParticipantIds() {
+		List<String> participantIds = new ArrayList<>();
+		synchronized (players) {
+			for (Player curr : players) {
+				participantIds.add(curr.getId());
+			}
+		}
+		synchronized (leftPlayers) {
+			for (Player curr : leftPlayers) {
+				participantIds.add(curr.getId());
+			}
+		}
+		return participantIds;
+	}
+
 	public Player getPlayer(String playerId) {
 		synchronized (players) {
 			for (Player curr : players) {
@@ -164,6 +239,7 @@ public class Match {
 	}
 
 	public void sendMatchInfoUpdate(ENetworkMessage updateReason, PlayerInfoPacket updatedPlayer) {
+		infoVersion.incrementAndGet();
 		broadcastMessage(NetworkConstants.ENetworkKey.MATCH_INFO_UPDATE, generateMatchInfoUpdate(updateReason, updatedPlayer));
 	}
 
@@ -176,6 +252,7 @@ public class Match {
 	}
 
 	/**
+	 * Sends the given packet to the players of this match. The packet is only serialized once for all players.
 	 * 
 	 * @param sendingPlayer
 	 *            The sending player will not receive the message. If the message shall be send to all players in the match, <code>null</code> can be
@@ -184,13 +261,46 @@ public class Match {
 	 * @param packet
 	 */
 	public void sendMessage(Player sendingPlayer, ENetworkKey key, Packet packet) {
+		EncodedPacket encodedPacket = EncodedPacket.encode(key, packet);
+
 		synchronized (players) {
 			for (Player curr : players) {
 				if (sendingPlayer == null || !curr.getId().equals(sendingPlayer.getId())) {
-					curr.sendPacket(key, packet);
+					curr.sendPacket(encodedPacket);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sends the given tasks to all players of this match. Players that announced {@link NetworkConstants.Features#COMPACT_SYNC_TASKS} receive the
+	 * compact encoding, all others the original one. Each encoding is only serialized once.
+	 * 
+	 * @param packet
+	 */
+	public void broadcastSyncTasks(ServersideSyncTasksPacket packet) {
+		EncodedPacket encodedPacket = null;
+		EncodedPacket compactPacket = null;
+
+		synchronized (players) {
+			lockstepHistory.record(packet);
+
+			for (Player curr : players) {
+				if (curr.supportsFeature(NetworkConstants.Features.COMPACT_SYNC_TASKS)) {
+					if (compactPacket == null) {
+						compactPacket = EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK_COMPACT, new CompactServersideSyncTasksPacket(packet));
+					}
+					curr.sendPacket(compactPacket);
+				} else {
+					if (encodedPacket == null) {
+						encodedPacket = EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK, packet);
+					}
+					curr.sendPacket(encodedPacket);
 				}
 			}
 		}
+
+		spectatorRelay.relay(packet);
 	}
 
 	public void join(Player player) {
@@ -202,10 +312,58 @@ public class Match {
 
 			if (state == EMatchState.RUNNING) {
 				sendMatchStartPacketToPlayer(player);
+				sendLockstepHistoryToPlayer(player);
 			}
 		}
 	}
 
+	/**
+	 * Sends the history of this running match to the given player, so that it can catch up with the other players. The caller must hold the lock of
+	 * {@link #players}, so no locksteps can be sent in between.
+	 * 
+	 * @param player
+	 */
+	private void sendLockstepHistoryToPlayer(Player player) {
+		if (!player.supportsFeature(NetworkConstants.Features.LOCKSTEP_HISTORY)) {
+			return;
+		}
+		if (!lockstepHistory.isAvailable()) {
+			logger.warn("Lockstep history not available for player " + player.getId());
+			return;
+		}
+
+		int lastLockstep = lockstepHistory.getLastLockstep();
+		player.setCatchUpLockstep(lastLockstep);
+		player.sendPacket(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK_HISTORY, lockstepHistory.createPacket());
+		logger.info("Sent lockstep history up to lockstep " + lastLockstep + " (" + lockstepHistory.getStoredBytes() + " bytes) to player "
+				+ player.getId());
+	}
+
+	/**
+	 * Adds the given spectator to this match. Spectators receive the locksteps of the match with a delay. They can't send tasks and the match does
+	 * not wait for them.
+	 * 
+	 * @param spectator
+	 * @throws IllegalStateException
+	 *             If the match is finished or the spectator can't catch up with the running match.
+	 */
+	public void addSpectator(Player spectator) throws IllegalStateException {
+		if (state == EMatchState.FINISHED) {
+			throw new IllegalStateException("The match " + id + " is already finished.");
+		}
+
+		spectatorRelay.addSpectator(spectator);
+		logger.info("Spectator " + spectator.getId() + " joined. Spectators: " + spectatorRelay.getNumberOfSpectators());
+	}
+
+	public void spectatorLeft(Player spectator) {
+		spectatorRelay.removeSpectator(spectator);
+	}
+
+	public int getNumberOfSpectators() {
+		return spectatorRelay.getNumberOfSpectators();
+	}
+
 	public void playerLeft(Player player) {
 		synchronized (players) {
 			players.remove(player);
@@ -226,7 +384,7 @@ public class Match {
 		}
 	}
 
-	public synchronized void startMatch(Timer timer) throws NotAllPlayersReadyException {
+	public synchronized void startMatch(LockstepScheduler lockstepScheduler) throws NotAllPlayersReadyException {
 		if (state == EMatchState.RUNNING || state == EMatchState.FINISHED) {
 			return; // match already started
 		}
@@ -237,13 +395,18 @@ public class Match {
 					throw new NotAllPlayersReadyException();
 				}
 			}
+
+			matchStartPacket = new MatchStartPacket(new MatchInfoPacket(this), 0L);
+			lockstepHistory = new LockstepHistory(NetworkConstants.Server.MAX_LOCKSTEP_HISTORY_BYTES);
 		}
 
-		state = EMatchState.RUNNING;
+		spectatorRelay.matchStarted(matchStartPacket);
+		setState(EMatchState.RUNNING);
 
 		this.taskCollectingListener = new TaskCollectingListener();
 		this.taskSendingTimerTask = new TaskSendingTimerTask(logger, taskCollectingListener, this);
-		timer.schedule(taskSendingTimerTask, NetworkConstants.Client.LOCKSTEP_PERIOD, NetworkConstants.Client.LOCKSTEP_PERIOD / 2 - 2);
+		this.scheduledTaskSending = lockstepScheduler.schedule(taskSendingTimerTask, NetworkConstants.Client.LOCKSTEP_PERIOD,
+				NetworkConstants.Client.LOCKSTEP_PERIOD / 2 - 2);
 
 		synchronized (players) {
 			int i = 0;
@@ -259,21 +422,35 @@ public class Match {
 
 	private void sendMatchStartPacketToPlayer(Player player) {
 		player.matchStarted(taskCollectingListener);
-		player.sendPacket(NetworkConstants.ENetworkKey.MATCH_STARTED, new MatchStartPacket(new MatchInfoPacket(this), 0L));
+		player.sendPacket(NetworkConstants.ENetworkKey.MATCH_STARTED, matchStartPacket);
 	}
 
 	public void distributeTimeSync(Player player, TimeSyncPacket packet) {
+		if (player.isCatchingUp(packet.getTime())) {
+			return; // the other players must not wait for a player simulating the history of the match
+		}
+
 		sendMessage(player, NetworkConstants.ENetworkKey.TIME_SYNC, packet);
 		taskSendingTimerTask.receivedLockstepAcknowledge(packet.getTime() / NetworkConstants.Client.LOCKSTEP_PERIOD);
 	}
 
+	/**
+	 * @return The number of locksteps the server may run ahead of the players or -1 if the match is not running.
+	 */
+	public int getLockstepLeadSteps() {
+		TaskSendingTimerTask taskSendingTimerTask = this.taskSendingTimerTask;
+		return taskSendingTimerTask != null ? taskSendingTimerTask.getLeadSteps() : -1;
+	}
+
 	public Logger getMatchLogger() {
 		return logger;
 	}
 
 	private void shutdownMatch() {
 		if (state == EMatchState.RUNNING) {
-			taskSendingTimerTask.cancel();
+			scheduledTaskSending.cancel();
+			logger.info("Lockstep scheduling: " + scheduledTaskSending.getJitter());
+			scheduledTaskSending = null;
 			taskSendingTimerTask = null;
 
 			synchronized (players) {
@@ -286,9 +463,10 @@ public class Match {
 				}
 			}
 			taskCollectingListener = null;
+			spectatorRelay.releaseAll();
 		}
 
-		state = EMatchState.FINISHED;
+		setState(EMatchState.FINISHED);
 	}
 
 	public Player getHost() {
@@ -14,16 +14,20 @@
  *******************************************************************************/
 package jsettlers.network.server.match;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.TimerTask;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.common.packets.ArrayOfMatchInfosPacket;
 import jsettlers.network.common.packets.MatchInfoPacket;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
 import jsettlers.network.server.db.IDBFacade;
 
 /**
  * This {@link TimerTask} implementation gets the logged in players and sends them the open matches on every call to {@link #run()}.
+ * <p />
+ * The encoded list of matches is cached and only rebuilt when a match was added or removed or the information of a match changed.
  * 
  * @author Andreas Eberle
  * 
@@ -31,6 +35,10 @@ import jsettlers.network.server.db.IDBFacade;
 public class MatchesListSendingTimerTask extends TimerTask {
 	private final IDBFacade db;
 
+	private List<Match> cachedMatches = Collections.emptyList();
+	private int[] cachedInfoVersions = new int[0];
+	private EncodedPacket cachedPacket;
+
 	public MatchesListSendingTimerTask(IDBFacade db) {
 		this.db = db;
 	}
@@ -38,32 +46,58 @@ public class MatchesListSendingTimerTask extends TimerTask {
 	@Override
 	public void run() {
 		List<Player> loggedInPlayers = db.getPlayers(EPlayerState.LOGGED_IN);
-		ArrayOfMatchInfosPacket packet = getArrayOfMatchInfosPacket();
+		if (loggedInPlayers.isEmpty()) {
+			return;
+		}
+
+		EncodedPacket packet = getEncodedMatchesPacket();
 
 		for (Player currPlayer : loggedInPlayers) {
-			sendMatchesPacketToPlayer(currPlayer, packet);
+			currPlayer.sendPacket(packet);
 		}
 	}
 
-	private void sendMatchesPacketToPlayer(Player player, ArrayOfMatchInfosPacket arrayOfMatchesPacket) {
-		player.sendPacket(NetworkConstants.ENetworkKey.ARRAY_OF_MATCHES, arrayOfMatchesPacket);
+	/**
+	 * @return The encoded {@link ArrayOfMatchInfosPacket} of the currently joinable matches. The packet is only encoded again if the matches changed
+	 *         since the last call.
+	 */
+	synchronized EncodedPacket getEncodedMatchesPacket() {
+		List<Match> matches = db.getJoinableMatches();
+
+		if (cachedPacket == null || !isCached(matches)) {
+			int[] infoVersions = new int[matches.size()];
+			MatchInfoPacket[] matchInfoPackets = new MatchInfoPacket[matches.size()];
+			int i = 0;
+			for (Match curr : matches) {
+				infoVersions[i] = curr.getInfoVersion(); // read the version first, so a concurrent change leads to a new packet on the next call
+				matchInfoPackets[i] = new MatchInfoPacket(curr);
+				i++;
+			}
+
+			cachedPacket = EncodedPacket.encode(NetworkConstants.ENetworkKey.ARRAY_OF_MATCHES, new ArrayOfMatchInfosPacket(matchInfoPackets));
+			cachedMatches = matches;
+			cachedInfoVersions = infoVersions;
+		}
+
+		return cachedPacket;
 	}
 
-	private ArrayOfMatchInfosPacket getArrayOfMatchInfosPacket() {
-		List<Match> matches = db.getJoinableMatches();
+	private boolean isCached(List<Match> matches) {
+		if (matches.size() != cachedMatches.size()) {
+			return false;
+		}
 
-		MatchInfoPacket[] matchInfoPackets = new MatchInfoPacket[matches.size()];
 		int i = 0;
 		for (Match curr : matches) {
-			matchInfoPackets[i] = new MatchInfoPacket(curr);
+			if (curr != cachedMatches.get(i) || curr.getInfoVersion() != cachedInfoVersions[i]) {
+				return false;
+			}
 			i++;
 		}
-
-		return new ArrayOfMatchInfosPacket(matchInfoPackets);
+		return true;
 	}
 
 	public void sendMatchesTo(Player player) {
-		ArrayOfMatchInfosPacket arrayOfMatchesPacket = getArrayOfMatchInfosPacket();
-		sendMatchesPacketToPlayer(player, arrayOfMatchesPacket);
+		player.sendPacket(getEncodedMatchesPacket());
 	}
 }
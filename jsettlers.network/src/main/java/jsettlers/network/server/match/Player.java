@@ -14,8 +14,6 @@
  *******************************************************************************/
 package jsettlers.network.server.match;
 
-import java.util.Timer;
-
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.NetworkConstants.ENetworkKey;
 import jsettlers.network.NetworkConstants.ENetworkMessage;
@@ -23,9 +21,11 @@ import jsettlers.network.common.packets.ChatMessagePacket;
 import jsettlers.network.common.packets.PlayerInfoPacket;
 import jsettlers.network.common.packets.TimeSyncPacket;
 import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
 import jsettlers.network.infrastructure.channel.packet.Packet;
 import jsettlers.network.infrastructure.log.LoggerManager;
 import jsettlers.network.server.exceptions.NotAllPlayersReadyException;
+import jsettlers.network.server.match.lockstep.LockstepScheduler;
 import jsettlers.network.server.match.lockstep.TaskCollectingListener;
 
 /**
@@ -35,13 +35,17 @@ import jsettlers.network.server.match.lockstep.TaskCollectingListener;
  */
 public class Player {
 	private final PlayerInfoPacket playerInfo;
+	private final int features;
 	private final Channel channel;
 
-	private EPlayerState state = EPlayerState.LOGGED_IN;
+	private volatile EPlayerState state = EPlayerState.LOGGED_IN;
+	private volatile IPlayerStateListener stateListener;
 	private Match match;
+	private volatile int catchUpLockstep = -1;
 
-	public Player(PlayerInfoPacket playerInfo, Channel channel) {
+	public Player(PlayerInfoPacket playerInfo, int features, Channel channel) {
 		this.playerInfo = playerInfo;
+		this.features = features;
 		this.channel = channel;
 	}
 
@@ -49,16 +53,31 @@ public class Player {
 		return playerInfo;
 	}
 
+	/**
+	 * @param feature
+	 *            One of the {@link NetworkConstants.Features}.
+	 * @return true if the client of this player announced support for the given feature.
+	 */
+	public boolean supportsFeature(int feature) {
+		return (features & feature) == feature;
+	}
+
 	public String getId() {
 		return playerInfo.getId();
 	}
 
 	public synchronized void leaveMatch() throws IllegalStateException {
-		if (match != null) {
+		if (match != null && state == EPlayerState.SPECTATING) {
+			match.spectatorLeft(this);
+			match = null;
+
+			setState(EPlayerState.LOGGED_IN);
+			channel.setLogger(LoggerManager.ROOT_LOGGER);
+		} else if (match != null) {
 			match.playerLeft(this);
 			match = null;
 
-			state = EPlayerState.LOGGED_IN;
+			setState(EPlayerState.LOGGED_IN);
 			channel.removeListener(ENetworkKey.SYNCHRONOUS_TASK);
 			channel.setLogger(LoggerManager.ROOT_LOGGER);
 		}
@@ -68,8 +87,24 @@ public class Player {
 		EPlayerState.assertState(state, EPlayerState.LOGGED_IN);
 
 		this.match = match;
+		setState(EPlayerState.IN_MATCH); // before joining, as joining a running match directly starts it for this player
+		channel.setLogger(match.getMatchLogger());
 		match.join(this);
-		state = EPlayerState.IN_MATCH;
+	}
+
+	/**
+	 * Joins the given match as spectator.
+	 * 
+	 * @param match
+	 * @throws IllegalStateException
+	 *             If the player is already in a match or the match can't be watched.
+	 */
+	public synchronized void spectateMatch(Match match) throws IllegalStateException {
+		EPlayerState.assertState(state, EPlayerState.LOGGED_IN);
+
+		match.addSpectator(this);
+		this.match = match;
+		setState(EPlayerState.SPECTATING);
 		channel.setLogger(match.getMatchLogger());
 	}
 
@@ -81,17 +116,25 @@ public class Player {
 		channel.sendPacket(key, packet);
 	}
 
+	public void sendPacket(EncodedPacket packet) {
+		channel.sendPacket(packet);
+	}
+
 	public synchronized boolean isInMatch() {
 		return state == EPlayerState.IN_MATCH || state == EPlayerState.IN_RUNNING_MATCH;
 	}
 
-	public void startMatch(Timer timer) throws IllegalStateException, NotAllPlayersReadyException {
+	public synchronized boolean isSpectating() {
+		return state == EPlayerState.SPECTATING;
+	}
+
+	public void startMatch(LockstepScheduler lockstepScheduler) throws IllegalStateException, NotAllPlayersReadyException {
 		EPlayerState.assertState(state, EPlayerState.IN_MATCH);
-		match.startMatch(timer);
+		match.startMatch(lockstepScheduler);
 	}
 
 	void matchStarted(TaskCollectingListener taskListener) {
-		state = EPlayerState.IN_RUNNING_MATCH;
+		setState(EPlayerState.IN_RUNNING_MATCH);
 		channel.registerListener(taskListener);
 	}
 
@@ -101,6 +144,10 @@ public class Player {
 	}
 
 	public void distributeTimeSync(TimeSyncPacket packet) throws IllegalStateException {
+		if (state == EPlayerState.SPECTATING) {
+			return; // the match never waits for spectators
+		}
+
 		EPlayerState.assertState(state, EPlayerState.IN_RUNNING_MATCH);
 		match.distributeTimeSync(this, packet);
 	}
@@ -113,10 +160,43 @@ public class Player {
 		}
 	}
 
+	void setCatchUpLockstep(int catchUpLockstep) {
+		this.catchUpLockstep = catchUpLockstep;
+	}
+
+	/**
+	 * @param time
+	 *            The current game time of this player.
+	 * @return true if the player is still simulating the history of a running match it rejoined.
+	 */
+	boolean isCatchingUp(int time) {
+		return time / NetworkConstants.Client.LOCKSTEP_PERIOD < catchUpLockstep;
+	}
+
 	public EPlayerState getState() {
 		return state;
 	}
 
+	private void setState(EPlayerState newState) {
+		EPlayerState oldState = state;
+		state = newState;
+
+		IPlayerStateListener stateListener = this.stateListener;
+		if (stateListener != null && oldState != newState) {
+			stateListener.playerStateChanged(this, oldState, newState);
+		}
+	}
+
+	/**
+	 * Sets the listener informed about state changes of this player. Only one listener can be set at a time.
+	 * 
+	 * @param stateListener
+	 *            The listener or <code>null</code> to remove the current one.
+	 */
+	public void setStateListener(IPlayerStateListener stateListener) {
+		this.stateListener = stateListener;
+	}
+
 	public Match getMatch() {
 		return match;
 	}
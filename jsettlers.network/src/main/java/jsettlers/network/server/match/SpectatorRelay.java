@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.common.packets.MatchStartPacket;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
+import jsettlers.network.infrastructure.log.Logger;
+import jsettlers.network.server.match.lockstep.LockstepHistory;
+import jsettlers.network.server.packets.CompactServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+
+/**
+ * Relays the lockstep stream of a match to its spectators. The locksteps are held back for the configured delay and each of them is only encoded
+ * once for all spectators.
+ * <p />
+ * The packets are written by the given {@link Executor}, so the match never waits for a spectator. Spectators that can't keep up with the stream
+ * and collect more than {@link NetworkConstants.Server#MAX_SPECTATOR_BACKLOG} unsent packets are disconnected. Writing to a blocking channel
+ * occupies a thread of the executor until the socket takes the packet. Spectators whose write takes longer than
+ * {@link NetworkConstants.Server#SPECTATOR_WRITE_TIMEOUT_MS} are therefore disconnected as well, which releases the thread for the other
+ * spectators.
+ */
+class SpectatorRelay {
+	private final Logger logger;
+	private final Executor sender;
+	private final int delayLocksteps;
+
+	private final List<Spectator> spectators = new ArrayList<>();
+	private final ArrayDeque<ServersideSyncTasksPacket> delayedPackets = new ArrayDeque<>();
+	private final LockstepHistory history = new LockstepHistory(NetworkConstants.Server.MAX_LOCKSTEP_HISTORY_BYTES);
+
+	private EncodedPacket matchStartPacket;
+
+	/**
+	 * @param logger
+	 *            The logger of the match.
+	 * @param sender
+	 *            The executor writing the packets to the spectators.
+	 * @param delayLocksteps
+	 *            The number of locksteps the spectators are behind the players.
+	 */
+	SpectatorRelay(Logger logger, Executor sender, int delayLocksteps) {
+		this.logger = logger;
+		this.sender = sender;
+		this.delayLocksteps = delayLocksteps;
+	}
+
+	/**
+	 * Adds the given spectator. If the match is already running, the spectator receives the start of the match and the delayed history.
+	 * 
+	 * @param player
+	 *            The spectator.
+	 * @throws IllegalStateException
+	 *             If the match already sent locksteps to the spectators and the history is not available to the spectator.
+	 */
+	synchronized void addSpectator(Player player) throws IllegalStateException {
+		Spectator spectator = new Spectator(player);
+
+		if (matchStartPacket != null && history.getLastLockstep() >= 0) {
+			if (!player.supportsFeature(NetworkConstants.Features.LOCKSTEP_HISTORY) || !history.isAvailable()) {
+				throw new IllegalStateException("Spectator " + player.getId() + " can't catch up with the running match.");
+			}
+
+			spectator.offer(matchStartPacket);
+			spectator.offer(EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK_HISTORY, history.createPacket()));
+		} else if (matchStartPacket != null) {
+			spectator.offer(matchStartPacket);
+		}
+
+		spectators.add(spectator);
+	}
+
+	synchronized void removeSpectator(Player player) {
+		spectators.removeIf(spectator -> spectator.player == player);
+	}
+
+	synchronized int getNumberOfSpectators() {
+		return spectators.size();
+	}
+
+	/**
+	 * Sends the start of the match to the spectators that are already waiting.
+	 */
+	void matchStarted(MatchStartPacket packet) {
+		List<Player> slowSpectators;
+		synchronized (this) {
+			matchStartPacket = EncodedPacket.encode(ENetworkKey.MATCH_STARTED, packet);
+			slowSpectators = offerToAll(matchStartPacket, matchStartPacket);
+		}
+		disconnect(slowSpectators);
+	}
+
+	/**
+	 * Queues the given lockstep and sends all locksteps that are older than the delay to the spectators.
+	 * 
+	 * @param packet
+	 *            The lockstep sent to the players.
+	 */
+	void relay(ServersideSyncTasksPacket packet) {
+		List<Player> slowSpectators = new LinkedList<>();
+		synchronized (this) {
+			delayedPackets.add(packet);
+
+			while (!delayedPackets.isEmpty() && delayedPackets.peek().getLockstepNumber() <= packet.getLockstepNumber() - delayLocksteps) {
+				slowSpectators.addAll(release(delayedPackets.poll()));
+			}
+		}
+		disconnect(slowSpectators);
+	}
+
+	/**
+	 * Sends all delayed locksteps to the spectators. This is used when the match is finished.
+	 */
+	void releaseAll() {
+		List<Player> slowSpectators = new LinkedList<>();
+		synchronized (this) {
+			while (!delayedPackets.isEmpty()) {
+				slowSpectators.addAll(release(delayedPackets.poll()));
+			}
+		}
+		disconnect(slowSpectators);
+	}
+
+	private List<Player> release(ServersideSyncTasksPacket packet) {
+		history.record(packet);
+
+		EncodedPacket encodedPacket = null;
+		EncodedPacket compactPacket = null;
+		for (Spectator spectator : spectators) {
+			if (spectator.player.supportsFeature(NetworkConstants.Features.COMPACT_SYNC_TASKS)) {
+				if (compactPacket == null) {
+					compactPacket = EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK_COMPACT, new CompactServersideSyncTasksPacket(packet));
+				}
+			} else if (encodedPacket == null) {
+				encodedPacket = EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK, packet);
+			}
+		}
+		return offerToAll(encodedPacket, compactPacket);
+	}
+
+	private List<Player> offerToAll(EncodedPacket encodedPacket, EncodedPacket compactPacket) {
+		List<Player> slowSpectators = new LinkedList<>();
+
+		long now = System.nanoTime();
+
+		for (int i = spectators.size() - 1; i >= 0; i--) {
+			Spectator spectator = spectators.get(i);
+			boolean compact = spectator.player.supportsFeature(NetworkConstants.Features.COMPACT_SYNC_TASKS);
+
+			if (spectator.isWriteTimedOut(now) || !spectator.offer(compact ? compactPacket : encodedPacket)) {
+				spectator.drop();
+				spectators.remove(i);
+				slowSpectators.add(spectator.player);
+			}
+		}
+		return slowSpectators;
+	}
+
+	/**
+	 * Closes the channels of the given spectators. This aborts a blocked write of the spectator. This must not be called while holding the lock of
+	 * the relay, as closing a channel informs its listeners.
+	 */
+	private void disconnect(List<Player> slowSpectators) {
+		for (Player spectator : slowSpectators) {
+			logger.warn("Disconnecting spectator " + spectator.getId() + " because it does not receive the locksteps fast enough.");
+			spectator.getChannel().close();
+		}
+	}
+
+	/**
+	 * A spectator with its queue of packets that still need to be sent. At most one task of the executor sends the packets of a spectator at a
+	 * time, so they are sent in order.
+	 */
+	private final class Spectator implements Runnable {
+		private final Player player;
+		private final ArrayDeque<EncodedPacket> backlog = new ArrayDeque<>();
+		private boolean sending = false;
+		/**
+		 * The {@link System#nanoTime()} the current write started at or 0 if no write is running.
+		 */
+		private long writeStartTime = 0;
+
+		Spectator(Player player) {
+			this.player = player;
+		}
+
+		/**
+		 * @return false if the backlog of the spectator is full and the packet has not been queued.
+		 */
+		boolean offer(EncodedPacket packet) {
+			synchronized (this) {
+				if (backlog.size() >= NetworkConstants.Server.MAX_SPECTATOR_BACKLOG) {
+					return false;
+				}
+
+				backlog.add(packet);
+				if (sending) {
+					return true;
+				}
+				sending = true;
+			}
+
+			sender.execute(this);
+			return true;
+		}
+
+		/**
+		 * @return true if a write to this spectator is running for more than {@link NetworkConstants.Server#SPECTATOR_WRITE_TIMEOUT_MS}.
+		 */
+		synchronized boolean isWriteTimedOut(long now) {
+			return writeStartTime != 0 && now - writeStartTime > TimeUnit.MILLISECONDS.toNanos(NetworkConstants.Server.SPECTATOR_WRITE_TIMEOUT_MS);
+		}
+
+		/**
+		 * Discards the packets that have not been sent yet.
+		 */
+		synchronized void drop() {
+			backlog.clear();
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				EncodedPacket packet;
+				synchronized (this) {
+					writeStartTime = 0;
+					packet = backlog.poll();
+					if (packet == null) {
+						sending = false;
+						return;
+					}
+					writeStartTime = Math.max(1, System.nanoTime());
+				}
+
+				player.sendPacket(packet);
+			}
+		}
+	}
+}
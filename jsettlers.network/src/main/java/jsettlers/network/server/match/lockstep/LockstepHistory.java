@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match.lockstep;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jsettlers.network.server.packets.CompactServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideSyncTasksHistoryPacket;
+import jsettlers.network.server.packets.ServersideSyncTasksHistoryPacket.Segment;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+
+/**
+ * Records the {@link ServersideSyncTasksPacket}s sent in a match, so that a player rejoining the match can simulate the whole match and catch up with
+ * the other players.
+ * <p>
+ * Only packets containing tasks are stored. They are collected in their compact encoding and compressed in segments of {@value #SEGMENT_SIZE} bytes.
+ * If the history grows beyond the given maximum size, it is dropped and no longer available.
+ */
+public class LockstepHistory {
+	private static final int SEGMENT_SIZE = 64 * 1024;
+
+	private final int maxBytes;
+	private final List<Segment> segments = new ArrayList<>();
+	private final ByteArrayOutputStream openSegmentBytes = new ByteArrayOutputStream();
+	private final DataOutputStream openSegment = new DataOutputStream(openSegmentBytes);
+
+	private int openSegmentPackets = 0;
+	private int segmentsBytes = 0;
+	private int lastLockstep = -1;
+	private boolean overflowed = false;
+
+	public LockstepHistory(int maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Records the given packet. The packets must be recorded in the order of their locksteps.
+	 */
+	public synchronized void record(ServersideSyncTasksPacket packet) {
+		if (overflowed) {
+			return;
+		}
+
+		lastLockstep = packet.getLockstepNumber();
+		if (packet.getTasks().isEmpty()) {
+			return;
+		}
+
+		try {
+			new CompactServersideSyncTasksPacket(packet).serialize(openSegment);
+			openSegment.flush();
+			openSegmentPackets++;
+
+			if (openSegmentBytes.size() >= SEGMENT_SIZE) {
+				Segment segment = encodeOpenSegment();
+				segments.add(segment);
+				segmentsBytes += segment.getEncodedLength();
+				openSegmentBytes.reset();
+				openSegmentPackets = 0;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // can not happen, as only memory is written
+		}
+
+		if (getStoredBytes() > maxBytes) {
+			overflowed = true;
+			segments.clear();
+			openSegmentBytes.reset();
+			openSegmentPackets = 0;
+		}
+	}
+
+	/**
+	 * @return true if the complete history of the match is available.
+	 */
+	public synchronized boolean isAvailable() {
+		return !overflowed && lastLockstep >= 0;
+	}
+
+	public synchronized int getLastLockstep() {
+		return lastLockstep;
+	}
+
+	/**
+	 * @return The number of bytes currently used to store the history.
+	 */
+	public synchronized int getStoredBytes() {
+		return segmentsBytes + openSegmentBytes.size();
+	}
+
+	/**
+	 * @return A packet containing the complete history up to the last recorded lockstep.
+	 * @throws IllegalStateException
+	 *             If the history is not available.
+	 */
+	public synchronized ServersideSyncTasksHistoryPacket createPacket() throws IllegalStateException {
+		if (!isAvailable()) {
+			throw new IllegalStateException("The lockstep history is not available.");
+		}
+
+		List<Segment> packetSegments = new ArrayList<>(segments);
+		if (openSegmentPackets > 0) {
+			try {
+				packetSegments.add(encodeOpenSegment());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e); // can not happen, as only memory is written
+			}
+		}
+		return new ServersideSyncTasksHistoryPacket(lastLockstep, packetSegments);
+	}
+
+	private Segment encodeOpenSegment() throws IOException {
+		return Segment.encode(openSegmentPackets, openSegmentBytes.toByteArray(), openSegmentBytes.size());
+	}
+}
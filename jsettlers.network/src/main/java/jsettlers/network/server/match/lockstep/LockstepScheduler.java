@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match.lockstep;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the periodic lockstep tasks of the running matches. The scheduler consists of several shards with a thread each. Every task is pinned to one
+ * shard, so a slow write or a long running task of one match only delays the matches of the same shard.
+ * <p />
+ * For every scheduled task the {@link SchedulingJitter} is recorded.
+ */
+public class LockstepScheduler {
+	private final ScheduledThreadPoolExecutor[] shards;
+	private final AtomicInteger nextShard = new AtomicInteger();
+
+	/**
+	 * Creates a scheduler with one shard per available processor.
+	 */
+	public LockstepScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public LockstepScheduler(int numberOfShards) {
+		shards = new ScheduledThreadPoolExecutor[numberOfShards];
+
+		for (int i = 0; i < numberOfShards; i++) {
+			String threadName = "LockstepScheduler-" + i;
+			shards[i] = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, threadName);
+				thread.setDaemon(true);
+				return thread;
+			});
+			shards[i].setRemoveOnCancelPolicy(true);
+		}
+	}
+
+	/**
+	 * Schedules the given task to be run periodically at a fixed rate.
+	 * 
+	 * @param task
+	 *            The task to be run.
+	 * @param initialDelayMs
+	 *            The delay before the first run in milliseconds.
+	 * @param periodMs
+	 *            The time between two runs in milliseconds.
+	 * @return The {@link ScheduledTask} that can be used to cancel the task and to get it's jitter.
+	 */
+	public ScheduledTask schedule(Runnable task, long initialDelayMs, long periodMs) {
+		ScheduledThreadPoolExecutor shard = shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+
+		ScheduledTask scheduledTask = new ScheduledTask(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelayMs),
+				TimeUnit.MILLISECONDS.toNanos(periodMs));
+		scheduledTask.setFuture(shard.scheduleAtFixedRate(scheduledTask, initialDelayMs, periodMs, TimeUnit.MILLISECONDS));
+		return scheduledTask;
+	}
+
+	public int getNumberOfShards() {
+		return shards.length;
+	}
+
+	public void shutdown() {
+		for (ScheduledThreadPoolExecutor shard : shards) {
+			shard.shutdownNow();
+		}
+	}
+
+	/**
+	 * A task scheduled with a {@link LockstepScheduler}.
+	 */
+	public static final class ScheduledTask implements Runnable {
+		private final Runnable task;
+		private final long periodNs;
+		private final SchedulingJitter jitter = new SchedulingJitter();
+
+		private long plannedRunNs;
+		private ScheduledFuture<?> future;
+		private boolean cancelled;
+
+		private ScheduledTask(Runnable task, long firstRunNs, long periodNs) {
+			this.task = task;
+			this.plannedRunNs = firstRunNs;
+			this.periodNs = periodNs;
+		}
+
+		@Override
+		public void run() {
+			jitter.record(System.nanoTime() - plannedRunNs);
+			plannedRunNs += periodNs;
+
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				e.printStackTrace(); // an exception must not stop the lockstep of the match
+			}
+		}
+
+		private synchronized void setFuture(ScheduledFuture<?> future) {
+			this.future = future;
+			if (cancelled) {
+				future.cancel(false);
+			}
+		}
+
+		public synchronized void cancel() {
+			cancelled = true;
+			if (future != null) {
+				future.cancel(false);
+			}
+		}
+
+		public SchedulingJitter getJitter() {
+			return jitter;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match.lockstep;
+
+import java.util.Locale;
+
+/**
+ * Collects how late the runs of a periodic task were compared to their planned execution times.
+ * <p />
+ * The values are recorded by the thread running the task and may be read by any other thread.
+ */
+public class SchedulingJitter {
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	private long measurements;
+	private long sumNs;
+	private long maxNs;
+
+	synchronized void record(long jitterNs) {
+		jitterNs = Math.max(0, jitterNs);
+
+		measurements++;
+		sumNs += jitterNs;
+		maxNs = Math.max(maxNs, jitterNs);
+	}
+
+	public synchronized long getMeasurements() {
+		return measurements;
+	}
+
+	public synchronized float getAverageJitterMs() {
+		return measurements == 0 ? 0 : (float) sumNs / measurements / NANOS_PER_MILLI;
+	}
+
+	public synchronized float getMaxJitterMs() {
+		return (float) maxNs / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format(Locale.ENGLISH, "%d runs, average jitter: %.2f ms, max jitter: %.2f ms", measurements, getAverageJitterMs(),
+				getMaxJitterMs());
+	}
+}
@@ -14,8 +14,9 @@
  *******************************************************************************/
 package jsettlers.network.server.match.lockstep;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.NetworkConstants.ENetworkKey;
@@ -27,29 +28,37 @@ import jsettlers.network.server.packets.ServersideTaskPacket;
 /**
  * This listener collects {@link Packet}s for the {@link NetworkConstants}.Keys.SYNCHRONOUS_TASK key and adds them to a list. The elements can then be
  * removed from the list to be send to the clients as batch.
+ * <p />
+ * The tasks are received by the channel threads of all players and collected by the lockstep thread of the match. Therefore they are buffered in a
+ * lock free queue.
  * 
  * @author Andreas Eberle
  * 
  */
 public class TaskCollectingListener extends PacketChannelListener<ServersideTaskPacket> {
-	private List<ServersideTaskPacket> currTasksList = new LinkedList<>();
+	private final ConcurrentLinkedQueue<ServersideTaskPacket> tasks = new ConcurrentLinkedQueue<>();
 
 	public TaskCollectingListener() {
 		super(ENetworkKey.SYNCHRONOUS_TASK, new GenericDeserializer<>(ServersideTaskPacket.class));
 	}
 
 	/**
+	 * Removes the collected tasks.
 	 * 
-	 * @return
+	 * @return The tasks collected since the last call.
 	 */
 	public List<ServersideTaskPacket> getAndResetTasks() {
-		List<ServersideTaskPacket> temp = currTasksList;
-		currTasksList = new LinkedList<>();
-		return temp;
+		List<ServersideTaskPacket> collectedTasks = new ArrayList<>();
+
+		ServersideTaskPacket task;
+		while ((task = tasks.poll()) != null) {
+			collectedTasks.add(task);
+		}
+		return collectedTasks;
 	}
 
 	@Override
 	protected void receivePacket(ENetworkKey key, ServersideTaskPacket deserialized) {
-		currTasksList.add(deserialized);
+		tasks.offer(deserialized);
 	}
 }
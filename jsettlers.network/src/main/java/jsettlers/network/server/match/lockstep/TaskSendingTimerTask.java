@@ -16,7 +16,6 @@ package jsettlers.network.server.match.lockstep;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.TimerTask;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.infrastructure.channel.ping.IPingUpdateListener;
@@ -31,16 +30,16 @@ import jsettlers.network.server.packets.ServersideTaskPacket;
  * @author Andreas Eberle
  * 
  */
-public class TaskSendingTimerTask extends TimerTask {
+public class TaskSendingTimerTask implements Runnable {
 	private final Logger logger;
 	private final TaskCollectingListener taskCollectingListener;
 	private final Match match;
 
 	private int lockstepCounter = 0;
-	private int currentLockstepMax = NetworkConstants.Client.LOCKSTEP_DEFAULT_LEAD_STEPS;
+	private volatile int currentLockstepMax = NetworkConstants.Client.LOCKSTEP_DEFAULT_LEAD_STEPS;
 
 	private int minimumLeadTimeMs = NetworkConstants.Client.LOCKSTEP_DEFAULT_LEAD_STEPS * NetworkConstants.Client.LOCKSTEP_PERIOD;
-	private int leadSteps = minimumLeadTimeMs / NetworkConstants.Client.LOCKSTEP_PERIOD;
+	private volatile int leadSteps = minimumLeadTimeMs / NetworkConstants.Client.LOCKSTEP_PERIOD;
 
 	public TaskSendingTimerTask(Logger logger, TaskCollectingListener taskCollectingListener, Match match) {
 		this.logger = logger;
@@ -56,7 +55,7 @@ public class TaskSendingTimerTask extends TimerTask {
 
 		List<ServersideTaskPacket> tasksList = taskCollectingListener.getAndResetTasks();
 		ServersideSyncTasksPacket syncTasksPacket = new ServersideSyncTasksPacket(lockstepCounter++, tasksList);
-		match.broadcastMessage(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK, syncTasksPacket);
+		match.broadcastSyncTasks(syncTasksPacket);
 	}
 
 	public void receivedLockstepAcknowledge(int acknowledgedLockstep) {
@@ -64,6 +63,14 @@ public class TaskSendingTimerTask extends TimerTask {
 		// logger.info("lead steps: " + leadSteps);
 	}
 
+	/**
+	 * @return The number of locksteps the server currently runs ahead of the acknowledged lockstep. This is adapted to the round trip times of the
+	 *         players.
+	 */
+	public int getLeadSteps() {
+		return leadSteps;
+	}
+
 	final void pingUpdated(int rtt, int jitter) {
 		if (rtt < 0 || rtt > 10000 || jitter > 5000) {
 			return; // this is an exceptional high rtt, we can not adapt to this
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.packets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.utils.CompressedFrames;
+import jsettlers.network.infrastructure.utils.VarInts;
+
+/**
+ * Compact encoding of a {@link ServersideSyncTasksPacket} that is sent to clients supporting it. Lockstep, number of tasks and task lengths are
+ * written as variable length integers and the tasks are deflated if they are large. See {@link SyncTasksPacket#deserializeCompact(DataInputStream)}
+ * for the client side.
+ */
+public class CompactServersideSyncTasksPacket extends Packet {
+
+	private int lockstepNumber;
+	private List<ServersideTaskPacket> tasks;
+
+	public CompactServersideSyncTasksPacket() {
+	}
+
+	public CompactServersideSyncTasksPacket(ServersideSyncTasksPacket packet) {
+		this.lockstepNumber = packet.getLockstepNumber();
+		this.tasks = packet.getTasks();
+	}
+
+	@Override
+	public void serialize(DataOutputStream dos) throws IOException {
+		VarInts.writeUnsigned(dos, lockstepNumber);
+		VarInts.writeUnsigned(dos, tasks.size());
+
+		if (!tasks.isEmpty()) {
+			ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+			DataOutputStream frame = new DataOutputStream(frameBytes);
+			for (ServersideTaskPacket task : tasks) {
+				byte[] data = task.getData();
+				VarInts.writeUnsigned(frame, data.length);
+				frame.write(data);
+			}
+			CompressedFrames.write(dos, frameBytes.toByteArray(), frameBytes.size());
+		}
+	}
+
+	@Override
+	public void deserialize(DataInputStream dis) throws IOException {
+		lockstepNumber = VarInts.readUnsigned(dis);
+		int numberOfTasks = VarInts.readUnsigned(dis);
+		tasks = new ArrayList<>(numberOfTasks);
+
+		if (numberOfTasks > 0) {
+			DataInputStream frame = new DataInputStream(new ByteArrayInputStream(CompressedFrames.read(dis)));
+			for (int i = 0; i < numberOfTasks; i++) {
+				byte[] data = new byte[VarInts.readUnsigned(frame)];
+				frame.readFully(data);
+				tasks.add(new ServersideTaskPacket(data));
+			}
+		}
+	}
+
+	public ServersideSyncTasksPacket toServersideSyncTasksPacket() {
+		return new ServersideSyncTasksPacket(lockstepNumber, tasks);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + lockstepNumber;
+		result = prime * result + ((tasks == null) ? 0 : tasks.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CompactServersideSyncTasksPacket other = (CompactServersideSyncTasksPacket) obj;
+		if (lockstepNumber != other.lockstepNumber)
+			return false;
+		if (tasks == null) {
+			if (other.tasks != null)
+				return false;
+		} else if (!tasks.equals(other.tasks))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.packets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jsettlers.network.client.task.packets.SyncTasksHistoryPacket;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.utils.CompressedFrames;
+import jsettlers.network.infrastructure.utils.VarInts;
+
+/**
+ * The server side representation of the {@link SyncTasksHistoryPacket}. The segments are kept in their encoded form, so the history of a match does
+ * not need to be encoded again for every rejoining player.
+ */
+public class ServersideSyncTasksHistoryPacket extends Packet {
+
+	/**
+	 * A number of {@link CompactServersideSyncTasksPacket}s stored in an encoded {@link CompressedFrames} frame.
+	 */
+	public static final class Segment {
+		private final int numberOfPackets;
+		private final byte[] frame;
+
+		public Segment(int numberOfPackets, byte[] frame) {
+			this.numberOfPackets = numberOfPackets;
+			this.frame = frame;
+		}
+
+		/**
+		 * Encodes the given compact packets as segment.
+		 */
+		public static Segment encode(int numberOfPackets, byte[] packets, int length) throws IOException {
+			ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+			DataOutputStream frame = new DataOutputStream(frameBytes);
+			CompressedFrames.write(frame, packets, length);
+			frame.flush();
+			return new Segment(numberOfPackets, frameBytes.toByteArray());
+		}
+
+		public int getEncodedLength() {
+			return frame.length;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * numberOfPackets + Arrays.hashCode(frame);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Segment other = (Segment) obj;
+			return numberOfPackets == other.numberOfPackets && Arrays.equals(frame, other.frame);
+		}
+	}
+
+	private int lastLockstep;
+	private List<Segment> segments;
+
+	public ServersideSyncTasksHistoryPacket() {
+	}
+
+	public ServersideSyncTasksHistoryPacket(int lastLockstep, List<Segment> segments) {
+		this.lastLockstep = lastLockstep;
+		this.segments = segments;
+	}
+
+	@Override
+	public void serialize(DataOutputStream dos) throws IOException {
+		VarInts.writeUnsigned(dos, lastLockstep);
+		VarInts.writeUnsigned(dos, segments.size());
+
+		for (Segment segment : segments) {
+			VarInts.writeUnsigned(dos, segment.numberOfPackets);
+			dos.write(segment.frame);
+		}
+	}
+
+	@Override
+	public void deserialize(DataInputStream dis) throws IOException {
+		lastLockstep = VarInts.readUnsigned(dis);
+		int numberOfSegments = VarInts.readUnsigned(dis);
+		segments = new ArrayList<>(numberOfSegments);
+
+		for (int i = 0; i < numberOfSegments; i++) {
+			int numberOfPackets = VarInts.readUnsigned(dis);
+			byte[] packets = CompressedFrames.read(dis);
+			segments.add(Segment.encode(numberOfPackets, packets, packets.length));
+		}
+	}
+
+	public int getLastLockstep() {
+		return lastLockstep;
+	}
+
+	public List<Segment> getSegments() {
+		return segments;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + lastLockstep;
+		result = prime * result + ((segments == null) ? 0 : segments.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ServersideSyncTasksHistoryPacket other = (ServersideSyncTasksHistoryPacket) obj;
+		if (lastLockstep != other.lastLockstep)
+			return false;
+		if (segments == null) {
+			if (other.segments != null)
+				return false;
+		} else if (!segments.equals(other.segments))
+			return false;
+		return true;
+	}
+}
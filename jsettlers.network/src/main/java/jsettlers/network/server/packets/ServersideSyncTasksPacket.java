@@ -68,6 +68,14 @@ public class ServersideSyncTasksPacket extends Packet {
 		}
 	}
 
+	public int getLockstepNumber() {
+		return lockstepNumber;
+	}
+
+	public List<ServersideTaskPacket> getTasks() {
+		return tasks;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
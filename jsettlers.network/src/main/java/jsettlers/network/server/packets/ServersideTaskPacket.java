@@ -38,6 +38,10 @@ public final class ServersideTaskPacket extends Packet {
 		this.data = data;
 	}
 
+	byte[] getData() {
+		return data;
+	}
+
 	@Override
 	public void serialize(DataOutputStream dos) throws IOException {
 		dos.writeInt(data.length);
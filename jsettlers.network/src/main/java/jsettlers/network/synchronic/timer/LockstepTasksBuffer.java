@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.synchronic.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * Ring buffer of the {@link SyncTasksPacket}s that have not been executed yet, indexed by their lockstep number. Adding and removing a packet is done
+ * in constant time. If packets far in the future are added (e.g. when a replay is loaded), the buffer grows.
+ * <p />
+ * Packets for a lockstep that has already been passed are executed with the next poll. Packets for the same lockstep are merged.
+ * <p />
+ * This class is not thread safe.
+ */
+final class LockstepTasksBuffer {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private SyncTasksPacket[] packets = new SyncTasksPacket[INITIAL_CAPACITY];
+	private int firstLockstep = 0;
+	private int size = 0;
+
+	void add(SyncTasksPacket packet) {
+		int lockstep = Math.max(firstLockstep, packet.getLockstepNumber());
+		ensureCapacity(lockstep);
+
+		int index = lockstep & (packets.length - 1);
+		SyncTasksPacket existing = packets[index];
+		if (existing == null) {
+			packets[index] = packet;
+			size++;
+		} else {
+			List<TaskPacket> tasks = new ArrayList<>(existing.getTasks());
+			tasks.addAll(packet.getTasks());
+			packets[index] = new SyncTasksPacket(existing.getLockstepNumber(), tasks);
+		}
+	}
+
+	/**
+	 * Removes the next packet with a lockstep number lower or equal to the given one.
+	 * 
+	 * @param lockstep
+	 *            The current lockstep.
+	 * @return The packet or null if there is no packet up to the given lockstep.
+	 */
+	SyncTasksPacket poll(int lockstep) {
+		if (size == 0) {
+			firstLockstep = Math.max(firstLockstep, lockstep);
+			return null;
+		}
+
+		while (firstLockstep <= lockstep) {
+			int index = firstLockstep & (packets.length - 1);
+			SyncTasksPacket packet = packets[index];
+			if (packet != null) {
+				packets[index] = null;
+				size--;
+				return packet;
+			}
+
+			if (firstLockstep == lockstep) {
+				break;
+			}
+			firstLockstep++;
+		}
+		return null;
+	}
+
+	/**
+	 * Calls the given consumer with all buffered packets in the order of their execution.
+	 */
+	void forEach(Consumer<SyncTasksPacket> consumer) {
+		int remaining = size;
+		for (int lockstep = firstLockstep; remaining > 0; lockstep++) {
+			SyncTasksPacket packet = packets[lockstep & (packets.length - 1)];
+			if (packet != null) {
+				consumer.accept(packet);
+				remaining--;
+			}
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void ensureCapacity(int lockstep) {
+		if (lockstep - firstLockstep < packets.length) {
+			return;
+		}
+
+		int capacity = packets.length;
+		while (lockstep - firstLockstep >= capacity) {
+			capacity *= 2;
+		}
+
+		SyncTasksPacket[] newPackets = new SyncTasksPacket[capacity];
+		for (int i = 0; i < packets.length; i++) {
+			int currLockstep = firstLockstep + i;
+			newPackets[currLockstep & (capacity - 1)] = packets[currLockstep & (packets.length - 1)];
+		}
+		packets = newPackets;
+	}
+}
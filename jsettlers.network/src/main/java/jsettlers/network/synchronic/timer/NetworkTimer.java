@@ -18,8 +18,6 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -29,18 +27,30 @@ import java.util.TimerTask;
 
 import jsettlers.network.NetworkConstants;
 import jsettlers.network.client.INetworkClientClock;
+import jsettlers.network.client.task.packets.SyncTasksLogReader;
+import jsettlers.network.client.task.packets.SyncTasksLogWriter;
 import jsettlers.network.client.task.packets.SyncTasksPacket;
 import jsettlers.network.client.task.packets.TaskPacket;
 
 /**
  * This is a basic game timer. All synchronous actions must be based on this clock. The {@link NetworkTimer} also triggers the execution of synchronous tasks in the network game.
+ * <p />
+ * If the server did not yet allow the next lockstep, the timer does not execute it but remembers the missed ticks. As soon as the lockstep is
+ * allowed, the missed ticks are caught up by running several ticks per timer period as long as they take less than
+ * {@link #CATCH_UP_BUDGET_NS}.
  *
  * @author Andreas Eberle
  *
  */
 public final class NetworkTimer extends TimerTask implements INetworkClientClock {
 	public static final short TIME_SLICE = 50;
-	private static final Comparator<SyncTasksPacket> tasksByTimeComparator = Comparator.comparingInt(SyncTasksPacket::getLockstepNumber);
+	private static final long CATCH_UP_BUDGET_NS = TIME_SLICE * 1000000L * 3 / 4;
+	private static final int MAX_MISSED_TICKS = 10 * 1000 / TIME_SLICE;
+	/**
+	 * If the server allowed more than this number of locksteps ahead of the current time (e.g. after rejoining a running match), the clock executes
+	 * ticks as fast as possible until it caught up.
+	 */
+	private static final int CATCH_UP_LOCKSTEPS = 50;
 
 	private final Timer timer;
 	private final Object lockstepLock = new Object();
@@ -49,10 +59,10 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	private final List<ScheduledTimerable> newTimerables = new LinkedList<>();
 	private final List<INetworkTimerable> timerablesToBeRemoved = new LinkedList<>();
 
-	private final LinkedList<SyncTasksPacket> tasks = new LinkedList<>();
+	private final LockstepTasksBuffer tasks = new LockstepTasksBuffer();
 
 	private int time = 0;
-	private int maxAllowedLockstep = -1;
+	private volatile int maxAllowedLockstep = -1;
 
 	private boolean isPausing;
 	private int pauseTime;
@@ -63,6 +73,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 	private ITaskExecutor taskExecutor;
 	private DataOutputStream replayLogStream;
+	private SyncTasksLogWriter replayLogWriter;
 
 	public NetworkTimer() {
 		this.timer = new Timer("NetworkTimer");
@@ -96,18 +107,64 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	public void run() {
 		if (!isPausing) {
 			if (pauseTime <= 0) { // this is used for synchronizing the network clients
-				progress += speedFactor;
-
-				while (progress >= 1) {
-					executeRun();
-					progress--;
-				}
+				progress = Math.min(progress + speedFactor, MAX_MISSED_TICKS);
+				executeDueTicks();
 			} else {
 				pauseTime -= TIME_SLICE;
 			}
 		}
 	}
 
+	/**
+	 * Executes the ticks accumulated in {@link #progress}. Ticks of locksteps not yet allowed by the server stay in {@link #progress} and are caught up
+	 * later. If the clock is far behind the locksteps allowed by the server, additional ticks are executed to catch up.
+	 */
+	private void executeDueTicks() {
+		long start = System.nanoTime();
+		boolean firstTick = true;
+
+		while ((progress >= 1 || isFarBehindServer()) && isNextTickAllowed()) {
+			if (!firstTick && System.nanoTime() - start > CATCH_UP_BUDGET_NS) {
+				break; // the remaining ticks are caught up during the next periods
+			}
+
+			executeRun();
+			progress = Math.max(0, progress - 1);
+			firstTick = false;
+		}
+
+		if (NetworkConstants.LOG_LOCKSTEPS && progress >= 2) {
+			System.out.println("Behind by " + getBehindTimeMs() + "ms waiting for " + getLockstepText(getNextTickLockstep()));
+		}
+	}
+
+	private boolean isFarBehindServer() {
+		return maxAllowedLockstep != Integer.MAX_VALUE && getAvailableLocksteps() > CATCH_UP_LOCKSTEPS;
+	}
+
+	private boolean isNextTickAllowed() {
+		return getNextTickLockstep() <= maxAllowedLockstep;
+	}
+
+	private int getNextTickLockstep() {
+		return (time + TIME_SLICE) / NetworkConstants.Client.LOCKSTEP_PERIOD;
+	}
+
+	/**
+	 * @return The game time in milliseconds this clock is behind. This is the time of the ticks that could not be executed yet because the server
+	 *         did not allow the next lockstep or because the execution took too long.
+	 */
+	public int getBehindTimeMs() {
+		return ((int) progress) * TIME_SLICE;
+	}
+
+	/**
+	 * @return The number of locksteps that have been allowed by the server but have not been executed yet.
+	 */
+	public int getAvailableLocksteps() {
+		return Math.max(0, maxAllowedLockstep - time / NetworkConstants.Client.LOCKSTEP_PERIOD);
+	}
+
 	private synchronized void executeRun() {
 		try {
 			time += TIME_SLICE;
@@ -116,20 +173,20 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			// check if the lockstep is allowed
 			synchronized (lockstepLock) {
 				while (lockstep > maxAllowedLockstep) {
-					System.out.println("WAITING for lockstep!");
+					if (NetworkConstants.LOG_LOCKSTEPS) {
+						System.out.println("WAITING for lockstep!");
+					}
 					lockstepLock.wait();
 				}
 			}
 
 			SyncTasksPacket tasksPacket;
-			synchronized (tasks) {
-				tasksPacket = tasks.peekFirst();
-			}
-
-			while (tasksPacket != null && tasksPacket.getLockstepNumber() <= lockstep) {
+			while ((tasksPacket = pollTasksPacket(lockstep)) != null) {
 				assert tasksPacket.getLockstepNumber() == lockstep : "FOUND TasksPacket FOR older lockstep!";
 
-				System.out.println("Executing SyncTaskPacket(" + tasksPacket + ") in " + getLockstepText(lockstep));
+				if (NetworkConstants.LOG_LOCKSTEPS) {
+					System.out.println("Executing SyncTaskPacket(" + tasksPacket + ") in " + getLockstepText(lockstep));
+				}
 
 				try {
 					executeTasksPacket(tasksPacket);
@@ -137,11 +194,6 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 					System.err.println("Error during execution of scheduled task:");
 					t.printStackTrace();
 				}
-
-				synchronized (tasks) {// remove the executed tasksPacket and retrieve the next one to check it.
-					tasks.pollFirst();
-					tasksPacket = tasks.peekFirst();
-				}
 			}
 
 			addNewTimerables();
@@ -156,6 +208,12 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		}
 	}
 
+	private SyncTasksPacket pollTasksPacket(int lockstep) {
+		synchronized (tasks) {
+			return tasks.poll(lockstep);
+		}
+	}
+
 	private void executeTasksPacket(SyncTasksPacket tasksPacket) {
 		if (taskExecutor != null) {
 			for (TaskPacket currTask : tasksPacket.getTasks()) {
@@ -293,9 +351,10 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 		if (!tasksPacket.getTasks().isEmpty()) {
 			synchronized (tasks) {
-				System.out.println("Scheduled SyncTasksPacket(" + tasksPacket + " for " + getLockstepText(tasksPacket.getLockstepNumber()));
-				tasks.addLast(tasksPacket);
-				tasks.sort(tasksByTimeComparator);
+				if (NetworkConstants.LOG_LOCKSTEPS) {
+					System.out.println("Scheduled SyncTasksPacket(" + tasksPacket + " for " + getLockstepText(tasksPacket.getLockstepNumber()));
+				}
+				tasks.add(tasksPacket);
 				saveReplayIfNeeded(tasksPacket);
 			}
 		}
@@ -307,10 +366,10 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	}
 
 	private void saveReplayIfNeeded(SyncTasksPacket tasksPacket) {
-		if (replayLogStream != null) {
+		if (replayLogWriter != null) {
 			try {
-				tasksPacket.serialize(replayLogStream);
-				replayLogStream.flush();
+				replayLogWriter.write(tasksPacket);
+				replayLogWriter.flush();
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -335,6 +394,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 		if (replayFileStream != null) {
 			replayLogStream = replayFileStream;
+			replayLogWriter = new SyncTasksLogWriter(replayFileStream);
 		} else {
 			closeReplayLogStreamIfNeeded();
 		}
@@ -342,10 +402,16 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 	@Override
 	public synchronized void saveRemainingTasks(DataOutputStream dos) throws IOException {
-		for (SyncTasksPacket task : tasks) {
-			task.serialize(dos);
+		List<SyncTasksPacket> remainingTasks = new ArrayList<>();
+		synchronized (tasks) {
+			tasks.forEach(remainingTasks::add);
 		}
-		dos.flush();
+
+		SyncTasksLogWriter writer = new SyncTasksLogWriter(dos);
+		for (SyncTasksPacket task : remainingTasks) {
+			writer.write(task);
+		}
+		writer.flush();
 	}
 
 	private void closeReplayLogStreamIfNeeded() {
@@ -357,6 +423,7 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 				e.printStackTrace();
 			} finally {
 				replayLogStream = null;
+				replayLogWriter = null;
 			}
 		}
 	}
@@ -364,24 +431,11 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	@Override
 	public void loadReplayLogFromStream(DataInputStream dataInputStream) {
 		try {
-			while (true) {
-				SyncTasksPacket currPacket = new SyncTasksPacket();
-				currPacket.deserialize(dataInputStream);
-				scheduleSyncTasksPacket(currPacket);
-			}
-		} catch (IOException e1) { // something went wrong, or the stream was empty
-			try {
-				if (dataInputStream.read() == -1) {
-					System.out.println("Successfully loaded jsettlers.integration.replay file.");
-				} else {
-					System.out.println("Error loading jsettlers.integration.replay file.");
-					e1.printStackTrace();
-				}
-			} catch (IOException e2) {
-				System.out.println("Error loading jsettlers.integration.replay file.");
-				e1.printStackTrace();
-				e2.printStackTrace();
-			}
+			SyncTasksLogReader.read(dataInputStream, this);
+			System.out.println("Successfully loaded jsettlers.integration.replay file.");
+		} catch (IOException e) {
+			System.out.println("Error loading jsettlers.integration.replay file.");
+			e.printStackTrace();
 		}
 	}
 
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import jsettlers.network.NetworkConstants;
@@ -417,6 +418,50 @@ public class NetworkClientIT {
 		assertEquals(NetworkConstants.Client.LOCKSTEP_DEFAULT_LEAD_STEPS + 1, clock2.getAllowedLockstep());
 	}
 
+	@Test
+	public void testRejoinRunningMatchReceivesHistory() throws IllegalStateException, InterruptedException, IOException {
+		logIn(client1, "player1", "player1");
+		logIn(client2, "player2", "player2");
+
+		client1.openNewMatch("TestMatch", 4, new MapInfoPacket("", "", "", "", 4), 34L, null, null, null);
+		Thread.sleep(150L);
+		MatchInfoPacket matchInfo = client1.getMatchInfo();
+		client2.joinMatch(matchInfo.getId(), null, null, null);
+		Thread.sleep(50L);
+
+		client1.setReadyState(true);
+		client2.setReadyState(true);
+		Thread.sleep(30L);
+		client2.startMatch();
+		Thread.sleep(30 + NetworkConstants.Client.LOCKSTEP_PERIOD);
+
+		TestTaskPacket testTask = new TestTaskPacket("rejoin", 2342, (byte) -23);
+		client2.scheduleTask(testTask);
+		clock1.setTime(NetworkConstants.Client.LOCKSTEP_PERIOD + NetworkConstants.Client.TIME_SYNC_TOLERATED_DIFFERENCE + 10);
+		Thread.sleep(NetworkConstants.Client.TIME_SYNC_SEND_INTERVALL + 40L);
+		assertEquals(Arrays.asList(testTask), clock1.popBufferedTasks());
+
+		client2.close();
+		Thread.sleep(50L);
+
+		AsyncChannel[] channels = TestUtils.setUpAsyncLoopbackChannels();
+		NetworkClientClockMock clock3 = new NetworkClientClockMock();
+		NetworkClient client3 = new NetworkClient(channels[0], null, clock3);
+		manager.identifyNewChannel(channels[1]);
+		try {
+			logIn(client3, "player2", "player2");
+			client3.joinMatch(matchInfo.getId(), null, null, null);
+			Thread.sleep(100L);
+
+			assertEquals(EPlayerState.IN_RUNNING_MATCH, client3.getState());
+			assertEquals(Arrays.asList(testTask), clock3.popBufferedTasks());
+			assertEquals(clock1.getAllowedLockstep(), clock3.getAllowedLockstep());
+		} finally {
+			client3.close();
+			channels[1].close();
+		}
+	}
+
 	@Test
 	public void testStartMatchWithUnreadyPlayers() throws IllegalStateException, InterruptedException {
 		logIn(client2, "id2", "player2");
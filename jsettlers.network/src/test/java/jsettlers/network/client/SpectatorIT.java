@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.TestUtils;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.common.packets.MapInfoPacket;
+import jsettlers.network.infrastructure.channel.AsyncChannel;
+import jsettlers.network.server.ServerManager;
+import jsettlers.network.server.db.inMemory.InMemoryDB;
+import jsettlers.network.server.match.EPlayerState;
+import jsettlers.network.server.match.Match;
+
+/**
+ * Lets 100 local spectators watch a match and checks that they receive the delayed lockstep stream, while a spectator that stops reading is
+ * disconnected without stalling the players. Also checks that spectators that stop reading don't starve the other spectators, even if there are
+ * more of them than sender threads.
+ */
+public class SpectatorIT {
+	private static final int SPECTATORS = 100;
+	private static final int DELAY_LOCKSTEPS = 5;
+	private static final int RUN_LOCKSTEPS = 80;
+	private static final int STUCK_SPECTATORS = NetworkConstants.Server.SPECTATOR_SENDER_THREADS + 1;
+	private static final int HEALTHY_SPECTATORS = 10;
+
+	private final InMemoryDB db = new InMemoryDB();
+	private final ServerManager manager = new ServerManager(db);
+	private final List<NetworkClient> clients = new ArrayList<>();
+	private final List<AsyncChannel> serverChannels = new ArrayList<>();
+	private final CountDownLatch unblockStuckSpectator = new CountDownLatch(1);
+	private final Timer clockTimer = new Timer("SpectatorITClocks", true);
+
+	@Before
+	public void setUp() {
+		manager.setSpectatorDelay(DELAY_LOCKSTEPS * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		manager.start();
+	}
+
+	@After
+	public void tearDown() {
+		unblockStuckSpectator.countDown();
+		clockTimer.cancel();
+		for (NetworkClient client : clients) {
+			client.close();
+		}
+		for (AsyncChannel channel : serverChannels) {
+			channel.close();
+		}
+		manager.shutdown();
+	}
+
+	@Test
+	public void testHundredSpectators() throws IOException, InterruptedException {
+		NetworkClientClockMock clock1 = new NetworkClientClockMock();
+		NetworkClientClockMock clock2 = new NetworkClientClockMock();
+		NetworkClient player1 = connect("player1", clock1);
+		NetworkClient player2 = connect("player2", clock2);
+
+		player1.openNewMatch("SpectatedMatch", 2, new MapInfoPacket("", "", "", "", 2), 42L, null, null, null);
+		Thread.sleep(150L);
+		String matchId = player1.getMatchInfo().getId();
+		player2.joinMatch(matchId, null, null, null);
+		Thread.sleep(50L);
+
+		List<NetworkClientClockMock> spectatorClocks = new ArrayList<>();
+		for (int i = 0; i < SPECTATORS / 2; i++) {
+			spectatorClocks.add(spectate("early" + i, matchId));
+		}
+		NetworkClient stuckSpectator = connect("stuck", new NetworkClientClockMock());
+		stuckSpectator.spectateMatch(matchId, packet -> awaitUninterruptibly(unblockStuckSpectator)); // stops reading after the match start
+		Thread.sleep(100L);
+		assertEquals(SPECTATORS / 2 + 1, getMatch(matchId).getNumberOfSpectators());
+
+		player1.setReadyState(true);
+		player2.setReadyState(true);
+		Thread.sleep(50L);
+		player1.startMatch();
+		Thread.sleep(100L);
+
+		long start = System.currentTimeMillis();
+		clockTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				int time = (int) (System.currentTimeMillis() - start);
+				clock1.setTime(time);
+				clock2.setTime(time);
+			}
+		}, 0, 10);
+
+		int scheduledTasks = 0;
+		int lockstep = 0;
+		while (lockstep < RUN_LOCKSTEPS) {
+			Thread.sleep(NetworkConstants.Client.LOCKSTEP_PERIOD / 2);
+
+			int currentLockstep = (int) (System.currentTimeMillis() - start) / NetworkConstants.Client.LOCKSTEP_PERIOD;
+			if (currentLockstep > lockstep) {
+				lockstep = currentLockstep;
+				NetworkClient sender = lockstep % 2 == 0 ? player1 : player2;
+				sender.scheduleTask(new TestTaskPacket(createPayload(lockstep), lockstep, (byte) lockstep));
+				scheduledTasks++;
+			}
+
+			if (lockstep == RUN_LOCKSTEPS / 2 && spectatorClocks.size() < SPECTATORS) {
+				for (int i = SPECTATORS / 2; i < SPECTATORS; i++) {
+					spectatorClocks.add(spectate("late" + i, matchId));
+				}
+			}
+		}
+
+		int spectatorLockstep = spectatorClocks.get(0).getAllowedLockstep();
+		int playerLockstep = clock1.getAllowedLockstep();
+		assertTrue("spectators are not delayed: " + spectatorLockstep + " / " + playerLockstep, spectatorLockstep <= playerLockstep - DELAY_LOCKSTEPS + 1);
+		assertTrue("players have been stalled: " + playerLockstep, playerLockstep > RUN_LOCKSTEPS / 2);
+
+		Thread.sleep(200L);
+		assertEquals(SPECTATORS, getMatch(matchId).getNumberOfSpectators());
+
+		// finishing the match sends the delayed locksteps to the spectators
+		Thread.sleep(NetworkConstants.Client.TIME_SYNC_SEND_INTERVALL * 2);
+		clockTimer.cancel();
+		player1.close();
+		player2.close();
+		Thread.sleep(500L);
+
+		LinkedList<TaskPacket> playerTasks = clock1.popBufferedTasks();
+		assertEquals(scheduledTasks, playerTasks.size());
+		int lastLockstep = spectatorClocks.get(0).getAllowedLockstep();
+		assertTrue(lastLockstep >= clock1.getAllowedLockstep()); // player1 may miss the locksteps sent while the players disconnect
+		for (NetworkClientClockMock spectatorClock : spectatorClocks) {
+			assertEquals(playerTasks, spectatorClock.popBufferedTasks());
+			assertEquals(lastLockstep, spectatorClock.getAllowedLockstep());
+		}
+	}
+
+	@Test
+	public void testStuckSpectatorsDontStarveOthers() throws IOException, InterruptedException {
+		NetworkClientClockMock clock1 = new NetworkClientClockMock();
+		NetworkClientClockMock clock2 = new NetworkClientClockMock();
+		NetworkClient player1 = connect("player1", clock1);
+		NetworkClient player2 = connect("player2", clock2);
+
+		player1.openNewMatch("StarvedMatch", 2, new MapInfoPacket("", "", "", "", 2), 42L, null, null, null);
+		Thread.sleep(150L);
+		String matchId = player1.getMatchInfo().getId();
+		player2.joinMatch(matchId, null, null, null);
+		Thread.sleep(50L);
+
+		List<NetworkClientClockMock> spectatorClocks = new ArrayList<>();
+		for (int i = 0; i < HEALTHY_SPECTATORS; i++) {
+			spectatorClocks.add(spectate("healthy" + i, matchId));
+		}
+		for (int i = 0; i < STUCK_SPECTATORS; i++) {
+			NetworkClient stuckSpectator = connect("stuck" + i, new NetworkClientClockMock());
+			stuckSpectator.spectateMatch(matchId, packet -> awaitUninterruptibly(unblockStuckSpectator)); // stops reading after the match start
+		}
+		Thread.sleep(100L);
+		assertEquals(HEALTHY_SPECTATORS + STUCK_SPECTATORS, getMatch(matchId).getNumberOfSpectators());
+
+		player1.setReadyState(true);
+		player2.setReadyState(true);
+		Thread.sleep(50L);
+		player1.startMatch();
+		Thread.sleep(100L);
+
+		long start = System.currentTimeMillis();
+		clockTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				int time = (int) (System.currentTimeMillis() - start);
+				clock1.setTime(time);
+				clock2.setTime(time);
+			}
+		}, 0, 10);
+
+		// run long enough for the healthy spectators to exceed their backlog, if the stuck spectators blocked all sender threads
+		int runLocksteps = NetworkConstants.Server.MAX_SPECTATOR_BACKLOG + DELAY_LOCKSTEPS
+				+ (int) (2 * NetworkConstants.Server.SPECTATOR_WRITE_TIMEOUT_MS / NetworkConstants.Client.LOCKSTEP_PERIOD);
+		int lockstep = 0;
+		while (lockstep < runLocksteps) {
+			Thread.sleep(NetworkConstants.Client.LOCKSTEP_PERIOD / 2);
+
+			int currentLockstep = (int) (System.currentTimeMillis() - start) / NetworkConstants.Client.LOCKSTEP_PERIOD;
+			if (currentLockstep > lockstep) {
+				lockstep = currentLockstep;
+				NetworkClient sender = lockstep % 2 == 0 ? player1 : player2;
+				sender.scheduleTask(new TestTaskPacket(createPayload(lockstep), lockstep, (byte) lockstep));
+			}
+		}
+
+		assertEquals(HEALTHY_SPECTATORS, getMatch(matchId).getNumberOfSpectators());
+		int playerLockstep = clock1.getAllowedLockstep();
+		for (NetworkClientClockMock spectatorClock : spectatorClocks) {
+			int spectatorLockstep = spectatorClock.getAllowedLockstep();
+			assertTrue("spectator fell behind: " + spectatorLockstep + " / " + playerLockstep, spectatorLockstep >= playerLockstep - DELAY_LOCKSTEPS - 5);
+		}
+	}
+
+	private NetworkClientClockMock spectate(String id, String matchId) throws IOException, InterruptedException {
+		NetworkClientClockMock clock = new NetworkClientClockMock();
+		NetworkClient spectator = connect(id, clock);
+		spectator.spectateMatch(matchId, null);
+		return clock;
+	}
+
+	private NetworkClient connect(String id, NetworkClientClockMock clock) throws IOException, InterruptedException {
+		AsyncChannel[] channels = TestUtils.setUpAsyncLoopbackChannels();
+		NetworkClient client = new NetworkClient(channels[0], null, clock);
+		manager.identifyNewChannel(channels[1]);
+		clients.add(client);
+		serverChannels.add(channels[1]);
+
+		client.logIn(id, id, null);
+		for (int i = 0; i < 100 && client.getState() != EPlayerState.LOGGED_IN; i++) {
+			Thread.sleep(10L);
+		}
+		return client;
+	}
+
+	private Match getMatch(String matchId) {
+		return db.getMatchById(matchId);
+	}
+
+	private static String createPayload(int lockstep) {
+		StringBuilder payload = new StringBuilder();
+		while (payload.length() < 300) {
+			payload.append("lockstep ").append(lockstep).append(' ');
+		}
+		return payload.toString();
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
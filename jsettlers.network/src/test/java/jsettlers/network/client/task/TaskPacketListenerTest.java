@@ -16,8 +16,14 @@ package jsettlers.network.client.task;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import jsettlers.network.NetworkConstants;
@@ -25,6 +31,9 @@ import jsettlers.network.TestUtils;
 import jsettlers.network.client.task.packets.SyncTasksPacket;
 import jsettlers.network.client.task.packets.TaskPacket;
 import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.server.packets.CompactServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideTaskPacket;
 
 import org.junit.After;
 import org.junit.Before;
@@ -76,4 +85,38 @@ public class TaskPacketListenerTest {
 		assertEquals(testPacket1, tasks.get(0));
 		assertEquals(testPacket2, tasks.get(1));
 	}
+
+	@Test
+	public void testSendAndReceiveCompact() throws InterruptedException, IOException {
+		SyncTasksPacketSchedulerMock taskReceiver = new SyncTasksPacketSchedulerMock();
+		c1.registerListener(new TaskPacketListener(taskReceiver));
+
+		List<TaskPacket> tasks = new ArrayList<>();
+		List<ServersideTaskPacket> serversideTasks = new ArrayList<>();
+		for (int i = 0; i < 100; i++) { // enough tasks to get the frame compressed
+			TaskPacket task = new TestTaskPacket("task " + i, i * 1000, (byte) i);
+			tasks.add(task);
+			serversideTasks.add(toServersideTask(task));
+		}
+
+		c2.sendPacket(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK_COMPACT, new CompactServersideSyncTasksPacket(new ServersideSyncTasksPacket(
+				70000, serversideTasks)));
+		c2.sendPacket(NetworkConstants.ENetworkKey.SYNCHRONOUS_TASK_COMPACT, new CompactServersideSyncTasksPacket(new ServersideSyncTasksPacket(
+				70001, Collections.emptyList())));
+
+		Thread.sleep(30L);
+		List<SyncTasksPacket> packets = taskReceiver.popBufferedPackets();
+		assertEquals(1, packets.size());
+		assertEquals(new SyncTasksPacket(70000, tasks), packets.get(0));
+		assertEquals(70001, taskReceiver.getUnlockedLockstepNumber());
+	}
+
+	private static ServersideTaskPacket toServersideTask(TaskPacket task) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		task.serialize(new DataOutputStream(buffer));
+
+		ServersideTaskPacket serversideTask = new ServersideTaskPacket();
+		serversideTask.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+		return serversideTask;
+	}
 }
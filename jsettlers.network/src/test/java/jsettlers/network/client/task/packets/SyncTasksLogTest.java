@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.client.task.packets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import jsettlers.network.client.task.SyncTasksPacketSchedulerMock;
+import jsettlers.network.client.task.TestTaskPacket;
+
+/**
+ * Tests the {@link SyncTasksLogWriter} and {@link SyncTasksLogReader}.
+ */
+public class SyncTasksLogTest {
+
+	@Test
+	public void testCompactLogRoundTrip() throws IOException {
+		List<SyncTasksPacket> packets = createPackets();
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		SyncTasksLogWriter writer = new SyncTasksLogWriter(new DataOutputStream(buffer));
+		for (SyncTasksPacket packet : packets) {
+			writer.write(packet);
+		}
+		writer.flush();
+
+		assertEquals(packets, read(buffer.toByteArray()));
+		assertTrue(buffer.size() * 3 < writeLegacyLog(packets).length);
+	}
+
+	@Test
+	public void testReadsLegacyLog() throws IOException {
+		List<SyncTasksPacket> packets = createPackets();
+
+		assertEquals(packets, read(writeLegacyLog(packets)));
+	}
+
+	@Test
+	public void testEmptyLog() throws IOException {
+		assertEquals(Collections.emptyList(), read(new byte[0]));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedCompactLog() throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		new SyncTasksLogWriter(new DataOutputStream(buffer)).write(createPackets().get(0));
+
+		read(Arrays.copyOf(buffer.toByteArray(), buffer.size() - 1));
+	}
+
+	private static List<SyncTasksPacket> createPackets() {
+		List<SyncTasksPacket> packets = new ArrayList<>();
+		for (int lockstep = 3; lockstep < 3000; lockstep += 17) {
+			List<TaskPacket> tasks = new ArrayList<>();
+			for (int i = 0; i < lockstep % 5 + 1; i++) {
+				tasks.add(new TestTaskPacket("task" + i, lockstep * i, (byte) i));
+			}
+			packets.add(new SyncTasksPacket(lockstep, tasks));
+		}
+
+		List<TaskPacket> largeTasks = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			largeTasks.add(new TestTaskPacket("a task of a big selection", i, (byte) 7));
+		}
+		packets.add(new SyncTasksPacket(100000, largeTasks));
+		return packets;
+	}
+
+	private static byte[] writeLegacyLog(List<SyncTasksPacket> packets) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(buffer);
+		for (SyncTasksPacket packet : packets) {
+			packet.serialize(dos);
+		}
+		dos.flush();
+		return buffer.toByteArray();
+	}
+
+	private static List<SyncTasksPacket> read(byte[] log) throws IOException {
+		SyncTasksPacketSchedulerMock scheduler = new SyncTasksPacketSchedulerMock();
+		SyncTasksLogReader.read(new ByteArrayInputStream(log), scheduler);
+		return scheduler.popBufferedPackets();
+	}
+}
@@ -35,6 +35,7 @@ import jsettlers.network.infrastructure.channel.packet.EmptyPacket;
 import jsettlers.network.infrastructure.channel.packet.Packet;
 import jsettlers.network.infrastructure.channel.ping.PingPacket;
 import jsettlers.network.infrastructure.channel.reject.RejectPacket;
+import jsettlers.network.server.packets.CompactServersideSyncTasksPacket;
 import jsettlers.network.server.packets.ServersideSyncTasksPacket;
 import jsettlers.network.server.packets.ServersideTaskPacket;
 
@@ -78,6 +79,7 @@ public class PacketSerializationTest {
 		Object[][] data = new Object[][] {
 				{ new EmptyPacket(), EmptyPacket.DEFAULT_DESERIALIZER },
 				{ new PlayerInfoPacket("IDBLA82348-#�l�34r", "NameBKUIH893428())/\"�/", true), d(PlayerInfoPacket.class) },
+				{ new IdentifyUserPacket(new PlayerInfoPacket("IDBLA82348-#�l�34r", "NameBKUIH893428())/\"�/", false), 0x7f3), d(IdentifyUserPacket.class) },
 				{ new MapInfoPacket("id<30u9Hjdi w3", "Nameo8/(�\"(/!=�", "authorId8unsdkjfn8932", "authorName uHh89023u9h", 6),
 						d(MapInfoPacket.class) },
 				{ createMatchInfoPacket(), d(MatchInfoPacket.class) },
@@ -95,6 +97,8 @@ public class PacketSerializationTest {
 				{ new ServersideTaskPacket("sdfsfsdf".getBytes()), d(ServersideTaskPacket.class) },
 				{ new ServersideSyncTasksPacket(23, Arrays.asList(new ServersideTaskPacket("dsfjsfj".getBytes()),
 						new ServersideTaskPacket("ehgdhd".getBytes()))), d(ServersideSyncTasksPacket.class) },
+				{ new CompactServersideSyncTasksPacket(new ServersideSyncTasksPacket(2343, Arrays.asList(new ServersideTaskPacket("dsfjsfj".getBytes()),
+						new ServersideTaskPacket("ehgdhd".getBytes())))), d(CompactServersideSyncTasksPacket.class) },
 
 				{ new TestTaskPacket("tesdfk��l9/&%/%&\"\\u8u23jo", 23424, (byte) -2), TaskPacket.DEFAULT_DESERIALIZER },
 				{ new SyncTasksPacket(234, Arrays.asList(new TestTaskPacket("dsfdsdf", 23, (byte) -3),
@@ -31,6 +31,7 @@ import jsettlers.network.NetworkConstants.ENetworkKey;
 import jsettlers.network.TestUtils;
 import jsettlers.network.infrastructure.channel.listeners.BufferingPacketListener;
 import jsettlers.network.infrastructure.channel.packet.EmptyPacket;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
 import jsettlers.network.infrastructure.channel.reject.RejectPacket;
 
 /**
@@ -95,6 +96,29 @@ public class ChannelTest {
 		}
 	}
 
+	@Test
+	public void testEncodedPacket() throws Exception {
+		TestPacketListener listener1 = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		TestPacketListener listener2 = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		c1.registerListener(listener1);
+		c2.registerListener(listener2);
+
+		TestPacket testPacket = new TestPacket("encoded", 4711);
+		EncodedPacket encodedPacket = EncodedPacket.encode(ENetworkKey.TEST_PACKET, testPacket);
+		c1.sendPacket(encodedPacket);
+		c2.sendPacket(encodedPacket);
+		c2.sendPacket(encodedPacket);
+
+		Thread.sleep(80L);
+
+		assertEquals(2, listener1.packets.size());
+		assertEquals(testPacket, listener1.packets.get(0));
+		assertEquals(testPacket, listener1.packets.get(1));
+
+		assertEquals(1, listener2.packets.size());
+		assertEquals(testPacket, listener2.packets.get(0));
+	}
+
 	@Test
 	public void testRoundTripTime() throws InterruptedException {
 		Thread.sleep(10L);
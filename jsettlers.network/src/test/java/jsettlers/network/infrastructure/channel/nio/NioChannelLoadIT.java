@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.IChannelListener;
+import jsettlers.network.infrastructure.channel.TestPacket;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+
+/**
+ * Connects many idle clients to a {@link ChannelSelectorGroup} and lets them send packets. Reports the number of connections per selector thread
+ * and the garbage collections during the run.
+ * <p />
+ * The number of clients and packets can be changed with the system properties {@code nioLoad.clients} and {@code nioLoad.packets}.
+ */
+public class NioChannelLoadIT {
+	private static final int CLIENTS = Integer.getInteger("nioLoad.clients", 500);
+	private static final int PACKETS_PER_CLIENT = Integer.getInteger("nioLoad.packets", 200);
+
+	@Test
+	public void testManyConnections() throws Exception {
+		ChannelSelectorGroup selectors = new ChannelSelectorGroup();
+		selectors.start();
+
+		AtomicInteger receivedPackets = new AtomicInteger();
+		List<SocketChannel> clients = new ArrayList<>();
+		List<NioChannel> channels = new ArrayList<>();
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), CLIENTS);
+
+			int threadsBefore = Thread.activeCount();
+			for (int i = 0; i < CLIENTS; i++) {
+				clients.add(SocketChannel.open(serverChannel.getLocalAddress()));
+				NioChannel channel = selectors.createChannel(new ConsoleLogger("client" + i), serverChannel.accept());
+				channel.registerListener(new CountingListener(receivedPackets));
+				channel.start();
+				channels.add(channel);
+			}
+			Thread.sleep(100L);
+			int threadsAfter = Thread.activeCount();
+
+			ByteBuffer packets = encodePackets(PACKETS_PER_CLIENT);
+			long gcCountBefore = getGcCount();
+			long gcTimeBefore = getGcTime();
+			long start = System.nanoTime();
+
+			for (SocketChannel client : clients) {
+				ByteBuffer data = packets.duplicate();
+				while (data.hasRemaining()) {
+					client.write(data);
+				}
+			}
+
+			int expectedPackets = CLIENTS * PACKETS_PER_CLIENT;
+			long timeout = System.currentTimeMillis() + 30000;
+			while (receivedPackets.get() < expectedPackets && System.currentTimeMillis() < timeout) {
+				Thread.sleep(10L);
+			}
+
+			long durationNs = System.nanoTime() - start;
+			long gcCount = getGcCount() - gcCountBefore;
+			long gcTime = getGcTime() - gcTimeBefore;
+
+			System.out.println("nio-load clients=" + CLIENTS
+					+ " selectors=" + selectors.getNumberOfSelectors()
+					+ " connectionsPerSelector=" + CLIENTS / selectors.getNumberOfSelectors()
+					+ " additionalThreads=" + (threadsAfter - threadsBefore)
+					+ " packets=" + receivedPackets.get()
+					+ " packetsPerSecond=" + (long) (receivedPackets.get() / (durationNs / 1e9))
+					+ " gcCount=" + gcCount
+					+ " gcTimeMs=" + gcTime
+					+ " gcPerSecond=" + String.format("%.2f", gcCount / (durationNs / 1e9)));
+
+			assertEquals(expectedPackets, receivedPackets.get());
+			assertEquals(CLIENTS, selectors.getNumberOfChannels());
+		} finally {
+			for (SocketChannel client : clients) {
+				client.close();
+			}
+			for (NioChannel channel : channels) {
+				channel.close();
+			}
+			selectors.shutdown();
+		}
+	}
+
+	private static ByteBuffer encodePackets(int numberOfPackets) throws IOException {
+		ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(byteOut);
+
+		for (int i = 0; i < numberOfPackets; i++) {
+			ByteArrayOutputStream packetOut = new ByteArrayOutputStream();
+			new TestPacket("load", i).serialize(new DataOutputStream(packetOut));
+
+			ENetworkKey.TEST_PACKET.writeTo(out);
+			out.writeInt(packetOut.size());
+			packetOut.writeTo(out);
+		}
+		out.flush();
+		return ByteBuffer.wrap(byteOut.toByteArray());
+	}
+
+	private static long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+
+	private static long getGcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, gc.getCollectionTime());
+		}
+		return time;
+	}
+
+	private static class CountingListener implements IChannelListener {
+		private final AtomicInteger counter;
+
+		CountingListener(AtomicInteger counter) {
+			this.counter = counter;
+		}
+
+		@Override
+		public ENetworkKey[] getKeys() {
+			return new ENetworkKey[] { ENetworkKey.TEST_PACKET };
+		}
+
+		@Override
+		public void receive(ENetworkKey key, int length, java.io.DataInputStream stream) throws IOException {
+			stream.skip(length);
+			counter.incrementAndGet();
+		}
+	}
+}
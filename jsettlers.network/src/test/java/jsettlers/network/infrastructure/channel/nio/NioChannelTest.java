@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.channel.nio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.TestPacket;
+import jsettlers.network.infrastructure.channel.TestPacketListener;
+import jsettlers.network.infrastructure.channel.listeners.BufferingPacketListener;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.channel.socket.standard.JavaSocketFactory;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+
+/**
+ * Test for class {@link NioChannel}. The {@link NioChannel} is connected to a standard {@link Channel} to make sure both use the same framing.
+ */
+public class NioChannelTest {
+	private ChannelSelectorGroup selectors;
+	private NioChannel nioChannel;
+	private Channel channel;
+
+	@Before
+	public void setUp() throws IOException {
+		selectors = new ChannelSelectorGroup(2);
+		selectors.start();
+
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			int port = serverChannel.socket().getLocalPort();
+
+			channel = new Channel(new JavaSocketFactory().generateSocket(InetAddress.getLoopbackAddress().getHostAddress(), port));
+			nioChannel = selectors.createChannel(new ConsoleLogger("nio"), serverChannel.accept());
+		}
+
+		channel.start();
+		nioChannel.start();
+	}
+
+	@After
+	public void tearDown() {
+		channel.close();
+		nioChannel.close();
+		selectors.shutdown();
+	}
+
+	@Test
+	public void testConnection() throws Exception {
+		TestPacketListener listener1 = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		TestPacketListener listener2 = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		channel.registerListener(listener1);
+		nioChannel.registerListener(listener2);
+
+		TestPacket testPacket = new TestPacket("dlkfjs", -23423);
+		channel.sendPacket(ENetworkKey.TEST_PACKET, testPacket);
+		nioChannel.sendPacket(ENetworkKey.TEST_PACKET, testPacket);
+
+		Thread.sleep(100L);
+
+		assertEquals(1, listener1.packets.size());
+		assertEquals(testPacket, listener1.packets.get(0));
+		assertEquals(1, listener2.packets.size());
+		assertEquals(testPacket, listener2.packets.get(0));
+	}
+
+	@Test
+	public void testMultiPackets() throws Exception {
+		TestPacketListener listener = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		nioChannel.registerListener(listener);
+
+		final int NUMBER_OF_PACKETS = 2000;
+		for (int i = 0; i < NUMBER_OF_PACKETS; i++) {
+			channel.sendPacket(ENetworkKey.TEST_PACKET, new TestPacket(i));
+		}
+
+		Thread.sleep(200L);
+
+		assertEquals(NUMBER_OF_PACKETS, listener.packets.size());
+		for (int i = 0; i < NUMBER_OF_PACKETS; i++) {
+			assertEquals(i, listener.packets.get(i).getTestInt());
+		}
+	}
+
+	@Test
+	public void testPacketsBiggerThanPooledBuffers() throws Exception {
+		BufferingPacketListener<BytesPacket> nioListener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, BytesPacket::read);
+		BufferingPacketListener<BytesPacket> listener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, BytesPacket::read);
+		nioChannel.registerListener(nioListener);
+		channel.registerListener(listener);
+
+		BytesPacket packet = new BytesPacket(300 * 1024);
+		for (int i = 0; i < 5; i++) {
+			channel.sendPacket(ENetworkKey.TEST_PACKET, packet);
+			nioChannel.sendPacket(ENetworkKey.TEST_PACKET, packet);
+		}
+
+		Thread.sleep(500L);
+
+		List<BytesPacket> nioReceived = nioListener.popBufferedPackets();
+		List<BytesPacket> received = listener.popBufferedPackets();
+		assertEquals(5, nioReceived.size());
+		assertEquals(5, received.size());
+		for (int i = 0; i < 5; i++) {
+			assertArrayEquals(packet.data, nioReceived.get(i).data);
+			assertArrayEquals(packet.data, received.get(i).data);
+		}
+
+		testConnection(); // the small packets must still work afterwards
+	}
+
+	@Test
+	public void testEncodedPackets() throws Exception {
+		BufferingPacketListener<BytesPacket> nioListener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, BytesPacket::read);
+		BufferingPacketListener<BytesPacket> listener = new BufferingPacketListener<>(ENetworkKey.TEST_PACKET, BytesPacket::read);
+		nioChannel.registerListener(nioListener);
+		channel.registerListener(listener);
+
+		BytesPacket packet = new BytesPacket(300 * 1024);
+		EncodedPacket encodedPacket = EncodedPacket.encode(ENetworkKey.TEST_PACKET, packet);
+		for (int i = 0; i < 10; i++) {
+			channel.sendPacket(encodedPacket);
+			nioChannel.sendPacket(encodedPacket);
+		}
+
+		Thread.sleep(500L);
+
+		List<BytesPacket> nioReceived = nioListener.popBufferedPackets();
+		List<BytesPacket> received = listener.popBufferedPackets();
+		assertEquals(10, nioReceived.size());
+		assertEquals(10, received.size());
+		for (int i = 0; i < 10; i++) {
+			assertArrayEquals(packet.data, nioReceived.get(i).data);
+			assertArrayEquals(packet.data, received.get(i).data);
+		}
+	}
+
+	@Test
+	public void testNioOnBothSides() throws Exception {
+		NioChannel other;
+		NioChannel accepted;
+		try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+			serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			other = selectors.createChannel(new ConsoleLogger("other"), SocketChannel.open(serverChannel.getLocalAddress()));
+			accepted = selectors.createChannel(new ConsoleLogger("accepted"), serverChannel.accept());
+		}
+		other.start();
+		accepted.start();
+
+		TestPacketListener listener = new TestPacketListener(ENetworkKey.TEST_PACKET);
+		accepted.registerListener(listener);
+		for (int i = 0; i < 100; i++) {
+			other.sendPacket(ENetworkKey.TEST_PACKET, new TestPacket(i));
+		}
+
+		Thread.sleep(100L);
+		assertEquals(100, listener.packets.size());
+
+		other.close();
+		Thread.sleep(100L);
+		assertTrue(accepted.isClosed());
+	}
+
+	@Test
+	public void testCloseOtherSide() throws InterruptedException {
+		final int[] closed = new int[1];
+		nioChannel.setChannelClosedListener(() -> closed[0]++);
+
+		assertFalse(nioChannel.isClosed());
+		channel.close();
+
+		Thread.sleep(100L);
+		assertTrue(nioChannel.isClosed());
+		assertEquals(1, closed[0]);
+
+		nioChannel.close();
+		assertEquals(1, closed[0]);
+	}
+
+	@Test
+	public void testClose() throws InterruptedException {
+		nioChannel.close();
+		assertTrue(nioChannel.isClosed());
+
+		Thread.sleep(100L);
+		assertTrue(channel.isClosed());
+
+		nioChannel.sendPacket(ENetworkKey.TEST_PACKET, new TestPacket(1)); // must be ignored
+	}
+
+	private static class BytesPacket extends Packet {
+		private byte[] data;
+
+		BytesPacket(int length) {
+			data = new byte[length];
+			for (int i = 0; i < length; i++) {
+				data[i] = (byte) (i * 31);
+			}
+		}
+
+		BytesPacket() {
+		}
+
+		static BytesPacket read(ENetworkKey key, DataInputStream dis) throws IOException {
+			BytesPacket packet = new BytesPacket();
+			packet.deserialize(dis);
+			return packet;
+		}
+
+		@Override
+		public void serialize(DataOutputStream dos) throws IOException {
+			dos.writeInt(data.length);
+			dos.write(data);
+		}
+
+		@Override
+		public void deserialize(DataInputStream dis) throws IOException {
+			data = new byte[dis.readInt()];
+			dis.readFully(data);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(data);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof BytesPacket && Arrays.equals(data, ((BytesPacket) obj).data);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+
+/**
+ * Tests the {@link CompressedFrames}.
+ */
+public class CompressedFramesTest {
+
+	@Test
+	public void testSmallFrameIsNotCompressed() throws IOException {
+		byte[] data = new byte[NetworkConstants.FRAME_COMPRESSION_THRESHOLD - 1];
+
+		byte[] encoded = write(data);
+
+		assertEquals(1 + 2 + data.length, encoded.length);
+		assertArrayEquals(data, read(encoded));
+	}
+
+	@Test
+	public void testLargeFrameIsCompressed() throws IOException {
+		byte[] data = new byte[10 * NetworkConstants.FRAME_COMPRESSION_THRESHOLD];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (i % 7);
+		}
+
+		byte[] encoded = write(data);
+
+		assertTrue(encoded.length < data.length / 4);
+		assertArrayEquals(data, read(encoded));
+	}
+
+	@Test
+	public void testIncompressibleFrameIsStoredPlain() throws IOException {
+		byte[] data = new byte[4 * NetworkConstants.FRAME_COMPRESSION_THRESHOLD];
+		new Random(42).nextBytes(data);
+
+		byte[] encoded = write(data);
+
+		assertEquals(1 + 2 + data.length, encoded.length);
+		assertArrayEquals(data, read(encoded));
+	}
+
+	private static byte[] write(byte[] data) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		CompressedFrames.write(new DataOutputStream(buffer), data, data.length);
+		return buffer.toByteArray();
+	}
+
+	private static byte[] read(byte[] encoded) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+		byte[] data = CompressedFrames.read(in);
+		assertEquals(0, in.available());
+		return data;
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.infrastructure.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link VarInts}.
+ */
+public class VarIntsTest {
+	private static final int[] VALUES = { 0, 1, -1, 63, -64, 64, 127, 128, 300, -300, 16383, 16384, Integer.MAX_VALUE, Integer.MIN_VALUE };
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private final DataOutputStream out = new DataOutputStream(buffer);
+
+	@Test
+	public void testUnsignedRoundTrip() throws IOException {
+		for (int value : VALUES) {
+			VarInts.writeUnsigned(out, value);
+		}
+
+		DataInputStream in = createInput();
+		for (int value : VALUES) {
+			assertEquals(value, VarInts.readUnsigned(in));
+		}
+		assertEquals(0, in.available());
+	}
+
+	@Test
+	public void testSignedRoundTrip() throws IOException {
+		for (int value : VALUES) {
+			VarInts.writeSigned(out, value);
+		}
+
+		DataInputStream in = createInput();
+		for (int value : VALUES) {
+			assertEquals(value, VarInts.readSigned(in));
+		}
+		assertEquals(0, in.available());
+	}
+
+	@Test
+	public void testEncodedLengths() throws IOException {
+		assertEquals(1, unsignedLength(127));
+		assertEquals(2, unsignedLength(128));
+		assertEquals(5, unsignedLength(-1));
+		assertEquals(1, signedLength(-64));
+		assertEquals(2, signedLength(64));
+	}
+
+	@Test
+	public void testDeltaListRoundTrip() throws IOException {
+		List<Integer> sorted = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			sorted.add(100000 + i * 3);
+		}
+		List<Integer> unsorted = Arrays.asList(5, Integer.MAX_VALUE, Integer.MIN_VALUE, -7, 0, 42);
+
+		VarInts.writeDeltaList(out, sorted);
+		int sortedLength = buffer.size();
+		VarInts.writeDeltaList(out, unsorted);
+		VarInts.writeDeltaList(out, Collections.emptyList());
+
+		DataInputStream in = createInput();
+		assertEquals(sorted, VarInts.readDeltaList(in));
+		assertEquals(unsorted, VarInts.readDeltaList(in));
+		assertEquals(Collections.emptyList(), VarInts.readDeltaList(in));
+		assertEquals(0, in.available());
+
+		// size, first value and one byte per delta instead of four bytes per value
+		assertEquals(2 + 3 + 499, sortedLength);
+	}
+
+	private int unsignedLength(int value) throws IOException {
+		buffer.reset();
+		VarInts.writeUnsigned(out, value);
+		return buffer.size();
+	}
+
+	private int signedLength(int value) throws IOException {
+		buffer.reset();
+		VarInts.writeSigned(out, value);
+		return buffer.size();
+	}
+
+	private DataInputStream createInput() {
+		return new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.db.inMemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.TestUtils;
+import jsettlers.network.common.packets.MapInfoPacket;
+import jsettlers.network.common.packets.PlayerInfoPacket;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.server.exceptions.NotAllPlayersReadyException;
+import jsettlers.network.server.match.EPlayerState;
+import jsettlers.network.server.match.Match;
+import jsettlers.network.server.match.Player;
+import jsettlers.network.server.match.lockstep.LockstepScheduler;
+
+public class InMemoryDBTest {
+	private final InMemoryDB db = new InMemoryDB();
+	private final LockstepScheduler lockstepScheduler = new LockstepScheduler(1);
+	private final List<Channel> channels = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		lockstepScheduler.shutdown();
+		for (Channel channel : channels) {
+			channel.close();
+		}
+	}
+
+	@Test
+	public void testPlayersAreIndexedByState() throws IOException {
+		Player player1 = createPlayer("player1");
+		Player player2 = createPlayer("player2");
+		Match match = createMatch(player1);
+
+		assertEquals(Collections.singletonList(player2), db.getPlayers(EPlayerState.LOGGED_IN));
+		assertEquals(Collections.singletonList(player1), db.getPlayers(EPlayerState.IN_MATCH));
+
+		player2.joinMatch(match);
+		assertEquals(0, db.getPlayers(EPlayerState.LOGGED_IN).size());
+		assertEquals(2, db.getPlayers(EPlayerState.IN_MATCH, EPlayerState.LOGGED_IN).size());
+
+		player1.leaveMatch();
+		assertEquals(Collections.singletonList(player1), db.getPlayers(EPlayerState.LOGGED_IN));
+
+		db.removePlayer(player1);
+		assertEquals(0, db.getPlayers(EPlayerState.LOGGED_IN).size());
+		assertEquals(1, db.getNumberOfPlayers());
+	}
+
+	@Test
+	public void testReplacedPlayerIsRemovedFromIndex() throws IOException {
+		Player oldPlayer = createPlayer("player");
+		Player newPlayer = createPlayer("player");
+
+		db.removePlayer(oldPlayer); // removing the replaced player must not remove the new one
+		assertSame(newPlayer, db.getPlayer("player"));
+		assertEquals(Collections.singletonList(newPlayer), db.getPlayers(EPlayerState.values()));
+	}
+
+	@Test
+	public void testMatchesAreIndexedByPlayer() throws IOException, NotAllPlayersReadyException {
+		Player player1 = createPlayer("player1");
+		Player player2 = createPlayer("player2");
+		Match match = createMatch(player1);
+		player2.joinMatch(match);
+		Player otherPlayer = createPlayer("other");
+		createMatch(otherPlayer);
+
+		assertNull(db.getRunningMatchOf(player2));
+
+		player1.setReady(true);
+		player2.setReady(true);
+		player1.startMatch(lockstepScheduler);
+		assertSame(match, db.getRunningMatchOf(player2));
+		assertNull(db.getRunningMatchOf(otherPlayer));
+
+		player2.leaveMatch();
+		assertNull(db.getRunningMatchOf(player2));
+		assertEquals(Collections.singletonList(match), db.getJoinableRunningMatches(player2));
+		assertEquals(0, db.getJoinableRunningMatches(otherPlayer).size());
+	}
+
+	@Test
+	public void testFinishedMatchesAreRemoved() throws IOException, NotAllPlayersReadyException {
+		Player player = createPlayer("player");
+		Match match = createMatch(player);
+		player.setReady(true);
+		player.startMatch(lockstepScheduler);
+		assertEquals(1, db.getNumberOfMatches());
+
+		player.leaveMatch();
+		assertEquals(0, db.getNumberOfMatches());
+		assertNull(db.getMatchById(match.getId()));
+		assertEquals(0, db.getJoinableRunningMatches(player).size());
+		assertTrue(db.getJoinableMatches().isEmpty());
+	}
+
+	private Player createPlayer(String id) throws IOException {
+		Channel[] loopbackChannels = TestUtils.setUpLoopbackChannels();
+		channels.add(loopbackChannels[0]);
+		channels.add(loopbackChannels[1]);
+
+		Player player = new Player(new PlayerInfoPacket(id, id, false), NetworkConstants.Features.SUPPORTED, loopbackChannels[1]);
+		db.storePlayer(player);
+		return player;
+	}
+
+	private Match createMatch(Player host) {
+		Match match = new Match("match", 4, new MapInfoPacket("", "", "", "", 4), host, 42L, Runnable::run, 0);
+		db.storeMatch(match);
+		host.joinMatch(match);
+		return match;
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.lockstep;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.client.task.TaskHistoryPacketListener;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
+import jsettlers.network.server.match.lockstep.LockstepHistory;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideTaskPacket;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+import jsettlers.network.synchronic.timer.TaskExecutorMock;
+
+/**
+ * Measures how long a player rejoining a 60 minute match needs to catch up. The history is recorded on the server, sent to the client and executed
+ * with the headless fast forward path of the {@link NetworkTimer}. The game logic itself is not part of this measurement.
+ */
+public class LockstepHistoryIT {
+	private static final int GAME_MINUTES = 60;
+	private static final int PLAYERS = 4;
+	private static final int ACTIONS_PER_MINUTE = 60;
+
+	@Test
+	public void benchmarkCatchUp() throws IOException, ClassNotFoundException {
+		int locksteps = GAME_MINUTES * 60 * 1000 / NetworkConstants.Client.LOCKSTEP_PERIOD;
+		float tasksPerLockstep = PLAYERS * ACTIONS_PER_MINUTE * NetworkConstants.Client.LOCKSTEP_PERIOD / 60000f;
+
+		long start = System.nanoTime();
+		LockstepHistory history = new LockstepHistory(NetworkConstants.Server.MAX_LOCKSTEP_HISTORY_BYTES);
+		int numberOfTasks = 0;
+		for (int lockstep = 0; lockstep < locksteps; lockstep++) {
+			List<ServersideTaskPacket> tasks = new ArrayList<>();
+			while (numberOfTasks < (lockstep + 1) * tasksPerLockstep) {
+				tasks.add(toServersideTask(new TestTaskPacket("move selection", 1000 + lockstep % 700, (byte) (lockstep % PLAYERS))));
+				numberOfTasks++;
+			}
+			history.record(new ServersideSyncTasksPacket(lockstep, tasks));
+		}
+		long recordNs = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		EncodedPacket encodedPacket = EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK_HISTORY, history.createPacket());
+		long encodeNs = System.nanoTime() - start;
+
+		NetworkTimer clock = new NetworkTimer();
+		TaskExecutorMock taskExecutor = new TaskExecutorMock();
+		clock.setTaskExecutor(taskExecutor);
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			encodedPacket.writeTo(buffer);
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+			ENetworkKey.readFrom(in);
+			int length = in.readInt();
+
+			start = System.nanoTime();
+			new TaskHistoryPacketListener(clock).receive(ENetworkKey.SYNCHRONOUS_TASK_HISTORY, length, in);
+			long receiveNs = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			clock.fastForwardTo(history.getLastLockstep() * NetworkConstants.Client.LOCKSTEP_PERIOD);
+			long fastForwardNs = System.nanoTime() - start;
+
+			assertEquals(numberOfTasks, taskExecutor.popBufferedPackets().size());
+
+			System.out.println(String.format(Locale.ENGLISH,
+					"catch up %d min: %d tasks  history=%d bytes (%.1f bytes/task)  record=%d ms  encode=%d ms  receive=%d ms  fast forward=%d ms",
+					GAME_MINUTES, numberOfTasks, encodedPacket.getLength(), encodedPacket.getLength() / (float) numberOfTasks, recordNs / 1000000,
+					encodeNs / 1000000, receiveNs / 1000000, fastForwardNs / 1000000));
+		} finally {
+			clock.stopExecution();
+		}
+	}
+
+	private static ServersideTaskPacket toServersideTask(TaskPacket task) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		task.serialize(new DataOutputStream(buffer));
+
+		ServersideTaskPacket serversideTask = new ServersideTaskPacket();
+		serversideTask.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+		return serversideTask;
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.lockstep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.client.task.SyncTasksPacketSchedulerMock;
+import jsettlers.network.client.task.TaskHistoryPacketListener;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.server.match.lockstep.LockstepHistory;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideTaskPacket;
+
+/**
+ * Tests the {@link LockstepHistory} together with the client side {@link TaskHistoryPacketListener}.
+ */
+public class LockstepHistoryTest {
+	private static final int LOCKSTEPS = 3000;
+
+	@Test
+	public void testHistoryIsScheduledOnClient() throws IOException, ClassNotFoundException {
+		LockstepHistory history = new LockstepHistory(Integer.MAX_VALUE);
+		List<SyncTasksPacket> expectedPackets = new ArrayList<>();
+
+		for (int lockstep = 0; lockstep < LOCKSTEPS; lockstep++) {
+			List<TaskPacket> tasks = new ArrayList<>();
+			if (lockstep % 5 == 0) {
+				for (int i = 0; i < 3; i++) { // enough data for multiple segments
+					tasks.add(new TestTaskPacket(lockstep + " a long task description to fill the segments of the history " + i, lockstep, (byte) i));
+				}
+				expectedPackets.add(new SyncTasksPacket(lockstep, tasks));
+			}
+			history.record(toServersidePacket(lockstep, tasks));
+		}
+
+		assertTrue(history.isAvailable());
+		assertEquals(LOCKSTEPS - 1, history.getLastLockstep());
+		assertTrue(history.createPacket().getSegments().size() > 1);
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		history.createPacket().serialize(new DataOutputStream(buffer));
+		assertTrue("history bytes: " + buffer.size(), buffer.size() < history.getStoredBytes() + 100);
+
+		SyncTasksPacketSchedulerMock scheduler = new SyncTasksPacketSchedulerMock();
+		new TaskHistoryPacketListener(scheduler).receive(ENetworkKey.SYNCHRONOUS_TASK_HISTORY, buffer.size(),
+				new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+		assertEquals(expectedPackets, scheduler.popBufferedPackets());
+		assertEquals(LOCKSTEPS - 1, scheduler.getUnlockedLockstepNumber());
+	}
+
+	@Test
+	public void testNotAvailableBeforeFirstLockstep() {
+		assertFalse(new LockstepHistory(Integer.MAX_VALUE).isAvailable());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testOverflowDropsHistory() throws IOException {
+		LockstepHistory history = new LockstepHistory(1000);
+		history.record(toServersidePacket(0, Collections.emptyList()));
+		assertTrue(history.isAvailable());
+
+		for (int lockstep = 1; lockstep < 100; lockstep++) {
+			history.record(toServersidePacket(lockstep, Collections.singletonList(new TestTaskPacket("task " + lockstep, lockstep, (byte) 1))));
+		}
+
+		assertFalse(history.isAvailable());
+		assertEquals(0, history.getStoredBytes());
+		history.createPacket();
+	}
+
+	private static ServersideSyncTasksPacket toServersidePacket(int lockstep, List<TaskPacket> tasks) throws IOException {
+		List<ServersideTaskPacket> serversideTasks = new ArrayList<>();
+		for (TaskPacket task : tasks) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			task.serialize(new DataOutputStream(buffer));
+
+			ServersideTaskPacket serversideTask = new ServersideTaskPacket();
+			serversideTask.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+			serversideTasks.add(serversideTask);
+		}
+		return new ServersideSyncTasksPacket(lockstep, serversideTasks);
+	}
+}
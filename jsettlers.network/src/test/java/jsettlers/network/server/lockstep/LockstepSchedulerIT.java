@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.lockstep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import jsettlers.network.server.match.lockstep.LockstepScheduler;
+import jsettlers.network.server.match.lockstep.LockstepScheduler.ScheduledTask;
+import jsettlers.network.server.match.lockstep.SchedulingJitter;
+
+/**
+ * Stress test for the {@link LockstepScheduler}. Many simulated matches are scheduled, one of them blocks it's shard from time to time. The
+ * matches of the other shards must not be delayed by it.
+ */
+public class LockstepSchedulerIT {
+	private static final int MATCHES = 200;
+	private static final int SHARDS = 4;
+	private static final int PERIOD_MS = 48;
+	private static final int RUNTIME_MS = 3000;
+	private static final int SLOW_MATCH_BLOCKING_MS = 200;
+	private static final float TOLERATED_JITTER_MS = 25;
+
+	@Test
+	public void testJitterOfManyMatches() throws InterruptedException {
+		LockstepScheduler scheduler = new LockstepScheduler(SHARDS);
+		List<ScheduledTask> tasks = new ArrayList<>();
+		AtomicInteger runs = new AtomicInteger();
+
+		for (int i = 0; i < MATCHES; i++) {
+			Runnable match = i == 0 ? new SlowMatch() : () -> simulateLockstep(runs);
+			tasks.add(scheduler.schedule(match, PERIOD_MS, PERIOD_MS));
+		}
+
+		Thread.sleep(RUNTIME_MS);
+
+		for (ScheduledTask task : tasks) {
+			task.cancel();
+		}
+		scheduler.shutdown();
+
+		float maxJitter = 0;
+		float averageJitter = 0;
+		for (int i = 0; i < MATCHES; i++) {
+			if (i % SHARDS == 0) {
+				continue; // these matches share the shard with the slow match
+			}
+
+			SchedulingJitter jitter = tasks.get(i).getJitter();
+			assertTrue(jitter.getMeasurements() > RUNTIME_MS / PERIOD_MS / 2);
+			maxJitter = Math.max(maxJitter, jitter.getMaxJitterMs());
+			averageJitter += jitter.getAverageJitterMs();
+		}
+		averageJitter /= MATCHES - MATCHES / SHARDS;
+
+		System.out.println("lockstep scheduler: matches=" + MATCHES + " shards=" + SHARDS + " runs=" + runs.get() + " averageJitterMs=" + averageJitter
+				+ " maxJitterMs=" + maxJitter + " slowMatch: " + tasks.get(0).getJitter());
+
+		assertTrue("max jitter was " + maxJitter + " ms", maxJitter < TOLERATED_JITTER_MS);
+		assertTrue("slow match shard not affected", tasks.get(SHARDS).getJitter().getMaxJitterMs() >= SLOW_MATCH_BLOCKING_MS / 2);
+		assertEquals(SHARDS, scheduler.getNumberOfShards());
+	}
+
+	private static void simulateLockstep(AtomicInteger runs) {
+		long end = System.nanoTime() + 20000; // about the time needed to collect, serialize and send the tasks of a match
+		while (System.nanoTime() < end) {
+			Thread.onSpinWait();
+		}
+		runs.incrementAndGet();
+	}
+
+	private static class SlowMatch implements Runnable {
+		private int run;
+
+		@Override
+		public void run() {
+			if (++run % 10 == 0) {
+				try {
+					Thread.sleep(SLOW_MATCH_BLOCKING_MS); // e.g. a blocking write to a slow client
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
+import jsettlers.network.infrastructure.channel.packet.Packet;
+import jsettlers.network.infrastructure.channel.socket.ISocket;
+import jsettlers.network.infrastructure.log.ConsoleLogger;
+import jsettlers.network.server.packets.ServersideSyncTasksPacket;
+import jsettlers.network.server.packets.ServersideTaskPacket;
+
+/**
+ * Measures the server side costs of broadcasting a lockstep packet to all players of a match. The channels write to a socket discarding all
+ * data, so only serialization and copying is measured.
+ */
+public class BroadcastBenchmarkIT {
+	private static final int PLAYERS = 8;
+	private static final int TASKS_PER_LOCKSTEP = 4;
+	private static final int WARMUP_ITERATIONS = 20000;
+	private static final int ITERATIONS = 100000;
+
+	@Test
+	public void benchmarkBroadcast() throws IOException {
+		List<Channel> channels = new ArrayList<>();
+		for (int i = 0; i < PLAYERS; i++) {
+			channels.add(new Channel(new ConsoleLogger("benchmark" + i), new DiscardingSocket()));
+		}
+
+		List<ServersideTaskPacket> tasks = new ArrayList<>();
+		for (int i = 0; i < TASKS_PER_LOCKSTEP; i++) {
+			tasks.add(new ServersideTaskPacket(new byte[40]));
+		}
+		Packet packet = new ServersideSyncTasksPacket(17, tasks);
+
+		measure(WARMUP_ITERATIONS, channels, packet, false);
+		measure(WARMUP_ITERATIONS, channels, packet, true);
+
+		report("per channel", measure(ITERATIONS, channels, packet, false));
+		report("encoded once", measure(ITERATIONS, channels, packet, true));
+	}
+
+	private static long[] measure(int iterations, List<Channel> channels, Packet packet, boolean encodeOnce) {
+		long allocatedBefore = getAllocatedBytes();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < iterations; i++) {
+			if (encodeOnce) {
+				EncodedPacket encodedPacket = EncodedPacket.encode(ENetworkKey.SYNCHRONOUS_TASK, packet);
+				for (Channel channel : channels) {
+					channel.sendPacket(encodedPacket);
+				}
+			} else {
+				for (Channel channel : channels) {
+					channel.sendPacket(ENetworkKey.SYNCHRONOUS_TASK, packet);
+				}
+			}
+		}
+
+		long duration = System.nanoTime() - start;
+		long allocated = getAllocatedBytes() - allocatedBefore;
+		return new long[] { duration / iterations, allocated / iterations };
+	}
+
+	private static void report(String name, long[] result) {
+		System.out.println(String.format(Locale.ENGLISH, "broadcast %-12s players=%d  %6d ns/broadcast  %6d bytes allocated/broadcast", name, PLAYERS,
+				result[0], result[1]));
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	private static class DiscardingSocket implements ISocket {
+		@Override
+		public OutputStream getOutputStream() {
+			return OutputStream.nullOutputStream();
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return InputStream.nullInputStream();
+		}
+
+		@Override
+		public boolean isClosed() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public String toString() {
+			return "DiscardingSocket";
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.server.match;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.NetworkConstants.ENetworkKey;
+import jsettlers.network.TestUtils;
+import jsettlers.network.common.packets.ArrayOfMatchInfosPacket;
+import jsettlers.network.common.packets.MapInfoPacket;
+import jsettlers.network.common.packets.PlayerInfoPacket;
+import jsettlers.network.infrastructure.channel.Channel;
+import jsettlers.network.infrastructure.channel.packet.EncodedPacket;
+import jsettlers.network.server.db.inMemory.InMemoryDB;
+
+public class MatchesListSendingTimerTaskTest {
+	private final InMemoryDB db = new InMemoryDB();
+	private final MatchesListSendingTimerTask task = new MatchesListSendingTimerTask(db);
+	private final List<Channel> channels = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		for (Channel channel : channels) {
+			channel.close();
+		}
+	}
+
+	@Test
+	public void testPacketIsCachedUntilMatchesChange() throws IOException {
+		EncodedPacket emptyList = task.getEncodedMatchesPacket();
+		assertEquals(0, decode(emptyList).getMatches().length);
+		assertSame(emptyList, task.getEncodedMatchesPacket());
+
+		Player host = createPlayer("host");
+		Match match = createMatch(host);
+		EncodedPacket oneMatch = task.getEncodedMatchesPacket();
+		assertEquals(1, decode(oneMatch).getMatches().length);
+		assertSame(oneMatch, task.getEncodedMatchesPacket());
+
+		host.setReady(true);
+		EncodedPacket readyHost = task.getEncodedMatchesPacket();
+		assertNotSame(oneMatch, readyHost);
+		assertEquals(true, decode(readyHost).getMatches()[0].getPlayers()[0].isReady());
+		assertSame(readyHost, task.getEncodedMatchesPacket());
+
+		match.setSlotTeam((byte) 0, (byte) 3);
+		assertNotSame(readyHost, task.getEncodedMatchesPacket());
+
+		createMatch(createPlayer("otherHost"));
+		assertEquals(2, decode(task.getEncodedMatchesPacket()).getMatches().length);
+	}
+
+	private static ArrayOfMatchInfosPacket decode(EncodedPacket packet) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		packet.writeTo(buffer);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+		assertEquals(ENetworkKey.ARRAY_OF_MATCHES, ENetworkKey.readFrom(in));
+		in.readInt();
+
+		ArrayOfMatchInfosPacket result = new ArrayOfMatchInfosPacket();
+		result.deserialize(in);
+		return result;
+	}
+
+	private Player createPlayer(String id) throws IOException {
+		Channel[] loopbackChannels = TestUtils.setUpLoopbackChannels();
+		channels.add(loopbackChannels[0]);
+		channels.add(loopbackChannels[1]);
+
+		Player player = new Player(new PlayerInfoPacket(id, id, false), NetworkConstants.Features.SUPPORTED, loopbackChannels[1]);
+		db.storePlayer(player);
+		return player;
+	}
+
+	private Match createMatch(Player host) {
+		Match match = new Match("match", 4, new MapInfoPacket("", "", "", "", 4), host, 42L, Runnable::run, 0);
+		db.storeMatch(match);
+		host.joinMatch(match);
+		return match;
+	}
+}
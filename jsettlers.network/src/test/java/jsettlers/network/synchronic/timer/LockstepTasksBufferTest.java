@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.synchronic.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * Test for the class {@link LockstepTasksBuffer}.
+ */
+public class LockstepTasksBufferTest {
+	private final LockstepTasksBuffer buffer = new LockstepTasksBuffer();
+
+	@Test
+	public void testPollInLockstepOrder() {
+		buffer.add(createPacket(3));
+		buffer.add(createPacket(1));
+		buffer.add(createPacket(2));
+
+		assertNull(buffer.poll(0));
+		assertEquals(1, buffer.poll(1).getLockstepNumber());
+		assertNull(buffer.poll(1));
+		assertEquals(2, buffer.poll(5).getLockstepNumber());
+		assertEquals(3, buffer.poll(5).getLockstepNumber());
+		assertNull(buffer.poll(5));
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void testGrowsForPacketsFarAhead() {
+		for (int lockstep = 0; lockstep < 1000; lockstep += 3) {
+			buffer.add(createPacket(lockstep));
+		}
+
+		List<Integer> locksteps = new ArrayList<>();
+		buffer.forEach(packet -> locksteps.add(packet.getLockstepNumber()));
+		assertEquals(334, locksteps.size());
+
+		for (int lockstep = 0; lockstep < 1000; lockstep++) {
+			SyncTasksPacket packet = buffer.poll(lockstep);
+			if (lockstep % 3 == 0) {
+				assertEquals(lockstep, packet.getLockstepNumber());
+			} else {
+				assertNull(packet);
+			}
+		}
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void testWrapsAround() {
+		for (int lockstep = 0; lockstep < 10000; lockstep++) {
+			buffer.add(createPacket(lockstep + 5));
+			assertEquals(lockstep + 5, buffer.poll(lockstep + 5).getLockstepNumber());
+		}
+	}
+
+	@Test
+	public void testLatePacketIsExecutedNext() {
+		buffer.add(createPacket(10));
+		assertEquals(10, buffer.poll(12).getLockstepNumber());
+		assertNull(buffer.poll(12));
+
+		buffer.add(createPacket(11));
+		assertEquals(11, buffer.poll(12).getLockstepNumber());
+	}
+
+	@Test
+	public void testMergesPacketsOfSameLockstep() {
+		buffer.add(createPacket(4, new TestTaskPacket("a", 1, (byte) 1)));
+		buffer.add(createPacket(4, new TestTaskPacket("b", 2, (byte) 2)));
+
+		SyncTasksPacket packet = buffer.poll(4);
+		assertEquals(4, packet.getLockstepNumber());
+		assertEquals(2, packet.getTasks().size());
+		assertEquals(new TestTaskPacket("a", 1, (byte) 1), packet.getTasks().get(0));
+		assertEquals(new TestTaskPacket("b", 2, (byte) 2), packet.getTasks().get(1));
+	}
+
+	private static SyncTasksPacket createPacket(int lockstep, TaskPacket... tasks) {
+		List<TaskPacket> taskList = new ArrayList<>();
+		Collections.addAll(taskList, tasks);
+		return new SyncTasksPacket(lockstep, taskList);
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.synchronic.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.client.task.SyncTasksPacketSchedulerMock;
+import jsettlers.network.client.task.TestTaskPacket;
+import jsettlers.network.client.task.packets.SyncTasksLogReader;
+import jsettlers.network.client.task.packets.SyncTasksPacket;
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * Tests the lockstep handling of the {@link NetworkTimer}.
+ */
+public class NetworkTimerTest {
+	private final NetworkTimer timer = new NetworkTimer();
+	private final TaskExecutorMock taskExecutor = new TaskExecutorMock();
+
+	@After
+	public void tearDown() {
+		timer.stopExecution();
+	}
+
+	@Test
+	public void testCatchesUpAfterWaitingForLocksteps() throws InterruptedException {
+		timer.setTaskExecutor(taskExecutor);
+		timer.startExecution();
+
+		Thread.sleep(600L);
+
+		assertEquals(0, timer.getTime());
+		assertTrue("behind: " + timer.getBehindTimeMs(), timer.getBehindTimeMs() >= 400);
+
+		List<TaskPacket> tasks = new ArrayList<>();
+		tasks.add(new TestTaskPacket("catch up", 3, (byte) 1));
+		timer.scheduleSyncTasksPacket(new SyncTasksPacket(0, new ArrayList<>()));
+		for (int lockstep = 1; lockstep <= 20; lockstep++) {
+			timer.scheduleSyncTasksPacket(new SyncTasksPacket(lockstep, lockstep == 3 ? tasks : new ArrayList<>()));
+		}
+		assertTrue(timer.getAvailableLocksteps() >= 19);
+
+		Thread.sleep(300L);
+
+		assertTrue("behind: " + timer.getBehindTimeMs(), timer.getBehindTimeMs() <= NetworkTimer.TIME_SLICE);
+		assertTrue("time: " + timer.getTime(), timer.getTime() >= 800);
+		assertTrue(timer.getTime() <= 20 * NetworkConstants.Client.LOCKSTEP_PERIOD + NetworkTimer.TIME_SLICE);
+		assertEquals(tasks, taskExecutor.popBufferedPackets());
+	}
+
+	@Test
+	public void testFastForwardsWhenFarBehindServer() throws InterruptedException {
+		timer.setTaskExecutor(taskExecutor);
+		timer.startExecution();
+
+		for (int lockstep = 0; lockstep <= 3000; lockstep++) { // a history of five minutes, as received when rejoining a match
+			timer.scheduleSyncTasksPacket(new SyncTasksPacket(lockstep, new ArrayList<>()));
+		}
+
+		Thread.sleep(500L);
+
+		assertTrue("time: " + timer.getTime(), timer.getTime() >= 2000 * NetworkConstants.Client.LOCKSTEP_PERIOD);
+		assertTrue("available: " + timer.getAvailableLocksteps(), timer.getAvailableLocksteps() <= 1000);
+	}
+
+	@Test
+	public void testReplayLogRoundTrip() throws IOException {
+		ByteArrayOutputStream replay = new ByteArrayOutputStream();
+		timer.setReplayLogStream(new DataOutputStream(replay));
+
+		List<SyncTasksPacket> packets = new ArrayList<>();
+		for (int lockstep = 0; lockstep < 200; lockstep++) {
+			List<TaskPacket> tasks = new ArrayList<>();
+			if (lockstep % 7 == 0) {
+				tasks.add(new TestTaskPacket("replay " + lockstep, lockstep, (byte) 3));
+				packets.add(new SyncTasksPacket(lockstep, tasks));
+			}
+			timer.scheduleSyncTasksPacket(new SyncTasksPacket(lockstep, tasks));
+		}
+
+		NetworkTimer replayTimer = new NetworkTimer(true);
+		replayTimer.loadReplayLogFromStream(new DataInputStream(new ByteArrayInputStream(replay.toByteArray())));
+
+		SyncTasksPacketSchedulerMock remainingTasks = new SyncTasksPacketSchedulerMock();
+		ByteArrayOutputStream remainingTasksLog = new ByteArrayOutputStream();
+		replayTimer.saveRemainingTasks(new DataOutputStream(remainingTasksLog));
+		SyncTasksLogReader.read(new ByteArrayInputStream(remainingTasksLog.toByteArray()), remainingTasks);
+
+		assertEquals(packets, remainingTasks.popBufferedPackets());
+	}
+}
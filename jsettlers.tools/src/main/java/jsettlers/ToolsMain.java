@@ -1,8 +1,10 @@
 package jsettlers;
 
 import jsettlers.buildingcreator.editor.BuildingCreatorApp;
+import jsettlers.graphics.benchmark.RenderingBenchmark;
 import jsettlers.graphics.debug.DatFileViewer;
 import jsettlers.logic.movable.MovableModelWindow;
+import jsettlers.network.loadtest.NetworkLoadGenerator;
 
 import javax.swing.JOptionPane;
 
@@ -19,6 +21,8 @@ public class ToolsMain {
 		DAT_FILE_VIEWER(DatFileViewer::main),
 		MOVABLE_MODEL_WINDOW(MovableModelWindow::main),
 		BUILDING_CREATOR(BuildingCreatorApp::main),
+		NETWORK_LOAD_GENERATOR(NetworkLoadGenerator::main),
+		RENDERING_BENCHMARK(RenderingBenchmark::main),
 		;
 
 
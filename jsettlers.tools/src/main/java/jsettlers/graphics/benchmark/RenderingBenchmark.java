@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.benchmark;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import go.graphics.RecordingDrawContext;
+import go.graphics.sound.ISoundDataRetriever;
+import go.graphics.sound.SoundHandle;
+import go.graphics.sound.SoundPlayer;
+import jsettlers.common.menu.FakeMapGame;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.graphics.map.ETextDrawPosition;
+import jsettlers.graphics.map.MapContent;
+import jsettlers.input.PlayerState;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.EMapStartResources;
+import jsettlers.logic.map.loading.IGameCreator.MainGridWithUiSettings;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.map.loading.list.MapList;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.swing.SwingManagedJSettlers;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+
+/**
+ * Draws a loaded game with {@link MapContent#drawContent} into a {@link RecordingDrawContext}, so the CPU cost of drawing can be measured without
+ * a GPU. The game is not running, only the animations advance. At the end, a report is printed as a single line of JSON with the CPU time, the
+ * draw calls and the allocations per frame for each combination of screen size and zoom.
+ * <p />
+ * Arguments (all optional):
+ * <ul>
+ * <li>{@code --map=name} name of the savegame or map to draw, the newest savegame by default</li>
+ * <li>{@code --sizes=1280x720,1920x1080,3840x2160} screen sizes</li>
+ * <li>{@code --zooms=0.2,0.5,1,2} zoom factors</li>
+ * <li>{@code --frames=100} frames measured for each combination</li>
+ * <li>{@code --warmup=20} frames drawn before the measurement of each combination</li>
+ * <li>{@code --no-multi-draw} draw images one by one like contexts without batching do</li>
+ * <li>{@code --report=file} also write the report to the given file</li>
+ * </ul>
+ * The images are read from the configured Settlers 3 folder.
+ */
+public class RenderingBenchmark {
+	private static final byte PLAYER_ID = 0;
+
+	private final MapContent content;
+	private final RecordingDrawContext gl;
+	private final ShortPoint2D startPoint;
+	private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+	public RenderingBenchmark(MapLoader map, boolean multiDraw) throws MapLoadException {
+		PlayerSetting[] playerSettings = PlayerSetting.createDefaultSettings(PLAYER_ID, (byte) map.getMaxPlayers());
+		MainGridWithUiSettings gridWithUiState = map.loadMainGrid(playerSettings, EMapStartResources.HIGH_GOODS);
+		MainGrid mainGrid = gridWithUiState.getMainGrid();
+		PlayerState playerState = gridWithUiState.getPlayerState(PLAYER_ID);
+		mainGrid.initForPlayer(PLAYER_ID, playerState.getFogOfWar());
+
+		IStartedGame game = new FakeMapGame(mainGrid.getGraphicsGrid(), mainGrid.getPartitionsGrid().getPlayer(PLAYER_ID));
+		content = new MapContent(game, new SilentSoundPlayer(), ETextDrawPosition.DESKTOP);
+		gl = new RecordingDrawContext(multiDraw);
+		startPoint = playerState.getUiState() != null ? playerState.getUiState().getStartPoint() : null;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> arguments = parseArguments(args);
+
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream())); // keep the standard output free for the report
+		String report;
+		try {
+			SwingManagedJSettlers.setupResources(false);
+			MatchConstants.init(new NetworkTimer(true), 0);
+
+			MapLoader map = findMap(arguments.get("map"));
+			RenderingBenchmark benchmark = new RenderingBenchmark(map, !arguments.containsKey("no-multi-draw"));
+
+			int frames = Integer.parseInt(arguments.getOrDefault("frames", "100"));
+			int warmup = Integer.parseInt(arguments.getOrDefault("warmup", "20"));
+			List<String> results = new ArrayList<>();
+			for (String size : arguments.getOrDefault("sizes", "1280x720,1920x1080,3840x2160").split(",")) {
+				String[] dimensions = size.split("x");
+				for (String zoom : arguments.getOrDefault("zooms", "0.2,0.5,1,2").split(",")) {
+					results.add(benchmark.measure(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]), Float.parseFloat(zoom), warmup, frames));
+				}
+			}
+			benchmark.content.stop();
+
+			report = String.format(Locale.ENGLISH, "{\"map\":\"%s\",\"multiDraw\":%b,\"results\":[%s]}", map.getMapName().replace("\"", "\\\""),
+					!arguments.containsKey("no-multi-draw"), String.join(",", results));
+		} finally {
+			System.setOut(out);
+		}
+
+		out.println(report);
+		if (arguments.containsKey("report")) {
+			Files.write(new File(arguments.get("report")).toPath(), (report + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		System.exit(0);
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> arguments = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				arguments.put(arg.substring(2), "");
+			} else {
+				arguments.put(arg.substring(2, separator), arg.substring(separator + 1));
+			}
+		}
+		return arguments;
+	}
+
+	private static MapLoader findMap(String name) {
+		MapLoader map;
+		if (name != null) {
+			map = MapList.getDefaultList().getMapByName(name);
+		} else {
+			List<? extends MapLoader> savegames = MapList.getDefaultList().getSavedMaps().getItems();
+			map = savegames.isEmpty() ? null : savegames.get(0);
+		}
+
+		if (map == null) {
+			throw new IllegalArgumentException(name != null ? "Map not found: " + name : "No savegame found, use --map=name to select a map.");
+		}
+		return map;
+	}
+
+	/**
+	 * Draws frames with the given screen size and zoom.
+	 *
+	 * @return The results as JSON object.
+	 */
+	private String measure(int width, int height, float zoom, int warmup, int frames) {
+		content.setZoom(zoom);
+		for (int i = 0; i < warmup; i++) {
+			drawFrame(width, height);
+			if (i == 0) {
+				content.scrollTo(startPoint, false);
+			}
+		}
+
+		gl.resetCounters();
+		long allocatedBefore = getAllocatedBytes();
+		long cpuBefore = threadBean.getCurrentThreadCpuTime();
+		long start = System.nanoTime();
+		for (int i = 0; i < frames; i++) {
+			drawFrame(width, height);
+		}
+		long wallNs = System.nanoTime() - start;
+		long cpuNs = threadBean.getCurrentThreadCpuTime() - cpuBefore;
+		long allocatedBytes = getAllocatedBytes() - allocatedBefore;
+
+		return String.format(Locale.ENGLISH, "{\"width\":%d,\"height\":%d,\"zoom\":%.2f,\"wallMsPerFrame\":%.3f,\"cpuMsPerFrame\":%.3f,"
+				+ "\"drawCallsPerFrame\":%.1f,\"verticesPerFrame\":%.0f,\"uploadedBytesPerFrame\":%.0f,\"textureUploadsPerFrame\":%.2f,"
+				+ "\"allocatedBytesPerFrame\":%.0f}",
+				width, height, zoom, wallNs / 1e6 / frames, cpuNs / 1e6 / frames, gl.drawCalls / (double) frames, gl.drawnVertices / (double) frames,
+				gl.uploadedBytes / (double) frames, gl.textureUploads / (double) frames, allocatedBytes / (double) frames);
+	}
+
+	private void drawFrame(int width, int height) {
+		gl.startFrame();
+		content.drawContent(gl, width, height);
+		gl.finishFrame();
+	}
+
+	/**
+	 * @return The bytes allocated by this thread so far or 0 if the JVM can't tell.
+	 */
+	private long getAllocatedBytes() {
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Plays nothing, the music thread just waits.
+	 */
+	private static class SilentSoundPlayer implements SoundPlayer {
+		@Override
+		public void playSound(int soundStart, float leftVolume, float rightVolume) {
+		}
+
+		@Override
+		public void setSoundDataRetriever(ISoundDataRetriever soundDataRetriever) {
+		}
+
+		@Override
+		public SoundHandle openSound(File musicFile) {
+			return new SoundHandle() {
+				@Override
+				public void start() {
+				}
+
+				@Override
+				public void pause() {
+				}
+
+				@Override
+				public void stop() {
+				}
+
+				@Override
+				public void dismiss() {
+				}
+
+				@Override
+				public void setVolume(float volume) {
+				}
+
+				@Override
+				public int getPlaybackDuration() {
+					return Integer.MAX_VALUE;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of latencies with a resolution of one millisecond. Latencies above {@link #MAX_LATENCY_MS} are counted in the last bucket.
+ */
+class LatencyHistogram {
+	static final int MAX_LATENCY_MS = 30000;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(MAX_LATENCY_MS + 1);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong maxNs = new AtomicLong();
+
+	void record(long latencyNs) {
+		latencyNs = Math.max(0, latencyNs);
+		int bucket = (int) Math.min(MAX_LATENCY_MS, latencyNs / 1000000L);
+
+		buckets.incrementAndGet(bucket);
+		count.incrementAndGet();
+		maxNs.accumulateAndGet(latencyNs, Math::max);
+	}
+
+	long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @param percentile
+	 *            The percentile in the range of 0 to 100.
+	 * @return The latency in milliseconds that is not exceeded by the given percentage of the measurements or -1 if nothing was recorded.
+	 */
+	int getPercentileMs(double percentile) {
+		long total = count.get();
+		if (total == 0) {
+			return -1;
+		}
+
+		long threshold = (long) Math.ceil(total * percentile / 100);
+		long sum = 0;
+		for (int i = 0; i < buckets.length(); i++) {
+			sum += buckets.get(i);
+			if (sum >= threshold) {
+				return i;
+			}
+		}
+		return MAX_LATENCY_MS;
+	}
+
+	float getMaxMs() {
+		return maxNs.get() / 1000000f;
+	}
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.loadtest;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import jsettlers.network.client.task.packets.TaskPacket;
+
+/**
+ * A synthetic task sent by the clients of the {@link NetworkLoadGenerator}. It carries the time it was scheduled at, so the receivers can
+ * calculate the lockstep delay, and a payload of the size of typical game tasks.
+ */
+public class LoadTestTaskPacket extends TaskPacket {
+	private long scheduleTimeNs;
+	private byte[] payload;
+
+	public LoadTestTaskPacket() {
+	}
+
+	public LoadTestTaskPacket(long scheduleTimeNs, int payloadLength) {
+		this.scheduleTimeNs = scheduleTimeNs;
+		this.payload = new byte[payloadLength];
+	}
+
+	@Override
+	protected void serializeTask(DataOutputStream dos) throws IOException {
+		dos.writeLong(scheduleTimeNs);
+		dos.writeShort(payload.length);
+		dos.write(payload);
+	}
+
+	@Override
+	protected void deserializeTask(DataInputStream dis) throws IOException {
+		scheduleTimeNs = dis.readLong();
+		payload = new byte[dis.readUnsignedShort()];
+		dis.readFully(payload);
+	}
+
+	public long getScheduleTimeNs() {
+		return scheduleTimeNs;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(scheduleTimeNs) + Arrays.hashCode(payload);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		LoadTestTaskPacket other = (LoadTestTaskPacket) obj;
+		return scheduleTimeNs == other.scheduleTimeNs && Arrays.equals(payload, other.payload);
+	}
+}
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.infrastructure.log.LoggerManager;
+import jsettlers.network.server.GameServerThread;
+import jsettlers.network.server.match.Match;
+
+/**
+ * Starts a local {@link GameServerThread} and lets synthetic clients play matches on it. The clients use the {@link jsettlers.network.client.NetworkClient}
+ * and send tasks with a configurable rate. At the end, a report is printed as a single line of JSON, so the capacity of the server can be tracked
+ * between releases.
+ * <p />
+ * Arguments (all optional):
+ * <ul>
+ * <li>{@code --matches=10} number of concurrent matches</li>
+ * <li>{@code --players=4} players per match</li>
+ * <li>{@code --duration=60} duration of the measurement in seconds</li>
+ * <li>{@code --apm=60} tasks sent by each player per minute</li>
+ * <li>{@code --delayed} send the data of the clients through the {@link jsettlers.network.infrastructure.channel.socket.delayed.DelayedSocketFactory}
+ * to simulate latency</li>
+ * <li>{@code --nio} serve the clients with the NIO transport of the server</li>
+ * <li>{@code --report=file} also write the report to the given file</li>
+ * </ul>
+ * Note that the server is started on the default server port, so no other server may run on this machine.
+ */
+public class NetworkLoadGenerator {
+	private static final long TASK_SENDING_PERIOD_MS = 100;
+	private static final long LEAD_STEPS_SAMPLING_PERIOD_MS = 1000;
+	private static final long START_TIMEOUT_MS = 20000;
+
+	private final int numberOfMatches;
+	private final int playersPerMatch;
+	private final int durationS;
+	private final int actionsPerMinute;
+	private final boolean delayedSockets;
+	private final boolean useNio;
+
+	private final LatencyHistogram lockstepDelays = new LatencyHistogram();
+	private final List<SyntheticClient> clients = new ArrayList<>();
+	private final List<String> matchIds = new ArrayList<>();
+	private final List<Integer> leadStepSamples = new ArrayList<>();
+	private final Random random = new Random(0);
+
+	public NetworkLoadGenerator(int numberOfMatches, int playersPerMatch, int durationS, int actionsPerMinute, boolean delayedSockets,
+			boolean useNio) {
+		this.numberOfMatches = numberOfMatches;
+		this.playersPerMatch = playersPerMatch;
+		this.durationS = durationS;
+		this.actionsPerMinute = actionsPerMinute;
+		this.delayedSockets = delayedSockets;
+		this.useNio = useNio;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> arguments = parseArguments(args);
+
+		NetworkLoadGenerator generator = new NetworkLoadGenerator(
+				Integer.parseInt(arguments.getOrDefault("matches", "10")),
+				Integer.parseInt(arguments.getOrDefault("players", "4")),
+				Integer.parseInt(arguments.getOrDefault("duration", "60")),
+				Integer.parseInt(arguments.getOrDefault("apm", "60")),
+				arguments.containsKey("delayed"),
+				arguments.containsKey("nio"));
+
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream())); // keep the standard output free for the report
+		String report;
+		try {
+			report = generator.run();
+		} finally {
+			System.setOut(out);
+		}
+
+		out.println(report);
+		if (arguments.containsKey("report")) {
+			Files.write(new File(arguments.get("report")).toPath(), (report + "\n").getBytes(StandardCharsets.UTF_8));
+		}
+		System.exit(0);
+	}
+
+	private static Map<String, String> parseArguments(String[] args) {
+		Map<String, String> arguments = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				arguments.put(arg.substring(2), "");
+			} else {
+				arguments.put(arg.substring(2, separator), arg.substring(separator + 1));
+			}
+		}
+		return arguments;
+	}
+
+	/**
+	 * Runs the load test.
+	 * 
+	 * @return The report as JSON.
+	 */
+	public String run() throws IOException, InterruptedException {
+		GameServerThread server = new GameServerThread(false, LoggerManager.ROOT_LOGGER, useNio);
+		server.start();
+
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "NetworkLoadGenerator");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			for (int i = 0; i < numberOfMatches; i++) {
+				startMatch(i);
+			}
+
+			ResourceUsage usageBefore = new ResourceUsage();
+			long start = System.nanoTime();
+
+			executor.scheduleAtFixedRate(this::sendTasks, 0, TASK_SENDING_PERIOD_MS, TimeUnit.MILLISECONDS);
+			executor.scheduleAtFixedRate(() -> sampleLeadSteps(server), LEAD_STEPS_SAMPLING_PERIOD_MS, LEAD_STEPS_SAMPLING_PERIOD_MS,
+					TimeUnit.MILLISECONDS);
+
+			Thread.sleep(TimeUnit.SECONDS.toMillis(durationS));
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.SECONDS);
+
+			ResourceUsage usageAfter = new ResourceUsage();
+			return createReport(usageBefore, usageAfter, System.nanoTime() - start);
+		} finally {
+			executor.shutdownNow();
+			for (SyntheticClient client : clients) {
+				client.close();
+			}
+			server.shutdown();
+		}
+	}
+
+	private void startMatch(int matchIndex) throws IOException, InterruptedException {
+		List<SyntheticClient> matchClients = new ArrayList<>();
+		for (int i = 0; i < playersPerMatch; i++) {
+			SyntheticClient client = new SyntheticClient("load-" + matchIndex + "-" + i, "localhost", delayedSockets, lockstepDelays);
+			clients.add(client);
+			matchClients.add(client);
+			client.logIn();
+		}
+
+		SyntheticClient host = matchClients.get(0);
+		String matchId = host.openMatch(playersPerMatch);
+		for (SyntheticClient client : matchClients.subList(1, matchClients.size())) {
+			client.joinMatch(matchId);
+		}
+		for (SyntheticClient client : matchClients) {
+			client.setReady();
+		}
+
+		long timeout = System.currentTimeMillis() + START_TIMEOUT_MS;
+		while (!matchClients.stream().allMatch(SyntheticClient::isRunning)) {
+			if (System.currentTimeMillis() > timeout) {
+				throw new IllegalStateException("Match " + matchIndex + " could not be started.");
+			}
+
+			host.startMatch(); // the server rejects the start until all ready states have been received
+			Thread.sleep(100L);
+		}
+		matchIds.add(matchId);
+	}
+
+	private void sendTasks() {
+		double tasksPerPeriod = actionsPerMinute * TASK_SENDING_PERIOD_MS / 60000.0;
+
+		for (SyntheticClient client : clients) {
+			int tasks = (int) tasksPerPeriod + (random.nextDouble() < tasksPerPeriod % 1 ? 1 : 0);
+			for (int i = 0; i < tasks; i++) {
+				client.sendTask();
+			}
+		}
+	}
+
+	private void sampleLeadSteps(GameServerThread server) {
+		for (String matchId : matchIds) {
+			Match match = server.getDatabase().getMatchById(matchId);
+			int leadSteps = match != null ? match.getLockstepLeadSteps() : -1;
+			if (leadSteps >= 0) {
+				synchronized (leadStepSamples) {
+					leadStepSamples.add(leadSteps);
+				}
+			}
+		}
+	}
+
+	private String createReport(ResourceUsage before, ResourceUsage after, long durationNs) {
+		double durationMs = durationNs / 1e6;
+
+		int minLeadSteps = Integer.MAX_VALUE;
+		int maxLeadSteps = -1;
+		long sumLeadSteps = 0;
+		synchronized (leadStepSamples) {
+			for (int leadSteps : leadStepSamples) {
+				minLeadSteps = Math.min(minLeadSteps, leadSteps);
+				maxLeadSteps = Math.max(maxLeadSteps, leadSteps);
+				sumLeadSteps += leadSteps;
+			}
+		}
+		int samples = leadStepSamples.size();
+
+		long sumRtt = 0;
+		for (SyntheticClient client : clients) {
+			sumRtt += Math.max(0, client.getRoundTripTimeMs());
+		}
+
+		return String.format(Locale.ENGLISH, "{\"matches\":%d,\"playersPerMatch\":%d,\"durationS\":%d,\"actionsPerMinute\":%d,"
+				+ "\"delayedSockets\":%b,\"nio\":%b,\"lockstepPeriodMs\":%d,\"executedTasks\":%d,"
+				+ "\"lockstepDelayMs\":{\"p50\":%d,\"p99\":%d,\"max\":%.1f},"
+				+ "\"leadSteps\":{\"min\":%d,\"mean\":%.2f,\"max\":%d},\"averageRttMs\":%d,"
+				+ "\"serverCpuPercent\":%.1f,\"serverAllocationMBPerS\":%.2f,\"processCpuPercent\":%.1f,\"gcCount\":%d,\"gcTimeMs\":%d}",
+				numberOfMatches, playersPerMatch, durationS, actionsPerMinute, delayedSockets, useNio, NetworkConstants.Client.LOCKSTEP_PERIOD,
+				lockstepDelays.getCount(), lockstepDelays.getPercentileMs(50), lockstepDelays.getPercentileMs(99), lockstepDelays.getMaxMs(),
+				samples > 0 ? minLeadSteps : -1, samples > 0 ? (double) sumLeadSteps / samples : -1, maxLeadSteps,
+				clients.isEmpty() ? -1 : sumRtt / clients.size(),
+				(after.serverCpuNs - before.serverCpuNs) / 1e6 / durationMs * 100,
+				(after.serverAllocatedBytes - before.serverAllocatedBytes) / 1e6 / (durationMs / 1000),
+				(after.processCpuNs - before.processCpuNs) / 1e6 / durationMs * 100,
+				after.gcCount - before.gcCount, after.gcTimeMs - before.gcTimeMs);
+	}
+
+	/**
+	 * Thread names of the server. The server's channel threads are identified by the local port of their socket.
+	 */
+	private static boolean isServerThread(String threadName) {
+		return threadName.equals("GameServer")
+				|| threadName.equals("SendMatchesListTimer")
+				|| threadName.startsWith("LockstepScheduler-")
+				|| threadName.startsWith("ChannelSelector_")
+				|| threadName.startsWith("ChannelForSocket_") && threadName.contains("localport=" + NetworkConstants.Server.SERVER_PORT);
+	}
+
+	/**
+	 * A snapshot of the CPU time and allocations of the server threads and the whole process.
+	 */
+	private static class ResourceUsage {
+		private long serverCpuNs;
+		private long serverAllocatedBytes;
+		private long processCpuNs;
+		private long gcCount;
+		private long gcTimeMs;
+
+		ResourceUsage() {
+			ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+			com.sun.management.ThreadMXBean extendedThreadBean = threadBean instanceof com.sun.management.ThreadMXBean
+					? (com.sun.management.ThreadMXBean) threadBean
+					: null;
+
+			for (ThreadInfo thread : threadBean.getThreadInfo(threadBean.getAllThreadIds())) {
+				if (thread != null && isServerThread(thread.getThreadName())) {
+					serverCpuNs += Math.max(0, threadBean.getThreadCpuTime(thread.getThreadId()));
+					if (extendedThreadBean != null) {
+						serverAllocatedBytes += Math.max(0, extendedThreadBean.getThreadAllocatedBytes(thread.getThreadId()));
+					}
+				}
+			}
+
+			if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean) {
+				processCpuNs = ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+			}
+
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				gcCount += Math.max(0, gc.getCollectionCount());
+				gcTimeMs += Math.max(0, gc.getCollectionTime());
+			}
+		}
+	}
+}
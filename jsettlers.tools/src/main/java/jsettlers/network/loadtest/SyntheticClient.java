@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2020
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.network.loadtest;
+
+import java.io.IOException;
+import java.util.Random;
+
+import jsettlers.network.NetworkConstants;
+import jsettlers.network.client.NetworkClient;
+import jsettlers.network.client.task.packets.TaskPacket;
+import jsettlers.network.common.packets.MapInfoPacket;
+import jsettlers.network.infrastructure.channel.AsyncChannel;
+import jsettlers.network.infrastructure.channel.socket.ISocketFactory;
+import jsettlers.network.infrastructure.channel.socket.delayed.DelayedSocketFactory;
+import jsettlers.network.infrastructure.channel.socket.standard.JavaSocketFactory;
+import jsettlers.network.server.match.EPlayerState;
+import jsettlers.network.synchronic.timer.ITaskExecutor;
+
+/**
+ * A player of the {@link NetworkLoadGenerator}. It uses a {@link NetworkClient} like the game does, sends {@link LoadTestTaskPacket}s and records
+ * the lockstep delay of all tasks it executes.
+ */
+class SyntheticClient implements ITaskExecutor {
+	private static final int STATE_TIMEOUT_MS = 20000;
+	private static final MapInfoPacket MAP_INFO = new MapInfoPacket("loadtest-map", "Load Test", "loadtest", "loadtest", 8);
+
+	private final String id;
+	private final NetworkClient client;
+	private final LatencyHistogram lockstepDelays;
+	private final Random random;
+
+	SyntheticClient(String id, String host, boolean delayedSockets, LatencyHistogram lockstepDelays) throws IOException {
+		this.id = id;
+		this.lockstepDelays = lockstepDelays;
+		this.random = new Random(id.hashCode());
+
+		ISocketFactory socketFactory = delayedSockets ? new DelayedSocketFactory() : new JavaSocketFactory();
+		this.client = new NetworkClient(new AsyncChannel(socketFactory.generateSocket(host, NetworkConstants.Server.SERVER_PORT)), null);
+	}
+
+	void logIn() throws InterruptedException {
+		client.logIn(id, id, null);
+		waitForState(EPlayerState.LOGGED_IN);
+	}
+
+	String openMatch(int players) throws InterruptedException {
+		client.openNewMatch("match-" + id, players, MAP_INFO, random.nextLong(), packet -> matchStarted(), null, null);
+		waitForState(EPlayerState.IN_MATCH);
+		return client.getMatchInfo().getId();
+	}
+
+	void joinMatch(String matchId) throws InterruptedException {
+		client.joinMatch(matchId, packet -> matchStarted(), null, null);
+		waitForState(EPlayerState.IN_MATCH);
+	}
+
+	void setReady() {
+		client.setReadyState(true);
+	}
+
+	void startMatch() {
+		client.startMatch();
+	}
+
+	boolean isRunning() {
+		return client.getState() == EPlayerState.IN_RUNNING_MATCH;
+	}
+
+	private void matchStarted() {
+		client.getGameClock().setTaskExecutor(this);
+		client.getGameClock().startExecution();
+		client.setStartFinished(true);
+	}
+
+	/**
+	 * Sends a task of a size typical for the tasks of the game.
+	 */
+	void sendTask() {
+		client.scheduleTask(new LoadTestTaskPacket(System.nanoTime(), 16 + random.nextInt(48)));
+	}
+
+	@Override
+	public void executeTask(TaskPacket task) {
+		if (task instanceof LoadTestTaskPacket) {
+			lockstepDelays.record(System.nanoTime() - ((LoadTestTaskPacket) task).getScheduleTimeNs());
+		}
+	}
+
+	int getRoundTripTimeMs() {
+		return client.getRoundTripTimeInMs();
+	}
+
+	void close() {
+		client.close();
+	}
+
+	private void waitForState(EPlayerState state) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + STATE_TIMEOUT_MS;
+		while (client.getState() != state) {
+			if (System.currentTimeMillis() > timeout) {
+				throw new IllegalStateException("Client " + id + " did not reach state " + state + " but is in state " + client.getState());
+			}
+			Thread.sleep(5L);
+		}
+	}
+}